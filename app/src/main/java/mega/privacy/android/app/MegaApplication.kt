@@ -55,8 +55,9 @@ import mega.privacy.android.domain.entity.settings.cookie.CookieType
 import mega.privacy.android.domain.qualifier.ApplicationScope
 import mega.privacy.android.domain.usecase.apiserver.UpdateApiServerUseCase
 import mega.privacy.android.domain.usecase.monitoring.EnablePerformanceReporterUseCase
-import mega.privacy.android.domain.usecase.thumbnailpreview.GetPublicNodeThumbnailUseCase
-import mega.privacy.android.domain.usecase.thumbnailpreview.GetThumbnailUseCase
+import mega.privacy.android.domain.usecase.thumbnailpreview.GetPreviewFromLocalUseCase
+import mega.privacy.android.domain.usecase.thumbnailpreview.GetThumbnailFromLocalUseCase
+import mega.privacy.android.domain.usecase.thumbnailpreview.GetThumbnailFromServerUseCase
 import nz.mega.sdk.MegaApiAndroid
 import nz.mega.sdk.MegaChatApiAndroid
 import nz.mega.sdk.MegaChatApiJava
@@ -177,10 +178,13 @@ class MegaApplication : MultiDexApplication(), DefaultLifecycleObserver,
     lateinit var greeter: Provider<Greeter>
 
     @Inject
-    lateinit var getThumbnailUseCase: dagger.Lazy<GetThumbnailUseCase>
+    lateinit var getThumbnailFromLocalUseCase: dagger.Lazy<GetThumbnailFromLocalUseCase>
 
     @Inject
-    lateinit var getPublicNodeThumbnailUseCase: dagger.Lazy<GetPublicNodeThumbnailUseCase>
+    lateinit var getPreviewFromLocalUseCase: dagger.Lazy<GetPreviewFromLocalUseCase>
+
+    @Inject
+    lateinit var getThumbnailFromServerUseCase: dagger.Lazy<GetThumbnailFromServerUseCase>
 
     @Inject
     lateinit var updateApiServerUseCase: UpdateApiServerUseCase
@@ -261,8 +265,9 @@ class MegaApplication : MultiDexApplication(), DefaultLifecycleObserver,
                 add(SvgDecoder.Factory())
                 add(
                     MegaThumbnailFetcher.Factory(
-                        getThumbnailUseCase = getThumbnailUseCase,
-                        getPublicNodeThumbnailUseCase = getPublicNodeThumbnailUseCase
+                        getThumbnailFromLocalUseCase = getThumbnailFromLocalUseCase,
+                        getPreviewFromLocalUseCase = getPreviewFromLocalUseCase,
+                        getThumbnailFromServerUseCase = getThumbnailFromServerUseCase,
                     )
                 )
                 add(MegaThumbnailKeyer)
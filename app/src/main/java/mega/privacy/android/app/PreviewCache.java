@@ -1,74 +1,41 @@
 package mega.privacy.android.app;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import android.graphics.Bitmap;
-import androidx.collection.LruCache;
+
+import mega.privacy.android.app.utils.cache.BitmapMemoryCache;
 
 /*
- * LRU thumbnails cache to display in list
+ * Previews cache to display in list, kept in the BitmapMemoryCache shared by the whole app
  */
 public class PreviewCache {
 	
-	List<Long>nulls;
-	LruPreviewCache cache;
-	
-	public PreviewCache() {
-		cache = new LruPreviewCache(50);
-		nulls = new ArrayList<Long>();
-	}
+	private final BitmapMemoryCache cache = BitmapMemoryCache.getInstance();
 	
 	/*
 	 * Put new item into cache
 	 */
 	public void put(Long key, Bitmap value) {
-		if (value == null) {
-			nulls.add(key);
-		} else {
-			cache.put(key, value);
-		}
+		cache.put(BitmapMemoryCache.Type.Preview, key, value);
 	}
 	
 	/*
 	 * Remove item from the cache
 	 */
 	public void remove(Long key) {
-		nulls.remove(key);
-		cache.remove(key);
+		cache.remove(BitmapMemoryCache.Type.Preview, key);
 	}
 	
 	/*
 	 * Get item from the cache
 	 */
 	public Bitmap get(Long key) {
-		return cache.get(key);
+		return cache.get(BitmapMemoryCache.Type.Preview, key);
 	}
 	
 	/*
 	 * Check is cache contains key
 	 */
 	public boolean containsKey(Long key) {
-		if (cache.get(key) != null) {
-			return true;
-		}
-		if (nulls.contains(key)) {
-			return true;
-		}
-		return false;
-	}
-	
-	private static class LruPreviewCache extends LruCache<Long, Bitmap> {
-
-		public LruPreviewCache(int maxSize) {
-			super(maxSize);
-		}
-	
-		protected void entryRemoved (boolean evicted, String key, Bitmap oldValue, Bitmap newValue)
-		{
-			try {
-				oldValue.recycle();
-			}catch(Exception e) {}
-		}
+		return cache.contains(BitmapMemoryCache.Type.Preview, key);
 	}
 }
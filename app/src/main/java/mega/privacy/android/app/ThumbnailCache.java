@@ -1,119 +1,67 @@
 package mega.privacy.android.app;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import android.graphics.Bitmap;
-import androidx.collection.LruCache;
+
+import mega.privacy.android.app.utils.cache.BitmapMemoryCache;
 
 /*
- * LRU thumbnails cache to display in list
+ * Thumbnails cache to display in list, kept in the BitmapMemoryCache shared by the whole app
  */
 public class ThumbnailCache {
 	
-	List<Long>nulls;
-	LruThumbnailCache cache;
-	LruThumbnailCachePath cachePath;
+	private final BitmapMemoryCache cache = BitmapMemoryCache.getInstance();
 	
 	public ThumbnailCache() {
-		cache = new LruThumbnailCache(70);
-		cachePath = new LruThumbnailCachePath(70);
-		nulls = new ArrayList<Long>();
 	}
 	
-	public ThumbnailCache(int value){
-		if (value == 0){
-			cache = new LruThumbnailCache(70);
-			nulls = new ArrayList<Long>();
-		}
-		else{
-			cachePath = new LruThumbnailCachePath(70);
-		}
+	/*
+	 * The value used to choose between the handle and the path keys is not needed anymore,
+	 * both kinds of keys are always available
+	 */
+	public ThumbnailCache(int value) {
 	}
 	
 	/*
 	 * Put new item into cache
 	 */
 	public void put(Long key, Bitmap value) {
-		if (value == null) {
-			nulls.add(key);
-		} else {
-			cache.put(key, value);
-		}
+		cache.put(BitmapMemoryCache.Type.Thumbnail, key, value);
 	}
 	
-	public void put(String key, Bitmap value){
-		cachePath.put(key, value);
+	public void put(String key, Bitmap value) {
+		cache.put(BitmapMemoryCache.Type.Thumbnail, key, value);
 	}
 	
 	/*
 	 * Remove item from the cache
 	 */
 	public void remove(Long key) {
-		nulls.remove(key);
-		cache.remove(key);
+		cache.remove(BitmapMemoryCache.Type.Thumbnail, key);
 	}
 	
-	public void remove(String key){
-		cachePath.remove(key);
+	public void remove(String key) {
+		cache.remove(BitmapMemoryCache.Type.Thumbnail, key);
 	}
 	
 	/*
 	 * Get item from the cache
 	 */
 	public Bitmap get(Long key) {
-		return cache.get(key);
+		return cache.get(BitmapMemoryCache.Type.Thumbnail, key);
 	}
 	
-	public Bitmap get(String key){
-		return cachePath.get(key);
+	public Bitmap get(String key) {
+		return cache.get(BitmapMemoryCache.Type.Thumbnail, key);
 	}
 	
 	/*
 	 * Check is cache contains key
 	 */
 	public boolean containsKey(Long key) {
-		if (cache.get(key) != null) {
-			return true;
-		}
-		if (nulls.contains(key)) {
-			return true;
-		}
-		return false;
-	}
-	
-	public boolean containsKey(String key){
-		if (cachePath.get(key) != null){
-			return true;
-		}
-		return false;
+		return cache.contains(BitmapMemoryCache.Type.Thumbnail, key);
 	}
 	
-	private static class LruThumbnailCache extends LruCache<Long, Bitmap> {
-
-		public LruThumbnailCache(int maxSize) {
-			super(maxSize);
-		}
-	
-		protected void entryRemoved (boolean evicted, String key, Bitmap oldValue, Bitmap newValue)
-		{
-			try {
-				oldValue.recycle();
-			}catch(Exception e) {}
-		}
-	}
-	
-	private static class LruThumbnailCachePath extends LruCache<String, Bitmap> {
-
-		public LruThumbnailCachePath(int maxSize) {
-			super(maxSize);
-		}
-	
-		protected void entryRemoved (boolean evicted, String key, Bitmap oldValue, Bitmap newValue)
-		{
-			try {
-				oldValue.recycle();
-			}catch(Exception e) {}
-		}
+	public boolean containsKey(String key) {
+		return cache.contains(BitmapMemoryCache.Type.Thumbnail, key);
 	}
 }
@@ -0,0 +1,105 @@
+package mega.privacy.android.app.cameraupload
+
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.onEach
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Timing metrics of the stages the Camera Uploads records go through before being uploaded
+ *
+ * For each stage, it counts the records that left the stage, and when the first and the last
+ * of them left it, relative to the creation of this object
+ *
+ * @property nanoTime provides the current time in nanoseconds
+ */
+internal class CameraUploadsStageMetrics(
+    private val nanoTime: () -> Long = System::nanoTime,
+) {
+
+    /**
+     * Stages of the Camera Uploads records pipeline
+     */
+    enum class Stage {
+        /**
+         * The record has been renamed
+         */
+        Rename,
+
+        /**
+         * The existence of the record in the cloud has been checked
+         */
+        CheckExistence,
+
+        /**
+         * The gps coordinates of the record have been extracted
+         */
+        ExtractGpsCoordinates,
+
+        /**
+         * The record has been handed over to the upload process
+         */
+        Upload,
+    }
+
+    private class StageMetrics {
+        val count = AtomicInteger(0)
+        val firstElapsedNanos = AtomicLong(-1L)
+        val lastElapsedNanos = AtomicLong(-1L)
+    }
+
+    private val startNanos = nanoTime()
+    private val stages = ConcurrentHashMap<Stage, StageMetrics>()
+
+    /**
+     * Record that a record left the given stage
+     *
+     * @param stage
+     */
+    fun record(stage: Stage) {
+        val elapsed = nanoTime() - startNanos
+        with(stages.getOrPut(stage) { StageMetrics() }) {
+            count.incrementAndGet()
+            firstElapsedNanos.compareAndSet(-1L, elapsed)
+            lastElapsedNanos.set(elapsed)
+        }
+    }
+
+    /**
+     * Number of records that left the given stage
+     *
+     * @param stage
+     */
+    fun getCount(stage: Stage): Int = stages[stage]?.count?.get() ?: 0
+
+    /**
+     * Time in milliseconds until the first record left the given stage, null if none did
+     *
+     * @param stage
+     */
+    fun getTimeToFirstMillis(stage: Stage): Long? =
+        stages[stage]?.firstElapsedNanos?.get()?.takeIf { it >= 0 }
+            ?.let { TimeUnit.NANOSECONDS.toMillis(it) }
+
+    /**
+     * Time in milliseconds until the last record left the given stage, null if none did
+     *
+     * @param stage
+     */
+    fun getTimeToLastMillis(stage: Stage): Long? =
+        stages[stage]?.lastElapsedNanos?.get()?.takeIf { it >= 0 }
+            ?.let { TimeUnit.NANOSECONDS.toMillis(it) }
+
+    /**
+     * Record every element of the flow as leaving the given stage
+     *
+     * @param stage
+     */
+    fun <T> Flow<T>.measure(stage: Stage): Flow<T> = onEach { record(stage) }
+
+    override fun toString() = Stage.values().joinToString(prefix = "CU stage metrics: ") {
+        "$it[count=${getCount(it)}, first=${getTimeToFirstMillis(it)}ms, last=${getTimeToLastMillis(it)}ms]"
+    }
+}
@@ -18,12 +18,15 @@ import kotlinx.coroutines.delay
 import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asFlow
 import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.flow.buffer
 import kotlinx.coroutines.flow.catch
 import kotlinx.coroutines.flow.collect
 import kotlinx.coroutines.flow.firstOrNull
 import kotlinx.coroutines.flow.flow
 import kotlinx.coroutines.flow.flowOn
+import kotlinx.coroutines.flow.onCompletion
 import kotlinx.coroutines.flow.retryWhen
 import kotlinx.coroutines.flow.update
 import kotlinx.coroutines.joinAll
@@ -260,6 +263,7 @@ class CameraUploadsWorker @AssistedInject constructor(
         private const val LOW_BATTERY_LEVEL = 20
         private const val ON_TRANSFER_UPDATE_REFRESH_MILLIS = 1000
         private const val CONCURRENT_UPLOADS_LIMIT = 16
+        private const val PREPARED_RECORDS_BUFFER_SIZE = 32
 
         private const val APP_DATA_CU = "CU_UPLOAD"
         private const val INVALID_NON_NULL_VALUE = "-1"
@@ -312,6 +316,11 @@ class CameraUploadsWorker @AssistedInject constructor(
      */
     private var totalVideoSize = 0L
 
+    /**
+     * Timing metrics of the stages preparing the records of the current upload
+     */
+    private var stageMetrics: CameraUploadsStageMetrics? = null
+
     /**
      * Reference to the CoroutineWorker coroutine scope
      */
@@ -724,7 +733,9 @@ class CameraUploadsWorker @AssistedInject constructor(
     private suspend fun scanFiles() {
         Timber.d("Get Pending Files from Media Store")
         showCheckUploadStatus()
-        processCameraUploadsMediaUseCase(tempRoot = tempRoot)
+        processCameraUploadsMediaUseCase(tempRoot = tempRoot).forEach {
+            Timber.e(it.cause, "Unable to process the media ${it.media.mediaId}, retrying on next scan")
+        }
     }
 
     /**
@@ -732,63 +743,67 @@ class CameraUploadsWorker @AssistedInject constructor(
      * - Retrieve the pending camera uploads records from the database
      * - Filter the camera uploads based on video compression size condition
      * - Rename the camera uploads records
+     * - Retrieve the existence of the records in the target node
+     * - Extract the gps coordinates of the records
+     *
+     * The records are streamed through the stages, so the first records can be uploaded
+     * before the whole list has been prepared
      *
      * @param primaryUploadNodeId the primary target [NodeId]
      * @param secondaryUploadNodeId the secondary target [NodeId]
-     * @return the list of pending [CameraUploadsRecord] to upload
+     * @return the flow of pending [CameraUploadsRecord] to upload
      */
     //@Karma
     private suspend fun getAndPrepareRecords(
         primaryUploadNodeId: NodeId,
         secondaryUploadNodeId: NodeId,
-    ): List<CameraUploadsRecord> {
+    ): Flow<CameraUploadsRecord> {
         Timber.d("Get Pending Files from Database")
-        return getPendingCameraUploadsRecords()
-            .let { pendingRecords ->
-                Timber.d("Check compression requirements")
-                filterCameraUploadsRecords(pendingRecords)
-            }
-            .let { filteredRecords ->
-                Timber.d("Renaming ${filteredRecords.size} files")
-                renameCameraUploadsRecords(
-                    filteredRecords,
-                    primaryUploadNodeId,
-                    secondaryUploadNodeId,
-                )
-            }
-            .let { renamedRecords ->
-                Timber.d("Retrieve existence in target node for ${renamedRecords.size} files")
-                getExistenceInTargetNode(
-                    renamedRecords,
-                    primaryUploadNodeId,
-                    secondaryUploadNodeId
-                )
-            }
-            .let { renamedRecordsWithExistenceInTargetNode ->
-                Timber.d("Retrieve gps coordinates for ${renamedRecordsWithExistenceInTargetNode.size} files")
-                getGpsCoordinates(renamedRecordsWithExistenceInTargetNode)
-            }
+        val pendingRecords = getPendingCameraUploadsRecords()
+        Timber.d("Check compression requirements")
+        val filteredRecords = filterCameraUploadsRecords(pendingRecords)
+        Timber.d("Preparing ${filteredRecords.size} files")
+
+        return with(CameraUploadsStageMetrics().also { stageMetrics = it }) {
+            renameCameraUploadsRecords(
+                filteredRecords.asFlow(),
+                primaryUploadNodeId,
+                secondaryUploadNodeId,
+            ).measure(CameraUploadsStageMetrics.Stage.Rename)
+                .let { renamedRecords ->
+                    getExistenceInTargetNode(
+                        renamedRecords,
+                        primaryUploadNodeId,
+                        secondaryUploadNodeId,
+                    )
+                }.measure(CameraUploadsStageMetrics.Stage.CheckExistence)
+                .let { renamedRecordsWithExistenceInTargetNode ->
+                    getGpsCoordinates(renamedRecordsWithExistenceInTargetNode)
+                }.measure(CameraUploadsStageMetrics.Stage.ExtractGpsCoordinates)
+                .buffer(PREPARED_RECORDS_BUFFER_SIZE)
+        }
     }
 
     /**
      * Upload the [CameraUploadsRecord]
      * The upload function will trigger a flow that is collected to handle the progress update
      *
-     * @param records the list of [CameraUploadsRecord] to upload
+     * @param records the flow of [CameraUploadsRecord] to upload
      * @param primaryUploadNodeId the primary target [NodeId]
      * @param secondaryUploadNodeId the secondary target [NodeId]
      * @param tempRoot the root path of the temporary files
      */
     //@Karma
     private suspend fun uploadFiles(
-        records: List<CameraUploadsRecord>,
+        records: Flow<CameraUploadsRecord>,
         primaryUploadNodeId: NodeId,
         secondaryUploadNodeId: NodeId,
         tempRoot: String
     ) = coroutineScope {
         startHeartbeat()
         uploadCameraUploadsRecords(
-            records,
+            stageMetrics?.run { records.measure(CameraUploadsStageMetrics.Stage.Upload) }
+                ?: records,
             primaryUploadNodeId,
             secondaryUploadNodeId,
             tempRoot
@@ -797,6 +812,7 @@ class CameraUploadsWorker @AssistedInject constructor(
                 Timber.e(throwable)
                 abortWork(throwable.message ?: "Error caught when uploading")
             }
+            .onCompletion { stageMetrics?.let { Timber.d(it.toString()) } }
             .collect { progressEvent ->
                 launch(ioDispatcher) {
                     processProgressEvent(progressEvent)
@@ -836,13 +852,13 @@ class CameraUploadsWorker @AssistedInject constructor(
     /**
      * Rename the camera uploads records
      *
-     * @return a list of [CameraUploadsRecord]
+     * @return a flow of [CameraUploadsRecord]
      */
-    private suspend fun renameCameraUploadsRecords(
-        records: List<CameraUploadsRecord>,
+    private fun renameCameraUploadsRecords(
+        records: Flow<CameraUploadsRecord>,
         primaryUploadNodeId: NodeId,
         secondaryUploadNodeId: NodeId,
-    ): List<CameraUploadsRecord> =
+    ): Flow<CameraUploadsRecord> =
         renameCameraUploadsRecordsUseCase(
             records,
             primaryUploadNodeId,
@@ -853,10 +869,10 @@ class CameraUploadsWorker @AssistedInject constructor(
      * Get the existence of a node corresponding to the [CameraUploadsRecord] in the
      * target node or other node
      *
-     * @return a list of [CameraUploadsRecord]
+     * @return a flow of [CameraUploadsRecord]
      */
-    private suspend fun getExistenceInTargetNode(
-        records: List<CameraUploadsRecord>,
+    private fun getExistenceInTargetNode(
+        records: Flow<CameraUploadsRecord>,
         primaryUploadNodeId: NodeId,
         secondaryUploadNodeId: NodeId,
     ) = doesCameraUploadsRecordExistsInTargetNodeUseCase(
@@ -868,27 +884,27 @@ class CameraUploadsWorker @AssistedInject constructor(
     /**
      * Extract the gps coordinates and set in the respective [CameraUploadsRecord]
      *
-     * @return a list of [CameraUploadsRecord]
+     * @return a flow of [CameraUploadsRecord]
      */
-    private suspend fun getGpsCoordinates(records: List<CameraUploadsRecord>): List<CameraUploadsRecord> =
+    private fun getGpsCoordinates(records: Flow<CameraUploadsRecord>): Flow<CameraUploadsRecord> =
         extractGpsCoordinatesUseCase(records)
 
     /**
      * Upload the camera uploads records
      *
-     * @param records the list of [CameraUploadsRecord] to upload
+     * @param records the flow of [CameraUploadsRecord] to upload
      * @param primaryUploadNodeId the primary target [NodeId]
      * @param secondaryUploadNodeId the secondary target [NodeId]
      * @param tempRoot the root path of the temporary files
      * @return a flow of [CameraUploadsTransferProgress]
      */
     private fun uploadCameraUploadsRecords(
-        records: List<CameraUploadsRecord>,
+        records: Flow<CameraUploadsRecord>,
         primaryUploadNodeId: NodeId,
         secondaryUploadNodeId: NodeId,
         tempRoot: String,
     ): Flow<CameraUploadsTransferProgress> {
-        Timber.d("Start uploading ${records.size} files")
+        Timber.d("Start uploading files")
         return uploadCameraUploadsRecordsUseCase(
             records,
             primaryUploadNodeId,
@@ -6,6 +6,7 @@ import dagger.Provides
 import dagger.hilt.InstallIn
 import dagger.hilt.android.qualifiers.ApplicationContext
 import dagger.hilt.components.SingletonComponent
+import mega.privacy.android.app.mediaplayer.facade.MediaPlayerCache
 import mega.privacy.android.app.mediaplayer.facade.MediaPlayerFacade
 import mega.privacy.android.app.mediaplayer.mapper.ExoPlayerRepeatModeMapper
 import mega.privacy.android.app.mediaplayer.mapper.RepeatToggleModeByExoPlayerMapper
@@ -32,8 +33,14 @@ class MediaPlayerModule {
         crashReporter: CrashReporter,
         repeatToggleModeMapper: RepeatToggleModeByExoPlayerMapper,
         exoPlayerRepeatModeMapper: ExoPlayerRepeatModeMapper,
-    ): MediaPlayerFacade =
-        MediaPlayerFacade(context, crashReporter, repeatToggleModeMapper, exoPlayerRepeatModeMapper)
+        mediaPlayerCache: MediaPlayerCache,
+    ): MediaPlayerFacade = MediaPlayerFacade(
+        context,
+        crashReporter,
+        repeatToggleModeMapper,
+        exoPlayerRepeatModeMapper,
+        mediaPlayerCache
+    )
 
     /**
      * Provide the MediaPlayerFacade implementation for audio player
@@ -46,8 +53,14 @@ class MediaPlayerModule {
         crashReporter: CrashReporter,
         repeatToggleModeMapper: RepeatToggleModeByExoPlayerMapper,
         exoPlayerRepeatModeMapper: ExoPlayerRepeatModeMapper,
-    ): MediaPlayerFacade =
-        MediaPlayerFacade(context, crashReporter, repeatToggleModeMapper, exoPlayerRepeatModeMapper)
+        mediaPlayerCache: MediaPlayerCache,
+    ): MediaPlayerFacade = MediaPlayerFacade(
+        context,
+        crashReporter,
+        repeatToggleModeMapper,
+        exoPlayerRepeatModeMapper,
+        mediaPlayerCache
+    )
 
     /**
      * Provide the implementation for [StopAudioService]
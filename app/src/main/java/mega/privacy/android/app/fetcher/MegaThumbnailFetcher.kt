@@ -8,38 +8,73 @@ import coil.fetch.FetchResult
 import coil.fetch.Fetcher
 import coil.fetch.SourceResult
 import coil.request.Options
+import mega.privacy.android.app.fetcher.MegaThumbnailKeyer.Bucket
 import mega.privacy.android.domain.entity.node.thumbnail.ThumbnailRequest
-import mega.privacy.android.domain.usecase.thumbnailpreview.GetPublicNodeThumbnailUseCase
-import mega.privacy.android.domain.usecase.thumbnailpreview.GetThumbnailUseCase
+import mega.privacy.android.domain.usecase.thumbnailpreview.GetPreviewFromLocalUseCase
+import mega.privacy.android.domain.usecase.thumbnailpreview.GetThumbnailFromLocalUseCase
+import mega.privacy.android.domain.usecase.thumbnailpreview.GetThumbnailFromServerUseCase
 import okio.Path.Companion.toOkioPath
+import java.io.File
 
 /**
  * Mega thumbnail fetcher to load thumbnails from normal MegaNode
+ *
+ * The thumbnail and preview cache folders are the disk tier of the thumbnails, and the memory
+ * cache of Coil the memory tier, keyed by [MegaThumbnailKeyer]. The files already in the cache
+ * folders are used first, depending on the [Bucket] of the requested size, and the thumbnail is
+ * only downloaded if there is none. The [DataSource] of the result tells both cases apart.
+ *
+ * The requests with the [PREFETCH_PARAMETER] parameter are downloaded after the ones of the
+ * thumbnails shown on the screen.
  */
 internal class MegaThumbnailFetcher(
     private val request: ThumbnailRequest,
-    private val getThumbnailUseCase: dagger.Lazy<GetThumbnailUseCase>,
-    private val getPublicNodeThumbnailUseCase: dagger.Lazy<GetPublicNodeThumbnailUseCase>,
+    private val options: Options,
+    private val getThumbnailFromLocalUseCase: dagger.Lazy<GetThumbnailFromLocalUseCase>,
+    private val getPreviewFromLocalUseCase: dagger.Lazy<GetPreviewFromLocalUseCase>,
+    private val getThumbnailFromServerUseCase: dagger.Lazy<GetThumbnailFromServerUseCase>,
 ) : Fetcher {
     override suspend fun fetch(): FetchResult {
-        val file = if (request.isPublicNode) {
-            getPublicNodeThumbnailUseCase.get()(request.id.longValue, true)
-        } else {
-            getThumbnailUseCase.get()(request.id.longValue, true)
-        } ?: throw NullPointerException("Thumbnail file is null")
-        return SourceResult(
-            source = ImageSource(file = file.toOkioPath()),
-            mimeType = MimeTypeMap.getSingleton().getMimeTypeFromExtension(file.extension),
-            dataSource = DataSource.DISK
-        )
+        if (options.diskCachePolicy.readEnabled) {
+            getLocalFile()?.let { return it.toSourceResult(DataSource.DISK) }
+        }
+        check(options.networkCachePolicy.readEnabled) { "Thumbnail is not cached" }
+        val file = getThumbnailFromServerUseCase.get()(
+            nodeId = request.id.longValue,
+            isPublicNode = request.isPublicNode,
+            isPrefetch = options.parameters.value<Boolean>(PREFETCH_PARAMETER) == true,
+        ) ?: throw NullPointerException("Thumbnail file is null")
+        return file.toSourceResult(DataSource.NETWORK)
     }
 
+    private suspend fun getLocalFile(): File? =
+        when (MegaThumbnailKeyer.bucketOf(options.size)) {
+            Bucket.Thumbnail -> getLocalThumbnail() ?: getLocalPreview()
+            Bucket.Preview -> getLocalPreview() ?: getLocalThumbnail()
+        }
+
+    private suspend fun getLocalThumbnail() =
+        getThumbnailFromLocalUseCase.get()(request.id.longValue, request.isPublicNode)
+
+    /**
+     * The previews of public nodes are not kept in the preview cache folder
+     */
+    private suspend fun getLocalPreview() =
+        if (request.isPublicNode) null else getPreviewFromLocalUseCase.get()(request.id.longValue)
+
+    private fun File.toSourceResult(dataSource: DataSource) = SourceResult(
+        source = ImageSource(file = toOkioPath()),
+        mimeType = MimeTypeMap.getSingleton().getMimeTypeFromExtension(extension),
+        dataSource = dataSource
+    )
+
     /**
      * Factory
      */
     class Factory(
-        private val getThumbnailUseCase: dagger.Lazy<GetThumbnailUseCase>,
-        private val getPublicNodeThumbnailUseCase: dagger.Lazy<GetPublicNodeThumbnailUseCase>,
+        private val getThumbnailFromLocalUseCase: dagger.Lazy<GetThumbnailFromLocalUseCase>,
+        private val getPreviewFromLocalUseCase: dagger.Lazy<GetPreviewFromLocalUseCase>,
+        private val getThumbnailFromServerUseCase: dagger.Lazy<GetThumbnailFromServerUseCase>,
     ) : Fetcher.Factory<ThumbnailRequest> {
 
         override fun create(
@@ -48,11 +83,25 @@ internal class MegaThumbnailFetcher(
             imageLoader: ImageLoader,
         ): Fetcher? {
             if (!isApplicable(data)) return null
-            return MegaThumbnailFetcher(data, getThumbnailUseCase, getPublicNodeThumbnailUseCase)
+            return MegaThumbnailFetcher(
+                request = data,
+                options = options,
+                getThumbnailFromLocalUseCase = getThumbnailFromLocalUseCase,
+                getPreviewFromLocalUseCase = getPreviewFromLocalUseCase,
+                getThumbnailFromServerUseCase = getThumbnailFromServerUseCase,
+            )
         }
 
         private fun isApplicable(data: ThumbnailRequest): Boolean {
             return data.id.longValue > 0
         }
     }
-}
\ No newline at end of file
+
+    companion object {
+        /**
+         * Parameter of the requests made in advance for thumbnails not shown yet. It is not part
+         * of the memory cache key, so that the prefetched thumbnails are found by the shown ones
+         */
+        const val PREFETCH_PARAMETER = "mega_thumbnail_prefetch"
+    }
+}
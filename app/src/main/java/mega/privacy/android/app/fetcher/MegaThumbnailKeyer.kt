@@ -2,13 +2,47 @@ package mega.privacy.android.app.fetcher
 
 import coil.key.Keyer
 import coil.request.Options
+import coil.size.Size
+import coil.size.pxOrElse
 import mega.privacy.android.domain.entity.node.thumbnail.ThumbnailRequest
 
 /**
  * Mega thumbnail keyer to build the key for MegaNode thumbnail in the memory cache
  *
+ * The key only depends on the [Bucket] of the requested size, so that a bitmap in the memory
+ * cache is reused by all the views of the same bucket instead of being decoded again for every
+ * size in pixels.
  */
 internal object MegaThumbnailKeyer : Keyer<ThumbnailRequest> {
+
+    /**
+     * Size of the thumbnails created by the SDK, in pixels
+     */
+    private const val THUMBNAIL_SIZE = 200
+
+    /**
+     * Size bucket of a request, deciding which cached file is fetched first
+     */
+    enum class Bucket {
+        /**
+         * Sizes the thumbnail fills, the preview is used if there is no thumbnail
+         */
+        Thumbnail,
+
+        /**
+         * Bigger or unknown sizes, the thumbnail is used if there is no preview
+         */
+        Preview,
+    }
+
     override fun key(data: ThumbnailRequest, options: Options): String =
-        "${data.id.longValue}-${options.size}"
-}
\ No newline at end of file
+        "${data.id.longValue}-${bucketOf(options.size)}"
+
+    /**
+     * Gets the bucket of a requested size
+     */
+    fun bucketOf(size: Size): Bucket {
+        val maxSize = maxOf(size.width.pxOrElse { 0 }, size.height.pxOrElse { 0 })
+        return if (maxSize in 1..THUMBNAIL_SIZE) Bucket.Thumbnail else Bucket.Preview
+    }
+}
@@ -26,6 +26,7 @@ import kotlinx.coroutines.FlowPreview
 import kotlinx.coroutines.flow.debounce
 import kotlinx.coroutines.flow.launchIn
 import kotlinx.coroutines.flow.onEach
+import kotlinx.coroutines.launch
 import mega.privacy.android.app.R
 import mega.privacy.android.app.arch.extensions.collectFlow
 import mega.privacy.android.app.components.dragger.DragToExitSupport
@@ -319,15 +320,17 @@ class AudioPlayerActivity : MediaPlayerActivity() {
                 }
 
                 R.id.properties -> {
-                    serviceGateway?.getCurrentMediaItem()?.localConfiguration?.uri?.let { uri ->
-                        navController.navigate(
-                            AudioPlayerFragmentDirections.actionAudioPlayerToTrackInfo(
-                                adapterType = adapterType,
-                                fromIncomingShare = adapterType == INCOMING_SHARES_ADAPTER,
-                                handle = playingHandle,
-                                uri = uri.toString()
+                    lifecycleScope.launch {
+                        serviceGateway?.getCurrentMediaItemUri()?.let { uri ->
+                            navController.navigate(
+                                AudioPlayerFragmentDirections.actionAudioPlayerToTrackInfo(
+                                    adapterType = adapterType,
+                                    fromIncomingShare = adapterType == INCOMING_SHARES_ADAPTER,
+                                    handle = playingHandle,
+                                    uri = uri.toString()
+                                )
                             )
-                        )
+                        }
                     }
                 }
 
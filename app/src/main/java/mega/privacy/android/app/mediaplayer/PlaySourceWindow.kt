@@ -0,0 +1,148 @@
+package mega.privacy.android.app.mediaplayer
+
+import android.net.Uri
+import com.google.android.exoplayer2.MediaItem
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+import timber.log.Timber
+import java.io.IOException
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Play sources of a playlist whose uris are resolved lazily, around the playing item
+ *
+ * Resolving the uri of a node needs a local file lookup and, for the streamed ones, a call to
+ * the streaming server, too slow to be done for every node of a big folder before the playlist
+ * is shown. The media items are created by [mediaItem] with a lazy uri instead, which the player
+ * resolves through [resolve] when it opens them. [moveTo] resolves in background the uris of the
+ * items around the playing one, so that the player seldom has to wait for them.
+ *
+ * @param scope scope the background resolution runs in
+ * @param dispatcher dispatcher the background resolution runs on
+ * @param windowSize number of items resolved in background on each side of the playing one
+ */
+class PlaySourceWindow(
+    private val scope: CoroutineScope,
+    private val dispatcher: CoroutineDispatcher,
+    private val windowSize: Int = WINDOW_SIZE,
+) {
+    private class Playlist(
+        val handles: List<Long>,
+        val resolveUri: suspend (handle: Long) -> String?,
+    )
+
+    @Volatile
+    private var playlist: Playlist? = null
+    private val uris = ConcurrentHashMap<Long, String>()
+    private var windowJob: Job? = null
+
+    /**
+     * Sets the playlist, forgetting the uris resolved for the previous one
+     *
+     * @param handles handles of the items, in playlist order
+     * @param resolveUri resolves the uri of an item, null if it cannot be played
+     */
+    fun setPlaylist(handles: List<Long>, resolveUri: suspend (handle: Long) -> String?) {
+        windowJob?.cancel()
+        uris.clear()
+        playlist = Playlist(handles, resolveUri)
+    }
+
+    /**
+     * Creates the media item of an item, with a lazy uri resolved when the player opens it and
+     * the handle as cache key, as the streaming urls change between sessions
+     */
+    fun mediaItem(handle: Long): MediaItem =
+        MediaItem.Builder()
+            .setUri(Uri.parse("$SCHEME:$handle"))
+            .setMediaId(handle.toString())
+            .setCustomCacheKey(handle.toString())
+            .build()
+
+    /**
+     * Resolves in background the uris of the items around the playing one, nearest first
+     *
+     * The resolution for the previous playing item is cancelled.
+     *
+     * @param handle handle of the playing item
+     */
+    fun moveTo(handle: Long) {
+        val playlist = playlist ?: return
+        val index = playlist.handles.indexOf(handle).takeIf { it >= 0 } ?: return
+        windowJob?.cancel()
+        windowJob = scope.launch(dispatcher) {
+            windowOf(playlist.handles, index).forEach { neighbour ->
+                if (!uris.containsKey(neighbour)) {
+                    try {
+                        playlist.resolveUri(neighbour)?.let { uris[neighbour] = it }
+                    } catch (e: CancellationException) {
+                        throw e
+                    } catch (e: Exception) {
+                        Timber.w(e, "Play source not resolved")
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the uri to open for the uri of a media item, resolving it if it is lazy
+     *
+     * Called by the player on its loading thread, so it blocks until the uri is resolved if it
+     * was not resolved in background yet.
+     *
+     * @throws IOException if the uri cannot be resolved
+     */
+    fun resolve(uri: Uri): Uri =
+        if (uri.scheme == SCHEME) {
+            Uri.parse(getUri(uri.schemeSpecificPart.toLong()))
+        } else {
+            uri
+        }
+
+    /**
+     * Gets the resolved uri of an item, resolving it if it was not resolved yet
+     *
+     * @throws IOException if the uri cannot be resolved
+     */
+    internal fun getUri(handle: Long): String =
+        uris[handle] ?: run {
+            val playlist = playlist ?: throw IOException("No playlist for $handle")
+            runBlocking { playlist.resolveUri(handle) }
+                ?.also { uris[handle] = it }
+                ?: throw IOException("Play source of $handle not resolved")
+        }
+
+    /**
+     * Forgets the playlist and the resolved uris
+     */
+    fun clear() {
+        windowJob?.cancel()
+        playlist = null
+        uris.clear()
+    }
+
+    /**
+     * Handles of the items around [index], alternating the next and the previous ones
+     */
+    private fun windowOf(handles: List<Long>, index: Int): List<Long> =
+        (1..windowSize).flatMap { distance ->
+            listOfNotNull(
+                handles.getOrNull(index + distance),
+                handles.getOrNull(index - distance),
+            )
+        }
+
+    companion object {
+        /**
+         * Scheme of the lazy uris
+         */
+        const val SCHEME = "mega-play-source"
+
+        private const val WINDOW_SIZE = 3
+    }
+}
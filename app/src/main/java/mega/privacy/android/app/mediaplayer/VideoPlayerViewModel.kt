@@ -288,6 +288,7 @@ class VideoPlayerViewModel @Inject constructor(
 
     private val playlistItems = mutableListOf<PlaylistItem>()
     private val itemsSelectedMap = mutableMapOf<Long, PlaylistItem>()
+    private val playSourceWindow = PlaySourceWindow(viewModelScope, ioDispatcher)
     private var playlistSearchQuery: String? = null
     private var playingHandle = INVALID_HANDLE
     private var playerRetry = 0
@@ -342,6 +343,7 @@ class VideoPlayerViewModel @Inject constructor(
     )
 
     init {
+        mediaPlayerGateway.setMediaItemUriResolver(playSourceWindow::resolve)
         viewModelScope.launch {
             combine(
                 _isSubtitleShown,
@@ -712,6 +714,7 @@ class VideoPlayerViewModel @Inject constructor(
         val mediaItem = MediaItem.Builder()
             .setUri(firstPlayUri)
             .setMediaId(firstPlayHandle.toString())
+            .setCustomCacheKey(firstPlayHandle.toString())
             .build()
         MediaPlaySources(
             listOf(mediaItem),
@@ -1050,34 +1053,17 @@ class VideoPlayerViewModel @Inject constructor(
         val mediaItems = ArrayList<MediaItem>()
         var firstPlayIndex = 0
 
+        // The uris are only resolved when the player opens the items, and in background for
+        // the items around the playing one, so the playlist is shown at once for big folders.
+        val fileNodes = typedNodes.filterIsInstance<TypedFileNode>()
+            .associateBy { it.id.longValue }
+        playSourceWindow.setPlaylist(fileNodes.keys.toList()) { handle ->
+            fileNodes[handle]?.let { getPlaySourceUri(type, it) }
+        }
+
         typedNodes.mapIndexed { currentIndex, typedNode ->
             if (typedNode is TypedFileNode) {
-                getLocalFilePathUseCase(typedNode).let { localPath ->
-                    if (localPath != null && isLocalFile(typedNode, localPath)) {
-                        mediaItemFromFile(File(localPath), typedNode.id.longValue.toString())
-                    } else {
-                        val url =
-                            if (type == FOLDER_LINK_ADAPTER) {
-                                if (isMegaApiFolder(type)) {
-                                    getLocalFolderLinkFromMegaApiFolderUseCase(typedNode.id.longValue)
-                                } else {
-                                    getLocalFolderLinkFromMegaApiUseCase(typedNode.id.longValue)
-                                }
-                            } else {
-                                getLocalLinkFromMegaApiUseCase(typedNode.id.longValue)
-                            }
-                        if (url == null) {
-                            null
-                        } else {
-                            MediaItem.Builder()
-                                .setUri(Uri.parse(url))
-                                .setMediaId(typedNode.id.longValue.toString())
-                                .build()
-                        }
-                    }?.let {
-                        mediaItems.add(it)
-                    }
-                }
+                mediaItems.add(playSourceWindow.mediaItem(typedNode.id.longValue))
 
                 if (typedNode.id.longValue == firstPlayHandle) {
                     firstPlayIndex = currentIndex
@@ -1104,6 +1090,29 @@ class VideoPlayerViewModel @Inject constructor(
             }
         }
         updatePlaySources(mediaItems, playlistItems, firstPlayIndex)
+        playSourceWindow.moveTo(firstPlayHandle)
+    }
+
+    /**
+     * Get the uri to play a node, the local file if it was downloaded or the streaming link
+     *
+     * @param type adapter type
+     * @param typedNode [TypedFileNode]
+     * @return the uri, or null if the node cannot be played
+     */
+    private suspend fun getPlaySourceUri(type: Int, typedNode: TypedFileNode): String? {
+        val localPath = getLocalFilePathUseCase(typedNode)
+        return if (localPath != null && isLocalFile(typedNode, localPath)) {
+            FileUtil.getUriForFile(context, File(localPath)).toString()
+        } else if (type == FOLDER_LINK_ADAPTER) {
+            if (isMegaApiFolder(type)) {
+                getLocalFolderLinkFromMegaApiFolderUseCase(typedNode.id.longValue)
+            } else {
+                getLocalFolderLinkFromMegaApiUseCase(typedNode.id.longValue)
+            }
+        } else {
+            getLocalLinkFromMegaApiUseCase(typedNode.id.longValue)
+        }
     }
 
     /**
@@ -1470,6 +1479,7 @@ class VideoPlayerViewModel @Inject constructor(
      */
     internal fun setCurrentPlayingHandle(handle: Long) {
         playingHandle = handle
+        playSourceWindow.moveTo(handle)
         _playlistItemsState.value.first.let { playlistItems ->
             playingPosition = playlistItems.indexOfFirst { (nodeHandle) ->
                 nodeHandle == handle
@@ -1985,6 +1995,7 @@ class VideoPlayerViewModel @Inject constructor(
         super.onCleared()
         cancelSearch()
         clear()
+        playSourceWindow.clear()
     }
 
     companion object {
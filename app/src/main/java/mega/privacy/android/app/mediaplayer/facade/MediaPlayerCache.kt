@@ -0,0 +1,221 @@
+package mega.privacy.android.app.mediaplayer.facade
+
+import android.content.Context
+import android.net.Uri
+import com.google.android.exoplayer2.database.StandaloneDatabaseProvider
+import com.google.android.exoplayer2.upstream.DataSource
+import com.google.android.exoplayer2.upstream.DataSpec
+import com.google.android.exoplayer2.upstream.DefaultDataSource
+import com.google.android.exoplayer2.upstream.TransferListener
+import com.google.android.exoplayer2.upstream.cache.Cache
+import com.google.android.exoplayer2.upstream.cache.CacheDataSource
+import com.google.android.exoplayer2.upstream.cache.CacheWriter
+import com.google.android.exoplayer2.upstream.cache.LeastRecentlyUsedCacheEvictor
+import com.google.android.exoplayer2.upstream.cache.SimpleCache
+import dagger.hilt.android.qualifiers.ApplicationContext
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runInterruptible
+import mega.privacy.android.domain.qualifier.ApplicationScope
+import mega.privacy.android.domain.qualifier.IoDispatcher
+import mega.privacy.android.domain.usecase.login.MonitorLogoutUseCase
+import timber.log.Timber
+import java.io.File
+import java.io.IOException
+import java.util.concurrent.atomic.AtomicLong
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * On-disk cache of the streamed media, shared by the audio and the video players
+ *
+ * The nodes streamed from the local http server of the SDK are cached in a LRU cache of
+ * [MAX_CACHE_BYTES], so that seeking back or playing them again does not download and decrypt
+ * them again. As the streaming urls change between sessions, only the media items with a custom
+ * cache key, the node handle, are cached. Local files are always read directly. The cache is
+ * emptied on logout, so that the media of an account is not kept for the next one.
+ */
+@Singleton
+class MediaPlayerCache @Inject constructor(
+    @ApplicationContext private val context: Context,
+    @ApplicationScope private val applicationScope: CoroutineScope,
+    @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
+    monitorLogoutUseCase: MonitorLogoutUseCase,
+) {
+    private val lazyCache = lazy {
+        SimpleCache(
+            File(context.cacheDir, CACHE_FOLDER),
+            LeastRecentlyUsedCacheEvictor(MAX_CACHE_BYTES),
+            StandaloneDatabaseProvider(context)
+        )
+    }
+    private val cache: Cache by lazyCache
+
+    private val preloadDataSourceFactory by lazy {
+        CacheDataSource.Factory()
+            .setCache(cache)
+            .setUpstreamDataSourceFactory(DefaultDataSource.Factory(context))
+    }
+
+    private val cachedBytes = AtomicLong()
+    private val streamedBytes = AtomicLong()
+
+    private var preloadJob: Job? = null
+    private var preloadKey: String? = null
+
+    init {
+        applicationScope.launch(ioDispatcher) {
+            monitorLogoutUseCase().collect { clear() }
+        }
+    }
+
+    /**
+     * Creates the factory of the data sources reading the streamed media through the cache
+     *
+     * @param upstreamFactory factory of the data sources reading the media
+     */
+    fun createDataSourceFactory(upstreamFactory: DataSource.Factory): DataSource.Factory {
+        val cacheDataSourceFactory = CacheDataSource.Factory()
+            .setCache(cache)
+            .setUpstreamDataSourceFactory(upstreamFactory)
+            .setEventListener(object : CacheDataSource.EventListener {
+                override fun onCachedBytesRead(cacheSizeBytes: Long, cachedBytesRead: Long) {
+                    // The bytes were counted as streamed when they were read
+                    cachedBytes.addAndGet(cachedBytesRead)
+                    streamedBytes.addAndGet(-cachedBytesRead)
+                }
+
+                override fun onCacheIgnored(reason: Int) {
+                    Timber.w("Media cache ignored, reason $reason")
+                }
+            })
+        return DataSource.Factory {
+            StreamingDataSource(
+                upstream = upstreamFactory.createDataSource(),
+                cacheDataSource = cacheDataSourceFactory.createDataSource(),
+                onCachedSourceRead = { streamedBytes.addAndGet(it.toLong()) },
+            )
+        }
+    }
+
+    /**
+     * Caches in background the first bytes of a media item, so that it starts at once when it
+     * is played. The previous preload is cancelled.
+     *
+     * @param uri the uri of the media item
+     * @param key the custom cache key of the media item
+     * @param resolveUri resolves the uri to open for the uri of the media item
+     */
+    fun preload(uri: Uri, key: String, resolveUri: (Uri) -> Uri) {
+        if (key == preloadKey) return
+        preloadKey = key
+        preloadJob?.cancel()
+        preloadJob = applicationScope.launch(ioDispatcher) {
+            try {
+                val dataSpec = DataSpec.Builder()
+                    .setUri(resolveUri(uri))
+                    .setKey(key)
+                    .setLength(PRELOAD_BYTES)
+                    .build()
+                if (isStreamed(dataSpec)) {
+                    val cacheWriter = CacheWriter(
+                        preloadDataSourceFactory.createDataSource(),
+                        dataSpec,
+                        null,
+                        null
+                    )
+                    runInterruptible { cacheWriter.cache() }
+                }
+            } catch (e: CancellationException) {
+                throw e
+            } catch (e: IOException) {
+                Timber.w(e, "Media item not preloaded")
+            }
+        }
+    }
+
+    /**
+     * Removes all the cached media. The files are also deleted with the cache folder on logout,
+     * but the open cache keeps them in its index until they are removed through it.
+     */
+    private fun clear() {
+        preloadJob?.cancel()
+        preloadKey = null
+        if (!lazyCache.isInitialized()) return
+        try {
+            cache.keys.forEach { key -> cache.removeResource(key) }
+        } catch (e: Exception) {
+            Timber.w(e, "Media cache not cleared")
+        }
+    }
+
+    /**
+     * Gets the bytes of the streamed media read from the cache and from the streaming server
+     *
+     * @return the pair of cached and streamed bytes
+     */
+    fun getReadBytes(): Pair<Long, Long> = cachedBytes.get() to streamedBytes.get()
+
+    /**
+     * Data source reading the streamed media with a cache key through the cache, and the other
+     * media directly from the upstream
+     */
+    private class StreamingDataSource(
+        private val upstream: DataSource,
+        private val cacheDataSource: DataSource,
+        private val onCachedSourceRead: (bytes: Int) -> Unit,
+    ) : DataSource {
+        private var dataSource: DataSource? = null
+
+        override fun addTransferListener(transferListener: TransferListener) {
+            upstream.addTransferListener(transferListener)
+            cacheDataSource.addTransferListener(transferListener)
+        }
+
+        override fun open(dataSpec: DataSpec): Long {
+            val dataSource = if (isStreamed(dataSpec)) cacheDataSource else upstream
+            this.dataSource = dataSource
+            return dataSource.open(dataSpec)
+        }
+
+        override fun read(buffer: ByteArray, offset: Int, length: Int): Int {
+            val dataSource = checkNotNull(dataSource) { "Data source not opened" }
+            return dataSource.read(buffer, offset, length).also { bytes ->
+                if (bytes > 0 && dataSource === cacheDataSource) onCachedSourceRead(bytes)
+            }
+        }
+
+        override fun getUri(): Uri? = dataSource?.uri
+
+        override fun getResponseHeaders(): Map<String, List<String>> =
+            dataSource?.responseHeaders ?: emptyMap()
+
+        override fun close() {
+            try {
+                dataSource?.close()
+            } finally {
+                dataSource = null
+            }
+        }
+    }
+
+    companion object {
+        private const val CACHE_FOLDER = "media_player"
+
+        /**
+         * Maximum size of the cache, the least recently used media is evicted over it
+         */
+        const val MAX_CACHE_BYTES = 256L * 1024 * 1024
+
+        /**
+         * Bytes cached in advance for the next item, the first seconds of a stream up to 8 Mbps
+         */
+        const val PRELOAD_BYTES = 4L * 1024 * 1024
+
+        private fun isStreamed(dataSpec: DataSpec) =
+            dataSpec.key != null && dataSpec.uri.scheme.let { it == "http" || it == "https" }
+    }
+}
@@ -17,10 +17,15 @@ import com.google.android.exoplayer2.PlaybackParameters
 import com.google.android.exoplayer2.Player
 import com.google.android.exoplayer2.Player.STATE_ENDED
 import com.google.android.exoplayer2.Player.STATE_IDLE
+import com.google.android.exoplayer2.Player.STATE_READY
+import com.google.android.exoplayer2.analytics.PlaybackStatsListener
+import com.google.android.exoplayer2.source.DefaultMediaSourceFactory
 import com.google.android.exoplayer2.source.ShuffleOrder
 import com.google.android.exoplayer2.trackselection.DefaultTrackSelector
 import com.google.android.exoplayer2.ui.PlayerNotificationManager
 import com.google.android.exoplayer2.ui.StyledPlayerView
+import com.google.android.exoplayer2.upstream.DefaultDataSource
+import com.google.android.exoplayer2.upstream.ResolvingDataSource
 import com.google.android.exoplayer2.util.EventLogger
 import com.google.android.exoplayer2.util.MimeTypes
 import com.google.android.exoplayer2.util.RepeatModeUtil.REPEAT_TOGGLE_MODE_ALL
@@ -29,6 +34,7 @@ import com.google.android.exoplayer2.video.VideoSize
 import com.google.common.collect.ImmutableList
 import dagger.hilt.android.qualifiers.ApplicationContext
 import kotlinx.coroutines.flow.flowOf
+import mega.privacy.android.app.BuildConfig
 import mega.privacy.android.app.R
 import mega.privacy.android.app.mediaplayer.MediaMegaPlayer
 import mega.privacy.android.app.mediaplayer.gateway.MediaPlayerGateway
@@ -36,6 +42,7 @@ import mega.privacy.android.app.mediaplayer.mapper.ExoPlayerRepeatModeMapper
 import mega.privacy.android.app.mediaplayer.mapper.RepeatToggleModeByExoPlayerMapper
 import mega.privacy.android.app.mediaplayer.model.MediaPlaySources
 import mega.privacy.android.app.mediaplayer.model.PlayerNotificationCreatedParams
+import mega.privacy.android.app.mediaplayer.model.StreamingMetrics
 import mega.privacy.android.app.mediaplayer.service.MediaPlayerCallback
 import mega.privacy.android.app.mediaplayer.service.MetadataExtractor
 import mega.privacy.android.app.monitoring.CrashReporter
@@ -52,6 +59,7 @@ class MediaPlayerFacade @Inject constructor(
     private val crashReporter: CrashReporter,
     private val repeatToggleModeMapper: RepeatToggleModeByExoPlayerMapper,
     private val exoPlayerRepeatModeMapper: ExoPlayerRepeatModeMapper,
+    private val mediaPlayerCache: MediaPlayerCache,
 ) : MediaPlayerGateway {
 
     private lateinit var exoPlayer: ExoPlayer
@@ -60,6 +68,11 @@ class MediaPlayerFacade @Inject constructor(
     private var playerNotificationManager: PlayerNotificationManager? = null
     private var notificationDismissed = false
 
+    private var playbackStatsListener: PlaybackStatsListener? = null
+
+    @Volatile
+    private var mediaItemUriResolver: ((Uri) -> Uri)? = null
+
     override fun createPlayer(
         shuffleEnabled: Boolean?,
         shuffleOrder: ShuffleOrder?,
@@ -71,7 +84,13 @@ class MediaPlayerFacade @Inject constructor(
         val renderersFactory = DefaultRenderersFactory(context).setExtensionRendererMode(
             DefaultRenderersFactory.EXTENSION_RENDERER_MODE_ON
         )
+        val dataSourceFactory = ResolvingDataSource.Factory(
+            mediaPlayerCache.createDataSourceFactory(DefaultDataSource.Factory(context))
+        ) { dataSpec -> dataSpec.withUri(resolveMediaItemUri(dataSpec.uri)) }
+        val playbackStatsListener = PlaybackStatsListener(false, null)
+        this.playbackStatsListener = playbackStatsListener
         exoPlayer = ExoPlayer.Builder(context, renderersFactory)
+            .setMediaSourceFactory(DefaultMediaSourceFactory(dataSourceFactory))
             .setTrackSelector(trackSelector)
             .setSeekBackIncrementMs(INCREMENT_TIME_IN_MS)
             .build().apply {
@@ -109,6 +128,9 @@ class MediaPlayerFacade @Inject constructor(
 
                     override fun onPlaybackStateChanged(playbackState: Int) {
                         mediaPlayerCallback.onPlaybackStateChangedCallback(playbackState)
+                        if (playbackState == STATE_READY) {
+                            preloadNextItem()
+                        }
                     }
 
                     override fun onPlayerError(error: PlaybackException) {
@@ -121,6 +143,7 @@ class MediaPlayerFacade @Inject constructor(
                         mediaPlayerCallback.onVideoSizeCallback(videoSize.width, videoSize.height)
                     }
                 })
+                addAnalyticsListener(playbackStatsListener)
                 addAnalyticsListener(object :
                     EventLogger("MediaPlayer") {
                     override fun logd(msg: String) {
@@ -262,6 +285,9 @@ class MediaPlayerFacade @Inject constructor(
     }
 
     override fun playerRelease() {
+        if (BuildConfig.DEBUG) {
+            Timber.d("Streaming metrics: ${getStreamingMetrics()}")
+        }
         player?.release()
         if (::exoPlayer.isInitialized) {
             exoPlayer.release()
@@ -276,6 +302,35 @@ class MediaPlayerFacade @Inject constructor(
         player?.seekTo(positionInMs)
     }
 
+    override fun setMediaItemUriResolver(resolver: ((Uri) -> Uri)?) {
+        mediaItemUriResolver = resolver
+    }
+
+    override fun getStreamingMetrics(): StreamingMetrics {
+        val (cachedBytes, streamedBytes) = mediaPlayerCache.getReadBytes()
+        val playbackStats = playbackStatsListener?.combinedPlaybackStats
+        return StreamingMetrics(
+            cachedBytes = cachedBytes,
+            streamedBytes = streamedBytes,
+            rebufferCount = playbackStats?.totalRebufferCount ?: 0,
+            rebufferTimeMs = playbackStats?.totalRebufferTimeMs ?: 0,
+        )
+    }
+
+    private fun resolveMediaItemUri(uri: Uri): Uri = mediaItemUriResolver?.invoke(uri) ?: uri
+
+    /**
+     * Caches the first bytes of the next item, once the playing one is buffered
+     */
+    private fun preloadNextItem() {
+        val nextIndex = exoPlayer.nextMediaItemIndex
+        if (nextIndex == C.INDEX_UNSET) return
+        val localConfiguration = exoPlayer.getMediaItemAt(nextIndex).localConfiguration ?: return
+        localConfiguration.customCacheKey?.let { key ->
+            mediaPlayerCache.preload(localConfiguration.uri, key, ::resolveMediaItemUri)
+        }
+    }
+
     override fun buildPlaySources(mediaPlaySources: MediaPlaySources) {
         with(mediaPlaySources) {
             if (newIndexForCurrentItem == INVALID_VALUE) {
@@ -364,17 +419,15 @@ class MediaPlayerFacade @Inject constructor(
 
     override fun addSubtitle(subtitleFileUrl: String) =
         player?.let { player ->
-            val videoUri: Uri? = player.currentMediaItem?.localConfiguration?.uri
-            val mediaId = player.currentMediaItem?.mediaId
+            val currentMediaItem = player.currentMediaItem
             val uri = Uri.parse(subtitleFileUrl)
-            if (videoUri != null && mediaId != null && uri != null) {
+            if (currentMediaItem?.localConfiguration != null && uri != null) {
                 val subtitle = MediaItem.SubtitleConfiguration.Builder(uri)
                     .setMimeType(MimeTypes.APPLICATION_SUBRIP)
                     .setSelectionFlags(C.SELECTION_FLAG_DEFAULT)
                     .build()
-                val mediaItem = MediaItem.Builder()
-                    .setUri(videoUri)
-                    .setMediaId(mediaId)
+                // Keep the lazy uri and the cache key of the item, only the subtitle changes
+                val mediaItem = currentMediaItem.buildUpon()
                     .setSubtitleConfigurations(ImmutableList.of(subtitle))
                     .build()
                 val oldPosition = player.currentPosition
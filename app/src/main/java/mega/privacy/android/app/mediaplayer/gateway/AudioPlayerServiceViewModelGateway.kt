@@ -1,5 +1,6 @@
 package mega.privacy.android.app.mediaplayer.gateway
 
+import android.net.Uri
 import com.google.android.exoplayer2.source.ShuffleOrder
 import mega.privacy.android.domain.entity.mediaplayer.RepeatToggleMode
 
@@ -65,4 +66,12 @@ interface AudioPlayerServiceViewModelGateway : PlayerServiceViewModelGateway {
      * @return new shuffle order
      */
     fun newShuffleOrder(): ShuffleOrder
+
+    /**
+     * Resolve the uri to open for the uri of a media item of the playlist
+     *
+     * @param uri the uri of the media item
+     * @return the uri to open
+     */
+    fun resolveMediaItemUri(uri: Uri): Uri
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package mega.privacy.android.app.mediaplayer.gateway
 
+import android.net.Uri
 import com.google.android.exoplayer2.MediaItem
 import com.google.android.exoplayer2.Player
 import com.google.android.exoplayer2.source.ShuffleOrder
@@ -7,6 +8,7 @@ import com.google.android.exoplayer2.ui.StyledPlayerView
 import kotlinx.coroutines.flow.Flow
 import mega.privacy.android.app.mediaplayer.model.MediaPlaySources
 import mega.privacy.android.app.mediaplayer.model.PlayerNotificationCreatedParams
+import mega.privacy.android.app.mediaplayer.model.StreamingMetrics
 import mega.privacy.android.app.mediaplayer.service.MediaPlayerCallback
 import mega.privacy.android.domain.entity.mediaplayer.RepeatToggleMode
 
@@ -132,6 +134,21 @@ interface MediaPlayerGateway {
      */
     fun buildPlaySources(mediaPlaySources: MediaPlaySources)
 
+    /**
+     * Set the resolver of the media item uris, called when the player opens them
+     *
+     * @param resolver returns the uri to open for the uri of a media item, null to open the uris
+     * as they are
+     */
+    fun setMediaItemUriResolver(resolver: ((Uri) -> Uri)?)
+
+    /**
+     * Get the cache hit and rebuffer metrics of the streamed media
+     *
+     * @return StreamingMetrics
+     */
+    fun getStreamingMetrics(): StreamingMetrics
+
     /**
      * Remove the listener from player
      *
@@ -1,5 +1,6 @@
 package mega.privacy.android.app.mediaplayer.gateway
 
+import android.net.Uri
 import com.google.android.exoplayer2.MediaItem
 import com.google.android.exoplayer2.Player
 import com.google.android.exoplayer2.ui.StyledPlayerView
@@ -78,6 +79,13 @@ interface MediaPlayerServiceGateway {
      */
     fun getCurrentMediaItem(): MediaItem?
 
+    /**
+     * Get the uri to open for the current media item, resolving its play source if it is lazy
+     *
+     * @return the uri, null if there is no current media item or its play source is not resolved
+     */
+    suspend fun getCurrentMediaItemUri(): Uri?
+
     /**
      * Get current playing position
      *
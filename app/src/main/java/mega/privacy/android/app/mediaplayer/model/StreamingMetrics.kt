@@ -0,0 +1,23 @@
+package mega.privacy.android.app.mediaplayer.model
+
+/**
+ * The metrics of the streamed media
+ *
+ * @property cachedBytes bytes of the streamed media read from the on-disk cache
+ * @property streamedBytes bytes of the streamed media read from the streaming server
+ * @property rebufferCount number of times the playback stalled to buffer
+ * @property rebufferTimeMs time the playback was stalled to buffer, in milliseconds
+ */
+data class StreamingMetrics(
+    val cachedBytes: Long,
+    val streamedBytes: Long,
+    val rebufferCount: Int,
+    val rebufferTimeMs: Long,
+) {
+    /**
+     * Ratio of the streamed media bytes read from the cache, 0 if none was read yet
+     */
+    val cacheHitRatio: Float
+        get() = (cachedBytes + streamedBytes).takeIf { it > 0 }
+            ?.let { cachedBytes.toFloat() / it } ?: 0f
+}
@@ -12,6 +12,7 @@ import android.content.IntentFilter
 import android.content.pm.ServiceInfo
 import android.media.AudioFocusRequest
 import android.media.AudioManager
+import android.net.Uri
 import android.os.Build
 import android.os.Handler
 import android.os.IBinder
@@ -32,7 +33,9 @@ import dagger.hilt.InstallIn
 import dagger.hilt.android.AndroidEntryPoint
 import dagger.hilt.android.EntryPointAccessors
 import dagger.hilt.components.SingletonComponent
+import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.launch
+import kotlinx.coroutines.withContext
 import mega.privacy.android.app.R
 import mega.privacy.android.app.di.mediaplayer.AudioPlayer
 import mega.privacy.android.app.mediaplayer.AudioPlayerActivity
@@ -51,6 +54,7 @@ import mega.privacy.android.app.utils.ChatUtil.getAudioFocus
 import mega.privacy.android.app.utils.ChatUtil.getRequest
 import mega.privacy.android.app.utils.Constants
 import mega.privacy.android.domain.entity.mediaplayer.RepeatToggleMode
+import mega.privacy.android.domain.qualifier.IoDispatcher
 import mega.privacy.android.icon.pack.R as iconPackR
 import android.annotation.SuppressLint
 import android.app.NotificationChannel
@@ -84,6 +88,13 @@ class AudioPlayerService : LifecycleService(), LifecycleEventObserver, MediaPlay
     @Inject
     lateinit var crashReporter: CrashReporter
 
+    /**
+     * Coroutine dispatcher for IO operations
+     */
+    @IoDispatcher
+    @Inject
+    lateinit var ioDispatcher: CoroutineDispatcher
+
     private val binder by lazy { MediaPlayerServiceBinder(this, viewModelGateway) }
 
     private val metadata = MutableLiveData<Metadata>()
@@ -237,6 +248,7 @@ class AudioPlayerService : LifecycleService(), LifecycleEventObserver, MediaPlay
                 nameChangeCallback = nameChangeCallback,
                 mediaPlayerCallback = mediaPlayerCallback
             )
+            mediaPlayerGateway.setMediaItemUriResolver(::resolveMediaItemUri)
         }
     }
 
@@ -500,6 +512,15 @@ class AudioPlayerService : LifecycleService(), LifecycleEventObserver, MediaPlay
 
     override fun getCurrentMediaItem() = mediaPlayerGateway.getCurrentMediaItem()
 
+    override suspend fun getCurrentMediaItemUri(): Uri? =
+        getCurrentMediaItem()?.localConfiguration?.uri?.let { uri ->
+            withContext(ioDispatcher) {
+                runCatching { viewModelGateway.resolveMediaItemUri(uri) }
+                    .onFailure { Timber.w(it, "Current media item uri not resolved") }
+                    .getOrNull()
+            }
+        }
+
     override fun getCurrentPlayingPosition() = mediaPlayerGateway.getCurrentPlayingPosition()
 
     override fun getPlaybackState() = mediaPlayerGateway.getPlaybackState()
@@ -24,6 +24,7 @@ import kotlinx.coroutines.launch
 import mega.privacy.android.app.MegaOffline
 import mega.privacy.android.app.MimeTypeList
 import mega.privacy.android.app.R
+import mega.privacy.android.app.mediaplayer.PlaySourceWindow
 import mega.privacy.android.app.mediaplayer.gateway.AudioPlayerServiceViewModelGateway
 import mega.privacy.android.app.mediaplayer.mapper.PlaylistItemMapper
 import mega.privacy.android.app.mediaplayer.model.MediaPlaySources
@@ -234,6 +235,8 @@ class AudioPlayerServiceViewModel @Inject constructor(
 
     private val itemsSelectedMap = mutableMapOf<Long, PlaylistItem>()
 
+    private val playSourceWindow = PlaySourceWindow(sharingScope, ioDispatcher)
+
     private var playlistSearchQuery: String? = null
 
     private var shuffleOrder: ShuffleOrder = ExposedShuffleOrder(0, this)
@@ -337,6 +340,7 @@ class AudioPlayerServiceViewModel @Inject constructor(
         val mediaItem = MediaItem.Builder()
             .setUri(firstPlayUri)
             .setMediaId(firstPlayHandle.toString())
+            .setCustomCacheKey(firstPlayHandle.toString())
             .build()
         playerSource.value = MediaPlaySources(
             listOf(mediaItem),
@@ -671,34 +675,17 @@ class AudioPlayerServiceViewModel @Inject constructor(
 
         val nodesWithoutThumbnail = ArrayList<Pair<Long, File>>()
 
+        // The uris are only resolved when the player opens the items, and in background for
+        // the items around the playing one, so the playlist is shown at once for big folders.
+        val fileNodes = typedNodes.filterIsInstance<TypedFileNode>()
+            .associateBy { it.id.longValue }
+        playSourceWindow.setPlaylist(fileNodes.keys.toList()) { handle ->
+            fileNodes[handle]?.let { getPlaySourceUri(type, it) }
+        }
+
         typedNodes.mapIndexed { currentIndex, typedNode ->
             if (typedNode is TypedFileNode) {
-                getLocalFilePathUseCase(typedNode).let { localPath ->
-                    if (localPath != null && isLocalFile(typedNode, localPath)) {
-                        mediaItemFromFile(File(localPath), typedNode.id.longValue.toString())
-                    } else {
-                        val url =
-                            if (type == FOLDER_LINK_ADAPTER) {
-                                if (isMegaApiFolder(type)) {
-                                    getLocalFolderLinkFromMegaApiFolderUseCase(typedNode.id.longValue)
-                                } else {
-                                    getLocalFolderLinkFromMegaApiUseCase(typedNode.id.longValue)
-                                }
-                            } else {
-                                getLocalLinkFromMegaApiUseCase(typedNode.id.longValue)
-                            }
-                        if (url == null) {
-                            null
-                        } else {
-                            MediaItem.Builder()
-                                .setUri(Uri.parse(url))
-                                .setMediaId(typedNode.id.longValue.toString())
-                                .build()
-                        }
-                    }?.let {
-                        mediaItems.add(it)
-                    }
-                }
+                mediaItems.add(playSourceWindow.mediaItem(typedNode.id.longValue))
 
                 if (typedNode.id.longValue == firstPlayHandle) {
                     firstPlayIndex = currentIndex
@@ -759,6 +746,29 @@ class AudioPlayerServiceViewModel @Inject constructor(
             cancellableJobs[JOB_KEY_UPDATE_THUMBNAIL] = updateThumbnailJob
         }
         updatePlaySources(mediaItems, playlistItems, firstPlayIndex)
+        playSourceWindow.moveTo(firstPlayHandle)
+    }
+
+    /**
+     * Get the uri to play a node, the local file if it was downloaded or the streaming link
+     *
+     * @param type adapter type
+     * @param typedNode [TypedFileNode]
+     * @return the uri, or null if the node cannot be played
+     */
+    private suspend fun getPlaySourceUri(type: Int, typedNode: TypedFileNode): String? {
+        val localPath = getLocalFilePathUseCase(typedNode)
+        return if (localPath != null && isLocalFile(typedNode, localPath)) {
+            getUriForFile(context, File(localPath)).toString()
+        } else if (type == FOLDER_LINK_ADAPTER) {
+            if (isMegaApiFolder(type)) {
+                getLocalFolderLinkFromMegaApiFolderUseCase(typedNode.id.longValue)
+            } else {
+                getLocalFolderLinkFromMegaApiUseCase(typedNode.id.longValue)
+            }
+        } else {
+            getLocalLinkFromMegaApiUseCase(typedNode.id.longValue)
+        }
     }
 
     /**
@@ -1116,6 +1126,7 @@ class AudioPlayerServiceViewModel @Inject constructor(
 
     override fun setCurrentPlayingHandle(handle: Long) {
         playingHandle = handle
+        playSourceWindow.moveTo(handle)
         playlistItemsFlow.value.first.let { playlistItems ->
             playingPosition = playlistItems.indexOfFirst { (nodeHandle) ->
                 nodeHandle == handle
@@ -1333,8 +1344,11 @@ class AudioPlayerServiceViewModel @Inject constructor(
         cancellableJobs.values.map {
             it.cancel()
         }
+        playSourceWindow.clear()
     }
 
+    override fun resolveMediaItemUri(uri: Uri): Uri = playSourceWindow.resolve(uri)
+
     private suspend fun isMegaApiFolder(type: Int) =
         type == FOLDER_LINK_ADAPTER && areCredentialsNullUseCase()
 
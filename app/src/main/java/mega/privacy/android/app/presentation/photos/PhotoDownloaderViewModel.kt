@@ -7,7 +7,9 @@ import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.channels.BufferOverflow
 import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.coroutineScope
 import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Semaphore
 import kotlinx.coroutines.withContext
 import mega.privacy.android.domain.entity.photos.Photo
 import mega.privacy.android.domain.qualifier.IoDispatcher
@@ -32,18 +34,33 @@ class PhotoDownloaderViewModel @Inject constructor(
         onBufferOverflow = BufferOverflow.DROP_OLDEST
     )
 
+    private val downloadSemaphore = Semaphore(MAX_CONCURRENT_DOWNLOADS)
+
     init {
         viewModelScope.launch(ioDispatcher) {
             handleChannel()
         }
     }
 
-    private suspend fun handleChannel() {
+    /**
+     * Download the covers of the channel, at most [MAX_CONCURRENT_DOWNLOADS] at the same time
+     *
+     * A cover is only taken from the channel once a download slot is free, so the oldest covers
+     * keep being dropped when the channel is full
+     */
+    private suspend fun handleChannel() = coroutineScope {
         for (photoCover in channel) {
-            if (photoCover.isPublicNode) {
-                downloadPhotoCover(photoCover)
-            } else {
-                downloadPublicNodePhotoCover(photoCover)
+            downloadSemaphore.acquire()
+            launch {
+                try {
+                    if (photoCover.isPublicNode) {
+                        downloadPhotoCover(photoCover)
+                    } else {
+                        downloadPublicNodePhotoCover(photoCover)
+                    }
+                } finally {
+                    downloadSemaphore.release()
+                }
             }
         }
     }
@@ -156,6 +173,13 @@ class PhotoDownloaderViewModel @Inject constructor(
         channel.close()
         super.onCleared()
     }
+
+    companion object {
+        /**
+         * Maximum number of covers downloaded at the same time
+         */
+        const val MAX_CONCURRENT_DOWNLOADS = 8
+    }
 }
 
 data class PhotoCover(
@@ -4,32 +4,40 @@ import androidx.lifecycle.ViewModel
 import androidx.lifecycle.asLiveData
 import androidx.lifecycle.viewModelScope
 import dagger.hilt.android.lifecycle.HiltViewModel
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.SharingStarted
 import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.catch
 import kotlinx.coroutines.flow.map
 import kotlinx.coroutines.flow.shareIn
 import kotlinx.coroutines.flow.update
 import kotlinx.coroutines.launch
+import mega.privacy.android.app.domain.usecase.GetNodeByHandle
 import mega.privacy.android.app.domain.usecase.GetRootFolder
 import mega.privacy.android.domain.usecase.node.MonitorNodeUpdatesUseCase
-import mega.privacy.android.app.domain.usecase.search.SearchNodesUseCase
 import mega.privacy.android.app.featuretoggle.ABTestFeatures
 import mega.privacy.android.app.fragments.homepage.Event
 import mega.privacy.android.app.main.DrawerItem
 import mega.privacy.android.app.presentation.manager.model.SharesTab
 import mega.privacy.android.app.presentation.search.mapper.SearchFilterMapper
+import mega.privacy.android.app.presentation.search.mapper.SearchTypeMapper
 import mega.privacy.android.app.presentation.search.model.SearchFilter
 import mega.privacy.android.app.presentation.search.model.SearchState
+import mega.privacy.android.domain.entity.node.TypedNode
 import mega.privacy.android.domain.entity.preference.ViewType
 import mega.privacy.android.domain.entity.search.SearchCategory
+import mega.privacy.android.domain.entity.search.SearchType
 import mega.privacy.android.domain.entity.transfer.TransferEvent
 import mega.privacy.android.domain.usecase.GetCloudSortOrder
 import mega.privacy.android.domain.usecase.GetParentNodeHandle
 import mega.privacy.android.domain.usecase.RootNodeExistsUseCase
-import mega.privacy.android.domain.usecase.canceltoken.CancelCancelTokenUseCase
 import mega.privacy.android.domain.usecase.featureflag.GetFeatureFlagValueUseCase
 import mega.privacy.android.domain.usecase.search.GetSearchCategoriesUseCase
+import mega.privacy.android.domain.usecase.search.SearchNodesByNamePrefixUseCase
+import mega.privacy.android.domain.usecase.search.SearchNodesPagedUseCase
 import mega.privacy.android.domain.usecase.transfers.MonitorTransferEventsUseCase
 import nz.mega.sdk.MegaApiJava.INVALID_HANDLE
 import nz.mega.sdk.MegaNode
@@ -42,9 +50,12 @@ import javax.inject.Inject
  *
  * @param monitorNodeUpdatesUseCase Monitor global node updates
  * @param rootNodeExistsUseCase Check if the root node exists
- * @param searchNodesUseCase Perform a search request
+ * @param searchNodesPagedUseCase Perform a search request, emitting the results in pages
+ * @param searchNodesByNamePrefixUseCase Search the cloud drive names by word prefix
+ * @param getNodeByHandle Get the node of a handle
  * @param getCloudSortOrder Get the Cloud Sort Order
  * @param getSearchParentNodeHandle Get parent node for current node
+ * @param searchTypeMapper Map the drawer item and shares tab to the search type
  */
 @HiltViewModel
 class SearchViewModel @Inject constructor(
@@ -52,13 +63,15 @@ class SearchViewModel @Inject constructor(
     private val monitorTransferEventsUseCase: MonitorTransferEventsUseCase,
     private val rootNodeExistsUseCase: RootNodeExistsUseCase,
     private val getRootFolder: GetRootFolder,
-    private val searchNodesUseCase: SearchNodesUseCase,
+    private val searchNodesPagedUseCase: SearchNodesPagedUseCase,
+    private val searchNodesByNamePrefixUseCase: SearchNodesByNamePrefixUseCase,
+    private val getNodeByHandle: GetNodeByHandle,
     private val getCloudSortOrder: GetCloudSortOrder,
     private val getSearchParentNodeHandle: GetParentNodeHandle,
-    private val cancelCancelTokenUseCase: CancelCancelTokenUseCase,
     private val getFeatureFlagValueUseCase: GetFeatureFlagValueUseCase,
     private val getSearchCategoriesUseCase: GetSearchCategoriesUseCase,
     private val searchFilterMapper: SearchFilterMapper,
+    private val searchTypeMapper: SearchTypeMapper,
 ) : ViewModel() {
 
     /**
@@ -85,6 +98,8 @@ class SearchViewModel @Inject constructor(
 
     private var firstNavigationLevel = false
 
+    private var searchJob: Job? = null
+
     init {
         monitorTransferEvent()
         getRootNode()
@@ -241,10 +256,10 @@ class SearchViewModel @Inject constructor(
         outgoingParentHandle: Long,
         linksParentHandle: Long,
         isFirstNavigationLevel: Boolean,
-    ) = viewModelScope.launch {
+    ) = launchSearch {
         if (!rootNodeExistsUseCase()) {
             Timber.e("Root node is null.")
-            return@launch
+            return@launchSearch
         }
 
         firstNavigationLevel = isFirstNavigationLevel
@@ -264,24 +279,93 @@ class SearchViewModel @Inject constructor(
         startSearch()
     }
 
+    /**
+     * Launch a search, cancelling the previous one
+     */
+    private fun launchSearch(block: suspend () -> Unit): Job {
+        searchJob?.cancel()
+        return viewModelScope.launch { block() }.also { searchJob = it }
+    }
+
     /**
      * Start search by calling search api
+     *
+     * While the query is typed, the cloud drive is first searched by word prefix in the on-device
+     * index, and the search api is only called once the query stops changing. The results of the
+     * search api are shown page by page, and the search is cancelled with [searchJob].
      */
     private suspend fun startSearch() {
-        cancelSearch()
+        setNodes(null)
         setIsInSearchProgress(true)
-        with(state.value) {
-            val nodes = searchNodesUseCase(
-                query = searchQuery,
-                parentHandleSearch = searchParentHandle,
-                parentHandle = searchHandle,
-                drawerItem = searchDrawerItem,
-                sharesTab = searchSharesTab.position,
-                isFirstLevel = firstNavigationLevel,
-                searchFilter = selectedFilter
-            )
-            finishSearch(nodes ?: emptyList())
+        if (!state.value.textSubmitted) {
+            searchByNamePrefix()?.let { nodes ->
+                finishSearch(nodes)
+                delay(SEARCH_API_DELAY_MILLIS)
+            }
+        }
+        val nodes = mutableListOf<MegaNode>()
+        searchNodesPaged()
+            .catch {
+                Timber.e(it, "Search failed")
+                finishSearch(nodes.toList())
+            }
+            .collect { page ->
+                page.mapNotNullTo(nodes) { getNodeByHandle(it.id.longValue) }
+                finishSearch(nodes.toList())
+            }
+    }
+
+    /**
+     * Search the current query from the current location
+     *
+     * Inside a folder its children are listed unless a filter is selected, and the shares tabs
+     * are only searched as a whole from their first level.
+     *
+     * @return flow of the pages of results
+     */
+    private fun searchNodesPaged(): Flow<List<TypedNode>> = with(state.value) {
+        val searchCategory = selectedFilter?.filter ?: SearchCategory.ALL
+        val isInFolder = searchParentHandle != INVALID_HANDLE
+        val parentHandle = when {
+            isInFolder -> searchParentHandle
+            searchDrawerItem == DrawerItem.HOMEPAGE || searchDrawerItem == null -> rootNodeHandle
+            else -> searchHandle
+        }
+        val isChildrenListing = isInFolder && searchCategory == SearchCategory.ALL
+        searchNodesPagedUseCase(
+            query = if (isChildrenListing) "" else searchQuery.orEmpty(),
+            parentHandle = parentHandle,
+            searchType = if (parentHandle == INVALID_HANDLE) {
+                searchTypeMapper(searchDrawerItem, searchSharesTab)
+            } else {
+                SearchType.OTHER
+            },
+            isFirstLevel = firstNavigationLevel,
+            searchCategory = searchCategory,
+        )
+    }
+
+    /**
+     * Search the names of the whole cloud drive by word prefix
+     *
+     * @return the nodes found, or null if the search is not on the whole cloud drive
+     */
+    private suspend fun searchByNamePrefix(): List<MegaNode>? = with(state.value) {
+        val isCloudDriveSearch = searchParentHandle == INVALID_HANDLE && when (searchDrawerItem) {
+            DrawerItem.HOMEPAGE -> true
+            DrawerItem.CLOUD_DRIVE -> searchHandle == rootNodeHandle
+            else -> false
         }
+        val query = searchQuery
+        if (!isCloudDriveSearch || query.isNullOrBlank()) return null
+        runCatching {
+            searchNodesByNamePrefixUseCase(
+                query = query,
+                searchCategory = selectedFilter?.filter ?: SearchCategory.ALL,
+            ).mapNotNull { getNodeByHandle(it.id.longValue) }
+        }.onFailure {
+            Timber.e(it, "Search by name prefix failed")
+        }.getOrNull()
     }
 
     /**
@@ -322,12 +406,12 @@ class SearchViewModel @Inject constructor(
 
     /**
      * Cancel a search request
+     *
+     * Cancelling the collection of the search pages cancels the search api request
      */
     fun cancelSearch() {
+        searchJob?.cancel()
         setNodes(null)
-        viewModelScope.launch {
-            cancelCancelTokenUseCase()
-        }
     }
 
     /**
@@ -451,6 +535,13 @@ class SearchViewModel @Inject constructor(
             null
         }
         _state.update { it.copy(selectedFilter = searchFilter) }
-        viewModelScope.launch { startSearch() }
+        launchSearch { startSearch() }
+    }
+
+    companion object {
+        /**
+         * Time the query must stay unchanged before the search api is called while it is typed
+         */
+        const val SEARCH_API_DELAY_MILLIS = 500L
     }
 }
@@ -31,6 +31,7 @@ This method will show [NodeUIItem] in Grid manner based on span and getting thum
  * @param modifier
  * @param spanCount the span count of the grid
  * @param showChangeViewType whether to show change view type button
+ * @param isPublicNode whether the nodes belong to a folder link
  */
 @Composable
 fun <T : TypedNode> NodeGridView(
@@ -50,6 +51,14 @@ fun <T : TypedNode> NodeGridView(
     showChangeViewType: Boolean = true,
     isPublicNode: Boolean = false,
 ) {
+    val showHeader = showSortOrder || showChangeViewType
+    PrefetchGridThumbnails(
+        gridState = gridState,
+        nodeUIItems = nodeUIItems,
+        firstItemIndex = if (showHeader) 1 else 0,
+        spanCount = spanCount,
+        isPublicNode = isPublicNode,
+    )
     LazyVerticalGrid(
         state = gridState,
         columns = GridCells.Fixed(spanCount),
@@ -57,7 +66,7 @@ fun <T : TypedNode> NodeGridView(
         verticalArrangement = Arrangement.spacedBy(4.dp),
         horizontalArrangement = Arrangement.spacedBy(4.dp)
     ) {
-        if (showSortOrder || showChangeViewType) {
+        if (showHeader) {
             item(
                 key = "header",
                 span = {
@@ -0,0 +1,78 @@
+package mega.privacy.android.app.presentation.view
+
+import androidx.compose.foundation.lazy.grid.LazyGridState
+import androidx.compose.runtime.Composable
+import androidx.compose.runtime.LaunchedEffect
+import androidx.compose.runtime.getValue
+import androidx.compose.runtime.rememberUpdatedState
+import androidx.compose.runtime.snapshotFlow
+import androidx.compose.ui.platform.LocalContext
+import coil.imageLoader
+import coil.request.ImageRequest
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.flow.collectLatest
+import kotlinx.coroutines.flow.distinctUntilChanged
+import kotlinx.coroutines.flow.filterNotNull
+import kotlinx.coroutines.launch
+import mega.privacy.android.app.fetcher.MegaThumbnailFetcher
+import mega.privacy.android.app.presentation.data.NodeUIItem
+import mega.privacy.android.domain.entity.node.FileNode
+import mega.privacy.android.domain.entity.node.TypedNode
+import mega.privacy.android.domain.entity.node.thumbnail.ThumbnailRequest
+
+private const val PREFETCH_ROWS = 2
+
+/**
+ * Loads in the memory cache the thumbnails of the rows below the last visible one, so that they
+ * are shown as soon as they are scrolled into view
+ *
+ * The requests are cancelled when the last visible item changes, and made again for the new rows.
+ * They are sent to the SDK after the requests of the visible thumbnails.
+ *
+ * @param gridState the state of the grid
+ * @param nodeUIItems List of [NodeUIItem] shown by the grid
+ * @param firstItemIndex index in the grid of the first item of [nodeUIItems]
+ * @param spanCount the span count of the grid
+ * @param isPublicNode whether the nodes belong to a folder link
+ * @param rows number of rows to prefetch
+ */
+@Composable
+internal fun <T : TypedNode> PrefetchGridThumbnails(
+    gridState: LazyGridState,
+    nodeUIItems: List<NodeUIItem<T>>,
+    firstItemIndex: Int,
+    spanCount: Int,
+    isPublicNode: Boolean,
+    rows: Int = PREFETCH_ROWS,
+) {
+    val context = LocalContext.current
+    val items by rememberUpdatedState(nodeUIItems)
+    LaunchedEffect(gridState, firstItemIndex, spanCount, isPublicNode, rows) {
+        snapshotFlow { gridState.layoutInfo.visibleItemsInfo.lastOrNull() }
+            .filterNotNull()
+            .distinctUntilChanged { old, new -> old.index == new.index }
+            .collectLatest { lastVisible ->
+                val from = lastVisible.index - firstItemIndex + 1
+                val to = (from + rows * spanCount).coerceAtMost(items.size)
+                coroutineScope {
+                    for (index in from.coerceAtLeast(0) until to) {
+                        val item = items[index]
+                        if (item.isInvisible || item.node !is FileNode) continue
+                        launch {
+                            context.imageLoader.execute(
+                                ImageRequest.Builder(context)
+                                    .data(ThumbnailRequest(item.node.id, isPublicNode))
+                                    .size(lastVisible.size.width, lastVisible.size.height)
+                                    .setParameter(
+                                        key = MegaThumbnailFetcher.PREFETCH_PARAMETER,
+                                        value = true,
+                                        memoryCacheKey = null,
+                                    )
+                                    .build()
+                            )
+                        }
+                    }
+                }
+            }
+    }
+}
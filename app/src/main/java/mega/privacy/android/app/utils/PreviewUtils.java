@@ -15,6 +15,7 @@ import java.io.File;
 
 import mega.privacy.android.app.MegaApplication;
 import mega.privacy.android.app.PreviewCache;
+import mega.privacy.android.app.utils.cache.BitmapMemoryCache;
 import nz.mega.sdk.MegaApiAndroid;
 import nz.mega.sdk.MegaNode;
 import timber.log.Timber;
@@ -130,7 +131,11 @@ public class PreviewUtils {
                 float scale = 1000f / max;
                 int w = Math.round(scale * width);
                 int h = Math.round(scale * height);
-                bitmap = Bitmap.createScaledBitmap(bitmap, w, h, true);
+                Bitmap frame = bitmap;
+                bitmap = Bitmap.createScaledBitmap(frame, w, h, true);
+                if (bitmap != frame) {
+                    BitmapMemoryCache.getInstance().release(frame);
+                }
             }
         }
         return bitmap;
@@ -154,7 +159,7 @@ public class PreviewUtils {
         bOpts.inJustDecodeBounds = false;
         bOpts.inSampleSize = inSampleSize;
         Timber.d("PREVIEW_SIZE %s____ %d", bmpFile.getAbsolutePath(), bmpFile.length());
-        return BitmapFactory.decodeFile(bmpFile.getAbsolutePath(), bOpts);
+        return BitmapMemoryCache.getInstance().decodeFile(bmpFile.getAbsolutePath(), bOpts);
     }
 
     public static Bitmap getPreviewFromFolderFullImage(MegaNode node, Context context) {
@@ -4,13 +4,11 @@ import static mega.privacy.android.app.utils.Constants.THUMB_CORNER_RADIUS_DP;
 import static mega.privacy.android.app.utils.FileUtil.getLocalFile;
 import static mega.privacy.android.app.utils.FileUtil.isFileAvailable;
 import static mega.privacy.android.app.utils.Util.dp2px;
-import static nz.mega.sdk.MegaUtilsAndroid.createThumbnail;
 
 import android.content.ContentResolver;
 import android.content.Context;
 import android.database.Cursor;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.Canvas;
 import android.graphics.Paint;
 import android.graphics.Path;
@@ -19,7 +17,6 @@ import android.graphics.PorterDuffXfermode;
 import android.graphics.Rect;
 import android.graphics.RectF;
 import android.net.Uri;
-import android.os.AsyncTask;
 import android.provider.BaseColumns;
 import android.provider.MediaStore;
 import android.provider.MediaStore.MediaColumns;
@@ -53,6 +50,8 @@ import mega.privacy.android.app.main.providers.MegaProviderAdapter;
 import mega.privacy.android.app.main.providers.MegaProviderAdapter.ViewHolderProvider;
 import mega.privacy.android.app.presentation.recentactions.RecentActionsAdapter;
 import mega.privacy.android.app.presentation.recentactions.recentactionbucket.RecentActionBucketAdapter;
+import mega.privacy.android.app.utils.cache.BitmapMemoryCache;
+import mega.privacy.android.app.utils.thumbnail.ThumbnailDecodePipeline;
 import nz.mega.sdk.MegaApiAndroid;
 import nz.mega.sdk.MegaApiJava;
 import nz.mega.sdk.MegaError;
@@ -612,138 +611,42 @@ public class ThumbnailUtils {
      * Load Bitmap for cache
      */
     private static Bitmap getBitmapForCache(File bmpFile, Context context) {
-        BitmapFactory.Options bOpts = new BitmapFactory.Options();
-        bOpts.inPurgeable = true;
-        bOpts.inInputShareable = true;
-        return BitmapFactory.decodeFile(bmpFile.getAbsolutePath(), bOpts);
+        return BitmapMemoryCache.getInstance().decodeFile(bmpFile.getAbsolutePath());
     }
 
     private static Bitmap getBitmapForCacheForList(File bmpFile, Context context) {
         if (isDeviceMemoryLow) {
             return null;
         }
-        BitmapFactory.Options bOpts = new BitmapFactory.Options();
-        return BitmapFactory.decodeFile(bmpFile.getAbsolutePath(), bOpts);
+        return BitmapMemoryCache.getInstance().decodeFile(bmpFile.getAbsolutePath());
     }
 
-    public static class ResizerParams {
-        File file;
-        MegaNode document;
-    }
-
-
-    /*
-     * This async task is to patch thumbnail picture to video or image files
-     * in device folder when select device file to upload
+    /**
+     * Gets the view a holder shows the thumbnail in, to decode the thumbnail to its size
+     *
+     * @return the view, or null if the holder is not known
      */
-    static class AttachThumbnailToFileStorageExplorerTask extends AsyncTask<FileDocument, Void, Boolean> {
-
-        Context context;
-        File thumbFile;
-        File originalFile;
-        FileStorageAdapter adapter;
-        MegaApiAndroid megaApi;
-        int position;
-
-        AttachThumbnailToFileStorageExplorerTask(Context context, MegaApiAndroid megaApi, FileStorageAdapter adapter, int position) {
-            this.context = context;
-            this.adapter = adapter;
-            this.thumbFile = null;
-            this.megaApi = megaApi;
-            this.position = position;
-        }
-
-        @Override
-        protected Boolean doInBackground(FileDocument... params) {
-            Timber.d("Attach Thumbnails to file storage explorer Start");
-            File thumbDir = getThumbFolder(context);
-            this.originalFile = params[0].getFile();
-            thumbFile = new File(thumbDir, megaApi.getFingerprint(this.originalFile.getAbsolutePath()) + ".jpg");
-            return createThumbnail(this.originalFile, thumbFile);
-        }
-
-        @Override
-        protected void onPostExecute(Boolean shouldContinueObject) {
-            if (shouldContinueObject) {
-                onThumbnailGeneratedExplorer(megaApi, this.thumbFile, this.originalFile, adapter, position);
-            }
-        }
-    }
-
-    static class AttachThumbnailTaskExplorer extends AsyncTask<ResizerParams, Void, Boolean> {
-        Context context;
-        MegaApiAndroid megaApi;
-        File thumbFile;
-        ResizerParams param;
-        ViewHolderExplorer holder;
-        MegaExplorerAdapter adapter;
-
-        AttachThumbnailTaskExplorer(Context context, MegaApiAndroid megaApi, ViewHolderExplorer holder, MegaExplorerAdapter adapter) {
-            this.context = context;
-            this.megaApi = megaApi;
-            this.holder = holder;
-            this.adapter = adapter;
-            this.thumbFile = null;
-            this.param = null;
-        }
-
-        @Override
-        protected Boolean doInBackground(ResizerParams... params) {
-            Timber.d("AttachPreviewStart");
-            param = params[0];
-
-            File thumbDir = getThumbFolder(context);
-            thumbFile = new File(thumbDir, param.document.getBase64Handle() + ".jpg");
-
-            return createThumbnail(param.file, thumbFile);
-        }
-
-        @Override
-        protected void onPostExecute(Boolean shouldContinueObject) {
-            if (shouldContinueObject) {
-                onThumbnailGeneratedExplorer(context, thumbFile, param.document, holder, adapter);
-            }
-        }
-    }
-
-    static class AttachThumbnailTaskProvider extends AsyncTask<ResizerParams, Void, Boolean> {
-        Context context;
-        MegaApiAndroid megaApi;
-        File thumbFile;
-        ResizerParams param;
-        ViewHolderProvider holder;
-        MegaProviderAdapter adapter;
-
-        AttachThumbnailTaskProvider(Context context, MegaApiAndroid megaApi, ViewHolderProvider holder, MegaProviderAdapter adapter) {
-            this.context = context;
-            this.megaApi = megaApi;
-            this.holder = holder;
-            this.adapter = adapter;
-            this.thumbFile = null;
-            this.param = null;
-        }
-
-        @Override
-        protected Boolean doInBackground(ResizerParams... params) {
-            Timber.d("AttachPreviewStart");
-            param = params[0];
-
-            File thumbDir = getThumbFolder(context);
-            thumbFile = new File(thumbDir, param.document.getBase64Handle() + ".jpg");
-
-            return createThumbnail(param.file, thumbFile);
-        }
-
-        @Override
-        protected void onPostExecute(Boolean shouldContinueObject) {
+    private static View getThumbnailView(RecyclerView.ViewHolder holder) {
+        if (holder instanceof MegaNodeAdapter.ViewHolderBrowserList) {
+            return ((MegaNodeAdapter.ViewHolderBrowserList) holder).imageView;
+        } else if (holder instanceof MegaNodeAdapter.ViewHolderBrowserGrid) {
+            return ((MegaNodeAdapter.ViewHolderBrowserGrid) holder).imageViewThumb;
+        } else if (holder instanceof VersionsFileAdapter.ViewHolderVersion) {
+            return ((VersionsFileAdapter.ViewHolderVersion) holder).imageView;
+        } else if (holder instanceof NodeAttachmentHistoryAdapter.ViewHolderBrowserGrid) {
+            return ((NodeAttachmentHistoryAdapter.ViewHolderBrowserGrid) holder).imageViewThumb;
+        } else if (holder instanceof MegaExplorerAdapter.ViewHolderListExplorer) {
+            return ((MegaExplorerAdapter.ViewHolderListExplorer) holder).imageView;
+        } else if (holder instanceof MegaExplorerAdapter.ViewHolderGridExplorer) {
+            return ((MegaExplorerAdapter.ViewHolderGridExplorer) holder).fileThumbnail;
+        } else if (holder instanceof ViewHolderFileStorage) {
+            return ((ViewHolderFileStorage) holder).imageView;
         }
+        return null;
     }
 
-    private static void onThumbnailGeneratedExplorer(Context context, File thumbFile, MegaNode document, ViewHolderExplorer holder, MegaExplorerAdapter adapter) {
+    private static void onThumbnailGeneratedExplorer(Context context, Bitmap bitmap, MegaNode document, ViewHolderExplorer holder, MegaExplorerAdapter adapter) {
         Timber.d("onPreviewGenerated");
-        BitmapFactory.Options options = new BitmapFactory.Options();
-        options.inPreferredConfig = Bitmap.Config.ARGB_8888;
-        Bitmap bitmap = BitmapFactory.decodeFile(thumbFile.getAbsolutePath(), options);
         if (holder instanceof MegaExplorerAdapter.ViewHolderListExplorer) {
             MegaExplorerAdapter.ViewHolderListExplorer holderList = (MegaExplorerAdapter.ViewHolderListExplorer) holder;
             holderList.imageView.setImageBitmap(getRoundedBitmap(context, bitmap, dp2px(THUMB_CORNER_RADIUS_DP)));
@@ -759,128 +662,30 @@ public class ThumbnailUtils {
         Timber.d("AttachThumbnailTask end");
     }
 
-    private static void onThumbnailGeneratedExplorer(MegaApiAndroid megaApi, File thumbFile, File originalFile, FileStorageAdapter adapter, int position) {
+    private static void onThumbnailGeneratedExplorer(Bitmap bitmap, String key, FileStorageAdapter adapter, int position) {
         Timber.d("onPreviewGenerated");
-        BitmapFactory.Options options = new BitmapFactory.Options();
-        options.inPreferredConfig = Bitmap.Config.ARGB_8888;
-        Bitmap bitmap = BitmapFactory.decodeFile(thumbFile.getAbsolutePath(), options);
-        String key = megaApi.getFingerprint(originalFile.getAbsolutePath());
         //put thumbnail picture into cache
-        if (key != null && bitmap != null) {
-            thumbnailCache.put(megaApi.getFingerprint(originalFile.getAbsolutePath()), bitmap);
-        }
+        thumbnailCache.put(key, bitmap);
         //refresh the position only in required
         adapter.notifyItemChanged(position);
         Timber.d("AttachThumbnailTask end");
     }
 
-    static class AttachThumbnailTaskList extends AsyncTask<ResizerParams, Void, Boolean> {
-        Context context;
-        MegaApiAndroid megaApi;
-        File thumbFile;
-        ResizerParams param;
-        RecyclerView.ViewHolder holder;
-        RecyclerView.Adapter adapter;
-
-        AttachThumbnailTaskList(Context context, MegaApiAndroid megaApi, RecyclerView.ViewHolder holder, RecyclerView.Adapter adapter) {
-            this.context = context;
-            this.megaApi = megaApi;
-            this.holder = holder;
-            this.adapter = adapter;
-            this.thumbFile = null;
-            this.param = null;
-        }
-
-
-        @Override
-        protected Boolean doInBackground(ResizerParams... params) {
-            Timber.d("AttachThumbnailTaskList");
-            param = params[0];
-
-            File thumbDir = getThumbFolder(context);
-            thumbFile = new File(thumbDir, param.document.getBase64Handle() + ".jpg");
-
-            return createThumbnail(param.file, thumbFile);
-        }
-
-        @Override
-        protected void onPostExecute(Boolean shouldContinueObject) {
-
-            if (!shouldContinueObject) return;
-
-            if (holder instanceof MegaNodeAdapter.ViewHolderBrowserList) {
-                RelativeLayout.LayoutParams params1 = (RelativeLayout.LayoutParams) ((MegaNodeAdapter.ViewHolderBrowserList) holder).imageView.getLayoutParams();
-                params1.height = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 36, context.getResources().getDisplayMetrics());
-                params1.width = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 36, context.getResources().getDisplayMetrics());
-                params1.setMargins(18, 0, 12, 0);
-                ((MegaNodeAdapter.ViewHolderBrowserList) holder).imageView.setLayoutParams(params1);
-
-                onThumbnailGeneratedList(context, megaApi, thumbFile, param.document, holder, adapter);
-            } else if (holder instanceof VersionsFileAdapter.ViewHolderVersion) {
-                RelativeLayout.LayoutParams params1 = (RelativeLayout.LayoutParams) ((VersionsFileAdapter.ViewHolderVersion) holder).imageView.getLayoutParams();
-                params1.height = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 36, context.getResources().getDisplayMetrics());
-                params1.width = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 36, context.getResources().getDisplayMetrics());
-                params1.setMargins(18, 0, 12, 0);
-                ((VersionsFileAdapter.ViewHolderVersion) holder).imageView.setLayoutParams(params1);
-
-                onThumbnailGeneratedList(context, megaApi, thumbFile, param.document, holder, adapter);
-            } else if (holder instanceof RecentActionsAdapter.RecentActionViewHolder
-                    || holder instanceof RecentActionBucketAdapter.ViewHolderMultipleBucket) {
-                onThumbnailGeneratedList(context, megaApi, thumbFile, param.document, holder, adapter);
-            }
-        }
-    }
-
-    static class AttachThumbnailTaskGrid extends AsyncTask<ResizerParams, Void, Boolean> {
-        Context context;
-        MegaApiAndroid megaApi;
-        File thumbFile;
-        ResizerParams param;
-        RecyclerView.ViewHolder holder;
-        RecyclerView.Adapter adapter;
-
-        AttachThumbnailTaskGrid(Context context, MegaApiAndroid megaApi, RecyclerView.ViewHolder holder, RecyclerView.Adapter adapter) {
-            this.context = context;
-            this.megaApi = megaApi;
-            this.holder = holder;
-            this.adapter = adapter;
-            this.thumbFile = null;
-            this.param = null;
-        }
-
-        @Override
-        protected Boolean doInBackground(ResizerParams... params) {
-            Timber.d("AttachThumbnailTaskGrid");
-            param = params[0];
-
-            File thumbDir = getThumbFolder(context);
-            thumbFile = new File(thumbDir, param.document.getBase64Handle() + ".jpg");
-
-            return createThumbnail(param.file, thumbFile);
-        }
-
-        @Override
-        protected void onPostExecute(Boolean shouldContinueObject) {
-            if (shouldContinueObject) {
-
-                onThumbnailGeneratedGrid(context, thumbFile, param.document, holder, adapter);
-            }
-        }
-    }
-
-    private static void onThumbnailGeneratedList(Context context, MegaApiAndroid megaApi, File thumbFile, MegaNode document, RecyclerView.ViewHolder holder, RecyclerView.Adapter adapter) {
+    private static void onThumbnailGeneratedList(Context context, Bitmap bitmap, MegaNode document, RecyclerView.ViewHolder holder, RecyclerView.Adapter adapter) {
         Timber.d("onThumbnailGeneratedList");
 
-        BitmapFactory.Options options = new BitmapFactory.Options();
-        options.inPreferredConfig = Bitmap.Config.ARGB_8888;
-        Bitmap bitmap = BitmapFactory.decodeFile(thumbFile.getAbsolutePath(), options);
-
         if (holder instanceof MegaNodeAdapter.ViewHolderBrowserList) {
-            ((MegaNodeAdapter.ViewHolderBrowserList) holder).imageView.setImageBitmap(bitmap);
+            ImageView imageView = ((MegaNodeAdapter.ViewHolderBrowserList) holder).imageView;
+            setLocalThumbLayoutParamsForList(context, imageView);
+            imageView.setImageBitmap(bitmap);
         } else if (holder instanceof VersionsFileAdapter.ViewHolderVersion) {
-            ((VersionsFileAdapter.ViewHolderVersion) holder).imageView.setImageBitmap(bitmap);
+            ImageView imageView = ((VersionsFileAdapter.ViewHolderVersion) holder).imageView;
+            setLocalThumbLayoutParamsForList(context, imageView);
+            imageView.setImageBitmap(bitmap);
         } else if (holder instanceof RecentActionBucketAdapter.ViewHolderMultipleBucket) {
             ((RecentActionBucketAdapter.ViewHolderMultipleBucket) holder).setImageThumbnail(bitmap);
+        } else if (!(holder instanceof RecentActionsAdapter.RecentActionViewHolder)) {
+            return;
         }
 
         thumbnailCache.put(document.getHandle(), bitmap);
@@ -889,12 +694,16 @@ public class ThumbnailUtils {
         Timber.d("AttachThumbnailTask end");
     }
 
-    private static void onThumbnailGeneratedGrid(Context context, File thumbFile, MegaNode document, RecyclerView.ViewHolder holder, RecyclerView.Adapter adapter) {
-        Timber.d("onThumbnailGeneratedGrid");
+    private static void setLocalThumbLayoutParamsForList(Context context, ImageView imageView) {
+        RelativeLayout.LayoutParams params1 = (RelativeLayout.LayoutParams) imageView.getLayoutParams();
+        params1.height = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 36, context.getResources().getDisplayMetrics());
+        params1.width = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 36, context.getResources().getDisplayMetrics());
+        params1.setMargins(18, 0, 12, 0);
+        imageView.setLayoutParams(params1);
+    }
 
-        BitmapFactory.Options options = new BitmapFactory.Options();
-        options.inPreferredConfig = Bitmap.Config.ARGB_8888;
-        Bitmap bitmap = BitmapFactory.decodeFile(thumbFile.getAbsolutePath(), options);
+    private static void onThumbnailGeneratedGrid(Context context, Bitmap bitmap, MegaNode document, RecyclerView.ViewHolder holder, RecyclerView.Adapter adapter) {
+        Timber.d("onThumbnailGeneratedGrid");
 
         if (holder instanceof MegaNodeAdapter.ViewHolderBrowserGrid) {
             ((MegaNodeAdapter.ViewHolderBrowserGrid) holder).imageViewThumb.setVisibility(View.VISIBLE);
@@ -922,10 +731,9 @@ public class ThumbnailUtils {
 
         String localPath = getLocalFile(document); //if file already exists returns != null
         if (localPath != null) {
-            ResizerParams params = new ResizerParams();
-            params.document = document;
-            params.file = new File(localPath);
-            new AttachThumbnailTaskList(context, megaApi, holder, adapter).execute(params);
+            File thumbFile = new File(getThumbFolder(context), document.getBase64Handle() + ".jpg");
+            ThumbnailDecodePipeline.getInstance().load(holder, getThumbnailView(holder), new File(localPath), thumbFile,
+                    bitmap -> onThumbnailGeneratedList(context, bitmap, document, holder, adapter));
         } //Si no, no hago nada
 
     }
@@ -940,10 +748,9 @@ public class ThumbnailUtils {
         String localPath = getLocalFile(document); //if file already exists returns != null
         if (localPath != null) {
             Timber.d("localPath is not null: %s", localPath);
-            ResizerParams params = new ResizerParams();
-            params.document = document;
-            params.file = new File(localPath);
-            new AttachThumbnailTaskGrid(context, megaApi, holder, adapter).execute(params);
+            File thumbFile = new File(getThumbFolder(context), document.getBase64Handle() + ".jpg");
+            ThumbnailDecodePipeline.getInstance().load(holder, getThumbnailView(holder), new File(localPath), thumbFile,
+                    bitmap -> onThumbnailGeneratedGrid(context, bitmap, document, holder, adapter));
         } //Si no, no hago nada
 
     }
@@ -959,10 +766,9 @@ public class ThumbnailUtils {
         String localPath = getLocalFile(document); //if file already exists returns != null
         if (localPath != null) {
             Timber.d("localPath is not null: %s", localPath);
-            ResizerParams params = new ResizerParams();
-            params.document = document;
-            params.file = new File(localPath);
-            new AttachThumbnailTaskExplorer(context, megaApi, holder, adapter).execute(params);
+            File thumbFile = new File(getThumbFolder(context), document.getBase64Handle() + ".jpg");
+            ThumbnailDecodePipeline.getInstance().load(holder, getThumbnailView(holder), new File(localPath), thumbFile,
+                    bitmap -> onThumbnailGeneratedExplorer(context, bitmap, document, holder, adapter));
         } //Si no, no hago nada
 
     }
@@ -983,16 +789,8 @@ public class ThumbnailUtils {
 
         // if the thumbnail bitmap is cached in memory cache
         Bitmap bitmap = getThumbnailFromCache(key);
-        if (bitmap == null) {
-            BitmapFactory.Options options = new BitmapFactory.Options();
-            options.inPreferredConfig = Bitmap.Config.ARGB_8888;
-            File directoryCachedFile = new File(getThumbFolder(context), key + ".jpg");
-            if (directoryCachedFile.exists()) {
-                bitmap = BitmapFactory.decodeFile(directoryCachedFile.getAbsolutePath(), options);
-            }
-        }
-
         if (bitmap != null) {
+            ThumbnailDecodePipeline.getInstance().cancel(holder);
             RelativeLayout.LayoutParams params = (RelativeLayout.LayoutParams) holder.imageView.getLayoutParams();
             params.height = params.width = dp2px(Constants.THUMBNAIL_SIZE_DP);
             int margin = dp2px(Constants.THUMBNAIL_MARGIN_DP);
@@ -1001,8 +799,10 @@ public class ThumbnailUtils {
             return;
         }
 
-        // There is no cache before, we have to start an async task to have the thumbnail bitmap
-        new AttachThumbnailToFileStorageExplorerTask(context, megaApi, adapter, position).execute(document);
+        // There is no cache before, the thumbnail is created if needed and decoded in background
+        File thumbFile = new File(getThumbFolder(context), key + ".jpg");
+        ThumbnailDecodePipeline.getInstance().load(holder, getThumbnailView(holder), document.getFile(), thumbFile,
+                decoded -> onThumbnailGeneratedExplorer(decoded, key, adapter, position));
 
     }
 
@@ -1065,6 +865,12 @@ public class ThumbnailUtils {
             } catch (IOException e1) {
                 Timber.e(e1, "Error creating new thumb file");
             }
+
+            // Only the file is used from now on, so the bitmaps can be reused
+            BitmapMemoryCache.getInstance().release(resizedBitmap);
+            if (resizedBitmap != bmThumbnail) {
+                BitmapMemoryCache.getInstance().release(bmThumbnail);
+            }
         } else {
             Timber.w("Create video thumb NULL");
         }
@@ -0,0 +1,241 @@
+package mega.privacy.android.app.utils.cache
+
+import android.app.ActivityManager
+import android.content.ComponentCallbacks2
+import android.content.Context
+import android.content.res.Configuration
+import android.graphics.Bitmap
+import android.graphics.BitmapFactory
+import android.os.SystemClock
+import androidx.collection.LruCache
+import mega.privacy.android.app.MegaApplication
+import timber.log.Timber
+import java.util.EnumMap
+
+/**
+ * Bitmap memory cache shared by the thumbnails and previews shown by the legacy adapters
+ *
+ * The bitmaps are limited by their size in bytes instead of by their number. The nodes known to
+ * have no bitmap are kept for [MISSING_TIME_TO_LIVE] in an [ExpiringLongSet] per [Type], so that
+ * they are not looked for again on every bind. Memory is released when the system asks for it
+ * through [onTrimMemory].
+ *
+ * Bitmaps evicted from the cache are not reused, because the legacy adapters may still be showing
+ * them. Bitmaps are only reused by [decodeFile] once they are given back with [release].
+ *
+ * @param maxBytes maximum number of bytes of the cached bitmaps
+ * @param currentTime returns the current time in milliseconds
+ */
+class BitmapMemoryCache internal constructor(
+    maxBytes: Int,
+    currentTime: () -> Long = SystemClock::elapsedRealtime,
+) : ComponentCallbacks2 {
+
+    /**
+     * Type of the cached bitmaps, with keys of their own
+     */
+    enum class Type {
+        /**
+         * Thumbnail of a node or of a local file
+         */
+        Thumbnail,
+
+        /**
+         * Preview of a node or of a local file
+         */
+        Preview,
+    }
+
+    private data class Key(val type: Type, val handle: Long, val path: String?)
+
+    private val bitmaps = object : LruCache<Key, Bitmap>(maxBytes) {
+        override fun sizeOf(key: Key, value: Bitmap) = value.allocationByteCount
+    }
+
+    private val missingHandles = EnumMap<Type, ExpiringLongSet>(Type::class.java).apply {
+        Type.values().forEach {
+            put(it, ExpiringLongSet(MISSING_TIME_TO_LIVE, MAX_MISSING_HANDLES, currentTime))
+        }
+    }
+
+    private val reusableBitmaps = ReusableBitmapPool(maxBytes.toLong() / REUSABLE_FRACTION)
+
+    /**
+     * Gets the bitmap of a node
+     */
+    fun get(type: Type, handle: Long): Bitmap? = bitmaps[Key(type, handle, null)]
+
+    /**
+     * Gets the bitmap of a local file
+     */
+    fun get(type: Type, path: String): Bitmap? = bitmaps[Key(type, INVALID_HANDLE, path)]
+
+    /**
+     * Puts the bitmap of a node, or marks the node as having no bitmap if it is null
+     */
+    fun put(type: Type, handle: Long, bitmap: Bitmap?) {
+        val missing = missingHandles.getValue(type)
+        if (bitmap == null) {
+            missing.add(handle)
+        } else {
+            missing.remove(handle)
+            bitmaps.put(Key(type, handle, null), bitmap)
+        }
+    }
+
+    /**
+     * Puts the bitmap of a local file, if it is not null
+     */
+    fun put(type: Type, path: String, bitmap: Bitmap?) {
+        bitmap?.let { bitmaps.put(Key(type, INVALID_HANDLE, path), it) }
+    }
+
+    /**
+     * Removes the bitmap of a node, and the mark of having no bitmap
+     */
+    fun remove(type: Type, handle: Long) {
+        missingHandles.getValue(type).remove(handle)
+        bitmaps.remove(Key(type, handle, null))
+    }
+
+    /**
+     * Removes the bitmap of a local file
+     */
+    fun remove(type: Type, path: String) {
+        bitmaps.remove(Key(type, INVALID_HANDLE, path))
+    }
+
+    /**
+     * Checks if the node has a bitmap or was marked as having none
+     */
+    fun contains(type: Type, handle: Long): Boolean =
+        get(type, handle) != null || handle in missingHandles.getValue(type)
+
+    /**
+     * Checks if the local file has a bitmap
+     */
+    fun contains(type: Type, path: String): Boolean = get(type, path) != null
+
+    /**
+     * Gives back a bitmap nobody uses anymore, so that [decodeFile] can decode into it
+     */
+    fun release(bitmap: Bitmap) = reusableBitmaps.put(bitmap)
+
+    /**
+     * Decodes a file into a mutable bitmap, reusing a released bitmap big enough if there is one
+     *
+     * @param path path of the file to decode
+     * @param options decoding options, the bitmap is decoded into [BitmapFactory.Options.inBitmap]
+     * if it is set. The bounds are not decoded again if they already were.
+     * @return the bitmap, or null if the file could not be decoded
+     */
+    @JvmOverloads
+    fun decodeFile(
+        path: String,
+        options: BitmapFactory.Options = BitmapFactory.Options(),
+    ): Bitmap? {
+        if (options.inBitmap == null && !reusableBitmaps.isEmpty) {
+            if (options.outWidth <= 0 || options.outHeight <= 0) {
+                options.inJustDecodeBounds = true
+                BitmapFactory.decodeFile(path, options)
+                options.inJustDecodeBounds = false
+            }
+            if (options.outWidth > 0 && options.outHeight > 0) {
+                options.inBitmap = reusableBitmaps.get(byteCount(options))
+            }
+        }
+        options.inMutable = true
+        val reusable = options.inBitmap
+        var bitmap = BitmapFactory.decodeFile(path, options)
+        if (bitmap == null && reusable != null) {
+            // decodeFile logs and swallows the failure to reuse inBitmap, returning null
+            Timber.w("Bitmap could not be reused")
+            options.inBitmap = null
+            bitmap = BitmapFactory.decodeFile(path, options)
+        }
+        if (reusable != null && bitmap !== reusable) reusableBitmaps.put(reusable)
+        return bitmap
+    }
+
+    /**
+     * Removes all the bitmaps and marks
+     */
+    fun clear() {
+        bitmaps.evictAll()
+        reusableBitmaps.clear()
+        missingHandles.values.forEach { it.clear() }
+    }
+
+    @Suppress("DEPRECATION")
+    override fun onTrimMemory(level: Int) {
+        Timber.d("Trim memory level: %s", level)
+        reusableBitmaps.clear()
+        when {
+            level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE
+                    || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL -> clear()
+
+            level >= ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN
+                    || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW ->
+                bitmaps.trimToSize(bitmaps.maxSize() / 2)
+        }
+    }
+
+    @Deprecated("Deprecated in Java")
+    override fun onLowMemory() = clear()
+
+    override fun onConfigurationChanged(newConfig: Configuration) {}
+
+    companion object {
+        private const val MISSING_TIME_TO_LIVE = 60_000L
+        private const val MAX_MISSING_HANDLES = 10_000
+        private const val INVALID_HANDLE = -1L
+
+        /**
+         * Fraction of the heap the cached bitmaps can use
+         */
+        private const val HEAP_FRACTION = 8
+
+        /**
+         * Fraction of the cache size the released bitmaps can use
+         */
+        private const val REUSABLE_FRACTION = 4
+
+        private val instance by lazy { create(MegaApplication.getInstance()) }
+
+        /**
+         * Gets the cache shared by the whole app
+         */
+        @JvmStatic
+        fun getInstance(): BitmapMemoryCache = instance
+
+        /**
+         * Creates a cache sized from the heap the system gives to the app, which releases memory
+         * when the system asks for it
+         */
+        internal fun create(context: Context): BitmapMemoryCache {
+            val activityManager =
+                context.getSystemService(Context.ACTIVITY_SERVICE) as ActivityManager
+            val maxBytes = activityManager.memoryClass * 1024 * 1024 / HEAP_FRACTION
+            Timber.d("Bitmap memory cache size: %d bytes", maxBytes)
+            return BitmapMemoryCache(maxBytes).also {
+                context.applicationContext.registerComponentCallbacks(it)
+            }
+        }
+
+        /**
+         * Number of bytes of the bitmap the options decode, once the bounds were decoded
+         */
+        private fun byteCount(options: BitmapFactory.Options): Int {
+            val sampleSize = options.inSampleSize.coerceAtLeast(1)
+            val width = (options.outWidth + sampleSize - 1) / sampleSize
+            val height = (options.outHeight + sampleSize - 1) / sampleSize
+            val bytesPerPixel = when (options.inPreferredConfig) {
+                Bitmap.Config.ALPHA_8 -> 1
+                Bitmap.Config.RGB_565 -> 2
+                Bitmap.Config.RGBA_F16 -> 8
+                else -> 4
+            }
+            return width * height * bytesPerPixel
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package mega.privacy.android.app.utils.cache
+
+/**
+ * Set of long keys that are forgotten once their time to live has passed
+ *
+ * The keys are kept in primitive arrays with open addressing, so that checking a key neither boxes
+ * it nor walks a list. Expired keys are dropped when they are checked or when the set grows, and
+ * the set is cleared if it reaches [maxSize] keys that have not expired.
+ *
+ * @property timeToLive time in milliseconds a key is kept
+ * @property maxSize maximum number of keys
+ * @property currentTime returns the current time in milliseconds
+ */
+internal class ExpiringLongSet(
+    private val timeToLive: Long,
+    private val maxSize: Int,
+    private val currentTime: () -> Long,
+) {
+    private var keys = LongArray(INITIAL_CAPACITY)
+
+    /**
+     * Expiry time of the key in the same slot, 0 if the slot is empty
+     */
+    private var expiryTimes = LongArray(INITIAL_CAPACITY)
+    private var mask = INITIAL_CAPACITY - 1
+
+    /**
+     * Number of keys, including the expired ones not dropped yet
+     */
+    var size = 0
+        private set
+
+    init {
+        require(timeToLive > 0) { "Time to live must be positive" }
+        require(maxSize > 0) { "Max size must be positive" }
+    }
+
+    /**
+     * Adds the key, or renews its time to live if it is already in the set
+     */
+    @Synchronized
+    fun add(key: Long) {
+        val now = currentTime()
+        val index = indexOf(key)
+        if (index >= 0) {
+            expiryTimes[index] = now + timeToLive
+            return
+        }
+        if (size >= maxSize) {
+            rehash(keys.size, now)
+            if (size >= maxSize) clear()
+        }
+        if ((size + 1) * 4 > keys.size * 3) {
+            rehash(keys.size * 2, now)
+        }
+        insert(key, now + timeToLive)
+    }
+
+    /**
+     * Checks if the key was added and has not expired
+     */
+    @Synchronized
+    operator fun contains(key: Long): Boolean {
+        val index = indexOf(key)
+        if (index < 0) return false
+        if (expiryTimes[index] <= currentTime()) {
+            removeAt(index)
+            return false
+        }
+        return true
+    }
+
+    /**
+     * Removes the key
+     */
+    @Synchronized
+    fun remove(key: Long) {
+        val index = indexOf(key)
+        if (index >= 0) removeAt(index)
+    }
+
+    /**
+     * Removes all the keys
+     */
+    @Synchronized
+    fun clear() {
+        keys = LongArray(INITIAL_CAPACITY)
+        expiryTimes = LongArray(INITIAL_CAPACITY)
+        mask = INITIAL_CAPACITY - 1
+        size = 0
+    }
+
+    private fun slot(key: Long): Int {
+        val hash = key * HASH_MULTIPLIER
+        return (hash xor (hash ushr 32)).toInt() and mask
+    }
+
+    private fun indexOf(key: Long): Int {
+        var index = slot(key)
+        while (expiryTimes[index] != 0L) {
+            if (keys[index] == key) return index
+            index = (index + 1) and mask
+        }
+        return -1
+    }
+
+    private fun insert(key: Long, expiryTime: Long) {
+        var index = slot(key)
+        while (expiryTimes[index] != 0L) {
+            index = (index + 1) and mask
+        }
+        keys[index] = key
+        expiryTimes[index] = expiryTime
+        size++
+    }
+
+    /**
+     * Removes the key in the slot, moving back the following keys of the same run that would not
+     * be found anymore across the empty slot
+     */
+    private fun removeAt(index: Int) {
+        var hole = index
+        var next = (index + 1) and mask
+        while (expiryTimes[next] != 0L) {
+            val home = slot(keys[next])
+            if (((next - home) and mask) >= ((next - hole) and mask)) {
+                keys[hole] = keys[next]
+                expiryTimes[hole] = expiryTimes[next]
+                hole = next
+            }
+            next = (next + 1) and mask
+        }
+        keys[hole] = 0L
+        expiryTimes[hole] = 0L
+        size--
+    }
+
+    /**
+     * Moves the keys that have not expired to new arrays of the given capacity
+     */
+    private fun rehash(capacity: Int, now: Long) {
+        val oldKeys = keys
+        val oldExpiryTimes = expiryTimes
+        keys = LongArray(capacity)
+        expiryTimes = LongArray(capacity)
+        mask = capacity - 1
+        size = 0
+        oldExpiryTimes.forEachIndexed { index, expiryTime ->
+            if (expiryTime > now) insert(oldKeys[index], expiryTime)
+        }
+    }
+
+    private companion object {
+        const val INITIAL_CAPACITY = 64
+        const val HASH_MULTIPLIER = -0x61c8864680b583ebL
+    }
+}
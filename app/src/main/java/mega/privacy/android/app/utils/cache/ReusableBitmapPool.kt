@@ -0,0 +1,73 @@
+package mega.privacy.android.app.utils.cache
+
+import android.graphics.Bitmap
+
+/**
+ * Pool of mutable bitmaps nobody uses anymore, to decode new bitmaps into them with
+ * [android.graphics.BitmapFactory.Options.inBitmap] instead of allocating new ones
+ *
+ * The oldest bitmaps are dropped once the pool holds more than [maxBytes].
+ *
+ * @property maxBytes maximum number of bytes of the bitmaps in the pool
+ */
+internal class ReusableBitmapPool(private val maxBytes: Long) {
+    private val bitmaps = ArrayDeque<Bitmap>()
+    private var bytes = 0L
+
+    /**
+     * Whether the pool has no bitmap
+     */
+    val isEmpty: Boolean
+        @Synchronized get() = bitmaps.isEmpty()
+
+    /**
+     * Adds a bitmap to the pool, if it can be reused
+     *
+     * The bitmap must not be used anymore by the caller.
+     */
+    @Synchronized
+    fun put(bitmap: Bitmap) {
+        if (!bitmap.isMutable || bitmap.isRecycled) return
+        val byteCount = bitmap.allocationByteCount
+        if (byteCount > maxBytes || bitmaps.any { it === bitmap }) return
+        bitmaps.addLast(bitmap)
+        bytes += byteCount
+        trimToSize(maxBytes)
+    }
+
+    /**
+     * Takes from the pool the smallest bitmap that can hold [byteCount] bytes
+     *
+     * @return the bitmap, or null if there is none big enough
+     */
+    @Synchronized
+    fun get(byteCount: Int): Bitmap? {
+        var index = -1
+        bitmaps.forEachIndexed { i, bitmap ->
+            val allocationByteCount = bitmap.allocationByteCount
+            if (allocationByteCount >= byteCount
+                && (index < 0 || allocationByteCount < bitmaps[index].allocationByteCount)
+            ) {
+                index = i
+            }
+        }
+        if (index < 0) return null
+        return bitmaps.removeAt(index).also { bytes -= it.allocationByteCount }
+    }
+
+    /**
+     * Drops the oldest bitmaps until the pool holds at most [maxBytes] bytes
+     */
+    @Synchronized
+    fun trimToSize(maxBytes: Long) {
+        while (bytes > maxBytes) {
+            bytes -= bitmaps.removeFirst().allocationByteCount
+        }
+    }
+
+    /**
+     * Drops all the bitmaps
+     */
+    @Synchronized
+    fun clear() = trimToSize(0)
+}
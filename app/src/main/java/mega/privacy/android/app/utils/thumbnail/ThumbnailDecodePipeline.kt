@@ -0,0 +1,202 @@
+package mega.privacy.android.app.utils.thumbnail
+
+import android.graphics.Bitmap
+import android.graphics.BitmapFactory
+import android.view.View
+import androidx.recyclerview.widget.RecyclerView
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.ensureActive
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.withContext
+import mega.privacy.android.app.R
+import mega.privacy.android.app.utils.PreviewUtils
+import mega.privacy.android.app.utils.cache.BitmapMemoryCache
+import nz.mega.sdk.MegaUtilsAndroid
+import timber.log.Timber
+import java.io.File
+
+/**
+ * Creates and decodes in the background the thumbnails of the local files shown by the legacy
+ * adapters
+ *
+ * Every request is bound to the [RecyclerView.ViewHolder] it was made for. It is cancelled when the
+ * holder makes a new request or when its view is detached, and started again if the view is
+ * attached again still showing the same position. The bitmap is only delivered if the holder still
+ * shows that position. The work runs on a dispatcher limited to [MAX_PARALLEL_DECODES] threads, so
+ * a slow file only delays the requests behind it in its own thread.
+ *
+ * @param scope scope the requests are launched in, delivering the bitmaps on the main thread
+ * @param dispatcher dispatcher the thumbnails are created and decoded on
+ * @param createThumbnail creates the thumbnail file of a local file, returns false if it fails
+ * @param decode decodes a thumbnail file for a view of the given width and height in pixels, 0
+ * if unknown
+ */
+class ThumbnailDecodePipeline internal constructor(
+    private val scope: CoroutineScope,
+    private val dispatcher: CoroutineDispatcher,
+    private val createThumbnail: (source: File, thumbnail: File) -> Boolean,
+    private val decode: (thumbnail: File, width: Int, height: Int) -> Bitmap?,
+) {
+
+    /**
+     * Receives the decoded thumbnail on the main thread
+     */
+    fun interface OnThumbnailDecoded {
+
+        /**
+         * Called with the decoded thumbnail
+         */
+        fun onThumbnailDecoded(bitmap: Bitmap)
+    }
+
+    private inner class Request(
+        val holder: RecyclerView.ViewHolder,
+        val position: Int,
+        val source: File,
+        val thumbnail: File,
+        val width: Int,
+        val height: Int,
+        val onDecoded: OnThumbnailDecoded,
+    ) {
+        var job: Job? = null
+
+        val isPending: Boolean
+            get() = job?.isActive != true
+                    && holder.itemView.getTag(R.id.thumbnail_decode_request) === this
+
+        fun start() {
+            job = scope.launch {
+                val bitmap = withContext(dispatcher) {
+                    if (thumbnail.length() <= 0 && !createThumbnail(source, thumbnail)) {
+                        return@withContext null
+                    }
+                    ensureActive()
+                    decode(thumbnail, width, height)
+                } ?: return@launch
+                val itemView = holder.itemView
+                if (itemView.getTag(R.id.thumbnail_decode_request) === this@Request) {
+                    itemView.setTag(R.id.thumbnail_decode_request, null)
+                    if (holder.bindingAdapterPosition == position) {
+                        onDecoded.onThumbnailDecoded(bitmap)
+                    }
+                }
+            }
+        }
+    }
+
+    private val detachListener = object : View.OnAttachStateChangeListener {
+        override fun onViewAttachedToWindow(view: View) {
+            val request = view.getTag(R.id.thumbnail_decode_request) as? Request ?: return
+            if (request.isPending && request.holder.bindingAdapterPosition == request.position) {
+                request.start()
+            }
+        }
+
+        override fun onViewDetachedFromWindow(view: View) {
+            (view.getTag(R.id.thumbnail_decode_request) as? Request)?.job?.cancel()
+        }
+    }
+
+    /**
+     * Creates the thumbnail of a local file if it does not exist yet, and decodes it
+     *
+     * Any previous request of the holder is cancelled. Must be called on the main thread, while
+     * the holder is bound.
+     *
+     * @param holder holder the thumbnail is for
+     * @param target view the thumbnail is shown in, to decode it to its size, null if unknown
+     * @param source local file
+     * @param thumbnail thumbnail file of the local file
+     * @param onDecoded receives the decoded thumbnail
+     */
+    fun load(
+        holder: RecyclerView.ViewHolder,
+        target: View?,
+        source: File,
+        thumbnail: File,
+        onDecoded: OnThumbnailDecoded,
+    ) {
+        val itemView = holder.itemView
+        (itemView.getTag(R.id.thumbnail_decode_request) as? Request)?.job?.cancel()
+        if (itemView.getTag(R.id.thumbnail_decode_listener) == null) {
+            itemView.addOnAttachStateChangeListener(detachListener)
+            itemView.setTag(R.id.thumbnail_decode_listener, detachListener)
+        }
+        val request = Request(
+            holder = holder,
+            position = holder.bindingAdapterPosition,
+            source = source,
+            thumbnail = thumbnail,
+            width = target?.let { targetSize(it.width, it.layoutParams?.width) } ?: 0,
+            height = target?.let { targetSize(it.height, it.layoutParams?.height) } ?: 0,
+            onDecoded = onDecoded,
+        )
+        itemView.setTag(R.id.thumbnail_decode_request, request)
+        request.start()
+    }
+
+    /**
+     * Cancels the request of the holder, if any
+     */
+    fun cancel(holder: RecyclerView.ViewHolder) {
+        val itemView = holder.itemView
+        (itemView.getTag(R.id.thumbnail_decode_request) as? Request)?.job?.cancel()
+        itemView.setTag(R.id.thumbnail_decode_request, null)
+    }
+
+    companion object {
+        private const val MAX_PARALLEL_DECODES = 4
+
+        @OptIn(ExperimentalCoroutinesApi::class)
+        private val instance by lazy {
+            ThumbnailDecodePipeline(
+                scope = CoroutineScope(SupervisorJob() + Dispatchers.Main.immediate),
+                dispatcher = Dispatchers.IO.limitedParallelism(
+                    Runtime.getRuntime().availableProcessors().coerceIn(2, MAX_PARALLEL_DECODES)
+                ),
+                createThumbnail = { source, thumbnail ->
+                    MegaUtilsAndroid.createThumbnail(source, thumbnail)
+                },
+                decode = ::decodeSampled,
+            )
+        }
+
+        /**
+         * Gets the pipeline shared by the whole app
+         */
+        @JvmStatic
+        fun getInstance(): ThumbnailDecodePipeline = instance
+
+        /**
+         * Size of a view in pixels, from its layout if it was laid out or from its layout params
+         */
+        private fun targetSize(size: Int, layoutSize: Int?): Int = when {
+            size > 0 -> size
+            layoutSize != null && layoutSize > 0 -> layoutSize
+            else -> 0
+        }
+
+        /**
+         * Decodes a thumbnail with the biggest sample size that keeps it at least as big as the
+         * view, into a bitmap reused by [BitmapMemoryCache] if possible
+         */
+        private fun decodeSampled(thumbnail: File, width: Int, height: Int): Bitmap? {
+            val options = BitmapFactory.Options().apply {
+                inPreferredConfig = Bitmap.Config.ARGB_8888
+            }
+            if (width > 0 && height > 0) {
+                options.inJustDecodeBounds = true
+                BitmapFactory.decodeFile(thumbnail.absolutePath, options)
+                options.inJustDecodeBounds = false
+                options.inSampleSize = PreviewUtils.calculateInSampleSize(options, width, height)
+            }
+            return BitmapMemoryCache.getInstance().decodeFile(thumbnail.absolutePath, options)
+                .also { if (it == null) Timber.w("Thumbnail could not be decoded") }
+        }
+    }
+}
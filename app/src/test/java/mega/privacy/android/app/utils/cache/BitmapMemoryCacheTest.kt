@@ -0,0 +1,128 @@
+package mega.privacy.android.app.utils.cache
+
+import android.content.ComponentCallbacks2
+import android.graphics.Bitmap
+import com.google.common.truth.Truth.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.mock
+
+class BitmapMemoryCacheTest {
+
+    private var now = 1_000L
+    private lateinit var underTest: BitmapMemoryCache
+
+    @BeforeEach
+    fun setUp() {
+        now = 1_000L
+        underTest = BitmapMemoryCache(maxBytes = MAX_BYTES) { now }
+    }
+
+    @Test
+    fun `test that the bitmaps are limited by their size in bytes`() {
+        val first = createBitmap(byteCount = 400)
+        val second = createBitmap(byteCount = 400)
+        val third = createBitmap(byteCount = 400)
+
+        underTest.put(BitmapMemoryCache.Type.Thumbnail, 1L, first)
+        underTest.put(BitmapMemoryCache.Type.Thumbnail, 2L, second)
+        underTest.put(BitmapMemoryCache.Type.Thumbnail, 3L, third)
+
+        assertThat(underTest.get(BitmapMemoryCache.Type.Thumbnail, 1L)).isNull()
+        assertThat(underTest.get(BitmapMemoryCache.Type.Thumbnail, 2L)).isSameInstanceAs(second)
+        assertThat(underTest.get(BitmapMemoryCache.Type.Thumbnail, 3L)).isSameInstanceAs(third)
+    }
+
+    @Test
+    fun `test that thumbnails and previews of the same node do not replace each other`() {
+        val thumbnail = createBitmap(byteCount = 100)
+        val preview = createBitmap(byteCount = 100)
+
+        underTest.put(BitmapMemoryCache.Type.Thumbnail, 1L, thumbnail)
+        underTest.put(BitmapMemoryCache.Type.Preview, 1L, preview)
+
+        assertThat(underTest.get(BitmapMemoryCache.Type.Thumbnail, 1L)).isSameInstanceAs(thumbnail)
+        assertThat(underTest.get(BitmapMemoryCache.Type.Preview, 1L)).isSameInstanceAs(preview)
+    }
+
+    @Test
+    fun `test that the bitmaps of local files are kept by path`() {
+        val bitmap = createBitmap(byteCount = 100)
+
+        underTest.put(BitmapMemoryCache.Type.Thumbnail, "/file.jpg", bitmap)
+
+        assertThat(underTest.get(BitmapMemoryCache.Type.Thumbnail, "/file.jpg"))
+            .isSameInstanceAs(bitmap)
+        assertThat(underTest.contains(BitmapMemoryCache.Type.Thumbnail, "/file.jpg")).isTrue()
+        underTest.remove(BitmapMemoryCache.Type.Thumbnail, "/file.jpg")
+        assertThat(underTest.contains(BitmapMemoryCache.Type.Thumbnail, "/file.jpg")).isFalse()
+    }
+
+    @Test
+    fun `test that a node without bitmap is contained until the mark expires`() {
+        underTest.put(BitmapMemoryCache.Type.Thumbnail, 1L, null)
+
+        assertThat(underTest.contains(BitmapMemoryCache.Type.Thumbnail, 1L)).isTrue()
+        assertThat(underTest.contains(BitmapMemoryCache.Type.Preview, 1L)).isFalse()
+        assertThat(underTest.get(BitmapMemoryCache.Type.Thumbnail, 1L)).isNull()
+
+        now += 60_000L
+        assertThat(underTest.contains(BitmapMemoryCache.Type.Thumbnail, 1L)).isFalse()
+    }
+
+    @Test
+    fun `test that removing a node removes its bitmap and its mark`() {
+        underTest.put(BitmapMemoryCache.Type.Thumbnail, 1L, null)
+        underTest.put(BitmapMemoryCache.Type.Thumbnail, 2L, createBitmap(byteCount = 100))
+
+        underTest.remove(BitmapMemoryCache.Type.Thumbnail, 1L)
+        underTest.remove(BitmapMemoryCache.Type.Thumbnail, 2L)
+
+        assertThat(underTest.contains(BitmapMemoryCache.Type.Thumbnail, 1L)).isFalse()
+        assertThat(underTest.contains(BitmapMemoryCache.Type.Thumbnail, 2L)).isFalse()
+    }
+
+    @Test
+    fun `test that putting the bitmap of a node marked without bitmap removes the mark`() {
+        underTest.put(BitmapMemoryCache.Type.Thumbnail, 1L, null)
+        underTest.put(BitmapMemoryCache.Type.Thumbnail, 1L, createBitmap(byteCount = 100))
+
+        underTest.put(BitmapMemoryCache.Type.Thumbnail, 2L, createBitmap(byteCount = 500))
+        underTest.put(BitmapMemoryCache.Type.Thumbnail, 3L, createBitmap(byteCount = 500))
+
+        assertThat(underTest.contains(BitmapMemoryCache.Type.Thumbnail, 1L)).isFalse()
+    }
+
+    @Test
+    fun `test that half of the cache is released when the app is hidden`() {
+        val first = createBitmap(byteCount = 300)
+        val second = createBitmap(byteCount = 300)
+        underTest.put(BitmapMemoryCache.Type.Thumbnail, 1L, first)
+        underTest.put(BitmapMemoryCache.Type.Thumbnail, 2L, second)
+
+        underTest.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN)
+
+        assertThat(underTest.get(BitmapMemoryCache.Type.Thumbnail, 1L)).isNull()
+        assertThat(underTest.get(BitmapMemoryCache.Type.Thumbnail, 2L)).isSameInstanceAs(second)
+    }
+
+    @Test
+    fun `test that the whole cache is released when the app is likely to be killed`() {
+        underTest.put(BitmapMemoryCache.Type.Thumbnail, 1L, createBitmap(byteCount = 100))
+        underTest.put(BitmapMemoryCache.Type.Preview, 2L, null)
+
+        underTest.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_MODERATE)
+
+        assertThat(underTest.contains(BitmapMemoryCache.Type.Thumbnail, 1L)).isFalse()
+        assertThat(underTest.contains(BitmapMemoryCache.Type.Preview, 2L)).isFalse()
+    }
+
+    private fun createBitmap(byteCount: Int) = mock<Bitmap> {
+        on { allocationByteCount }.thenReturn(byteCount)
+        on { isMutable }.thenReturn(true)
+    }
+
+    private companion object {
+        const val MAX_BYTES = 1_000
+    }
+}
@@ -0,0 +1,88 @@
+package mega.privacy.android.app.utils.cache
+
+import com.google.common.truth.Truth.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+
+class ExpiringLongSetTest {
+
+    private var now = 1_000L
+    private lateinit var underTest: ExpiringLongSet
+
+    @BeforeEach
+    fun setUp() {
+        now = 1_000L
+        underTest = ExpiringLongSet(timeToLive = TIME_TO_LIVE, maxSize = MAX_SIZE) { now }
+    }
+
+    @Test
+    fun `test that the added keys are contained until they expire`() {
+        underTest.add(1L)
+        underTest.add(-5L)
+
+        assertThat(1L in underTest).isTrue()
+        assertThat(-5L in underTest).isTrue()
+        assertThat(2L in underTest).isFalse()
+
+        now += TIME_TO_LIVE
+        assertThat(1L in underTest).isFalse()
+        assertThat(underTest.size).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that adding a key again renews its time to live`() {
+        underTest.add(1L)
+        now += TIME_TO_LIVE - 1
+        underTest.add(1L)
+        now += TIME_TO_LIVE - 1
+
+        assertThat(1L in underTest).isTrue()
+        assertThat(underTest.size).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that the removed keys are not contained and the others still are`() {
+        val keys = (0L until 40L).map { it * 64 }
+        keys.forEach { underTest.add(it) }
+
+        keys.filterIndexed { index, _ -> index % 3 == 0 }.forEach { underTest.remove(it) }
+
+        keys.forEachIndexed { index, key ->
+            assertThat(key in underTest).isEqualTo(index % 3 != 0)
+        }
+        assertThat(underTest.size).isEqualTo(26)
+    }
+
+    @Test
+    fun `test that the set grows beyond its initial capacity`() {
+        (1L..MAX_SIZE).forEach { underTest.add(it) }
+
+        assertThat(underTest.size).isEqualTo(MAX_SIZE)
+        assertThat((1L..MAX_SIZE).all { it in underTest }).isTrue()
+    }
+
+    @Test
+    fun `test that the expired keys are dropped before the set is full`() {
+        (1L..MAX_SIZE).forEach { underTest.add(it) }
+        now += TIME_TO_LIVE
+        underTest.add(0L)
+
+        assertThat(underTest.size).isEqualTo(1)
+        assertThat(0L in underTest).isTrue()
+    }
+
+    @Test
+    fun `test that the set is cleared when it is full of keys that have not expired`() {
+        (1L..MAX_SIZE).forEach { underTest.add(it) }
+        underTest.add(0L)
+
+        assertThat(underTest.size).isEqualTo(1)
+        assertThat(1L in underTest).isFalse()
+        assertThat(0L in underTest).isTrue()
+    }
+
+    private companion object {
+        const val TIME_TO_LIVE = 100L
+        const val MAX_SIZE = 200
+    }
+}
@@ -0,0 +1,56 @@
+package mega.privacy.android.app.utils.cache
+
+import android.graphics.Bitmap
+import com.google.common.truth.Truth.assertThat
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.mock
+
+class ReusableBitmapPoolTest {
+
+    private val underTest = ReusableBitmapPool(maxBytes = 1_000)
+
+    @Test
+    fun `test that the smallest bitmap big enough is taken from the pool`() {
+        val small = createBitmap(byteCount = 100)
+        val big = createBitmap(byteCount = 400)
+        val medium = createBitmap(byteCount = 200)
+        listOf(small, big, medium).forEach { underTest.put(it) }
+
+        assertThat(underTest.get(150)).isSameInstanceAs(medium)
+        assertThat(underTest.get(150)).isSameInstanceAs(big)
+        assertThat(underTest.get(150)).isNull()
+        assertThat(underTest.get(100)).isSameInstanceAs(small)
+        assertThat(underTest.isEmpty).isTrue()
+    }
+
+    @Test
+    fun `test that the bitmaps that cannot be reused are not added`() {
+        underTest.put(createBitmap(byteCount = 100, isMutable = false))
+        underTest.put(createBitmap(byteCount = 100, isRecycled = true))
+        underTest.put(createBitmap(byteCount = 2_000))
+
+        assertThat(underTest.isEmpty).isTrue()
+    }
+
+    @Test
+    fun `test that the oldest bitmaps are dropped when the pool is full`() {
+        val oldest = createBitmap(byteCount = 600)
+        val newest = createBitmap(byteCount = 600)
+
+        underTest.put(oldest)
+        underTest.put(newest)
+
+        assertThat(underTest.get(600)).isSameInstanceAs(newest)
+        assertThat(underTest.isEmpty).isTrue()
+    }
+
+    private fun createBitmap(
+        byteCount: Int,
+        isMutable: Boolean = true,
+        isRecycled: Boolean = false,
+    ) = mock<Bitmap> {
+        on { allocationByteCount }.thenReturn(byteCount)
+        on { this.isMutable }.thenReturn(isMutable)
+        on { this.isRecycled }.thenReturn(isRecycled)
+    }
+}
@@ -0,0 +1,140 @@
+package mega.privacy.android.app.utils.thumbnail
+
+import android.graphics.Bitmap
+import android.view.View
+import androidx.recyclerview.widget.RecyclerView
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.StandardTestDispatcher
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.advanceUntilIdle
+import kotlinx.coroutines.test.runTest
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import org.mockito.kotlin.any
+import org.mockito.kotlin.anyOrNull
+import org.mockito.kotlin.doAnswer
+import org.mockito.kotlin.mock
+import java.io.File
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class ThumbnailDecodePipelineTest {
+
+    @TempDir
+    lateinit var folder: File
+
+    private val tags = mutableMapOf<Int, Any?>()
+    private var attachListener: View.OnAttachStateChangeListener? = null
+    private val created = mutableListOf<File>()
+    private val decoded = mutableListOf<File>()
+    private val delivered = mutableListOf<Bitmap>()
+    private val bitmap = mock<Bitmap>()
+
+    private val view = mock<View> {
+        on { getTag(any()) } doAnswer { tags[it.getArgument(0)] }
+        on { setTag(any(), anyOrNull()) } doAnswer {
+            tags[it.getArgument(0)] = it.getArgument(1)
+            Unit
+        }
+        on { addOnAttachStateChangeListener(any()) } doAnswer {
+            attachListener = it.getArgument(0)
+            Unit
+        }
+    }
+    private val holder = object : RecyclerView.ViewHolder(view) {}
+
+    @BeforeEach
+    fun setUp() {
+        tags.clear()
+        attachListener = null
+        created.clear()
+        decoded.clear()
+        delivered.clear()
+    }
+
+    @Test
+    fun `test that the thumbnail is created and the decoded bitmap is delivered`() = runTest {
+        val underTest = createPipeline()
+        val thumbnail = File(folder, "thumbnail.jpg")
+
+        underTest.load(holder, null, File(folder, "source.jpg"), thumbnail) { delivered.add(it) }
+        advanceUntilIdle()
+
+        assertThat(created).containsExactly(thumbnail)
+        assertThat(decoded).containsExactly(thumbnail)
+        assertThat(delivered).containsExactly(bitmap)
+    }
+
+    @Test
+    fun `test that an existing thumbnail is decoded without creating it again`() = runTest {
+        val underTest = createPipeline()
+        val thumbnail = File(folder, "thumbnail.jpg").apply { writeText("thumbnail") }
+
+        underTest.load(holder, null, File(folder, "source.jpg"), thumbnail) { delivered.add(it) }
+        advanceUntilIdle()
+
+        assertThat(created).isEmpty()
+        assertThat(delivered).containsExactly(bitmap)
+    }
+
+    @Test
+    fun `test that a new request of the holder cancels the previous one`() = runTest {
+        val underTest = createPipeline()
+        val first = File(folder, "first.jpg")
+        val second = File(folder, "second.jpg")
+
+        underTest.load(holder, null, File(folder, "first_source.jpg"), first) {
+            delivered.add(it)
+        }
+        underTest.load(holder, null, File(folder, "second_source.jpg"), second) {
+            delivered.add(it)
+        }
+        advanceUntilIdle()
+
+        assertThat(decoded).containsExactly(second)
+        assertThat(delivered).hasSize(1)
+    }
+
+    @Test
+    fun `test that the request is cancelled on detach and started again on attach`() = runTest {
+        val underTest = createPipeline()
+        val thumbnail = File(folder, "thumbnail.jpg")
+
+        underTest.load(holder, null, File(folder, "source.jpg"), thumbnail) { delivered.add(it) }
+        attachListener?.onViewDetachedFromWindow(view)
+        advanceUntilIdle()
+
+        assertThat(delivered).isEmpty()
+
+        attachListener?.onViewAttachedToWindow(view)
+        advanceUntilIdle()
+
+        assertThat(delivered).containsExactly(bitmap)
+    }
+
+    @Test
+    fun `test that a cancelled request is not started again on attach`() = runTest {
+        val underTest = createPipeline()
+
+        underTest.load(holder, null, File(folder, "source.jpg"), File(folder, "thumbnail.jpg")) {
+            delivered.add(it)
+        }
+        underTest.cancel(holder)
+        attachListener?.onViewAttachedToWindow(view)
+        advanceUntilIdle()
+
+        assertThat(decoded).isEmpty()
+        assertThat(delivered).isEmpty()
+    }
+
+    private fun TestScope.createPipeline() = ThumbnailDecodePipeline(
+        scope = this,
+        dispatcher = StandardTestDispatcher(testScheduler),
+        createThumbnail = { _, thumbnail -> created.add(thumbnail) },
+        decode = { thumbnail, _, _ ->
+            decoded.add(thumbnail)
+            bitmap
+        },
+    )
+}
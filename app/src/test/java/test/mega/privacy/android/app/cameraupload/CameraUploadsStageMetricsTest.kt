@@ -0,0 +1,52 @@
+package test.mega.privacy.android.app.cameraupload
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.app.cameraupload.CameraUploadsStageMetrics
+import org.junit.jupiter.api.Test
+import java.util.concurrent.TimeUnit
+
+class CameraUploadsStageMetricsTest {
+
+    private var now = 0L
+
+    private val underTest = CameraUploadsStageMetrics(nanoTime = { now })
+
+    @Test
+    fun `test that a stage without records has no metrics`() {
+        assertThat(underTest.getCount(CameraUploadsStageMetrics.Stage.Rename)).isEqualTo(0)
+        assertThat(underTest.getTimeToFirstMillis(CameraUploadsStageMetrics.Stage.Rename)).isNull()
+        assertThat(underTest.getTimeToLastMillis(CameraUploadsStageMetrics.Stage.Rename)).isNull()
+    }
+
+    @Test
+    fun `test that the count and the times of the first and last records are recorded`() {
+        now = TimeUnit.MILLISECONDS.toNanos(10)
+        underTest.record(CameraUploadsStageMetrics.Stage.CheckExistence)
+        now = TimeUnit.MILLISECONDS.toNanos(25)
+        underTest.record(CameraUploadsStageMetrics.Stage.CheckExistence)
+        now = TimeUnit.MILLISECONDS.toNanos(40)
+        underTest.record(CameraUploadsStageMetrics.Stage.CheckExistence)
+
+        assertThat(underTest.getCount(CameraUploadsStageMetrics.Stage.CheckExistence))
+            .isEqualTo(3)
+        assertThat(underTest.getTimeToFirstMillis(CameraUploadsStageMetrics.Stage.CheckExistence))
+            .isEqualTo(10)
+        assertThat(underTest.getTimeToLastMillis(CameraUploadsStageMetrics.Stage.CheckExistence))
+            .isEqualTo(40)
+    }
+
+    @Test
+    fun `test that measuring a flow records every element without changing it`() = runTest {
+        val values = listOf(1, 2, 3)
+
+        val result = with(underTest) {
+            flowOf(*values.toTypedArray()).measure(CameraUploadsStageMetrics.Stage.Upload).toList()
+        }
+
+        assertThat(result).isEqualTo(values)
+        assertThat(underTest.getCount(CameraUploadsStageMetrics.Stage.Upload)).isEqualTo(3)
+    }
+}
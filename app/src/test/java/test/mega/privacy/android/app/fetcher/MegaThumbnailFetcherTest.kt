@@ -1,59 +1,196 @@
 package test.mega.privacy.android.app.fetcher
 
+import android.webkit.MimeTypeMap
+import coil.decode.DataSource
+import coil.fetch.SourceResult
+import coil.request.CachePolicy
+import coil.request.Options
+import coil.request.Parameters
+import coil.size.Size
+import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.app.fetcher.MegaThumbnailFetcher
+import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.node.thumbnail.ThumbnailRequest
-import mega.privacy.android.domain.usecase.thumbnailpreview.GetPublicNodeThumbnailUseCase
-import mega.privacy.android.domain.usecase.thumbnailpreview.GetThumbnailUseCase
+import mega.privacy.android.domain.usecase.thumbnailpreview.GetPreviewFromLocalUseCase
+import mega.privacy.android.domain.usecase.thumbnailpreview.GetThumbnailFromLocalUseCase
+import mega.privacy.android.domain.usecase.thumbnailpreview.GetThumbnailFromServerUseCase
+import org.junit.jupiter.api.AfterAll
 import org.junit.jupiter.api.BeforeAll
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
 import org.junit.jupiter.api.assertThrows
+import org.mockito.MockedStatic
+import org.mockito.Mockito
 import org.mockito.kotlin.any
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.reset
 import org.mockito.kotlin.verifyNoInteractions
 import org.mockito.kotlin.whenever
+import java.io.File
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 class MegaThumbnailFetcherTest {
-    private val request: ThumbnailRequest = mock()
-    private val getThumbnailUseCase: GetThumbnailUseCase = mock()
-    private val getPublicNodeThumbnailUseCase: GetPublicNodeThumbnailUseCase = mock()
-    private lateinit var underTest: MegaThumbnailFetcher
+    private val getThumbnailFromLocalUseCase: GetThumbnailFromLocalUseCase = mock()
+    private val getPreviewFromLocalUseCase: GetPreviewFromLocalUseCase = mock()
+    private val getThumbnailFromServerUseCase: GetThumbnailFromServerUseCase = mock()
+    private val thumbnail = File("thumbnail.jpg")
+    private val preview = File("preview.jpg")
+    private lateinit var mimeTypeMap: MockedStatic<MimeTypeMap>
 
     @BeforeAll
     fun setUp() {
-        underTest = MegaThumbnailFetcher(
-            request,
-            { getThumbnailUseCase },
-            { getPublicNodeThumbnailUseCase }
-        )
+        mimeTypeMap = Mockito.mockStatic(MimeTypeMap::class.java)
+        mimeTypeMap.`when`<MimeTypeMap> { MimeTypeMap.getSingleton() }.thenReturn(mock())
+    }
+
+    @AfterAll
+    fun tearDown() {
+        mimeTypeMap.close()
     }
 
     @BeforeEach
     fun resetMocks() = reset(
-        request,
-        getThumbnailUseCase,
-        getPublicNodeThumbnailUseCase
+        getThumbnailFromLocalUseCase,
+        getPreviewFromLocalUseCase,
+        getThumbnailFromServerUseCase,
     )
 
     @Test
-    fun `test that throw NullPointerException when fetch cloud drive node and getThumbnailUseCase returns null`() =
+    fun `test that the local thumbnail is returned from disk for small sizes`() = runTest {
+        whenever(getThumbnailFromLocalUseCase(NODE_ID, false)).thenReturn(thumbnail)
+        whenever(getPreviewFromLocalUseCase(NODE_ID)).thenReturn(preview)
+
+        val result = createFetcher(size = Size(100, 100)).fetch() as SourceResult
+
+        assertThat(result.source.file().toFile()).isEqualTo(thumbnail)
+        assertThat(result.dataSource).isEqualTo(DataSource.DISK)
+        verifyNoInteractions(getThumbnailFromServerUseCase)
+    }
+
+    @Test
+    fun `test that the local preview is returned from disk for big sizes`() = runTest {
+        whenever(getThumbnailFromLocalUseCase(NODE_ID, false)).thenReturn(thumbnail)
+        whenever(getPreviewFromLocalUseCase(NODE_ID)).thenReturn(preview)
+
+        val result = createFetcher(size = Size(500, 500)).fetch() as SourceResult
+
+        assertThat(result.source.file().toFile()).isEqualTo(preview)
+        assertThat(result.dataSource).isEqualTo(DataSource.DISK)
+    }
+
+    @Test
+    fun `test that the local preview is returned when there is no local thumbnail`() = runTest {
+        whenever(getThumbnailFromLocalUseCase(NODE_ID, false)).thenReturn(null)
+        whenever(getPreviewFromLocalUseCase(NODE_ID)).thenReturn(preview)
+
+        val result = createFetcher(size = Size(100, 100)).fetch() as SourceResult
+
+        assertThat(result.source.file().toFile()).isEqualTo(preview)
+        verifyNoInteractions(getThumbnailFromServerUseCase)
+    }
+
+    @Test
+    fun `test that the thumbnail is downloaded from network when nothing is on disk`() = runTest {
+        whenever(getThumbnailFromLocalUseCase(NODE_ID, false)).thenReturn(null)
+        whenever(getPreviewFromLocalUseCase(NODE_ID)).thenReturn(null)
+        whenever(getThumbnailFromServerUseCase(NODE_ID, false, false)).thenReturn(thumbnail)
+
+        val result = createFetcher(size = Size(500, 500)).fetch() as SourceResult
+
+        assertThat(result.source.file().toFile()).isEqualTo(thumbnail)
+        assertThat(result.dataSource).isEqualTo(DataSource.NETWORK)
+    }
+
+    @Test
+    fun `test that the previews are not looked for public nodes`() = runTest {
+        whenever(getThumbnailFromLocalUseCase(NODE_ID, true)).thenReturn(null)
+        whenever(getThumbnailFromServerUseCase(NODE_ID, true, false)).thenReturn(thumbnail)
+
+        val result = createFetcher(size = Size(500, 500), isPublicNode = true).fetch()
+
+        assertThat((result as SourceResult).dataSource).isEqualTo(DataSource.NETWORK)
+        verifyNoInteractions(getPreviewFromLocalUseCase)
+    }
+
+    @Test
+    fun `test that the disk is not read when the disk cache read is disabled`() = runTest {
+        whenever(getThumbnailFromServerUseCase(NODE_ID, false, false)).thenReturn(thumbnail)
+
+        val result = createFetcher(diskCachePolicy = CachePolicy.WRITE_ONLY).fetch()
+
+        assertThat((result as SourceResult).dataSource).isEqualTo(DataSource.NETWORK)
+        verifyNoInteractions(getThumbnailFromLocalUseCase, getPreviewFromLocalUseCase)
+    }
+
+    @Test
+    fun `test that the prefetched thumbnails are downloaded as prefetch`() = runTest {
+        whenever(getThumbnailFromLocalUseCase(NODE_ID, false)).thenReturn(null)
+        whenever(getPreviewFromLocalUseCase(NODE_ID)).thenReturn(null)
+        whenever(getThumbnailFromServerUseCase(NODE_ID, false, true)).thenReturn(thumbnail)
+
+        val parameters = Parameters.Builder()
+            .set(MegaThumbnailFetcher.PREFETCH_PARAMETER, true, memoryCacheKey = null)
+            .build()
+        val result = createFetcher(parameters = parameters).fetch()
+
+        assertThat((result as SourceResult).dataSource).isEqualTo(DataSource.NETWORK)
+    }
+
+    @Test
+    fun `test that the network is not used when the network cache read is disabled`() =
+        runTest {
+            whenever(getThumbnailFromLocalUseCase(any(), any())).thenReturn(null)
+            whenever(getPreviewFromLocalUseCase(any())).thenReturn(null)
+
+            assertThrows<IllegalStateException> {
+                createFetcher(networkCachePolicy = CachePolicy.DISABLED).fetch()
+            }
+            verifyNoInteractions(getThumbnailFromServerUseCase)
+        }
+
+    @Test
+    fun `test that throw NullPointerException when fetch public node and getThumbnailFromServerUseCase returns null`() =
         runTest {
-            whenever(request.isPublicNode).thenReturn(true)
-            whenever(getPublicNodeThumbnailUseCase(any(), any())).thenReturn(null)
-            assertThrows<NullPointerException> { underTest.fetch() }
-            verifyNoInteractions(getThumbnailUseCase)
+            whenever(getThumbnailFromLocalUseCase(any(), any())).thenReturn(null)
+            whenever(getThumbnailFromServerUseCase(any(), any(), any())).thenReturn(null)
+            assertThrows<NullPointerException> { createFetcher(isPublicNode = true).fetch() }
+            verifyNoInteractions(getPreviewFromLocalUseCase)
         }
 
     @Test
-    fun `test that throw NullPointerException when fetch public node and getPublicNodeThumbnailUseCase returns null`() =
+    fun `test that throw NullPointerException when fetch cloud drive node and getThumbnailFromServerUseCase returns null`() =
         runTest {
-            whenever(request.isPublicNode).thenReturn(false)
-            whenever(getThumbnailUseCase(any(), any())).thenReturn(null)
-            assertThrows<NullPointerException> { underTest.fetch() }
-            verifyNoInteractions(getPublicNodeThumbnailUseCase)
+            whenever(getThumbnailFromLocalUseCase(any(), any())).thenReturn(null)
+            whenever(getPreviewFromLocalUseCase(any())).thenReturn(null)
+            whenever(getThumbnailFromServerUseCase(any(), any(), any())).thenReturn(null)
+            assertThrows<NullPointerException> { createFetcher().fetch() }
         }
-}
\ No newline at end of file
+
+    private fun createFetcher(
+        size: Size = Size(100, 100),
+        isPublicNode: Boolean = false,
+        diskCachePolicy: CachePolicy = CachePolicy.ENABLED,
+        networkCachePolicy: CachePolicy = CachePolicy.ENABLED,
+        parameters: Parameters = Parameters.EMPTY,
+    ): MegaThumbnailFetcher {
+        val options = mock<Options> {
+            on { this.size }.thenReturn(size)
+            on { this.diskCachePolicy }.thenReturn(diskCachePolicy)
+            on { this.networkCachePolicy }.thenReturn(networkCachePolicy)
+            on { this.parameters }.thenReturn(parameters)
+        }
+        return MegaThumbnailFetcher(
+            request = ThumbnailRequest(NodeId(NODE_ID), isPublicNode),
+            options = options,
+            getThumbnailFromLocalUseCase = { getThumbnailFromLocalUseCase },
+            getPreviewFromLocalUseCase = { getPreviewFromLocalUseCase },
+            getThumbnailFromServerUseCase = { getThumbnailFromServerUseCase },
+        )
+    }
+
+    private companion object {
+        const val NODE_ID = 1L
+    }
+}
@@ -0,0 +1,118 @@
+package test.mega.privacy.android.app.presentation.mediaplayer
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.StandardTestDispatcher
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.advanceUntilIdle
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.app.mediaplayer.PlaySourceWindow
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.io.IOException
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class PlaySourceWindowTest {
+
+    private val handles = (1L..10L).toList()
+    private val resolved = mutableListOf<Long>()
+
+    @BeforeEach
+    fun setUp() {
+        resolved.clear()
+    }
+
+    @Test
+    fun `test that the items around the playing one are resolved nearest first`() = runTest {
+        val underTest = createWindow(windowSize = 2)
+
+        underTest.moveTo(5L)
+        advanceUntilIdle()
+
+        assertThat(resolved).containsExactly(6L, 4L, 7L, 3L).inOrder()
+    }
+
+    @Test
+    fun `test that the window is cut at the ends of the playlist`() = runTest {
+        val underTest = createWindow(windowSize = 2)
+
+        underTest.moveTo(1L)
+        advanceUntilIdle()
+
+        assertThat(resolved).containsExactly(2L, 3L).inOrder()
+    }
+
+    @Test
+    fun `test that the resolved items are not resolved again when the window moves`() = runTest {
+        val underTest = createWindow(windowSize = 1)
+
+        underTest.moveTo(5L)
+        advanceUntilIdle()
+        underTest.moveTo(6L)
+        advanceUntilIdle()
+
+        assertThat(resolved).containsExactly(6L, 4L, 7L, 5L).inOrder()
+    }
+
+    @Test
+    fun `test that an item resolved in background is returned without resolving it`() = runTest {
+        val underTest = createWindow(windowSize = 1)
+
+        underTest.moveTo(5L)
+        advanceUntilIdle()
+
+        assertThat(underTest.getUri(6L)).isEqualTo(uriOf(6L))
+        assertThat(resolved).containsExactly(6L, 4L)
+    }
+
+    @Test
+    fun `test that an item out of the window is resolved when it is requested`() = runTest {
+        val underTest = createWindow(windowSize = 1)
+
+        assertThat(underTest.getUri(9L)).isEqualTo(uriOf(9L))
+        assertThat(underTest.getUri(9L)).isEqualTo(uriOf(9L))
+        assertThat(resolved).containsExactly(9L)
+    }
+
+    @Test
+    fun `test that IOException is thrown when the item cannot be resolved`() = runTest {
+        val underTest = PlaySourceWindow(this, StandardTestDispatcher(testScheduler))
+        underTest.setPlaylist(handles) { null }
+
+        assertThrows<IOException> { underTest.getUri(1L) }
+    }
+
+    @Test
+    fun `test that IOException is thrown after the window is cleared`() = runTest {
+        val underTest = createWindow(windowSize = 1)
+
+        underTest.moveTo(5L)
+        advanceUntilIdle()
+        underTest.clear()
+
+        assertThrows<IOException> { underTest.getUri(6L) }
+    }
+
+    @Test
+    fun `test that a new playlist cancels the resolution of the previous one`() = runTest {
+        val underTest = createWindow(windowSize = 2)
+
+        underTest.moveTo(5L)
+        underTest.setPlaylist(handles) { handle -> uriOf(handle).also { resolved.add(handle) } }
+        advanceUntilIdle()
+
+        assertThat(resolved).isEmpty()
+    }
+
+    private fun TestScope.createWindow(windowSize: Int) =
+        PlaySourceWindow(
+            scope = this,
+            dispatcher = StandardTestDispatcher(testScheduler),
+            windowSize = windowSize,
+        ).apply {
+            setPlaylist(handles) { handle -> uriOf(handle).also { resolved.add(handle) } }
+        }
+
+    private fun uriOf(handle: Long) = "http://127.0.0.1:4443/$handle"
+}
@@ -0,0 +1,32 @@
+package test.mega.privacy.android.app.presentation.mediaplayer
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.app.mediaplayer.model.StreamingMetrics
+import org.junit.jupiter.api.Test
+
+class StreamingMetricsTest {
+
+    @Test
+    fun `test that the cache hit ratio is the ratio of the bytes read from the cache`() {
+        val underTest = StreamingMetrics(
+            cachedBytes = 300,
+            streamedBytes = 100,
+            rebufferCount = 0,
+            rebufferTimeMs = 0,
+        )
+
+        assertThat(underTest.cacheHitRatio).isEqualTo(0.75f)
+    }
+
+    @Test
+    fun `test that the cache hit ratio is 0 when nothing was read`() {
+        val underTest = StreamingMetrics(
+            cachedBytes = 0,
+            streamedBytes = 0,
+            rebufferCount = 0,
+            rebufferTimeMs = 0,
+        )
+
+        assertThat(underTest.cacheHitRatio).isEqualTo(0f)
+    }
+}
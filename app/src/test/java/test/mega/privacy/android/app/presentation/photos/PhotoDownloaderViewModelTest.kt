@@ -0,0 +1,85 @@
+package test.mega.privacy.android.app.presentation.photos
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.test.StandardTestDispatcher
+import kotlinx.coroutines.test.advanceUntilIdle
+import kotlinx.coroutines.test.resetMain
+import kotlinx.coroutines.test.runTest
+import kotlinx.coroutines.test.setMain
+import mega.privacy.android.app.presentation.photos.PhotoDownloaderViewModel
+import mega.privacy.android.domain.entity.UnknownFileTypeInfo
+import mega.privacy.android.domain.entity.photos.Photo
+import mega.privacy.android.domain.usecase.thumbnailpreview.DownloadThumbnailUseCase
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.mockito.kotlin.any
+import org.mockito.kotlin.doSuspendableAnswer
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.stub
+import java.time.LocalDateTime
+
+@ExperimentalCoroutinesApi
+class PhotoDownloaderViewModelTest {
+
+    private val downloadThumbnailUseCase = mock<DownloadThumbnailUseCase>()
+
+    @Before
+    fun setUp() {
+        Dispatchers.setMain(StandardTestDispatcher())
+    }
+
+    @After
+    fun tearDown() {
+        Dispatchers.resetMain()
+    }
+
+    @Test
+    fun `test that several covers are downloaded at the same time`() = runTest {
+        var runningDownloads = 0
+        var maxRunningDownloads = 0
+        downloadThumbnailUseCase.stub {
+            onBlocking { invoke(any(), any()) }.doSuspendableAnswer {
+                runningDownloads++
+                maxRunningDownloads = maxOf(maxRunningDownloads, runningDownloads)
+                delay(100)
+                runningDownloads--
+                @Suppress("UNCHECKED_CAST")
+                (it.arguments[1] as (Boolean) -> Unit)(true)
+            }
+        }
+        val underTest = PhotoDownloaderViewModel(
+            downloadThumbnailUseCase = downloadThumbnailUseCase,
+            downloadPreviewUseCase = mock(),
+            downloadPublicNodeThumbnailUseCase = mock(),
+            downloadPublicNodePreviewUseCase = mock(),
+            ioDispatcher = StandardTestDispatcher(testScheduler),
+        )
+        val downloadedIds = mutableListOf<Long>()
+
+        (1L..3L).forEach { id ->
+            underTest.downloadPhoto(isPreview = false, photo = createImage(id)) {
+                downloadedIds += id
+            }
+        }
+        advanceUntilIdle()
+
+        assertThat(maxRunningDownloads).isEqualTo(3)
+        assertThat(downloadedIds).containsExactly(1L, 2L, 3L)
+    }
+
+    private fun createImage(id: Long): Photo = Photo.Image(
+        id = id,
+        parentId = 0L,
+        name = "",
+        isFavourite = false,
+        creationTime = LocalDateTime.now(),
+        modificationTime = LocalDateTime.now(),
+        thumbnailFilePath = "thumbnail/$id.jpg",
+        previewFilePath = null,
+        fileTypeInfo = UnknownFileTypeInfo(mimeType = "", extension = ""),
+    )
+}
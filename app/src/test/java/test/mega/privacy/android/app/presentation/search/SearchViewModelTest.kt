@@ -0,0 +1,189 @@
+package test.mega.privacy.android.app.presentation.search
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.emptyFlow
+import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.test.StandardTestDispatcher
+import kotlinx.coroutines.test.advanceUntilIdle
+import kotlinx.coroutines.test.resetMain
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import kotlinx.coroutines.test.setMain
+import mega.privacy.android.app.domain.usecase.GetNodeByHandle
+import mega.privacy.android.app.domain.usecase.GetRootFolder
+import mega.privacy.android.app.main.DrawerItem
+import mega.privacy.android.app.presentation.search.SearchViewModel
+import mega.privacy.android.app.presentation.search.mapper.SearchTypeMapper
+import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.node.TypedFileNode
+import mega.privacy.android.domain.entity.search.SearchCategory
+import mega.privacy.android.domain.usecase.RootNodeExistsUseCase
+import mega.privacy.android.domain.usecase.featureflag.GetFeatureFlagValueUseCase
+import mega.privacy.android.domain.usecase.node.MonitorNodeUpdatesUseCase
+import mega.privacy.android.domain.usecase.search.SearchNodesByNamePrefixUseCase
+import mega.privacy.android.domain.usecase.search.SearchNodesPagedUseCase
+import mega.privacy.android.domain.usecase.transfers.MonitorTransferEventsUseCase
+import nz.mega.sdk.MegaNode
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.mockito.kotlin.any
+import org.mockito.kotlin.anyOrNull
+import org.mockito.kotlin.eq
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.stub
+import org.mockito.kotlin.verify
+
+@ExperimentalCoroutinesApi
+class SearchViewModelTest {
+
+    private val rootNode = mock<MegaNode> { on { handle }.thenReturn(ROOT_HANDLE) }
+    private val indexedNode = mock<MegaNode>()
+    private val searchedNode = mock<MegaNode>()
+    private val otherSearchedNode = mock<MegaNode>()
+    private val searchedTypedNode =
+        mock<TypedFileNode> { on { id }.thenReturn(NodeId(SEARCHED_HANDLE)) }
+    private val otherSearchedTypedNode =
+        mock<TypedFileNode> { on { id }.thenReturn(NodeId(OTHER_SEARCHED_HANDLE)) }
+
+    private val monitorNodeUpdatesUseCase = mock<MonitorNodeUpdatesUseCase> {
+        on { invoke() }.thenReturn(emptyFlow())
+    }
+    private val monitorTransferEventsUseCase = mock<MonitorTransferEventsUseCase> {
+        on { invoke() }.thenReturn(emptyFlow())
+    }
+    private val rootNodeExistsUseCase = mock<RootNodeExistsUseCase> {
+        onBlocking { invoke() }.thenReturn(true)
+    }
+    private val getRootFolder = mock<GetRootFolder> {
+        onBlocking { invoke() }.thenReturn(rootNode)
+    }
+    private val searchNodesPagedUseCase = mock<SearchNodesPagedUseCase>()
+    private val searchNodesByNamePrefixUseCase = mock<SearchNodesByNamePrefixUseCase>()
+    private val getNodeByHandle =
+        GetNodeByHandle { handle ->
+            when (handle) {
+                INDEXED_HANDLE -> indexedNode
+                SEARCHED_HANDLE -> searchedNode
+                OTHER_SEARCHED_HANDLE -> otherSearchedNode
+                else -> null
+            }
+        }
+    private val getFeatureFlagValueUseCase = mock<GetFeatureFlagValueUseCase> {
+        onBlocking { invoke(any()) }.thenReturn(false)
+    }
+
+    private lateinit var underTest: SearchViewModel
+
+    @Before
+    fun setUp() {
+        Dispatchers.setMain(StandardTestDispatcher())
+        underTest = SearchViewModel(
+            monitorNodeUpdatesUseCase = monitorNodeUpdatesUseCase,
+            monitorTransferEventsUseCase = monitorTransferEventsUseCase,
+            rootNodeExistsUseCase = rootNodeExistsUseCase,
+            getRootFolder = getRootFolder,
+            searchNodesPagedUseCase = searchNodesPagedUseCase,
+            searchNodesByNamePrefixUseCase = searchNodesByNamePrefixUseCase,
+            getNodeByHandle = getNodeByHandle,
+            getCloudSortOrder = mock(),
+            getSearchParentNodeHandle = mock(),
+            getFeatureFlagValueUseCase = getFeatureFlagValueUseCase,
+            getSearchCategoriesUseCase = mock(),
+            searchFilterMapper = mock(),
+            searchTypeMapper = SearchTypeMapper(),
+        )
+    }
+
+    @After
+    fun tearDown() {
+        Dispatchers.resetMain()
+    }
+
+    @Test
+    fun `test that a typed query shows the index results before calling the search api`() =
+        runTest {
+            val typedNode = mock<TypedFileNode> { on { id }.thenReturn(NodeId(INDEXED_HANDLE)) }
+            searchNodesByNamePrefixUseCase.stub {
+                onBlocking { invoke(any(), eq(SearchCategory.ALL), anyOrNull()) }
+                    .thenReturn(listOf(typedNode))
+            }
+            searchNodesPagedUseCase.stub {
+                on { invoke(any(), any(), any(), any(), any(), any()) }
+                    .thenReturn(flowOf(listOf(searchedTypedNode)))
+            }
+            underTest.setSearchDrawerItem(DrawerItem.HOMEPAGE)
+
+            typeQuery("hol")
+            typeQuery("holi")
+            runCurrent()
+
+            assertThat(underTest.state.value.nodes).containsExactly(indexedNode)
+            verify(searchNodesPagedUseCase, never())
+                .invoke(any(), any(), any(), any(), any(), any())
+
+            advanceUntilIdle()
+
+            assertThat(underTest.state.value.nodes).containsExactly(searchedNode)
+            verify(searchNodesPagedUseCase)
+                .invoke(eq("holi"), any(), any(), any(), any(), any())
+            verify(searchNodesPagedUseCase, never())
+                .invoke(eq("hol"), any(), any(), any(), any(), any())
+        }
+
+    @Test
+    fun `test that a submitted query calls the search api without the index`() = runTest {
+        searchNodesPagedUseCase.stub {
+            on { invoke(any(), any(), any(), any(), any(), any()) }
+                .thenReturn(flowOf(listOf(searchedTypedNode)))
+        }
+        underTest.setSearchDrawerItem(DrawerItem.HOMEPAGE)
+        underTest.setTextSubmitted(true)
+
+        typeQuery("holi")
+        advanceUntilIdle()
+
+        assertThat(underTest.state.value.nodes).containsExactly(searchedNode)
+        verify(searchNodesByNamePrefixUseCase, never()).invoke(any(), any(), anyOrNull())
+    }
+
+    @Test
+    fun `test that every page of the search api is added to the results`() = runTest {
+        searchNodesPagedUseCase.stub {
+            on { invoke(any(), any(), any(), any(), any(), any()) }
+                .thenReturn(flowOf(listOf(searchedTypedNode), listOf(otherSearchedTypedNode)))
+        }
+        underTest.setSearchDrawerItem(DrawerItem.HOMEPAGE)
+        underTest.setTextSubmitted(true)
+
+        typeQuery("holi")
+        advanceUntilIdle()
+
+        assertThat(underTest.state.value.nodes)
+            .containsExactly(searchedNode, otherSearchedNode).inOrder()
+        assertThat(underTest.state.value.isInProgress).isFalse()
+    }
+
+    private fun typeQuery(query: String) {
+        underTest.setSearchQuery(query)
+        underTest.performSearch(
+            browserParentHandle = ROOT_HANDLE,
+            rubbishBinParentHandle = -1L,
+            backupsParentHandle = -1L,
+            incomingParentHandle = -1L,
+            outgoingParentHandle = -1L,
+            linksParentHandle = -1L,
+            isFirstNavigationLevel = true,
+        )
+    }
+
+    private companion object {
+        const val ROOT_HANDLE = 1L
+        const val INDEXED_HANDLE = 2L
+        const val SEARCHED_HANDLE = 3L
+        const val OTHER_SEARCHED_HANDLE = 4L
+    }
+}
@@ -0,0 +1,92 @@
+package mega.privacy.android.app.baselineprofile
+
+import androidx.benchmark.macro.CompilationMode
+import androidx.benchmark.macro.FrameTimingMetric
+import androidx.benchmark.macro.MacrobenchmarkScope
+import androidx.benchmark.macro.StartupMode
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.filters.LargeTest
+import androidx.test.uiautomator.By
+import androidx.test.uiautomator.Direction
+import androidx.test.uiautomator.UiObject2
+import androidx.test.uiautomator.Until
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * This test class benchmarks the scroll jank of the file storage explorer, whose thumbnails of
+ * local files are created and decoded in background while its list is scrolled. Node lists only
+ * decode thumbnails of nodes also stored in the device, so they are not scrolled here.
+ *
+ * It requires an app already logged in whose most recent completed transfer is a download to a
+ * device folder with enough images to scroll, as the explorer is opened from that transfer with
+ * the "View in folder" option. Run it on a physical device, like [StartupBenchmarks]:
+ * ```
+ * ./gradlew :baselineprofile:connectedAndroidTest -Pandroid.testInstrumentationRunnerArguments.androidx.benchmark.enabledRules=Macrobenchmark
+ * ```
+ **/
+@RunWith(AndroidJUnit4::class)
+@LargeTest
+class ThumbnailScrollBenchmarks {
+
+    @get:Rule
+    val rule = MacrobenchmarkRule()
+
+    @Test
+    fun scrollFileStorageList() {
+        rule.measureRepeated(
+            packageName = PACKAGE_NAME,
+            metrics = listOf(FrameTimingMetric()),
+            compilationMode = CompilationMode.Partial(),
+            startupMode = StartupMode.WARM,
+            iterations = 10,
+            setupBlock = {
+                pressHome()
+                startActivityAndWait()
+                openDownloadFolder()
+            },
+            measureBlock = {
+                val list = findList()
+                list.setGestureMargin(device.displayWidth / 5)
+                repeat(FLINGS) { list.fling(Direction.DOWN) }
+                repeat(FLINGS) { list.fling(Direction.UP) }
+                device.waitForIdle()
+            }
+        )
+    }
+
+    /**
+     * Opens the folder of the last completed transfer from the transfers section of the drawer
+     */
+    private fun MacrobenchmarkScope.openDownloadFolder() {
+        findObject(DRAWER_BUTTON_ID, "The home page was not found, the app must be logged in")
+            .click()
+        findObject(TRANSFERS_ID, "The drawer was not opened").click()
+        findObject(TRANSFERS_TABS_ID, "The transfers section was not opened")
+            .findObjects(By.clickable(true)).last().click()
+        device.waitForIdle()
+        findObject(TRANSFER_ID, "There is no completed transfer").click()
+        findObject(VIEW_IN_FOLDER_ID, "The last completed transfer is not a download").click()
+        findList()
+    }
+
+    private fun MacrobenchmarkScope.findList(): UiObject2 =
+        findObject(LIST_ID, "The folder of the last completed transfer was not opened")
+
+    private fun MacrobenchmarkScope.findObject(id: String, error: String): UiObject2 =
+        checkNotNull(device.wait(Until.findObject(By.res(PACKAGE_NAME, id)), TIMEOUT)) { error }
+
+    private companion object {
+        const val PACKAGE_NAME = "mega.privacy.android.app"
+        const val DRAWER_BUTTON_ID = "left_action"
+        const val TRANSFERS_ID = "transfers_section"
+        const val TRANSFERS_TABS_ID = "sliding_tabs_transfers"
+        const val TRANSFER_ID = "transfers_list_item_layout"
+        const val VIEW_IN_FOLDER_ID = "option_view_layout"
+        const val LIST_ID = "file_storage_list_view"
+        const val TIMEOUT = 5_000L
+        const val FLINGS = 3
+    }
+}
@@ -142,4 +142,5 @@ dependencies {
     androidTestImplementation(testlib.junit.test.ktx)
     androidTestImplementation(testlib.runner)
     androidTestImplementation(testlib.room.test)
+    androidTestImplementation(testlib.mockito.android)
 }
@@ -0,0 +1,65 @@
+package mega.privacy.android.data.cryptography
+
+import android.util.Base64
+import android.util.Log
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.google.common.truth.Truth
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.util.UUID
+import javax.crypto.Cipher
+import javax.crypto.spec.SecretKeySpec
+import kotlin.system.measureNanoTime
+
+/**
+ * Compares the throughput of decrypting database rows with a new [Cipher] per field, as it was
+ * done before [AesCipherEngine], against the cached ciphers of [AesCipherEngine]
+ *
+ * Timings are only logged, as they depend on the device. The test asserts the results match.
+ */
+@RunWith(AndroidJUnit4::class)
+class AesCipherEngineBenchmarkTest {
+
+    private val aesKey = UUID.randomUUID().toString().toByteArray().copyOfRange(0, 32)
+    private val underTest = AesCipherEngine(aesKey)
+
+    @Test
+    fun test_decrypt_throughput_of_cached_ciphers() {
+        val fields = List(ROWS * FIELDS_PER_ROW) { underTest.encrypt(UUID.randomUUID().toString()) }
+
+        // Warm up both paths before measuring
+        repeat(WARM_UP_ITERATIONS) {
+            fields.take(FIELDS_PER_ROW * 10).forEach { legacyDecrypt(it) }
+            underTest.decryptAll(fields.take(FIELDS_PER_ROW * 10))
+        }
+
+        lateinit var legacyResult: List<String>
+        lateinit var singleResult: List<String>
+        lateinit var batchResult: List<String?>
+        val legacyNanos = measureNanoTime { legacyResult = fields.map { legacyDecrypt(it) } }
+        val singleNanos = measureNanoTime { singleResult = fields.map { underTest.decrypt(it) } }
+        val batchNanos = measureNanoTime { batchResult = underTest.decryptAll(fields) }
+
+        Log.i(TAG, "Legacy: ${rowsPerSecond(legacyNanos)} rows/s")
+        Log.i(TAG, "Cached cipher: ${rowsPerSecond(singleNanos)} rows/s")
+        Log.i(TAG, "Cached cipher batch: ${rowsPerSecond(batchNanos)} rows/s")
+
+        Truth.assertThat(singleResult).isEqualTo(legacyResult)
+        Truth.assertThat(batchResult).isEqualTo(legacyResult)
+    }
+
+    private fun legacyDecrypt(data: String): String {
+        val cipher = Cipher.getInstance("AES")
+        cipher.init(Cipher.DECRYPT_MODE, SecretKeySpec(aesKey, "AES"))
+        return String(cipher.doFinal(Base64.decode(data, Base64.DEFAULT)))
+    }
+
+    private fun rowsPerSecond(nanos: Long) = ROWS * 1_000_000_000L / nanos.coerceAtLeast(1)
+
+    private companion object {
+        const val TAG = "AesCipherEngineBenchmark"
+        const val ROWS = 2_000
+        const val FIELDS_PER_ROW = 5
+        const val WARM_UP_ITERATIONS = 5
+    }
+}
@@ -17,14 +17,25 @@ class SecureEncryptDecryptDataTest {
         repeat(100) {
             val aesKey = provideAesKey()
             val data = UUID.randomUUID().toString()
-            val encryptData = EncryptData(aesKey)
-            val decryptData = DecryptData(aesKey)
+            val encryptData = EncryptData(AesCipherEngine(aesKey))
+            val decryptData = DecryptData(AesCipherEngine(aesKey))
             val encryptedData = encryptData(data)
             val decryptedData = decryptData(encryptedData)
             Truth.assertThat(decryptedData).isEqualTo(data)
         }
     }
 
+    @Test
+    fun `test_that_batch_encrypt_and_decrypt_are_matching`() = runTest {
+        val aesKey = provideAesKey()
+        val data = List(100) { if (it % 10 == 0) null else UUID.randomUUID().toString() }
+        val encryptData = EncryptData(AesCipherEngine(aesKey))
+        val decryptData = DecryptData(AesCipherEngine(aesKey))
+        val encryptedData = encryptData.encryptAll(data)
+        Truth.assertThat(encryptedData).isEqualTo(data.map { encryptData(it) })
+        Truth.assertThat(decryptData.decryptAll(encryptedData)).isEqualTo(data)
+    }
+
     private fun provideAesKey(): ByteArray {
         val key = Settings.Secure.ANDROID_ID + "fkvn8 w4y*(NC\$G*(G($*GR*(#)*huio4h389\$G"
         return key.toByteArray().copyOfRange(0, 32)
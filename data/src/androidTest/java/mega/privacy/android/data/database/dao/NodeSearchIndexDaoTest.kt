@@ -0,0 +1,144 @@
+package mega.privacy.android.data.database.dao
+
+import android.content.Context
+import androidx.room.Room
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.google.common.truth.Truth
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.database.MegaDatabase
+import mega.privacy.android.data.database.entity.NodeSearchIndexEntity
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@OptIn(ExperimentalCoroutinesApi::class)
+@RunWith(AndroidJUnit4::class)
+class NodeSearchIndexDaoTest {
+    private lateinit var nodeSearchIndexDao: NodeSearchIndexDao
+    private lateinit var db: MegaDatabase
+
+    @Before
+    fun createDb() {
+        val context = ApplicationProvider.getApplicationContext<Context>()
+        db = Room.inMemoryDatabaseBuilder(
+            context, MegaDatabase::class.java
+        ).build()
+        nodeSearchIndexDao = db.nodeSearchIndexDao()
+    }
+
+    @After
+    fun closeDb() {
+        db.close()
+    }
+
+    @Test
+    fun test_that_searchNodes_matches_the_nodes_with_all_the_tokens() = runTest {
+        nodeSearchIndexDao.insertOrUpdateNodes(
+            listOf(
+                generateEntity(handle = 1, nameTokens = "a1f0 b2e1"),
+                generateEntity(handle = 2, nameTokens = "a1f0"),
+                generateEntity(handle = 3, nameTokens = "b2e1 c3d2"),
+                generateEntity(handle = 4, nameTokens = "a1f0b2e1"),
+            )
+        )
+
+        Truth.assertThat(searchNodes(match = "a1f0 b2e1")).containsExactly(1L)
+        Truth.assertThat(searchNodes(match = "a1f0")).containsExactly(1L, 2L)
+    }
+
+    @Test
+    fun test_that_searchNodes_filters_by_category_and_modification_time() = runTest {
+        nodeSearchIndexDao.insertOrUpdateNodes(
+            listOf(
+                generateEntity(handle = 1, category = "IMAGES", modificationTime = 15),
+                generateEntity(handle = 2, category = "VIDEO", modificationTime = 15),
+                generateEntity(handle = 3, category = "IMAGES", modificationTime = 25),
+            )
+        )
+
+        val retrieved = searchNodes(category = "IMAGES", modifiedFrom = 10, modifiedTo = 20)
+        Truth.assertThat(retrieved).containsExactly(1L)
+    }
+
+    @Test
+    fun test_that_searchNodes_sorts_the_folders_first_then_by_the_order() = runTest {
+        nodeSearchIndexDao.insertOrUpdateNodes(
+            listOf(
+                generateEntity(handle = 1, size = 300),
+                generateEntity(handle = 2, size = 100),
+                generateEntity(handle = 3, isFolder = true, size = 0),
+                generateEntity(handle = 4, size = 200),
+            )
+        )
+
+        val retrieved = searchNodes(order = "ORDER_SIZE_DESC")
+        Truth.assertThat(retrieved).containsExactly(3L, 1L, 4L, 2L).inOrder()
+    }
+
+    @Test
+    fun test_that_insertOrUpdateNodes_replaces_the_indexed_node() = runTest {
+        nodeSearchIndexDao.insertOrUpdateNodes(
+            listOf(generateEntity(handle = 1, nameTokens = "01d"))
+        )
+        nodeSearchIndexDao.insertOrUpdateNodes(
+            listOf(generateEntity(handle = 1, nameTokens = "4e3"))
+        )
+
+        Truth.assertThat(searchNodes(match = "01d")).isEmpty()
+        Truth.assertThat(searchNodes(match = "4e3")).containsExactly(1L)
+    }
+
+    @Test
+    fun test_that_getChildHandles_and_deleteNodes_update_the_index() = runTest {
+        nodeSearchIndexDao.insertOrUpdateNodes(
+            listOf(
+                generateEntity(handle = 1, parentHandle = 10),
+                generateEntity(handle = 2, parentHandle = 10),
+                generateEntity(handle = 3, parentHandle = 20),
+            )
+        )
+
+        Truth.assertThat(nodeSearchIndexDao.getChildHandles(listOf(10))).containsExactly(1L, 2L)
+        nodeSearchIndexDao.deleteNodes(listOf(1, 3))
+        Truth.assertThat(searchNodes()).containsExactly(2L)
+    }
+
+    @Test
+    fun test_that_deleteAllNodes_empties_the_index() = runTest {
+        Truth.assertThat(nodeSearchIndexDao.isEmpty()).isTrue()
+        nodeSearchIndexDao.insertOrUpdateNodes(listOf(generateEntity(handle = 1)))
+        Truth.assertThat(nodeSearchIndexDao.isEmpty()).isFalse()
+
+        nodeSearchIndexDao.deleteAllNodes()
+        Truth.assertThat(nodeSearchIndexDao.isEmpty()).isTrue()
+    }
+
+    private suspend fun searchNodes(
+        match: String = "70de",
+        category: String? = null,
+        modifiedFrom: Long? = null,
+        modifiedTo: Long? = null,
+        order: String = "ORDER_DEFAULT_ASC",
+    ) = nodeSearchIndexDao.searchNodes(match, category, modifiedFrom, modifiedTo, order)
+
+    private fun generateEntity(
+        handle: Long,
+        nameTokens: String = "70de",
+        parentHandle: Long = 0,
+        isFolder: Boolean = false,
+        category: String = "ALL",
+        size: Long = 0,
+        modificationTime: Long = 0,
+    ) = NodeSearchIndexEntity(
+        handle = handle,
+        nameTokens = nameTokens,
+        parentHandle = parentHandle,
+        isFolder = isFolder,
+        category = category,
+        size = size,
+        modificationTime = modificationTime,
+    )
+}
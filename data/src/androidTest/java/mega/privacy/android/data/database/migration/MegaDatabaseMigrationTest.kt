@@ -114,6 +114,31 @@ class MegaDatabaseMigrationTest {
         }
     }
 
+    @Test
+    @Throws(IOException::class)
+    fun migrate81To82() {
+        helper.createDatabase(testDatabaseName, 81).apply {
+            close()
+        }
+        val db = helper.runMigrationsAndValidate(testDatabaseName, 82, true)
+        db.query("SELECT name FROM sqlite_master WHERE type = 'index' AND name = 'index_offline_handle'")
+            .use {
+                assert(it.count == 1)
+            }
+    }
+
+    @Test
+    @Throws(IOException::class)
+    fun migrate82To83() {
+        helper.createDatabase(testDatabaseName, 82).apply {
+            close()
+        }
+        val db = helper.runMigrationsAndValidate(testDatabaseName, 83, true)
+        db.query("SELECT latitude, longitude FROM camerauploadsrecords").use {
+            assert(it.columnCount == 2)
+        }
+    }
+
     companion object {
         const val TABLE_COMPLETED_TRANSFERS = "completedtransfers"
         const val KEY_TRANSFER_FILENAME = "transferfilename"
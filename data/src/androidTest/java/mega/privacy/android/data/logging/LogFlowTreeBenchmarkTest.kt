@@ -0,0 +1,136 @@
+package mega.privacy.android.data.logging
+
+import android.util.Log
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.google.common.truth.Truth
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.async
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.flow.take
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.yield
+import mega.privacy.android.domain.entity.logging.CreateLogEntryRequest
+import mega.privacy.android.domain.entity.logging.LogEntry
+import mega.privacy.android.domain.entity.logging.LogPriority
+import mega.privacy.android.domain.usecase.CreateLogEntry
+import org.junit.Test
+import org.junit.runner.RunWith
+import timber.log.Timber
+import java.util.concurrent.CountDownLatch
+import kotlin.system.measureNanoTime
+
+/**
+ * Logs [ENTRIES] entries, three sdk entries for every app entry as during transfers, and compares
+ * the throughput of launching a coroutine with the caller trace for every entry, as
+ * [LogFlowTree] did before [LogRingBuffer], against the buffered pipeline
+ *
+ * Throughputs are only logged, as they depend on the device. The test asserts that every entry
+ * reaches the flow in order.
+ */
+@RunWith(AndroidJUnit4::class)
+class LogFlowTreeBenchmarkTest {
+
+    private val createLogEntry = CreateLogEntry { request ->
+        LogEntry(
+            tag = request.tag,
+            message = request.message,
+            stackTrace = request.trace.firstOrNull()?.let { "${it.fileName}:${it.lineNumber}" },
+            priority = request.priority.intValue,
+            throwable = request.throwable,
+        )
+    }
+
+    @Test
+    fun test_logging_throughput_of_buffered_entries() = runBlocking {
+        // Warm up both paths before measuring
+        repeat(WARM_UP_ITERATIONS) {
+            logLegacy(WARM_UP_ENTRIES)
+            logBuffered(WARM_UP_ENTRIES)
+        }
+
+        val legacyNanos = logLegacy(ENTRIES)
+        val (bufferedNanos, messages) = logBuffered(ENTRIES)
+
+        Log.i(TAG, "Legacy: ${entriesPerSecond(legacyNanos)} entries/s")
+        Log.i(TAG, "Buffered: ${entriesPerSecond(bufferedNanos)} entries/s")
+
+        Truth.assertThat(messages).isEqualTo(List(ENTRIES) { message(it) })
+    }
+
+    private suspend fun logBuffered(entries: Int): Pair<Long, List<String>> {
+        val scope = CoroutineScope(Job() + Dispatchers.Default)
+        val underTest = LogFlowTree(
+            dispatcher = Dispatchers.Default,
+            createLogEntry = createLogEntry,
+            buffer = LogRingBuffer(capacity = entries),
+        )
+        val received = scope.async { underTest.logFlow.take(entries).toList() }
+        while (underTest.logFlow.subscriptionCount.value == 0) yield()
+
+        val nanos = withPlantedTree(underTest) {
+            repeat(entries) { log(it) }
+            received.await()
+        }
+        scope.cancel()
+        return nanos to received.await().map { it.message }
+    }
+
+    private suspend fun logLegacy(entries: Int): Long {
+        val scope = CoroutineScope(Job() + Dispatchers.Default)
+        val created = CountDownLatch(entries)
+        val legacyTree = object : Timber.Tree() {
+            override fun log(priority: Int, tag: String?, message: String, t: Throwable?) {
+                val trace = Throwable().stackTrace
+                scope.launch {
+                    createLogEntry(
+                        CreateLogEntryRequest(
+                            tag = tag,
+                            message = message,
+                            priority = LogPriority.DEBUG,
+                            throwable = t,
+                            trace = trace.asList(),
+                            loggingClasses = emptyList(),
+                        )
+                    )
+                    created.countDown()
+                }
+            }
+        }
+
+        val nanos = withPlantedTree(legacyTree) {
+            repeat(entries) { log(it) }
+            created.await()
+        }
+        scope.cancel()
+        return nanos
+    }
+
+    private suspend fun withPlantedTree(tree: Timber.Tree, block: suspend () -> Unit): Long {
+        Timber.plant(tree)
+        try {
+            return measureNanoTime { block() }
+        } finally {
+            Timber.uproot(tree)
+        }
+    }
+
+    private fun log(index: Int) {
+        if (index % 4 != 0) Timber.tag("[sdk]")
+        Timber.d(message(index))
+    }
+
+    private fun message(index: Int) = "Message $index"
+
+    private fun entriesPerSecond(nanos: Long) = ENTRIES * 1_000_000_000L / nanos.coerceAtLeast(1)
+
+    private companion object {
+        const val TAG = "LogFlowTreeBenchmark"
+        const val ENTRIES = 100_000
+        const val WARM_UP_ENTRIES = 10_000
+        const val WARM_UP_ITERATIONS = 3
+    }
+}
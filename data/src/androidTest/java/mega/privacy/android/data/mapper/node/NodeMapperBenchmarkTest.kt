@@ -0,0 +1,135 @@
+package mega.privacy.android.data.mapper.node
+
+import android.content.Context
+import android.util.Log
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.google.common.truth.Truth
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.runBlocking
+import mega.privacy.android.data.cache.CacheFolderPaths
+import mega.privacy.android.data.gateway.CacheGateway
+import mega.privacy.android.data.gateway.CacheGatewayImpl
+import mega.privacy.android.data.gateway.api.MegaApiFolderGateway
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.domain.entity.PdfFileTypeInfo
+import mega.privacy.android.domain.entity.node.Node
+import nz.mega.sdk.MegaNode
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.kotlin.any
+import org.mockito.kotlin.clearInvocations
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.verify
+import kotlin.system.measureNanoTime
+
+/**
+ * Compares the throughput of mapping the same nodes eagerly, resolving the cache folders and
+ * reading the versions and rubbish bin state of every node as it was done before
+ * [CacheFolderPaths] and the lazy node attributes, against the mapping of [NodeMapper]
+ *
+ * Timings are only logged, as they depend on the device. The test asserts that both mappings give
+ * the same nodes and that the lazy mapping neither resolves a cache folder nor reads a lazy
+ * attribute.
+ */
+@RunWith(AndroidJUnit4::class)
+class NodeMapperBenchmarkTest {
+
+    private val context = ApplicationProvider.getApplicationContext<Context>()
+    private val cacheGateway = CountingCacheGateway(CacheGatewayImpl(context, Dispatchers.IO))
+    private val megaApiGateway = mock<MegaApiGateway>()
+    private val megaApiFolderGateway = mock<MegaApiFolderGateway>()
+
+    private val underTest = NodeMapper(
+        folderNodeMapper = FolderNodeMapper(
+            megaApiGateway = megaApiGateway,
+            megaApiFolderGateway = megaApiFolderGateway,
+            fetChildrenMapper = mock { on { invoke(any(), any()) }.thenReturn { emptyList() } },
+        ),
+        fileNodeMapper = FileNodeMapper(
+            cacheFolderPaths = CacheFolderPaths(cacheGateway),
+            megaApiGateway = megaApiGateway,
+            fileTypeInfoMapper = { PdfFileTypeInfo },
+            offlineAvailabilityMapper = mock(),
+        ),
+    )
+
+    @Test
+    fun test_mapping_throughput_of_eager_and_lazy_attributes() = runBlocking<Unit> {
+        val file = createMegaNode(isFile = true)
+        val folder = createMegaNode(isFile = false)
+        val megaNodes = List(NODES) { if (it % 2 == 0) file else folder }
+
+        // Warm up both paths before measuring
+        repeat(WARM_UP_ITERATIONS) {
+            megaNodes.take(100).forEach { mapEagerly(it) }
+            megaNodes.take(100).forEach { underTest(it) }
+        }
+        cacheGateway.resolutions = 0
+        clearInvocations(megaApiGateway)
+
+        lateinit var eagerResult: List<Node>
+        lateinit var lazyResult: List<Node>
+        val eagerNanos = measureNanoTime { eagerResult = megaNodes.map { mapEagerly(it) } }
+        val eagerResolutions = cacheGateway.resolutions
+        cacheGateway.resolutions = 0
+        clearInvocations(megaApiGateway)
+        val lazyNanos = measureNanoTime { lazyResult = megaNodes.map { underTest(it) } }
+
+        Log.i(TAG, "Eager: ${nodesPerSecond(eagerNanos)} nodes/s")
+        Log.i(TAG, "Lazy: ${nodesPerSecond(lazyNanos)} nodes/s")
+
+        Truth.assertThat(lazyResult).isEqualTo(eagerResult)
+        Truth.assertThat(eagerResolutions).isEqualTo(NODES / 2 * 3)
+        Truth.assertThat(cacheGateway.resolutions).isEqualTo(0)
+        verify(megaApiGateway, never()).getMegaNodeByHandleBlocking(any())
+        verify(megaApiGateway, never()).hasVersion(any())
+        verify(megaApiGateway, never()).isInRubbish(any())
+    }
+
+    /**
+     * Maps a node and makes the calls the mapping made before they were cached or deferred
+     */
+    private suspend fun mapEagerly(megaNode: MegaNode) = underTest(megaNode).also {
+        if (megaNode.isFile) {
+            cacheGateway.getThumbnailCacheFolder()
+            cacheGateway.getPreviewCacheFolder()
+            cacheGateway.getFullSizeCacheFolder()
+        } else {
+            megaApiGateway.isInRubbish(megaNode)
+        }
+        megaApiGateway.hasVersion(megaNode)
+    }
+
+    private fun createMegaNode(isFile: Boolean) = mock<MegaNode> {
+        on { handle }.thenReturn(if (isFile) 1L else 2L)
+        on { name }.thenReturn("name.pdf")
+        on { base64Handle }.thenReturn("base64Handle")
+        on { this.isFile }.thenReturn(isFile)
+        on { isFolder }.thenReturn(!isFile)
+    }
+
+    private fun nodesPerSecond(nanos: Long) = NODES * 1_000_000_000L / nanos.coerceAtLeast(1)
+
+    private class CountingCacheGateway(
+        private val cacheGateway: CacheGateway,
+    ) : CacheGateway by cacheGateway {
+        var resolutions = 0
+
+        override suspend fun getThumbnailCacheFolder() =
+            cacheGateway.getThumbnailCacheFolder().also { resolutions++ }
+
+        override suspend fun getPreviewCacheFolder() =
+            cacheGateway.getPreviewCacheFolder().also { resolutions++ }
+
+        override suspend fun getFullSizeCacheFolder() =
+            cacheGateway.getFullSizeCacheFolder().also { resolutions++ }
+    }
+
+    private companion object {
+        const val TAG = "NodeMapperBenchmark"
+        const val NODES = 10_000
+        const val WARM_UP_ITERATIONS = 5
+    }
+}
@@ -0,0 +1,57 @@
+package mega.privacy.android.data.cache
+
+import mega.privacy.android.data.gateway.CacheGateway
+import java.io.File
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Paths of the cache folders the node files are saved to
+ *
+ * Resolving a cache folder goes through the gateway, which switches dispatcher and creates the
+ * folder if needed. The resolved folders are kept and only checked to still be there, so a
+ * folder deleted with the cache, e.g. by clearing it or on logout, is resolved and created again
+ * on next use.
+ */
+@Singleton
+internal class CacheFolderPaths @Inject constructor(
+    private val cacheGateway: CacheGateway,
+) {
+    @Volatile
+    private var thumbnailFolder: File? = null
+
+    @Volatile
+    private var previewFolder: File? = null
+
+    @Volatile
+    private var fullSizeFolder: File? = null
+
+    /**
+     * Path of the thumbnail cache folder, null if it cannot be created
+     */
+    suspend fun getThumbnailFolderPath(): String? =
+        (thumbnailFolder?.takeIf { it.isDirectory }
+            ?: cacheGateway.getThumbnailCacheFolder()?.also { thumbnailFolder = it })?.path
+
+    /**
+     * Path of the preview cache folder, null if it cannot be created
+     */
+    suspend fun getPreviewFolderPath(): String? =
+        (previewFolder?.takeIf { it.isDirectory }
+            ?: cacheGateway.getPreviewCacheFolder()?.also { previewFolder = it })?.path
+
+    /**
+     * Path of the full size cache folder, null if it cannot be created
+     */
+    suspend fun getFullSizeFolderPath(): String? =
+        (fullSizeFolder?.takeIf { it.isDirectory }
+            ?: cacheGateway.getFullSizeCacheFolder()?.also { fullSizeFolder = it })?.path
+
+    /**
+     * Path of a file in a cache folder
+     *
+     * @param folderPath path of the cache folder
+     * @param fileName name of the file
+     */
+    fun getFilePath(folderPath: String, fileName: String) = "$folderPath${File.separator}$fileName"
+}
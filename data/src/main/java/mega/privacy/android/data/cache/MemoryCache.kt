@@ -0,0 +1,40 @@
+package mega.privacy.android.data.cache
+
+import android.content.ComponentCallbacks2
+import android.content.res.Configuration
+import androidx.collection.LruCache
+
+/**
+ * Thread safe [LruCache] bounded by the estimated size in bytes of its entries
+ *
+ * Registered as [ComponentCallbacks2], the cache shrinks to half its size when memory is running
+ * low or the UI is hidden, and is emptied when the app is in the background and memory is needed.
+ *
+ * @param maxBytes maximum estimated size in bytes of the entries
+ * @param estimateBytes estimated size in bytes of an entry
+ */
+internal class MemoryCache<K : Any, V : Any>(
+    maxBytes: Int,
+    private val estimateBytes: (key: K, value: V) -> Int,
+) : LruCache<K, V>(maxBytes), ComponentCallbacks2 {
+
+    override fun sizeOf(key: K, value: V) = estimateBytes(key, value)
+
+    /**
+     * Add or replace the value of a key, evicting the least recently used entries if needed
+     */
+    operator fun set(key: K, value: V) {
+        put(key, value)
+    }
+
+    override fun onTrimMemory(level: Int) {
+        when {
+            level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE -> evictAll()
+            level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW -> trimToSize(maxSize() / 2)
+        }
+    }
+
+    override fun onLowMemory() = evictAll()
+
+    override fun onConfigurationChanged(newConfig: Configuration) {}
+}
@@ -0,0 +1,200 @@
+package mega.privacy.android.data.cache
+
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.withContext
+import mega.privacy.android.data.constant.CacheFolderConstant
+import mega.privacy.android.data.gateway.CacheGateway
+import mega.privacy.android.domain.entity.cache.DiskCacheMetrics
+import mega.privacy.android.domain.qualifier.ApplicationScope
+import mega.privacy.android.domain.qualifier.IoDispatcher
+import timber.log.Timber
+import java.io.File
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Keeps the thumbnail and preview cache folders within a size budget
+ *
+ * Each folder has its own budget, so previews never evict thumbnails. The access time of a file is
+ * persisted as its last modified time. The folder is scanned in the background when it may be over
+ * its budget, and the least recently accessed files are deleted. The scan stats every file of the
+ * folder, so the files written by other writers, e.g. the SDK, are counted too.
+ *
+ * Lookups never wait for a scan: they only update the counters and the access time of the file.
+ */
+@Singleton
+internal class ThumbnailPreviewDiskCache @Inject constructor(
+    private val cacheGateway: CacheGateway,
+    @ApplicationScope private val appScope: CoroutineScope,
+    @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
+) {
+
+    /**
+     * Cached folder
+     *
+     * @property folderName name of the cache folder
+     * @property maxSizeInBytes size budget of the folder
+     */
+    enum class Folder(val folderName: String, val maxSizeInBytes: Long) {
+        /**
+         * Thumbnails
+         */
+        Thumbnail(CacheFolderConstant.THUMBNAIL_FOLDER, 64L * 1024 * 1024),
+
+        /**
+         * Previews
+         */
+        Preview(CacheFolderConstant.PREVIEW_FOLDER, 256L * 1024 * 1024),
+    }
+
+    private class FolderState {
+        val scanMutex = Mutex()
+
+        /**
+         * Size of the folder at the last scan plus the files written since
+         */
+        val sizeInBytes = AtomicLong()
+
+        /**
+         * Time of the last scan, 0 if the folder was never scanned
+         */
+        @Volatile
+        var lastScanTime = 0L
+        val hitCount = AtomicLong()
+        val missCount = AtomicLong()
+        val evictionCount = AtomicLong()
+        var trimJob: Job? = null
+    }
+
+    private val states = Folder.values().associateWith { FolderState() }
+
+    /**
+     * Record a lookup that found the file cached, marking it as the most recently accessed
+     */
+    fun onHit(folder: Folder, file: File) {
+        states.getValue(folder).hitCount.incrementAndGet()
+        val now = System.currentTimeMillis()
+        if (now - file.lastModified() > ACCESS_TIME_PERSIST_INTERVAL) {
+            file.setLastModified(now)
+        }
+    }
+
+    /**
+     * Record a lookup that did not find the file cached
+     */
+    fun onMiss(folder: Folder) {
+        states.getValue(folder).missCount.incrementAndGet()
+    }
+
+    /**
+     * Record a file written to the cache, trimming the folder in the background if it may be over
+     * its budget
+     */
+    fun onWritten(folder: Folder, file: File) {
+        val state = states.getValue(folder)
+        val sizeInBytes = state.sizeInBytes.addAndGet(file.length())
+        val isScanOutdated =
+            System.currentTimeMillis() - state.lastScanTime > RESCAN_INTERVAL
+        if (isScanOutdated || sizeInBytes > folder.maxSizeInBytes) {
+            trimInBackground(folder)
+        }
+    }
+
+    /**
+     * Get the metrics of a folder, scanning it first if needed
+     */
+    suspend fun getMetrics(folder: Folder): DiskCacheMetrics {
+        val state = states.getValue(folder)
+        if (state.lastScanTime == 0L) {
+            withContext(ioDispatcher) { state.scanMutex.withLock { scan(folder, state) } }
+        }
+        return DiskCacheMetrics(
+            sizeInBytes = state.sizeInBytes.get(),
+            maxSizeInBytes = folder.maxSizeInBytes,
+            hitCount = state.hitCount.get(),
+            missCount = state.missCount.get(),
+            evictionCount = state.evictionCount.get(),
+        )
+    }
+
+    /**
+     * Forget the scanned sizes, e.g. after the cache folders are cleared. The folders are scanned
+     * again on next write
+     */
+    fun invalidate() {
+        states.values.forEach { state ->
+            state.sizeInBytes.set(0)
+            state.lastScanTime = 0L
+        }
+    }
+
+    /**
+     * Scan the folder and evict the least recently accessed files until it is within its budget
+     */
+    suspend fun trim(folder: Folder) = withContext(ioDispatcher) {
+        val state = states.getValue(folder)
+        state.scanMutex.withLock {
+            val files = scan(folder, state)
+            if (state.sizeInBytes.get() <= folder.maxSizeInBytes) return@withLock
+            val targetSize = (folder.maxSizeInBytes * TRIM_TARGET_RATIO).toLong()
+            val iterator = files.sortedBy { it.lastModified }.iterator()
+            while (state.sizeInBytes.get() > targetSize && iterator.hasNext()) {
+                val file = iterator.next()
+                if (file.file.delete()) {
+                    state.sizeInBytes.addAndGet(-file.sizeInBytes)
+                    state.evictionCount.incrementAndGet()
+                }
+            }
+            Timber.d("Trimmed ${folder.name} cache to ${state.sizeInBytes.get()} bytes")
+        }
+    }
+
+    private fun trimInBackground(folder: Folder) {
+        val state = states.getValue(folder)
+        synchronized(state) {
+            if (state.trimJob?.isActive == true) return
+            state.trimJob = appScope.launch(ioDispatcher) {
+                runCatching { trim(folder) }.onFailure { Timber.e(it) }
+            }
+        }
+    }
+
+    private class ScannedFile(val file: File, val sizeInBytes: Long, val lastModified: Long)
+
+    private suspend fun scan(folder: Folder, state: FolderState): List<ScannedFile> {
+        val files = cacheGateway.getOrCreateCacheFolder(folder.folderName)
+            ?.listFiles()
+            ?.filter { it.isFile }
+            ?.map { ScannedFile(it, it.length(), it.lastModified()) }
+            .orEmpty()
+        state.sizeInBytes.set(files.sumOf { it.sizeInBytes })
+        state.lastScanTime = System.currentTimeMillis()
+        return files
+    }
+
+    companion object {
+        /**
+         * Minimum time between two updates of the last modified time of a file on access
+         */
+        private val ACCESS_TIME_PERSIST_INTERVAL = TimeUnit.HOURS.toMillis(1)
+
+        /**
+         * Maximum time between two scans of a folder that is written to, so the files written
+         * by other writers are counted
+         */
+        private val RESCAN_INTERVAL = TimeUnit.MINUTES.toMillis(10)
+
+        /**
+         * A trim evicts files until the folder is at this ratio of its budget, so it does not
+         * run again on every new file
+         */
+        private const val TRIM_TARGET_RATIO = 0.9
+    }
+}
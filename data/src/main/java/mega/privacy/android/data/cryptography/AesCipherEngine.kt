@@ -0,0 +1,110 @@
+package mega.privacy.android.data.cryptography
+
+import android.util.Base64
+import javax.crypto.Cipher
+import javax.crypto.spec.SecretKeySpec
+import javax.inject.Inject
+import javax.inject.Named
+import javax.inject.Singleton
+
+/**
+ * AES cipher engine used to encrypt and decrypt the database fields
+ *
+ * Creating a [Cipher] requires a provider lookup, which is expensive compared to encrypting a
+ * single field. The engine keeps one initialised [Cipher] per thread and mode, and reuses it for
+ * every field handled on that thread. A [Cipher] is not thread safe, so instances are never
+ * shared between threads.
+ */
+@Singleton
+class AesCipherEngine @Inject constructor(
+    @Named("aes_key") aesKey: ByteArray,
+) {
+    private val secretKeySpec = SecretKeySpec(aesKey, ALGORITHM)
+
+    private val encryptCipher = ThreadLocal.withInitial { createCipher(Cipher.ENCRYPT_MODE) }
+
+    private val decryptCipher = ThreadLocal.withInitial { createCipher(Cipher.DECRYPT_MODE) }
+
+    /**
+     * Encrypt a value
+     *
+     * @param data value to encrypt
+     * @return the Base64 encoded encrypted value
+     */
+    fun encrypt(data: String): String = encryptCipher.use { cipher ->
+        Base64.encodeToString(cipher.doFinal(data.toByteArray()), Base64.DEFAULT)
+    }
+
+    /**
+     * Decrypt a value encrypted with [encrypt]
+     *
+     * @param data Base64 encoded encrypted value
+     * @return the decrypted value
+     */
+    fun decrypt(data: String): String = decryptCipher.use { cipher ->
+        String(cipher.doFinal(Base64.decode(data, Base64.DEFAULT)))
+    }
+
+    /**
+     * Encrypt a list of values with the same cipher
+     *
+     * @param data values to encrypt
+     * @param onError called with the error of each value that cannot be encrypted
+     * @return the encrypted values, in the same order. Null values and values that cannot be
+     * encrypted are returned as null
+     */
+    fun encryptAll(
+        data: List<String?>,
+        onError: (Throwable) -> Unit = {},
+    ): List<String?> = encryptCipher.useEach(data, onError) { cipher, value ->
+        Base64.encodeToString(cipher.doFinal(value.toByteArray()), Base64.DEFAULT)
+    }
+
+    /**
+     * Decrypt a list of values with the same cipher
+     *
+     * @param data values to decrypt
+     * @param onError called with the error of each value that cannot be decrypted
+     * @return the decrypted values, in the same order. Null values and values that cannot be
+     * decrypted are returned as null
+     */
+    fun decryptAll(
+        data: List<String?>,
+        onError: (Throwable) -> Unit = {},
+    ): List<String?> = decryptCipher.useEach(data, onError) { cipher, value ->
+        String(cipher.doFinal(Base64.decode(value, Base64.DEFAULT)))
+    }
+
+    private fun createCipher(mode: Int) =
+        Cipher.getInstance(ALGORITHM).apply { init(mode, secretKeySpec) }
+
+    /**
+     * Run the block with the cipher of the current thread
+     *
+     * A cipher may be left in an inconsistent state when an operation fails,
+     * so it is discarded and a new one is created on the next use
+     */
+    private inline fun <T> ThreadLocal<Cipher>.use(block: (Cipher) -> T): T =
+        runCatching { block(get()) }
+            .onFailure { remove() }
+            .getOrThrow()
+
+    private inline fun ThreadLocal<Cipher>.useEach(
+        data: List<String?>,
+        onError: (Throwable) -> Unit,
+        block: (Cipher, String) -> String,
+    ): List<String?> = data.map { value ->
+        value?.let {
+            runCatching { block(get(), it) }
+                .onFailure {
+                    remove()
+                    onError(it)
+                }
+                .getOrNull()
+        }
+    }
+
+    private companion object {
+        const val ALGORITHM = "AES"
+    }
+}
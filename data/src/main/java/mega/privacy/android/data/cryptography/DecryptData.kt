@@ -1,11 +1,7 @@
 package mega.privacy.android.data.cryptography
 
-import android.util.Base64
 import timber.log.Timber
-import javax.crypto.Cipher
-import javax.crypto.spec.SecretKeySpec
 import javax.inject.Inject
-import javax.inject.Named
 import javax.inject.Singleton
 
 /**
@@ -14,7 +10,7 @@ import javax.inject.Singleton
 @Suppress("RedundantSuspendModifier")
 @Singleton
 class DecryptData @Inject constructor(
-    @Named("aes_key") private val aesKey: ByteArray,
+    private val cipherEngine: AesCipherEngine,
 ) {
     /**
      * Invoke
@@ -23,14 +19,18 @@ class DecryptData @Inject constructor(
      */
     suspend operator fun invoke(data: String?) = data?.let {
         runCatching {
-            val encoded = Base64.decode(data, Base64.DEFAULT)
-            val skeySpec = SecretKeySpec(aesKey, "AES")
-            val cipher = Cipher.getInstance("AES")
-            cipher.init(Cipher.DECRYPT_MODE, skeySpec)
-            val original = cipher.doFinal(encoded)
-            String(original)
+            cipherEngine.decrypt(it)
         }.onFailure {
             Timber.e(it, "Error decrypting DB field")
         }.getOrNull()
     }
-}
\ No newline at end of file
+
+    /**
+     * Decrypt a list of values, reusing the same cipher for all of them
+     *
+     * @param data encrypted Strings
+     * @return decrypted values in the same order, null for the values that cannot be decrypted
+     */
+    suspend fun decryptAll(data: List<String?>): List<String?> =
+        cipherEngine.decryptAll(data) { Timber.e(it, "Error decrypting DB field") }
+}
@@ -1,11 +1,7 @@
 package mega.privacy.android.data.cryptography
 
-import android.util.Base64
 import timber.log.Timber
-import javax.crypto.Cipher
-import javax.crypto.spec.SecretKeySpec
 import javax.inject.Inject
-import javax.inject.Named
 import javax.inject.Singleton
 
 /**
@@ -14,7 +10,7 @@ import javax.inject.Singleton
 @Suppress("RedundantSuspendModifier")
 @Singleton
 class EncryptData @Inject constructor(
-    @Named("aes_key") private val aesKey: ByteArray,
+    private val cipherEngine: AesCipherEngine,
 ) {
     /**
      * Invoke
@@ -23,13 +19,18 @@ class EncryptData @Inject constructor(
      */
     suspend operator fun invoke(data: String?) = data?.let {
         runCatching {
-            val skeySpec = SecretKeySpec(aesKey, "AES")
-            val cipher = Cipher.getInstance("AES")
-            cipher.init(Cipher.ENCRYPT_MODE, skeySpec)
-            val encrypted = cipher.doFinal(it.toByteArray())
-            Base64.encodeToString(encrypted, Base64.DEFAULT)
+            cipherEngine.encrypt(it)
         }.onFailure {
             Timber.e(it, "Error encrypting DB field")
         }.getOrNull()
     }
-}
\ No newline at end of file
+
+    /**
+     * Encrypt a list of values, reusing the same cipher for all of them
+     *
+     * @param data strings to be encrypted
+     * @return encrypted values in the same order, null for the values that cannot be encrypted
+     */
+    suspend fun encryptAll(data: List<String?>): List<String?> =
+        cipherEngine.encryptAll(data) { Timber.e(it, "Error encrypting DB field") }
+}
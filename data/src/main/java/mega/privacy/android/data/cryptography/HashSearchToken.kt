@@ -0,0 +1,42 @@
+package mega.privacy.android.data.cryptography
+
+import javax.crypto.Mac
+import javax.crypto.spec.SecretKeySpec
+import javax.inject.Inject
+import javax.inject.Named
+import javax.inject.Singleton
+
+/**
+ * Class to hash the words stored in the node search index
+ *
+ * The words are hashed with the key of the database fields, so the index keeps no node name and
+ * still matches the hash of a searched word. A [Mac] is not thread safe, so one is kept per thread.
+ */
+@Singleton
+class HashSearchToken @Inject constructor(
+    @Named("aes_key") aesKey: ByteArray,
+) {
+    private val secretKeySpec = SecretKeySpec(aesKey, ALGORITHM)
+
+    private val mac = ThreadLocal.withInitial {
+        Mac.getInstance(ALGORITHM).apply { init(secretKeySpec) }
+    }
+
+    /**
+     * Invoke
+     * @param token word to be hashed
+     * @return hexadecimal hash of the word
+     */
+    operator fun invoke(token: String): String =
+        mac.get().doFinal(token.toByteArray()).take(HASH_BYTES)
+            .joinToString("") { "%02x".format(it) }
+
+    private companion object {
+        const val ALGORITHM = "HmacSHA256"
+
+        /**
+         * Bytes of the hash kept, enough to make collisions between words unlikely
+         */
+        const val HASH_BYTES = 8
+    }
+}
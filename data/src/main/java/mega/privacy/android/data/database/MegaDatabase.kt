@@ -13,6 +13,7 @@ import mega.privacy.android.data.database.dao.BackupDao
 import mega.privacy.android.data.database.dao.CameraUploadsRecordDao
 import mega.privacy.android.data.database.dao.CompletedTransferDao
 import mega.privacy.android.data.database.dao.ContactDao
+import mega.privacy.android.data.database.dao.NodeSearchIndexDao
 import mega.privacy.android.data.database.dao.OfflineDao
 import mega.privacy.android.data.database.dao.SdTransferDao
 import mega.privacy.android.data.database.dao.SyncRecordDao
@@ -23,6 +24,7 @@ import mega.privacy.android.data.database.entity.BackupEntity
 import mega.privacy.android.data.database.entity.CameraUploadsRecordEntity
 import mega.privacy.android.data.database.entity.CompletedTransferEntity
 import mega.privacy.android.data.database.entity.ContactEntity
+import mega.privacy.android.data.database.entity.NodeSearchIndexEntity
 import mega.privacy.android.data.database.entity.OfflineEntity
 import mega.privacy.android.data.database.entity.SdTransferEntity
 import mega.privacy.android.data.database.entity.SyncRecordEntity
@@ -43,6 +45,7 @@ import timber.log.Timber
         SyncSolvedIssueEntity::class,
         UserPausedSyncEntity::class,
         CameraUploadsRecordEntity::class,
+        NodeSearchIndexEntity::class,
     ],
     version = MegaDatabaseConstant.DATABASE_VERSION,
     exportSchema = true,
@@ -53,6 +56,9 @@ import timber.log.Timber
         AutoMigration(78, 79),
         AutoMigration(79, 80),
         AutoMigration(80, 81),
+        AutoMigration(81, 82),
+        AutoMigration(82, 83),
+        AutoMigration(83, 84),
     ],
 )
 internal abstract class MegaDatabase : RoomDatabase() {
@@ -76,6 +82,8 @@ internal abstract class MegaDatabase : RoomDatabase() {
 
     abstract fun cameraUploadsRecordDao(): CameraUploadsRecordDao
 
+    abstract fun nodeSearchIndexDao(): NodeSearchIndexDao
+
     companion object {
 
         /**
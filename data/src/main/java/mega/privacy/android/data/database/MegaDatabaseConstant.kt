@@ -8,7 +8,7 @@ object MegaDatabaseConstant {
     /**
      * Database Version
      */
-    const val DATABASE_VERSION = 81
+    const val DATABASE_VERSION = 84
 
     /**
      * Database Name
@@ -65,6 +65,11 @@ object MegaDatabaseConstant {
      */
     const val TABLE_USER_PAUSED_SYNCS = "userpausedsyncs"
 
+    /**
+     * Table For the full text search index of the cloud drive nodes
+     */
+    const val TABLE_NODE_SEARCH_INDEX = "nodesearchindex"
+
     /**
      * Passphrase File Name
      */
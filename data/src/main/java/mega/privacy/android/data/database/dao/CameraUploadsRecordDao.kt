@@ -43,6 +43,15 @@ internal interface CameraUploadsRecordDao {
         generatedFingerprint: String,
     )
 
+    @Query("UPDATE ${MegaDatabaseConstant.TABLE_CAMERA_UPLOADS_RECORDS} SET latitude = :latitude, longitude = :longitude WHERE media_id = :mediaId AND timestamp = :timestamp AND folder_type = :folderType")
+    suspend fun updateCameraUploadsRecordGpsCoordinates(
+        mediaId: String,
+        timestamp: String,
+        folderType: CameraUploadFolderType,
+        latitude: String,
+        longitude: String,
+    )
+
     @Query("DELETE FROM ${MegaDatabaseConstant.TABLE_CAMERA_UPLOADS_RECORDS} WHERE folder_type IN (:folderTypes)")
     suspend fun deleteCameraUploadsRecordsByFolderType(
         folderTypes: List<CameraUploadFolderType>,
@@ -0,0 +1,78 @@
+package mega.privacy.android.data.database.dao
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.OnConflictStrategy
+import androidx.room.Query
+import mega.privacy.android.data.database.MegaDatabaseConstant
+import mega.privacy.android.data.database.entity.NodeSearchIndexEntity
+
+/**
+ * Dao implementation for [MegaDatabaseConstant.TABLE_NODE_SEARCH_INDEX]
+ *
+ * This table is a full text search index of the hashed names of the cloud drive nodes
+ */
+@Dao
+internal interface NodeSearchIndexDao {
+
+    /**
+     * Insert or update indexed nodes
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    suspend fun insertOrUpdateNodes(entities: List<NodeSearchIndexEntity>)
+
+    /**
+     * Get the handles of the indexed children of the given folders
+     */
+    @Query("SELECT rowid FROM ${MegaDatabaseConstant.TABLE_NODE_SEARCH_INDEX} WHERE parent_handle IN (:parentHandles)")
+    suspend fun getChildHandles(parentHandles: List<Long>): List<Long>
+
+    /**
+     * Delete indexed nodes
+     */
+    @Query("DELETE FROM ${MegaDatabaseConstant.TABLE_NODE_SEARCH_INDEX} WHERE rowid IN (:handles)")
+    suspend fun deleteNodes(handles: List<Long>)
+
+    /**
+     * Delete all indexed nodes
+     */
+    @Query("DELETE FROM ${MegaDatabaseConstant.TABLE_NODE_SEARCH_INDEX}")
+    suspend fun deleteAllNodes()
+
+    /**
+     * Check if no node is indexed
+     */
+    @Query("SELECT NOT EXISTS(SELECT 1 FROM ${MegaDatabaseConstant.TABLE_NODE_SEARCH_INDEX})")
+    suspend fun isEmpty(): Boolean
+
+    /**
+     * Get the handles of the indexed nodes whose name tokens match the full text query, folders
+     * first
+     *
+     * @param match full text query on the name tokens
+     * @param category search category name of the nodes, or null for any category
+     * @param modifiedFrom minimum modification time, or null for no minimum
+     * @param modifiedTo maximum modification time, or null for no maximum
+     * @param order name of the sort order, nodes are only sorted by size or modification time as
+     * names are not stored
+     */
+    @Query(
+        """
+        SELECT rowid FROM ${MegaDatabaseConstant.TABLE_NODE_SEARCH_INDEX}
+        WHERE ${MegaDatabaseConstant.TABLE_NODE_SEARCH_INDEX} MATCH :match
+        AND (:category IS NULL OR category = :category)
+        AND (:modifiedFrom IS NULL OR modification_time >= :modifiedFrom)
+        AND (:modifiedTo IS NULL OR modification_time <= :modifiedTo)
+        ORDER BY is_folder DESC,
+        CASE :order WHEN 'ORDER_SIZE_ASC' THEN size WHEN 'ORDER_MODIFICATION_ASC' THEN modification_time END ASC,
+        CASE :order WHEN 'ORDER_SIZE_DESC' THEN size WHEN 'ORDER_MODIFICATION_DESC' THEN modification_time END DESC
+        """
+    )
+    suspend fun searchNodes(
+        match: String,
+        category: String?,
+        modifiedFrom: Long?,
+        modifiedTo: Long?,
+        order: String,
+    ): List<Long>
+}
@@ -2,6 +2,7 @@ package mega.privacy.android.data.database.entity
 
 import androidx.room.ColumnInfo
 import androidx.room.Entity
+import androidx.room.Index
 import androidx.room.PrimaryKey
 import mega.privacy.android.data.database.MegaDatabaseConstant
 
@@ -24,7 +25,13 @@ import mega.privacy.android.data.database.MegaDatabaseConstant
  * @property encryptedShouldDeleteEmptySubFolders
  * @property encryptedIsOutdated
  */
-@Entity(MegaDatabaseConstant.TABLE_BACKUPS)
+@Entity(
+    MegaDatabaseConstant.TABLE_BACKUPS,
+    indices = [
+        Index(value = ["backup_id"]),
+        Index(value = ["backup_type", "outdated"]),
+    ]
+)
 internal data class BackupEntity(
     @PrimaryKey(autoGenerate = true)
     @ColumnInfo(name = "id") val id: Int? = null,
@@ -23,6 +23,8 @@ import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUploa
  * @property encryptedOriginalFingerprint encrypted original fingerprint, computed from the original file
  * @property encryptedGeneratedFingerprint encrypted generated fingerprint, null if unused, computed from the temp file
  * @property encryptedTempFilePath encrypted file path for the generated file, can be unused if the file does not need to be modified
+ * @property encryptedLatitude encrypted latitude extracted from the file, null if not extracted yet
+ * @property encryptedLongitude encrypted longitude extracted from the file, null if not extracted yet
  */
 @Entity(
     tableName = MegaDatabaseConstant.TABLE_CAMERA_UPLOADS_RECORDS,
@@ -39,4 +41,6 @@ internal data class CameraUploadsRecordEntity(
     @ColumnInfo(name = "original_fingerprint") val encryptedOriginalFingerprint: String?,
     @ColumnInfo(name = "generated_fingerprint") val encryptedGeneratedFingerprint: String?,
     @ColumnInfo(name = "temp_file_path") val encryptedTempFilePath: String?,
+    @ColumnInfo(name = "latitude") val encryptedLatitude: String? = null,
+    @ColumnInfo(name = "longitude") val encryptedLongitude: String? = null,
 )
@@ -0,0 +1,38 @@
+package mega.privacy.android.data.database.entity
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import androidx.room.Fts4
+import androidx.room.FtsOptions
+import androidx.room.PrimaryKey
+import mega.privacy.android.data.database.MegaDatabaseConstant
+
+/**
+ * Entity for [MegaDatabaseConstant.TABLE_NODE_SEARCH_INDEX]
+ *
+ * Only the hashes of the name words are indexed for full text search, the names themselves are not
+ * stored. The other columns are stored to filter and sort the matches.
+ *
+ * @property handle handle of the node, used as row id
+ * @property nameTokens hashes of the prefixes of the words of the name, separated by spaces
+ * @property parentHandle handle of the parent node
+ * @property isFolder true if the node is a folder
+ * @property category name of the search category of the node
+ * @property size size of the node, 0 for folders
+ * @property modificationTime modification time of the node in seconds, creation time for folders
+ */
+@Fts4(
+    tokenizer = FtsOptions.TOKENIZER_UNICODE61,
+    notIndexed = ["parent_handle", "is_folder", "category", "size", "modification_time"],
+)
+@Entity(MegaDatabaseConstant.TABLE_NODE_SEARCH_INDEX)
+internal data class NodeSearchIndexEntity(
+    @PrimaryKey
+    @ColumnInfo(name = "rowid") val handle: Long,
+    @ColumnInfo(name = "name_tokens") val nameTokens: String,
+    @ColumnInfo(name = "parent_handle") val parentHandle: Long,
+    @ColumnInfo(name = "is_folder") val isFolder: Boolean,
+    @ColumnInfo(name = "category") val category: String,
+    @ColumnInfo(name = "size") val size: Long,
+    @ColumnInfo(name = "modification_time") val modificationTime: Long,
+)
@@ -2,6 +2,7 @@ package mega.privacy.android.data.database.entity
 
 import androidx.room.ColumnInfo
 import androidx.room.Entity
+import androidx.room.Index
 import androidx.room.PrimaryKey
 import mega.privacy.android.data.database.MegaDatabaseConstant
 
@@ -23,7 +24,15 @@ import mega.privacy.android.data.database.MegaDatabaseConstant
  * @property latitude
  * @property longitude
  */
-@Entity(MegaDatabaseConstant.TABLE_SYNC_RECORDS)
+@Entity(
+    MegaDatabaseConstant.TABLE_SYNC_RECORDS,
+    indices = [
+        Index(value = ["sync_filepath_origin", "sync_secondary"]),
+        Index(value = ["sync_filepath_new"]),
+        Index(value = ["sync_fingerprint_origin"]),
+        Index(value = ["sync_fingerprint_new"]),
+    ]
+)
 internal data class SyncRecordEntity(
     @PrimaryKey(autoGenerate = true)
     @ColumnInfo(name = "id") val id: Int? = null,
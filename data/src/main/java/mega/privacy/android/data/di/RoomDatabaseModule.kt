@@ -20,6 +20,7 @@ import mega.privacy.android.data.database.dao.BackupDao
 import mega.privacy.android.data.database.dao.CameraUploadsRecordDao
 import mega.privacy.android.data.database.dao.CompletedTransferDao
 import mega.privacy.android.data.database.dao.ContactDao
+import mega.privacy.android.data.database.dao.NodeSearchIndexDao
 import mega.privacy.android.data.database.dao.OfflineDao
 import mega.privacy.android.data.database.dao.SdTransferDao
 import mega.privacy.android.data.database.dao.SyncRecordDao
@@ -148,4 +149,9 @@ internal object RoomDatabaseModule {
     @Singleton
     internal fun provideUserPausedSyncDao(database: MegaDatabase): UserPausedSyncsDao =
         database.userPausedSyncDao()
+
+    @Provides
+    @Singleton
+    internal fun provideNodeSearchIndexDao(database: MegaDatabase): NodeSearchIndexDao =
+        database.nodeSearchIndexDao()
 }
@@ -10,6 +10,7 @@ import android.provider.MediaStore
 import dagger.hilt.android.qualifiers.ApplicationContext
 import mega.privacy.android.data.gateway.CameraUploadsMediaGateway
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
+import mega.privacy.android.domain.entity.camerauploads.MediaStoreScanWatermark
 import timber.log.Timber
 import javax.inject.Inject
 import kotlin.math.max
@@ -46,6 +47,49 @@ internal class CameraUploadsMediaFacade @Inject constructor(
     override fun getMediaSelectionQuery(parentPath: String): String =
         "${MediaStore.MediaColumns.DATA} LIKE '${parentPath}%'"
 
+    override fun getIncrementalMediaSelectionQuery(
+        parentPath: String,
+        watermark: MediaStoreScanWatermark,
+    ): String {
+        val generation = watermark.generation
+        val changedMediaQuery =
+            if (generation != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+                "${MediaStore.MediaColumns.GENERATION_MODIFIED} > $generation"
+            } else {
+                "(${MediaStore.MediaColumns.DATE_ADDED} >= ${watermark.timestamp} OR " +
+                        "${MediaStore.MediaColumns.DATE_MODIFIED} >= ${watermark.timestamp})"
+            }
+        return "${getMediaSelectionQuery(parentPath)} AND $changedMediaQuery"
+    }
+
+    override suspend fun getCurrentMediaStoreScanWatermark(
+        uri: Uri,
+        parentPath: String,
+    ): MediaStoreScanWatermark {
+        // Captured before querying, so anything changing during the scan is picked up next time
+        val timestamp = System.currentTimeMillis() / 1000
+        val (version, generation) = runCatching {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+                val volumeName = MediaStore.getVolumeName(uri)
+                MediaStore.getVersion(context, volumeName) to
+                        MediaStore.getGeneration(context, volumeName)
+            } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+                MediaStore.getVersion(context) to null
+            } else {
+                null to null
+            }
+        }.getOrElse {
+            Timber.w(it, "Unable to retrieve the Media Store version")
+            null to null
+        }
+        return MediaStoreScanWatermark(
+            parentPath = parentPath,
+            mediaStoreVersion = version,
+            generation = generation,
+            timestamp = timestamp,
+        )
+    }
+
     /**
      *  Return the column of the media store to retrieve data from
      *
@@ -0,0 +1,121 @@
+package mega.privacy.android.data.facade
+
+import kotlinx.coroutines.channels.Channel
+import mega.privacy.android.data.model.GlobalTransfer
+import mega.privacy.android.domain.entity.transfer.TransferEventQueueMetrics
+
+/**
+ * Queue of the global transfer events received from the SDK, waiting to be delivered
+ *
+ * Start, finish and temporary error events are always kept, in order. Update and data events of a
+ * transfer still waiting to be delivered are replaced by the latest one, so the queue holds at
+ * most one of each per transfer and a stalled collector does not keep every transfer buffer
+ * alive. Above [maxConflatedEvents] pending update and data events, new ones are dropped.
+ *
+ * @param maxConflatedEvents maximum number of update and data events waiting to be delivered
+ */
+internal class GlobalTransferQueue(
+    private val maxConflatedEvents: Int = MAX_CONFLATED_EVENTS,
+) {
+
+    private class Entry(var event: GlobalTransfer)
+
+    private val entries = ArrayDeque<Entry>()
+    private val pendingUpdates = HashMap<Int, Entry>()
+    private val pendingData = HashMap<Int, Entry>()
+    private val available = Channel<Unit>(Channel.CONFLATED)
+    private val lock = Any()
+
+    private var maxQueueDepth = 0
+    private var mergedEventCount = 0L
+    private var droppedEventCount = 0L
+
+    /**
+     * Add an event, without blocking the SDK thread
+     *
+     * @param event [GlobalTransfer]
+     */
+    fun offer(event: GlobalTransfer) {
+        synchronized(lock) {
+            val tag = event.transfer.tag
+            when (event) {
+                is GlobalTransfer.OnTransferUpdate -> conflate(pendingUpdates, tag, event)
+                is GlobalTransfer.OnTransferData -> conflate(pendingData, tag, event)
+                else -> {
+                    // later updates of this transfer must be delivered after this event
+                    pendingUpdates.remove(tag)
+                    pendingData.remove(tag)
+                    add(Entry(event))
+                }
+            }
+        }
+        available.trySend(Unit)
+    }
+
+    /**
+     * Remove the oldest event, waiting for one if the queue is empty
+     */
+    suspend fun take(): GlobalTransfer {
+        while (true) {
+            poll()?.let { return it }
+            available.receive()
+        }
+    }
+
+    /**
+     * Forget the events waiting to be delivered
+     */
+    fun clear() = synchronized(lock) {
+        entries.clear()
+        pendingUpdates.clear()
+        pendingData.clear()
+    }
+
+    /**
+     * Get the [TransferEventQueueMetrics]
+     */
+    fun getMetrics() = synchronized(lock) {
+        TransferEventQueueMetrics(
+            queueDepth = entries.size,
+            maxQueueDepth = maxQueueDepth,
+            mergedEventCount = mergedEventCount,
+            droppedEventCount = droppedEventCount,
+        )
+    }
+
+    private fun poll(): GlobalTransfer? = synchronized(lock) {
+        val entry = entries.removeFirstOrNull() ?: return null
+        val tag = entry.event.transfer.tag
+        if (pendingUpdates[tag] === entry) pendingUpdates.remove(tag)
+        if (pendingData[tag] === entry) pendingData.remove(tag)
+        entry.event
+    }
+
+    private fun conflate(pending: HashMap<Int, Entry>, tag: Int, event: GlobalTransfer) {
+        val entry = pending[tag]
+        when {
+            entry != null -> {
+                entry.event = event
+                mergedEventCount++
+            }
+
+            pendingUpdates.size + pendingData.size >= maxConflatedEvents -> droppedEventCount++
+            else -> Entry(event).also {
+                pending[tag] = it
+                add(it)
+            }
+        }
+    }
+
+    private fun add(entry: Entry) {
+        entries.addLast(entry)
+        maxQueueDepth = maxOf(maxQueueDepth, entries.size)
+    }
+
+    companion object {
+        /**
+         * Default maximum number of update and data events waiting to be delivered
+         */
+        const val MAX_CONFLATED_EVENTS = 10_000
+    }
+}
@@ -256,31 +256,41 @@ internal class MegaApiFacade @Inject constructor(
         SharingStarted.WhileSubscribed()
     )
 
+    private val globalTransferQueue = GlobalTransferQueue()
+
     override val globalTransfer: Flow<GlobalTransfer> = callbackFlow {
+        globalTransferQueue.clear()
         val listener = OptionalMegaTransferListenerInterface(
             onTransferStart = { transfer ->
-                trySend(GlobalTransfer.OnTransferStart(transfer))
+                globalTransferQueue.offer(GlobalTransfer.OnTransferStart(transfer))
             },
             onTransferFinish = { transfer, error ->
-                trySend(GlobalTransfer.OnTransferFinish(transfer, error))
+                globalTransferQueue.offer(GlobalTransfer.OnTransferFinish(transfer, error))
             },
             onTransferUpdate = { transfer ->
-                trySend(GlobalTransfer.OnTransferUpdate(transfer))
+                globalTransferQueue.offer(GlobalTransfer.OnTransferUpdate(transfer))
             },
             onTransferTemporaryError = { transfer, error ->
-                trySend(GlobalTransfer.OnTransferTemporaryError(transfer, error))
+                globalTransferQueue.offer(GlobalTransfer.OnTransferTemporaryError(transfer, error))
             },
             onTransferData = { transfer, buffer ->
-                trySend(GlobalTransfer.OnTransferData(transfer, buffer))
+                globalTransferQueue.offer(GlobalTransfer.OnTransferData(transfer, buffer))
             }
         )
 
         megaApi.addTransferListener(listener)
+        launch {
+            while (true) {
+                send(globalTransferQueue.take())
+            }
+        }
 
         awaitClose {
             megaApi.removeTransferListener(listener)
         }
-    }.buffer(Channel.Factory.UNLIMITED).shareIn(sharingScope, SharingStarted.WhileSubscribed())
+    }.buffer(Channel.RENDEZVOUS).shareIn(sharingScope, SharingStarted.WhileSubscribed())
+
+    override fun getGlobalTransferQueueMetrics() = globalTransferQueue.getMetrics()
 
     override fun getFavourites(
         node: MegaNode?,
@@ -293,6 +303,9 @@ internal class MegaApiFacade @Inject constructor(
     override suspend fun getMegaNodeByHandle(nodeHandle: Long): MegaNode? =
         megaApi.getNodeByHandle(nodeHandle)
 
+    override fun getMegaNodeByHandleBlocking(nodeHandle: Long): MegaNode? =
+        megaApi.getNodeByHandle(nodeHandle)
+
     override suspend fun getNodeByPath(path: String?, megaNode: MegaNode?): MegaNode? =
         megaApi.getNodeByPath(path, megaNode)
 
@@ -312,6 +325,14 @@ internal class MegaApiFacade @Inject constructor(
     override suspend fun getNodeByFingerprint(fingerprint: String): MegaNode? =
         megaApi.getNodeByFingerprint(fingerprint)
 
+    override suspend fun getFileHandlesByFingerprint(parentNode: MegaNode): Map<String, Long> =
+        buildMap {
+            megaApi.getChildren(parentNode).filter { it.isFile }.forEach { node ->
+                node.fingerprint?.let { put(it, node.handle) }
+                node.originalFingerprint?.let { put(it, node.handle) }
+            }
+        }
+
     override fun setOriginalFingerprint(
         node: MegaNode,
         originalFingerprint: String,
@@ -320,7 +341,7 @@ internal class MegaApiFacade @Inject constructor(
         megaApi.setOriginalFingerprint(node, originalFingerprint, listener)
     }
 
-    override suspend fun hasVersion(node: MegaNode): Boolean = megaApi.hasVersions(node)
+    override fun hasVersion(node: MegaNode): Boolean = megaApi.hasVersions(node)
 
     override suspend fun getNumVersions(node: MegaNode): Int = megaApi.getNumVersions(node)
 
@@ -363,7 +384,7 @@ internal class MegaApiFacade @Inject constructor(
         else
             megaApi.getInSharesList(order)
 
-    override suspend fun isPendingShare(node: MegaNode): Boolean = megaApi.isPendingShare(node)
+    override fun isPendingShare(node: MegaNode): Boolean = megaApi.isPendingShare(node)
 
     override suspend fun getPublicLinks(order: Int?): List<MegaNode> =
         if (order == null)
@@ -372,9 +393,9 @@ internal class MegaApiFacade @Inject constructor(
             megaApi.getPublicLinks(order)
 
 
-    override suspend fun getNumChildFolders(node: MegaNode): Int = megaApi.getNumChildFolders(node)
+    override fun getNumChildFolders(node: MegaNode): Int = megaApi.getNumChildFolders(node)
 
-    override suspend fun getNumChildFiles(node: MegaNode): Int = megaApi.getNumChildFiles(node)
+    override fun getNumChildFiles(node: MegaNode): Int = megaApi.getNumChildFiles(node)
 
     override fun setAutoAcceptContactsFromLink(
         disableAutoAccept: Boolean,
@@ -581,7 +602,7 @@ internal class MegaApiFacade @Inject constructor(
         )
     }
 
-    override suspend fun isInRubbish(node: MegaNode): Boolean = megaApi.isInRubbish(node)
+    override fun isInRubbish(node: MegaNode): Boolean = megaApi.isInRubbish(node)
 
     override suspend fun isInBackups(node: MegaNode): Boolean = megaApi.isInInbox(node)
 
@@ -64,10 +64,10 @@ internal class MegaApiFolderFacade @Inject constructor(
     override fun removeRequestListener(listener: MegaRequestListenerInterface) =
         megaApiFolder.removeRequestListener(listener)
 
-    override suspend fun getNumChildFolders(node: MegaNode): Int =
+    override fun getNumChildFolders(node: MegaNode): Int =
         megaApiFolder.getNumChildFolders(node)
 
-    override suspend fun getNumChildFiles(node: MegaNode): Int =
+    override fun getNumChildFiles(node: MegaNode): Int =
         megaApiFolder.getNumChildFiles(node)
 
     override suspend fun getChildrenByNode(parentNode: MegaNode, order: Int?): List<MegaNode> =
@@ -9,9 +9,11 @@ import mega.privacy.android.data.database.dao.BackupDao
 import mega.privacy.android.data.database.dao.CameraUploadsRecordDao
 import mega.privacy.android.data.database.dao.CompletedTransferDao
 import mega.privacy.android.data.database.dao.ContactDao
+import mega.privacy.android.data.database.dao.NodeSearchIndexDao
 import mega.privacy.android.data.database.dao.OfflineDao
 import mega.privacy.android.data.database.dao.SdTransferDao
 import mega.privacy.android.data.database.dao.SyncRecordDao
+import mega.privacy.android.data.database.entity.NodeSearchIndexEntity
 import mega.privacy.android.data.gateway.MegaLocalRoomGateway
 import mega.privacy.android.data.mapper.SyncStatusIntMapper
 import mega.privacy.android.data.mapper.backup.BackupEntityMapper
@@ -31,9 +33,11 @@ import mega.privacy.android.data.mapper.transfer.completed.CompletedTransferEnti
 import mega.privacy.android.data.mapper.transfer.completed.CompletedTransferModelMapper
 import mega.privacy.android.data.mapper.transfer.sd.SdTransferEntityMapper
 import mega.privacy.android.data.mapper.transfer.sd.SdTransferModelMapper
+import mega.privacy.android.data.model.node.IndexedNode
 import mega.privacy.android.domain.entity.Contact
 import mega.privacy.android.domain.entity.Offline
 import mega.privacy.android.domain.entity.SdTransfer
+import mega.privacy.android.domain.entity.SortOrder
 import mega.privacy.android.domain.entity.SyncRecord
 import mega.privacy.android.domain.entity.SyncRecordType
 import mega.privacy.android.domain.entity.SyncStatus
@@ -42,6 +46,7 @@ import mega.privacy.android.domain.entity.backup.BackupInfoType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUploadStatus
+import mega.privacy.android.domain.entity.search.SearchCategory
 import mega.privacy.android.domain.entity.transfer.ActiveTransfer
 import mega.privacy.android.domain.entity.transfer.CompletedTransfer
 import mega.privacy.android.domain.entity.transfer.TransferType
@@ -76,6 +81,7 @@ internal class MegaLocalRoomFacade @Inject constructor(
     private val offlineDao: OfflineDao,
     private val offlineModelMapper: OfflineModelMapper,
     private val offlineEntityMapper: OfflineEntityMapper,
+    private val nodeSearchIndexDao: NodeSearchIndexDao,
 ) : MegaLocalRoomGateway {
     override suspend fun insertContact(contact: Contact) {
         contactDao.insertOrUpdateContact(contactEntityMapper(contact))
@@ -345,22 +351,20 @@ internal class MegaLocalRoomFacade @Inject constructor(
         )
 
     override suspend fun getAllCameraUploadsRecords(): List<CameraUploadsRecord> =
-        cameraUploadsRecordDao.getAllCameraUploadsRecords().map {
-            cameraUploadsRecordModelMapper(it)
-        }
+        cameraUploadsRecordModelMapper(cameraUploadsRecordDao.getAllCameraUploadsRecords())
 
     override suspend fun getCameraUploadsRecordsBy(
         uploadStatus: List<CameraUploadsRecordUploadStatus>,
         types: List<SyncRecordType>,
         folderTypes: List<CameraUploadFolderType>,
     ): List<CameraUploadsRecord> =
-        cameraUploadsRecordDao.getCameraUploadsRecordsBy(
-            uploadStatus,
-            types,
-            folderTypes,
-        ).map {
-            cameraUploadsRecordModelMapper(it)
-        }
+        cameraUploadsRecordModelMapper(
+            cameraUploadsRecordDao.getCameraUploadsRecordsBy(
+                uploadStatus,
+                types,
+                folderTypes,
+            )
+        )
 
     override suspend fun updateCameraUploadsRecordUploadStatus(
         mediaId: Long,
@@ -402,6 +406,31 @@ internal class MegaLocalRoomFacade @Inject constructor(
         )
     }
 
+    override suspend fun setCameraUploadsRecordGpsCoordinates(
+        mediaId: Long,
+        timestamp: Long,
+        folderType: CameraUploadFolderType,
+        latitude: Float,
+        longitude: Float,
+    ) {
+        val encryptedMediaId = encryptData(mediaId.toString())
+        requireNotNull(encryptedMediaId)
+        val encryptedTimestamp = encryptData(timestamp.toString())
+        requireNotNull(encryptedTimestamp)
+        val encryptedLatitude = encryptData(latitude.toString())
+        requireNotNull(encryptedLatitude)
+        val encryptedLongitude = encryptData(longitude.toString())
+        requireNotNull(encryptedLongitude)
+
+        cameraUploadsRecordDao.updateCameraUploadsRecordGpsCoordinates(
+            encryptedMediaId,
+            encryptedTimestamp,
+            folderType,
+            encryptedLatitude,
+            encryptedLongitude,
+        )
+    }
+
     override suspend fun deleteCameraUploadsRecords(folderTypes: List<CameraUploadFolderType>) =
         cameraUploadsRecordDao.deleteCameraUploadsRecordsByFolderType(folderTypes)
 
@@ -496,11 +525,11 @@ internal class MegaLocalRoomFacade @Inject constructor(
     override suspend fun clearOffline() = offlineDao.deleteAllOffline()
 
     override fun monitorOfflineUpdates() = offlineDao.monitorOffline()
-        .map { it.map { offlineEntity -> offlineModelMapper(offlineEntity) } }
+        .map { offlineModelMapper(it) }
 
 
     override suspend fun getAllOfflineInfo() =
-        offlineDao.getOfflineFiles()?.map { offlineModelMapper(it) }
+        offlineDao.getOfflineFiles()?.let { offlineModelMapper(it) }
 
     override suspend fun removeOfflineInformation(nodeId: String) {
         encryptData(nodeId)?.let {
@@ -509,7 +538,7 @@ internal class MegaLocalRoomFacade @Inject constructor(
     }
 
     override suspend fun getOfflineInfoByParentId(parentId: Int): List<Offline>? =
-        offlineDao.getOfflineByParentId(parentId)?.map {
+        offlineDao.getOfflineByParentId(parentId)?.let {
             offlineModelMapper(it)
         }
 
@@ -522,6 +551,48 @@ internal class MegaLocalRoomFacade @Inject constructor(
         offlineDao.deleteOfflineById(id)
     }
 
+    override suspend fun insertOrUpdateIndexedNodes(nodes: List<IndexedNode>) =
+        nodes.chunked(MAX_INDEXED_NODES_PER_QUERY).forEach { chunk ->
+            nodeSearchIndexDao.insertOrUpdateNodes(chunk.map { it.toEntity() })
+        }
+
+    override suspend fun deleteIndexedNodes(handles: List<Long>) {
+        var level = handles
+        while (level.isNotEmpty()) {
+            val chunks = level.chunked(MAX_INDEXED_NODES_PER_QUERY)
+            // Read the children of this level before deleting it
+            level = chunks.flatMap { nodeSearchIndexDao.getChildHandles(it) }
+            chunks.forEach { nodeSearchIndexDao.deleteNodes(it) }
+        }
+    }
+
+    override suspend fun clearNodeSearchIndex() = nodeSearchIndexDao.deleteAllNodes()
+
+    override suspend fun isNodeSearchIndexEmpty() = nodeSearchIndexDao.isEmpty()
+
+    override suspend fun searchIndexedNodes(
+        match: String,
+        searchCategory: SearchCategory,
+        modificationTimeRange: LongRange?,
+        order: SortOrder,
+    ) = nodeSearchIndexDao.searchNodes(
+        match = match,
+        category = searchCategory.takeUnless { it == SearchCategory.ALL }?.name,
+        modifiedFrom = modificationTimeRange?.first,
+        modifiedTo = modificationTimeRange?.last,
+        order = order.name,
+    )
+
+    private fun IndexedNode.toEntity() = NodeSearchIndexEntity(
+        handle = handle,
+        nameTokens = nameTokens,
+        parentHandle = parentHandle,
+        isFolder = isFolder,
+        category = searchCategory.name,
+        size = size,
+        modificationTime = modificationTime,
+    )
+
     private suspend fun deleteCompletedTransferBatch(ids: List<Int>) {
         ids.chunked(50).forEach {
             completedTransferDao.deleteCompletedTransferByIds(it)
@@ -530,5 +601,10 @@ internal class MegaLocalRoomFacade @Inject constructor(
 
     companion object {
         private const val MAX_COMPLETED_TRANSFER_ROWS = 100
+
+        /**
+         * Maximum number of nodes in a single query, below the limit of SQLite variables
+         */
+        private const val MAX_INDEXED_NODES_PER_QUERY = 500
     }
 }
@@ -2,6 +2,7 @@ package mega.privacy.android.data.gateway
 
 import android.net.Uri
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
+import mega.privacy.android.domain.entity.camerauploads.MediaStoreScanWatermark
 
 /**
  * Camera Upload Media Files Gateway
@@ -27,4 +28,29 @@ interface CameraUploadsMediaGateway {
      * @param parentPath path that contains the media
      */
     fun getMediaSelectionQuery(parentPath: String): String
+
+    /**
+     * Get the selection query to filter the media based on the parent path, restricted to the
+     * media added or modified after the given watermark
+     *
+     * @param parentPath path that contains the media
+     * @param watermark [MediaStoreScanWatermark] reached by the previous scan
+     */
+    fun getIncrementalMediaSelectionQuery(
+        parentPath: String,
+        watermark: MediaStoreScanWatermark,
+    ): String
+
+    /**
+     * Capture the current position of the media store volume of the given uri
+     *
+     * @param uri different media store file type
+     * @param parentPath path that contains the media
+     *
+     * @return the [MediaStoreScanWatermark] representing the current state of the media store
+     */
+    suspend fun getCurrentMediaStoreScanWatermark(
+        uri: Uri,
+        parentPath: String,
+    ): MediaStoreScanWatermark
 }
@@ -1,13 +1,17 @@
 package mega.privacy.android.data.gateway
 
 import android.util.Log
+import ch.qos.logback.core.OutputStreamAppender
 import mega.privacy.android.domain.entity.logging.LogEntry
 import org.slf4j.Logger
+import ch.qos.logback.classic.Logger as LogbackLogger
 
 /**
  * File logger
  *
- * Writes log messages to file
+ * Writes log messages to file. The file appenders do not flush every entry (see logback.xml), so
+ * entries are written in batches when the appender buffer is full. Errors are flushed straight
+ * away so that they are not lost if the app crashes.
  *
  * @property logger
  */
@@ -22,23 +26,28 @@ internal class FileLogWriter(
     override fun writeLogEntry(
         logEntry: LogEntry,
     ) {
-        val logMessage = logEntry.toString()
         with(logger) {
             when (logEntry.priority) {
-                Log.VERBOSE -> trace(logMessage)
-                Log.DEBUG -> debug(logMessage)
-                Log.INFO -> info(logMessage)
-                Log.ASSERT -> info(logMessage)
-                Log.WARN -> warn(logMessage)
-                Log.ERROR -> {
+                Log.VERBOSE -> if (isTraceEnabled) trace(logEntry.toString())
+                Log.DEBUG -> if (isDebugEnabled) debug(logEntry.toString())
+                Log.INFO -> if (isInfoEnabled) info(logEntry.toString())
+                Log.ASSERT -> if (isInfoEnabled) info(logEntry.toString())
+                Log.WARN -> if (isWarnEnabled) warn(logEntry.toString())
+                Log.ERROR -> if (isErrorEnabled) {
                     if (logEntry.throwable != null) {
-                        error(logMessage, logEntry.throwable)
+                        error(logEntry.toString(), logEntry.throwable)
                     } else {
-                        error(logMessage)
+                        error(logEntry.toString())
                     }
+                    flush()
                 }
             }
         }
+    }
 
+    override fun flush() {
+        (logger as? LogbackLogger)?.iteratorForAppenders()?.forEach { appender ->
+            (appender as? OutputStreamAppender<*>)?.outputStream?.flush()
+        }
     }
-}
\ No newline at end of file
+}
@@ -11,4 +11,9 @@ interface LogWriterGateway {
     fun writeLogEntry(
         logEntry: LogEntry,
     )
+
+    /**
+     * Flush the log entries that have not been written to file yet
+     */
+    fun flush()
 }
\ No newline at end of file
@@ -1,15 +1,18 @@
 package mega.privacy.android.data.gateway
 
 import kotlinx.coroutines.flow.Flow
+import mega.privacy.android.data.model.node.IndexedNode
 import mega.privacy.android.domain.entity.Contact
 import mega.privacy.android.domain.entity.Offline
 import mega.privacy.android.domain.entity.SdTransfer
+import mega.privacy.android.domain.entity.SortOrder
 import mega.privacy.android.domain.entity.SyncRecord
 import mega.privacy.android.domain.entity.SyncRecordType
 import mega.privacy.android.domain.entity.backup.Backup
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUploadStatus
+import mega.privacy.android.domain.entity.search.SearchCategory
 import mega.privacy.android.domain.entity.transfer.ActiveTransfer
 import mega.privacy.android.domain.entity.transfer.CompletedTransfer
 import mega.privacy.android.domain.entity.transfer.TransferType
@@ -397,6 +400,23 @@ interface MegaLocalRoomGateway {
         generatedFingerprint: String,
     )
 
+    /**
+     * Set the gps coordinates extracted from the file of the camera uploads record
+     *
+     * @param mediaId the id of the record
+     * @param timestamp the timestamp of the record
+     * @param folderType the folder type of the record
+     * @param latitude the latitude extracted from the file
+     * @param longitude the longitude extracted from the file
+     */
+    suspend fun setCameraUploadsRecordGpsCoordinates(
+        mediaId: Long,
+        timestamp: Long,
+        folderType: CameraUploadFolderType,
+        latitude: Float,
+        longitude: Float,
+    )
+
     /**
      * Delete the camera uploads record given the folder types
      *
@@ -524,4 +544,44 @@ interface MegaLocalRoomGateway {
      * Remove offline info by ID
      */
     suspend fun removeOfflineInformationById(id: Int)
+
+    /**
+     * Insert or update nodes in the node search index
+     *
+     * @param nodes [IndexedNode] list
+     */
+    suspend fun insertOrUpdateIndexedNodes(nodes: List<IndexedNode>)
+
+    /**
+     * Remove nodes and all their indexed descendants from the node search index
+     *
+     * @param handles handles of the nodes to remove
+     */
+    suspend fun deleteIndexedNodes(handles: List<Long>)
+
+    /**
+     * Remove all the nodes from the node search index
+     */
+    suspend fun clearNodeSearchIndex()
+
+    /**
+     * Check if the node search index is empty
+     */
+    suspend fun isNodeSearchIndexEmpty(): Boolean
+
+    /**
+     * Search the node search index, folders first
+     *
+     * @param match full text query on the name tokens of the nodes
+     * @param searchCategory [SearchCategory] of the nodes, or [SearchCategory.ALL] for any
+     * @param modificationTimeRange range of modification times in seconds, or null for any
+     * @param order [SortOrder] of the nodes, only size and modification orders are applied
+     * @return handles of the matching nodes
+     */
+    suspend fun searchIndexedNodes(
+        match: String,
+        searchCategory: SearchCategory,
+        modificationTimeRange: LongRange?,
+        order: SortOrder,
+    ): List<Long>
 }
@@ -1,5 +1,6 @@
 package mega.privacy.android.data.gateway
 
+import mega.privacy.android.domain.entity.logging.CreateLogEntryRequest
 import nz.mega.sdk.MegaApiAndroid
 import nz.mega.sdk.MegaChatLoggerInterface
 import timber.log.Timber
@@ -8,10 +9,12 @@ import javax.inject.Inject
 /**
  * Chat file logger
  *
- * Chat log listener that prints all the chat output to file. See logback.xml for configuration
+ * Chat log listener that prints all the chat output to file, tagged as chat SDK logs. See
+ * logback.xml for configuration
  */
 internal class TimberChatLogger @Inject constructor() : MegaChatLoggerInterface {
     override fun log(loglevel: Int, message: String?) {
+        Timber.tag(CreateLogEntryRequest.CHAT_SDK_TAG)
         when (loglevel) {
             MegaApiAndroid.LOG_LEVEL_MAX -> Timber.v(message)
             MegaApiAndroid.LOG_LEVEL_DEBUG -> Timber.d(message)
@@ -131,14 +131,14 @@ interface MegaApiFolderGateway {
      * @param node current folder node
      * @return child folder number
      */
-    suspend fun getNumChildFolders(node: MegaNode): Int
+    fun getNumChildFolders(node: MegaNode): Int
 
     /**
      * Get child files number of current folder
      * @param node current folder node
      * @return child files number
      */
-    suspend fun getNumChildFiles(node: MegaNode): Int
+    fun getNumChildFiles(node: MegaNode): Int
 
     /**
      * Get children nodes by node
@@ -7,6 +7,7 @@ import mega.privacy.android.data.model.GlobalUpdate
 import mega.privacy.android.data.model.RequestEvent
 import mega.privacy.android.domain.entity.SortOrder
 import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.transfer.TransferEventQueueMetrics
 import nz.mega.sdk.MegaCancelToken
 import nz.mega.sdk.MegaContactRequest
 import nz.mega.sdk.MegaError
@@ -264,6 +265,13 @@ interface MegaApiGateway {
      */
     val globalTransfer: Flow<GlobalTransfer>
 
+    /**
+     * Get the metrics of the queue of global transfer events waiting to be delivered
+     *
+     * @return [TransferEventQueueMetrics]
+     */
+    fun getGlobalTransferQueueMetrics(): TransferEventQueueMetrics
+
     /**
      * Global [RequestEvent] for all requests processed within this gateway.
      */
@@ -284,6 +292,13 @@ interface MegaApiGateway {
      */
     suspend fun getMegaNodeByHandle(nodeHandle: Long): MegaNode?
 
+    /**
+     * Get MegaNode by node handle, for the callers that cannot suspend
+     * @param nodeHandle node handle
+     * @return MegaNode
+     */
+    fun getMegaNodeByHandleBlocking(nodeHandle: Long): MegaNode?
+
     /**
      * Get the MegaNode by path
      *
@@ -330,6 +345,16 @@ interface MegaApiGateway {
      */
     suspend fun getNodeByFingerprint(fingerprint: String): MegaNode?
 
+    /**
+     * Get the handles of the files in a folder by their fingerprint, in a single pass
+     *
+     * Each file is mapped by its fingerprint and, if it has one, by its original fingerprint
+     *
+     * @param parentNode folder whose direct children are mapped
+     * @return a map of fingerprint to node handle
+     */
+    suspend fun getFileHandlesByFingerprint(parentNode: MegaNode): Map<String, Long>
+
     /**
      * Sets the original fingerprint of a [MegaNode]
      *
@@ -348,7 +373,7 @@ interface MegaApiGateway {
      * @param node node that is checked
      * @return true is has version
      */
-    suspend fun hasVersion(node: MegaNode): Boolean
+    fun hasVersion(node: MegaNode): Boolean
 
     /**
      * Get node history num versions
@@ -401,7 +426,7 @@ interface MegaApiGateway {
      * @param node Node to check
      * @return true is the MegaNode is pending to be shared, otherwise false
      */
-    suspend fun isPendingShare(node: MegaNode): Boolean
+    fun isPendingShare(node: MegaNode): Boolean
 
     /**
      * Get a list with all public links
@@ -420,14 +445,14 @@ interface MegaApiGateway {
      * @param node current folder node
      * @return child folder number
      */
-    suspend fun getNumChildFolders(node: MegaNode): Int
+    fun getNumChildFolders(node: MegaNode): Int
 
     /**
      * Get child files number of current folder
      * @param node current folder node
      * @return child files number
      */
-    suspend fun getNumChildFiles(node: MegaNode): Int
+    fun getNumChildFiles(node: MegaNode): Int
 
 
     /**
@@ -873,7 +898,7 @@ interface MegaApiGateway {
      * @param node MegaNode
      * @return True in, else not in
      */
-    suspend fun isInRubbish(node: MegaNode): Boolean
+    fun isInRubbish(node: MegaNode): Boolean
 
     /**
      * Checks whether the Node is in Backups or not
@@ -1,5 +1,9 @@
 package mega.privacy.android.data.gateway.preferences
 
+import mega.privacy.android.domain.entity.MediaStoreFileType
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
+import mega.privacy.android.domain.entity.camerauploads.MediaStoreScanWatermark
+
 /**
  * CameraUploads Settings Preference Gateway
  *
@@ -215,6 +219,31 @@ interface CameraUploadsSettingsPreferenceGateway {
      */
     suspend fun setUploadsByWifi(wifiOnly: Boolean)
 
+    /**
+     * Get the media store scan watermark saved after the last successful scan
+     *
+     * @param folderType the [CameraUploadFolderType] that was scanned
+     * @param mediaStoreFileType the [MediaStoreFileType] that was scanned
+     * @return the saved [MediaStoreScanWatermark], or null if none
+     */
+    suspend fun getMediaStoreScanWatermark(
+        folderType: CameraUploadFolderType,
+        mediaStoreFileType: MediaStoreFileType,
+    ): MediaStoreScanWatermark?
+
+    /**
+     * Set the media store scan watermark reached by a successful scan
+     *
+     * @param folderType the [CameraUploadFolderType] that was scanned
+     * @param mediaStoreFileType the [MediaStoreFileType] that was scanned
+     * @param watermark the [MediaStoreScanWatermark] to save, or null to remove it
+     */
+    suspend fun setMediaStoreScanWatermark(
+        folderType: CameraUploadFolderType,
+        mediaStoreFileType: MediaStoreFileType,
+        watermark: MediaStoreScanWatermark?,
+    )
+
     /**
      * Clear preferences
      */
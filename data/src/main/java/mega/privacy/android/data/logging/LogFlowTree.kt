@@ -1,14 +1,12 @@
 package mega.privacy.android.data.logging
 
+import kotlinx.coroutines.CancellationException
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Job
-import kotlinx.coroutines.channels.BufferOverflow
 import kotlinx.coroutines.flow.MutableSharedFlow
 import kotlinx.coroutines.flow.SharedFlow
 import kotlinx.coroutines.launch
-import mega.privacy.android.data.gateway.TimberChatLogger
-import mega.privacy.android.data.gateway.TimberMegaLogger
 import mega.privacy.android.domain.entity.logging.CreateLogEntryRequest
 import mega.privacy.android.domain.entity.logging.LogEntry
 import mega.privacy.android.domain.entity.logging.LogPriority
@@ -20,11 +18,17 @@ import timber.log.Timber
  *
  * Implementation of [Timber.Tree] that converts logging events from the sdk listener to a flow
  *
+ * Logging only adds the event to a [LogRingBuffer], a single consumer creates the log entries in
+ * order and emits them. The stack trace locating the caller is only captured for untagged events,
+ * as tagged events come from the sdk or the chat sdk and their entries never read it. An event
+ * whose entry fails to be created is dropped and the consumer goes on with the next one.
+ *
  * @property logFlow a flow where all sdk log messages are emitted
  */
 internal class LogFlowTree(
     dispatcher: CoroutineDispatcher,
     private val createLogEntry: CreateLogEntry,
+    private val buffer: LogRingBuffer<CreateLogEntryRequest> = LogRingBuffer(),
 ) : Timber.Tree() {
 
     private val scope = CoroutineScope(Job() + dispatcher)
@@ -32,8 +36,7 @@ internal class LogFlowTree(
     private val _logFlow =
         MutableSharedFlow<LogEntry>(
             replay = 0,
-            extraBufferCapacity = 1,
-            onBufferOverflow = BufferOverflow.DROP_OLDEST
+            extraBufferCapacity = LOG_FLOW_BUFFER_CAPACITY,
         )
     val logFlow: SharedFlow<LogEntry> = _logFlow
 
@@ -45,25 +48,36 @@ internal class LogFlowTree(
         LogFlowTree::class.java.name,
     )
 
-    private val sdkLoggers = listOf(
-        TimberChatLogger::class.java.name,
-        TimberMegaLogger::class.java.name
-    )
-
-    override fun log(priority: Int, tag: String?, message: String, t: Throwable?) {
-        val trace = Throwable().stackTrace
+    init {
         scope.launch {
-            createLogEntry(
-                CreateLogEntryRequest(
-                    tag = tag,
-                    message = message,
-                    priority = LogPriority.fromInt(priority),
-                    throwable = t,
-                    trace = trace.asList(),
-                    loggingClasses = ignoredClasses,
-                    sdkLoggers = sdkLoggers)
-            )?.let { _logFlow.emit(it) }
+            while (true) {
+                val request = buffer.take()
+                // An entry that cannot be created is dropped, logging it would feed this loop
+                runCatching { createLogEntry(request) }
+                    .onFailure { if (it is CancellationException) throw it }
+                    .getOrNull()
+                    ?.let { _logFlow.emit(it) }
+            }
         }
     }
 
-}
\ No newline at end of file
+    override fun log(priority: Int, tag: String?, message: String, t: Throwable?) {
+        buffer.offer(
+            CreateLogEntryRequest(
+                tag = tag,
+                message = message,
+                priority = LogPriority.fromInt(priority),
+                throwable = t,
+                trace = if (tag == null) Throwable().stackTrace.asList() else emptyList(),
+                loggingClasses = ignoredClasses,
+            )
+        )
+    }
+
+    companion object {
+        /**
+         * Number of entries kept for slow collectors before the consumer waits for them
+         */
+        private const val LOG_FLOW_BUFFER_CAPACITY = 64
+    }
+}
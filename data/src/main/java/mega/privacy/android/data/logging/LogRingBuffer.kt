@@ -0,0 +1,94 @@
+package mega.privacy.android.data.logging
+
+import kotlinx.coroutines.channels.Channel
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicReferenceArray
+
+/**
+ * Bounded lock-free buffer of log entries, written by any thread and read by a single consumer
+ *
+ * Producers reserve a slot by advancing the tail and never block. When the buffer is full the new
+ * entry is dropped and counted, so logging never slows down the caller. The consumer is only
+ * signalled when it is waiting for entries.
+ *
+ * @param capacity maximum number of pending entries, rounded up to a power of two
+ */
+internal class LogRingBuffer<T : Any>(capacity: Int = DEFAULT_CAPACITY) {
+
+    init {
+        require(capacity > 0) { "Capacity must be positive" }
+    }
+
+    private val size = if (capacity == 1) 1 else Integer.highestOneBit(capacity - 1) shl 1
+    private val mask = size - 1L
+    private val slots = AtomicReferenceArray<T?>(size)
+    private val head = AtomicLong()
+    private val tail = AtomicLong()
+    private val dropped = AtomicLong()
+    private val consumerWaiting = AtomicBoolean()
+    private val signal = Channel<Unit>(Channel.CONFLATED)
+
+    /**
+     * Number of entries dropped because the buffer was full
+     */
+    val droppedCount: Long
+        get() = dropped.get()
+
+    /**
+     * Adds an entry to the buffer
+     *
+     * @return false if the buffer is full and the entry was dropped
+     */
+    fun offer(entry: T): Boolean {
+        while (true) {
+            val current = tail.get()
+            if (current - head.get() >= size) {
+                dropped.incrementAndGet()
+                return false
+            }
+            if (tail.compareAndSet(current, current + 1)) {
+                slots.set((current and mask).toInt(), entry)
+                if (consumerWaiting.compareAndSet(true, false)) signal.trySend(Unit)
+                return true
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest entry, only to be called by the consumer
+     *
+     * @return the oldest entry, or null if there is none or it is still being written
+     */
+    fun poll(): T? {
+        val current = head.get()
+        val index = (current and mask).toInt()
+        val entry = slots.get(index) ?: return null
+        slots.set(index, null)
+        head.set(current + 1)
+        return entry
+    }
+
+    /**
+     * Removes the oldest entry, waiting for one if the buffer is empty
+     */
+    suspend fun take(): T {
+        while (true) {
+            poll()?.let { return it }
+            consumerWaiting.set(true)
+            // An entry written before the flag was raised did not signal, so check again
+            poll()?.let {
+                consumerWaiting.set(false)
+                return it
+            }
+            signal.receive()
+        }
+    }
+
+    companion object {
+        /**
+         * Default capacity, large enough for the bursts of SDK logs on start up
+         */
+        const val DEFAULT_CAPACITY = 8192
+    }
+}
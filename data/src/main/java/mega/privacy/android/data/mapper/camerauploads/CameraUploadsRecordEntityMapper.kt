@@ -29,6 +29,8 @@ internal class CameraUploadsRecordEntityMapper @Inject constructor(
             encryptedOriginalFingerprint = encryptData(cameraUploadsRecord.originalFingerprint),
             encryptedGeneratedFingerprint = encryptData(cameraUploadsRecord.generatedFingerprint),
             encryptedTempFilePath = encryptData(cameraUploadsRecord.tempFilePath),
+            encryptedLatitude = encryptData(cameraUploadsRecord.latitude?.toString()),
+            encryptedLongitude = encryptData(cameraUploadsRecord.longitude?.toString()),
         )
     }
 }
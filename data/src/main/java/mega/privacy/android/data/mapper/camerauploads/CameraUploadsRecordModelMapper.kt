@@ -30,7 +30,63 @@ internal class CameraUploadsRecordModelMapper @Inject constructor(
             decryptData(cameraUploadsRecordEntity.encryptedOriginalFingerprint) ?: "",
             generatedFingerprint =
             decryptData(cameraUploadsRecordEntity.encryptedGeneratedFingerprint),
-            tempFilePath = decryptData(cameraUploadsRecordEntity.encryptedTempFilePath) ?: ""
+            tempFilePath = decryptData(cameraUploadsRecordEntity.encryptedTempFilePath) ?: "",
+            latitude = decryptData(cameraUploadsRecordEntity.encryptedLatitude)?.toFloatOrNull(),
+            longitude = decryptData(cameraUploadsRecordEntity.encryptedLongitude)?.toFloatOrNull(),
         )
     }
+
+    /**
+     * Map a list of [CameraUploadsRecordEntity], decrypting all their fields in a single batch
+     */
+    suspend operator fun invoke(
+        cameraUploadsRecordEntities: List<CameraUploadsRecordEntity>,
+    ): List<CameraUploadsRecord> {
+        coroutineContext.ensureActive()
+
+        val decryptedFields = decryptData.decryptAll(
+            cameraUploadsRecordEntities.flatMap {
+                listOf(
+                    it.encryptedMediaId,
+                    it.encryptedTimestamp,
+                    it.encryptedFileName,
+                    it.encryptedFilePath,
+                    it.encryptedOriginalFingerprint,
+                    it.encryptedGeneratedFingerprint,
+                    it.encryptedTempFilePath,
+                    it.encryptedLatitude,
+                    it.encryptedLongitude,
+                )
+            }
+        )
+        return cameraUploadsRecordEntities.mapIndexed { index, cameraUploadsRecordEntity ->
+            val fields = decryptedFields.subList(
+                index * ENCRYPTED_FIELDS_COUNT,
+                (index + 1) * ENCRYPTED_FIELDS_COUNT,
+            )
+            val mediaId = fields[0]?.toLong()
+            requireNotNull(mediaId)
+            val timestamp = fields[1]?.toLong()
+            requireNotNull(timestamp)
+
+            CameraUploadsRecord(
+                mediaId = mediaId,
+                timestamp = timestamp,
+                folderType = cameraUploadsRecordEntity.folderType,
+                fileName = fields[2] ?: "",
+                filePath = fields[3] ?: "",
+                type = cameraUploadsRecordEntity.fileType,
+                uploadStatus = cameraUploadsRecordEntity.uploadStatus,
+                originalFingerprint = fields[4] ?: "",
+                generatedFingerprint = fields[5],
+                tempFilePath = fields[6] ?: "",
+                latitude = fields[7]?.toFloatOrNull(),
+                longitude = fields[8]?.toFloatOrNull(),
+            )
+        }
+    }
+
+    private companion object {
+        const val ENCRYPTED_FIELDS_COUNT = 9
+    }
 }
@@ -31,6 +31,9 @@ internal class FetchChildrenMapper @Inject constructor(
     /**
      * Invoke
      *
+     * The function only keeps the handle of the node, which is looked up again when the children
+     * are fetched, so that the mapped node does not keep the [MegaNode] alive.
+     *
      * @param megaNode
      * @return
      */
@@ -38,15 +41,18 @@ internal class FetchChildrenMapper @Inject constructor(
         megaNode: MegaNode,
         fromFolderLink: Boolean = false
     ): suspend (SortOrder) -> List<UnTypedNode> {
+        val handle = megaNode.handle
         return { order ->
             withContext(ioDispatcher) {
                 if (fromFolderLink) {
-                    megaApiFolderGateway.getChildren(megaNode, sortOrderIntMapper(order))
-                        .map { nodeMapperProvider.get().invoke(it) }
+                    megaApiFolderGateway.getMegaNodeByHandle(handle)?.let {
+                        megaApiFolderGateway.getChildren(it, sortOrderIntMapper(order))
+                    }
                 } else {
-                    megaApiGateway.getChildren(megaNode, sortOrderIntMapper(order))
-                        .map { nodeMapperProvider.get().invoke(it) }
-                }
+                    megaApiGateway.getMegaNodeByHandle(handle)?.let {
+                        megaApiGateway.getChildren(it, sortOrderIntMapper(order))
+                    }
+                }.orEmpty().map { nodeMapperProvider.get().invoke(it) }
             }
         }
     }
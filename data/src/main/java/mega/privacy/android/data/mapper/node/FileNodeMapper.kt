@@ -1,24 +1,28 @@
 package mega.privacy.android.data.mapper.node
 
+import mega.privacy.android.data.cache.CacheFolderPaths
 import mega.privacy.android.data.extensions.getFileName
 import mega.privacy.android.data.extensions.getPreviewFileName
 import mega.privacy.android.data.extensions.getThumbnailFileName
-import mega.privacy.android.data.gateway.CacheGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.mapper.FileTypeInfoMapper
 import mega.privacy.android.data.model.node.DefaultFileNode
+import mega.privacy.android.data.model.node.LazyNodeAttribute
 import mega.privacy.android.domain.entity.Offline
 import mega.privacy.android.domain.entity.node.ExportedData
 import mega.privacy.android.domain.entity.node.FileNode
 import mega.privacy.android.domain.entity.node.NodeId
 import nz.mega.sdk.MegaNode
-import java.io.File
 import javax.inject.Inject
 
 /**
  * File node mapper
  *
- * @property cacheGateway
+ * The cache folders are resolved once per process and whether the file has versions is read
+ * from the SDK when first accessed. The node is then looked up by handle, so that the mapped node
+ * does not keep the [MegaNode] alive.
+ *
+ * @property cacheFolderPaths
  * @property megaApiGateway
  * @property fileTypeInfoMapper
  * @property megaLocalRoomGateway
@@ -26,7 +30,7 @@ import javax.inject.Inject
  * @constructor Create empty File node mapper
  */
 internal class FileNodeMapper @Inject constructor(
-    private val cacheGateway: CacheGateway,
+    private val cacheFolderPaths: CacheFolderPaths,
     private val megaApiGateway: MegaApiGateway,
     private val fileTypeInfoMapper: FileTypeInfoMapper,
     private val offlineAvailabilityMapper: OfflineAvailabilityMapper
@@ -51,19 +55,16 @@ internal class FileNodeMapper @Inject constructor(
         base64Id = megaNode.base64Handle,
         creationTime = megaNode.creationTime,
         modificationTime = megaNode.modificationTime,
-        hasVersion = megaApiGateway.hasVersion(megaNode),
-        thumbnailPath = getThumbnailCacheFilePath(
-            megaNode,
-            cacheGateway.getThumbnailCacheFolder()
-        ),
-        previewPath = getPreviewCacheFilePath(
-            megaNode,
-            cacheGateway.getPreviewCacheFolder()
-        ),
-        fullSizePath = getFullSizeCacheFilePath(
-            megaNode,
-            cacheGateway.getFullSizeCacheFolder()
-        ),
+        lazyHasVersion = lazyAttribute(megaNode.handle) { megaApiGateway.hasVersion(it) },
+        thumbnailPath = cacheFolderPaths.getThumbnailFolderPath()?.let {
+            cacheFolderPaths.getFilePath(it, megaNode.getThumbnailFileName())
+        },
+        previewPath = cacheFolderPaths.getPreviewFolderPath()?.let {
+            cacheFolderPaths.getFilePath(it, megaNode.getPreviewFileName())
+        },
+        fullSizePath = cacheFolderPaths.getFullSizeFolderPath()?.let {
+            cacheFolderPaths.getFilePath(it, megaNode.getFileName())
+        },
         type = fileTypeInfoMapper(megaNode),
         isFavourite = megaNode.isFavourite,
         exportedData = megaNode.takeIf { megaNode.isExported }?.let {
@@ -80,18 +81,7 @@ internal class FileNodeMapper @Inject constructor(
         isAvailableOffline = offline?.let { offlineAvailabilityMapper(megaNode, it) } ?: false
     )
 
-    private fun getThumbnailCacheFilePath(megaNode: MegaNode, thumbnailFolder: File?): String? =
-        thumbnailFolder?.let {
-            "$it${File.separator}${megaNode.getThumbnailFileName()}"
-        }?.takeUnless { megaNode.isFolder }
-
-    private fun getPreviewCacheFilePath(megaNode: MegaNode, previewFolder: File?): String? =
-        previewFolder?.let {
-            "$it${File.separator}${megaNode.getPreviewFileName()}"
-        }?.takeUnless { megaNode.isFolder }
-
-    private fun getFullSizeCacheFilePath(megaNode: MegaNode, tempFolder: File?): String? =
-        tempFolder?.let {
-            "$it${File.separator}${megaNode.getFileName()}"
-        }?.takeUnless { megaNode.isFolder }
+    private fun lazyAttribute(handle: Long, read: (MegaNode) -> Boolean) = LazyNodeAttribute {
+        megaApiGateway.getMegaNodeByHandleBlocking(handle)?.let(read) ?: false
+    }
 }
@@ -3,6 +3,7 @@ package mega.privacy.android.data.mapper.node
 import mega.privacy.android.data.gateway.api.MegaApiFolderGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.model.node.DefaultFolderNode
+import mega.privacy.android.data.model.node.LazyNodeAttribute
 import mega.privacy.android.domain.entity.node.ExportedData
 import mega.privacy.android.domain.entity.node.FolderNode
 import mega.privacy.android.domain.entity.node.NodeId
@@ -12,6 +13,11 @@ import javax.inject.Inject
 /**
  * Folder node mapper
  *
+ * The child counts and the pending share state are shown for every folder of a list, so they are
+ * read while mapping, off the main thread. Whether the folder has versions or is in the rubbish
+ * bin is read when first accessed, by looking the node up by handle, so that the mapped node does
+ * not keep the [MegaNode] alive.
+ *
  * @property megaApiGateway
  * @constructor Create empty Folder node mapper
  */
@@ -38,7 +44,7 @@ internal class FolderNodeMapper @Inject constructor(
         label = megaNode.label,
         parentId = NodeId(megaNode.parentHandle),
         base64Id = megaNode.base64Handle,
-        hasVersion = megaApiGateway.hasVersion(megaNode),
+        lazyHasVersion = lazyAttribute(megaNode.handle) { megaApiGateway.hasVersion(it) },
         childFolderCount = if (fromFolderLink)
             megaApiFolderGateway.getNumChildFolders(megaNode)
         else
@@ -52,7 +58,7 @@ internal class FolderNodeMapper @Inject constructor(
             ExportedData(it.publicLink, it.publicLinkCreationTime)
         },
         isTakenDown = megaNode.isTakenDown,
-        isInRubbishBin = megaApiGateway.isInRubbish(megaNode),
+        lazyIsInRubbishBin = lazyAttribute(megaNode.handle) { megaApiGateway.isInRubbish(it) },
         isIncomingShare = megaNode.isInShare,
         isShared = megaNode.isOutShare,
         isPendingShare = megaApiGateway.isPendingShare(megaNode),
@@ -63,4 +69,8 @@ internal class FolderNodeMapper @Inject constructor(
         serializedData = if (requireSerializedData) megaNode.serialize() else null,
         isAvailableOffline = isAvailableOffline
     )
+
+    private fun lazyAttribute(handle: Long, read: (MegaNode) -> Boolean) = LazyNodeAttribute {
+        megaApiGateway.getMegaNodeByHandleBlocking(handle)?.let(read) ?: false
+    }
 }
\ No newline at end of file
@@ -19,4 +19,42 @@ internal class OfflineModelMapper @Inject constructor(
         handleIncoming = decryptData(offlineEntity.encryptedIncomingHandle).orEmpty(),
         lastModifiedTime = offlineEntity.lastModifiedTime ?: 0
     )
+
+    /**
+     * Map a list of [OfflineEntity], decrypting all their fields in a single batch
+     */
+    suspend operator fun invoke(offlineEntities: List<OfflineEntity>): List<Offline> {
+        val decryptedFields = decryptData.decryptAll(
+            offlineEntities.flatMap {
+                listOf(
+                    it.encryptedHandle,
+                    it.encryptedPath,
+                    it.encryptedName,
+                    it.encryptedType,
+                    it.encryptedIncomingHandle,
+                )
+            }
+        )
+        return offlineEntities.mapIndexed { index, offlineEntity ->
+            val fields = decryptedFields.subList(
+                index * ENCRYPTED_FIELDS_COUNT,
+                (index + 1) * ENCRYPTED_FIELDS_COUNT,
+            )
+            Offline(
+                id = offlineEntity.id ?: -1,
+                handle = fields[0].orEmpty(),
+                path = fields[1].orEmpty(),
+                name = fields[2].orEmpty(),
+                parentId = offlineEntity.parentId ?: -1,
+                type = fields[3].orEmpty(),
+                origin = offlineEntity.incoming ?: -1,
+                handleIncoming = fields[4].orEmpty(),
+                lastModifiedTime = offlineEntity.lastModifiedTime ?: 0
+            )
+        }
+    }
+
+    private companion object {
+        const val ENCRYPTED_FIELDS_COUNT = 5
+    }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package mega.privacy.android.data.mapper.search
+
+import mega.privacy.android.domain.entity.AudioFileTypeInfo
+import mega.privacy.android.domain.entity.FileTypeInfo
+import mega.privacy.android.domain.entity.ImageFileTypeInfo
+import mega.privacy.android.domain.entity.VideoFileTypeInfo
+import mega.privacy.android.domain.entity.search.SearchCategory
+import javax.inject.Inject
+
+/**
+ * Mapper to map the [FileTypeInfo] of a file to the [SearchCategory] it is found in
+ *
+ * Documents are not mapped, as the SDK considers many more extensions documents than the
+ * [FileTypeInfo] of a file reveals.
+ */
+class FileTypeSearchCategoryMapper @Inject constructor() {
+    /**
+     *  Invoke
+     *
+     *  @param fileTypeInfo [FileTypeInfo]
+     *  @return [SearchCategory], [SearchCategory.ALL] if the file is not an image, video or audio
+     */
+    operator fun invoke(fileTypeInfo: FileTypeInfo): SearchCategory = when (fileTypeInfo) {
+        is ImageFileTypeInfo -> SearchCategory.IMAGES
+        is VideoFileTypeInfo -> SearchCategory.VIDEO
+        is AudioFileTypeInfo -> SearchCategory.AUDIO
+        else -> SearchCategory.ALL
+    }
+}
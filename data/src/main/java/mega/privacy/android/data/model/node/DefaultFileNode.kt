@@ -14,7 +14,7 @@ internal data class DefaultFileNode(
     override val label: Int,
     override val creationTime: Long,
     override val modificationTime: Long,
-    override val hasVersion: Boolean,
+    private val lazyHasVersion: LazyNodeAttribute<Boolean>,
     override val type: FileTypeInfo,
     override val thumbnailPath: String? = null,
     override val previewPath: String? = null,
@@ -30,4 +30,6 @@ internal data class DefaultFileNode(
     override val hasPreview: Boolean,
     override val serializedData: String?,
     override val isAvailableOffline: Boolean
-) : FileNode
+) : FileNode {
+    override val hasVersion get() = lazyHasVersion.value
+}
@@ -12,13 +12,13 @@ internal data class DefaultFolderNode(
     override val parentId: NodeId,
     override val base64Id: String,
     override val label: Int,
-    override val hasVersion: Boolean,
+    private val lazyHasVersion: LazyNodeAttribute<Boolean>,
     override val childFolderCount: Int,
     override val childFileCount: Int,
     override val isFavourite: Boolean,
     override val exportedData: ExportedData?,
     override val isTakenDown: Boolean,
-    override val isInRubbishBin: Boolean,
+    private val lazyIsInRubbishBin: LazyNodeAttribute<Boolean>,
     override val isIncomingShare: Boolean,
     override val isShared: Boolean,
     override val isPendingShare: Boolean,
@@ -28,4 +28,7 @@ internal data class DefaultFolderNode(
     override val fetchChildren: suspend (SortOrder) -> List<UnTypedNode>,
     override val serializedData: String?,
     override val isAvailableOffline: Boolean
-) : FolderNode
\ No newline at end of file
+) : FolderNode {
+    override val hasVersion get() = lazyHasVersion.value
+    override val isInRubbishBin get() = lazyIsInRubbishBin.value
+}
@@ -0,0 +1,24 @@
+package mega.privacy.android.data.model.node
+
+import mega.privacy.android.domain.entity.search.SearchCategory
+
+/**
+ * Node as stored in the node search index
+ *
+ * @property handle handle of the node
+ * @property nameTokens hashes of the prefixes of the words of the name, separated by spaces
+ * @property parentHandle handle of the parent node
+ * @property isFolder true if the node is a folder
+ * @property searchCategory [SearchCategory] of the node, [SearchCategory.ALL] if it has none
+ * @property size size of the node, 0 for folders
+ * @property modificationTime modification time of the node in seconds, creation time for folders
+ */
+data class IndexedNode(
+    val handle: Long,
+    val nameTokens: String,
+    val parentHandle: Long,
+    val isFolder: Boolean,
+    val searchCategory: SearchCategory,
+    val size: Long,
+    val modificationTime: Long,
+)
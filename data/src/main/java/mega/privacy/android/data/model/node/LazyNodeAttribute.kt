@@ -0,0 +1,27 @@
+package mega.privacy.android.data.model.node
+
+/**
+ * Node attribute that is only read from the SDK when first accessed
+ *
+ * Comparing, hashing or printing an attribute never reads it, as nodes are compared on the main
+ * thread, e.g. by state flows. Attributes are left out of the equality of the nodes holding them,
+ * which compare on their eagerly read fields instead.
+ *
+ * @param initializer reads the value of the attribute
+ */
+internal class LazyNodeAttribute<T : Any>(initializer: () -> T) {
+
+    private val lazyValue = lazy(initializer)
+
+    /**
+     * Value of the attribute, read on first access
+     */
+    val value: T by lazyValue
+
+    override fun equals(other: Any?) = other is LazyNodeAttribute<*>
+
+    override fun hashCode() = 0
+
+    override fun toString() =
+        if (lazyValue.isInitialized()) lazyValue.value.toString() else "<not read>"
+}
@@ -5,6 +5,7 @@ import androidx.datastore.preferences.core.MutablePreferences
 import androidx.datastore.preferences.core.Preferences
 import androidx.datastore.preferences.core.edit
 import androidx.datastore.preferences.core.stringPreferencesKey
+import com.google.gson.Gson
 import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.firstOrNull
 import kotlinx.coroutines.flow.flowOf
@@ -13,6 +14,9 @@ import mega.privacy.android.data.cryptography.DecryptData
 import mega.privacy.android.data.cryptography.EncryptData
 import mega.privacy.android.data.extensions.monitor
 import mega.privacy.android.data.gateway.preferences.CameraUploadsSettingsPreferenceGateway
+import mega.privacy.android.domain.entity.MediaStoreFileType
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
+import mega.privacy.android.domain.entity.camerauploads.MediaStoreScanWatermark
 import javax.inject.Inject
 import javax.inject.Named
 
@@ -347,6 +351,41 @@ internal class CameraUploadsSettingsPreferenceDataStore(
         }
     }
 
+    override suspend fun getMediaStoreScanWatermark(
+        folderType: CameraUploadFolderType,
+        mediaStoreFileType: MediaStoreFileType,
+    ): MediaStoreScanWatermark? {
+        return getPreferenceFlow()
+            .monitor(mediaStoreScanWatermarkKey(folderType, mediaStoreFileType))
+            .map { value ->
+                decryptData(value)?.let {
+                    runCatching { Gson().fromJson(it, MediaStoreScanWatermark::class.java) }
+                        .getOrNull()
+                }
+            }.firstOrNull()
+    }
+
+    override suspend fun setMediaStoreScanWatermark(
+        folderType: CameraUploadFolderType,
+        mediaStoreFileType: MediaStoreFileType,
+        watermark: MediaStoreScanWatermark?,
+    ) {
+        val key = mediaStoreScanWatermarkKey(folderType, mediaStoreFileType)
+        val encryptedValue = watermark?.let { encryptData(Gson().toJson(it)) }
+        editPreferences {
+            if (encryptedValue == null) {
+                it.remove(key)
+            } else {
+                it[key] = encryptedValue
+            }
+        }
+    }
+
+    private fun mediaStoreScanWatermarkKey(
+        folderType: CameraUploadFolderType,
+        mediaStoreFileType: MediaStoreFileType,
+    ) = stringPreferencesKey("mediaStoreScanWatermarkKey_${folderType.name}_${mediaStoreFileType.name}")
+
     override suspend fun clearPreferences() {
         editPreferences {
             it.clear()
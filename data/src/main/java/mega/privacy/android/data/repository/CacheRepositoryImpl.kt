@@ -2,7 +2,9 @@ package mega.privacy.android.data.repository
 
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.withContext
+import mega.privacy.android.data.cache.ThumbnailPreviewDiskCache
 import mega.privacy.android.data.gateway.CacheFolderGateway
+import mega.privacy.android.domain.entity.cache.DiskCacheMetrics
 import mega.privacy.android.domain.qualifier.IoDispatcher
 import mega.privacy.android.domain.repository.CacheRepository
 import javax.inject.Inject
@@ -13,6 +15,7 @@ import javax.inject.Inject
 internal class CacheRepositoryImpl @Inject constructor(
     private val cacheFolderGateway: CacheFolderGateway,
     @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
+    private val thumbnailPreviewDiskCache: ThumbnailPreviewDiskCache,
 ) : CacheRepository {
     override suspend fun getCacheSize(): Long = withContext(ioDispatcher) {
         cacheFolderGateway.getCacheSize()
@@ -20,5 +23,12 @@ internal class CacheRepositoryImpl @Inject constructor(
 
     override suspend fun clearCache() = withContext(ioDispatcher) {
         cacheFolderGateway.clearCache()
+        thumbnailPreviewDiskCache.invalidate()
     }
+
+    override suspend fun getThumbnailCacheMetrics(): DiskCacheMetrics =
+        thumbnailPreviewDiskCache.getMetrics(ThumbnailPreviewDiskCache.Folder.Thumbnail)
+
+    override suspend fun getPreviewCacheMetrics(): DiskCacheMetrics =
+        thumbnailPreviewDiskCache.getMetrics(ThumbnailPreviewDiskCache.Folder.Preview)
 }
\ No newline at end of file
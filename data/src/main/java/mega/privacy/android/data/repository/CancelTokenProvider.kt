@@ -48,6 +48,19 @@ internal class CancelTokenProvider @Inject constructor(
         invalidateCurrentToken()
     }
 
+    /**
+     * Cancel the given cancel token, and invalidates it if it is the current one, so that a token
+     * created for a newer query is not cancelled
+     *
+     * @param megaCancelToken [MegaCancelToken] previously returned by this provider
+     */
+    suspend fun cancelToken(megaCancelToken: MegaCancelToken) {
+        megaCancelToken.cancel()
+        mutex.withLock {
+            if (this.megaCancelToken === megaCancelToken) this.megaCancelToken = null
+        }
+    }
+
     /**
      * Invalidates the current token, it won't be accessible anymore but won't be cancelled
      */
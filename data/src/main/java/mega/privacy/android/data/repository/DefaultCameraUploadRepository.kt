@@ -55,6 +55,7 @@ import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUploadStatus
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsSettingsAction
 import mega.privacy.android.domain.entity.camerauploads.HeartbeatStatus
+import mega.privacy.android.domain.entity.camerauploads.MediaStoreScanWatermark
 import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.settings.camerauploads.UploadOption
 import mega.privacy.android.domain.qualifier.IoDispatcher
@@ -784,6 +785,57 @@ internal class DefaultCameraUploadRepository @Inject constructor(
     override fun getMediaSelectionQuery(parentPath: String): String =
         cameraUploadsMediaGateway.getMediaSelectionQuery(parentPath)
 
+    override fun getIncrementalMediaSelectionQuery(
+        parentPath: String,
+        watermark: MediaStoreScanWatermark,
+    ): String = cameraUploadsMediaGateway.getIncrementalMediaSelectionQuery(parentPath, watermark)
+
+    override suspend fun getCurrentMediaStoreScanWatermark(
+        mediaStoreFileType: MediaStoreFileType,
+        parentPath: String,
+    ): MediaStoreScanWatermark = withContext(ioDispatcher) {
+        cameraUploadsMediaGateway.getCurrentMediaStoreScanWatermark(
+            mediaStoreFileTypeUriMapper(mediaStoreFileType),
+            parentPath,
+        )
+    }
+
+    override suspend fun getMediaStoreScanWatermark(
+        folderType: CameraUploadFolderType,
+        mediaStoreFileType: MediaStoreFileType,
+    ): MediaStoreScanWatermark? = withContext(ioDispatcher) {
+        cameraUploadsSettingsPreferenceGateway.getMediaStoreScanWatermark(
+            folderType,
+            mediaStoreFileType,
+        )
+    }
+
+    override suspend fun setMediaStoreScanWatermark(
+        folderType: CameraUploadFolderType,
+        mediaStoreFileType: MediaStoreFileType,
+        watermark: MediaStoreScanWatermark,
+    ) = withContext(ioDispatcher) {
+        cameraUploadsSettingsPreferenceGateway.setMediaStoreScanWatermark(
+            folderType,
+            mediaStoreFileType,
+            watermark,
+        )
+    }
+
+    override suspend fun clearMediaStoreScanWatermarks(
+        folderTypes: List<CameraUploadFolderType>,
+    ) = withContext(ioDispatcher) {
+        folderTypes.forEach { folderType ->
+            MediaStoreFileType.values().forEach { mediaStoreFileType ->
+                cameraUploadsSettingsPreferenceGateway.setMediaStoreScanWatermark(
+                    folderType,
+                    mediaStoreFileType,
+                    null,
+                )
+            }
+        }
+    }
+
     override suspend fun insertOrUpdateCameraUploadsRecords(records: List<CameraUploadsRecord>) =
         withContext(ioDispatcher) {
             megaLocalRoomGateway.insertOrUpdateCameraUploadsRecords(records)
@@ -831,10 +883,38 @@ internal class DefaultCameraUploadRepository @Inject constructor(
         )
     }
 
+    override suspend fun setRecordGpsCoordinates(
+        mediaId: Long,
+        timestamp: Long,
+        folderType: CameraUploadFolderType,
+        latitude: Float,
+        longitude: Float,
+    ) = withContext(ioDispatcher) {
+        megaLocalRoomGateway.setCameraUploadsRecordGpsCoordinates(
+            mediaId,
+            timestamp,
+            folderType,
+            latitude,
+            longitude,
+        )
+    }
+
     override suspend fun clearRecords(
         folderTypes: List<CameraUploadFolderType>,
     ) = withContext(ioDispatcher) {
         megaLocalRoomGateway.deleteCameraUploadsRecords(folderTypes)
+        clearMediaStoreScanWatermarks(folderTypes)
+    }
+
+    override suspend fun getFileNodeIdsByFingerprint(
+        folderNodeId: NodeId,
+    ): Map<String, NodeId> = withContext(ioDispatcher) {
+        megaApiGateway.getMegaNodeByHandle(folderNodeId.longValue)
+            ?.let { folder ->
+                megaApiGateway.getFileHandlesByFingerprint(folder)
+                    .mapValues { (_, handle) -> NodeId(handle) }
+            }
+            ?: emptyMap()
     }
 
     private companion object {
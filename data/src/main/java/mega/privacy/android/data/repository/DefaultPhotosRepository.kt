@@ -1,5 +1,7 @@
 package mega.privacy.android.data.repository
 
+import android.content.Context
+import dagger.hilt.android.qualifiers.ApplicationContext
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.ExperimentalCoroutinesApi
@@ -18,7 +20,10 @@ import kotlinx.coroutines.flow.onEach
 import kotlinx.coroutines.flow.update
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.suspendCancellableCoroutine
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
 import kotlinx.coroutines.withContext
+import mega.privacy.android.data.cache.MemoryCache
 import mega.privacy.android.data.constant.CacheFolderConstant
 import mega.privacy.android.data.extensions.decodeBase64
 import mega.privacy.android.data.extensions.failWithError
@@ -28,6 +33,7 @@ import mega.privacy.android.data.extensions.getRequestListener
 import mega.privacy.android.data.extensions.getThumbnailFileName
 import mega.privacy.android.data.extensions.getValueFor
 import mega.privacy.android.data.extensions.toException
+import mega.privacy.android.data.gateway.AppEventGateway
 import mega.privacy.android.data.gateway.CacheGateway
 import mega.privacy.android.data.gateway.FileGateway
 import mega.privacy.android.data.gateway.MegaLocalRoomGateway
@@ -68,7 +74,9 @@ import nz.mega.sdk.MegaApiJava
 import nz.mega.sdk.MegaCancelToken
 import nz.mega.sdk.MegaError
 import nz.mega.sdk.MegaNode
+import timber.log.Timber
 import java.io.File
+import java.util.concurrent.ConcurrentHashMap
 import javax.inject.Inject
 import javax.inject.Singleton
 import kotlin.coroutines.resumeWithException
@@ -105,8 +113,21 @@ internal class DefaultPhotosRepository @Inject constructor(
     private val megaLocalRoomGateway: MegaLocalRoomGateway,
     private val cameraUploadsSettingsPreferenceGateway: CameraUploadsSettingsPreferenceGateway,
     private val sortOrderIntMapper: SortOrderIntMapper,
+    private val appEventGateway: AppEventGateway,
+    @ApplicationContext context: Context,
 ) : PhotosRepository {
-    private val photosCache: MutableMap<NodeId, Photo> = mutableMapOf()
+    /**
+     * Photos already mapped, bounded as it also keeps photos that are not part of the timeline
+     */
+    private val photosCache = MemoryCache<NodeId, Photo>(
+        maxBytes = maxCacheBytes(PHOTOS_CACHE_HEAP_FRACTION),
+        estimateBytes = { _, photo -> estimateBytes(photo) },
+    )
+
+    /**
+     * Serialises the changes of the timeline photos emitted by [monitorPhotos]
+     */
+    private val photosMutex = Mutex()
 
     private var thumbnailFolderPath: String? = null
 
@@ -118,7 +139,18 @@ internal class DefaultPhotosRepository @Inject constructor(
 
     private val refreshImageNodesFlow: MutableStateFlow<Boolean> = MutableStateFlow(true)
 
-    private val imageNodesCache: MutableMap<NodeId, ImageNode> = mutableMapOf()
+    /**
+     * Nodes of the timeline image nodes emitted by [monitorImageNodes]
+     */
+    private val timelineNodeIds: MutableSet<NodeId> = ConcurrentHashMap.newKeySet()
+
+    /**
+     * Timeline image nodes already mapped. An evicted node is mapped again when it is needed
+     */
+    private val imageNodesCache = MemoryCache<NodeId, ImageNode>(
+        maxBytes = maxCacheBytes(IMAGE_NODES_CACHE_HEAP_FRACTION),
+        estimateBytes = { _, imageNode -> estimateBytes(imageNode) },
+    )
 
     private val photosRefreshRules = listOf(
         NodeChanges.New,
@@ -126,32 +158,112 @@ internal class DefaultPhotosRepository @Inject constructor(
         NodeChanges.Attributes,
         NodeChanges.Parent,
         NodeChanges.Public_link,
+        NodeChanges.Remove,
     )
 
     private var monitorNodeUpdatesJob: Job? = null
 
+    private var monitorFetchNodesFinishJob: Job? = null
+
     private var refreshPhotosJob: Job? = null
 
     @Volatile
     private var isMonitoringInitiated: Boolean = false
 
+    init {
+        context.registerComponentCallbacks(photosCache)
+        context.registerComponentCallbacks(imageNodesCache)
+    }
+
     private fun monitorNodeUpdates() {
         monitorNodeUpdatesJob?.cancel()
         monitorNodeUpdatesJob = nodeRepository.monitorNodeUpdates()
             .onEach { nodeUpdate ->
-                appScope.launch {
-                    val nodes = nodeUpdate.changes.keys.toList()
-                    nodes.forEach { photosCache.remove(it.id) }
+                nodeUpdate.changes.keys.forEach { photosCache.remove(it.id) }
+
+                val changedNodeIds = nodeUpdate.changes
+                    .filterValues { changes -> changes.any { it in photosRefreshRules } }
+                    .keys
+                    .map { it.id }
+                if (changedNodeIds.isNotEmpty()) {
+                    updatePhotosIncrementally(changedNodeIds)
                 }
+            }.launchIn(appScope)
+    }
+
+    /**
+     * A full refresh is only needed once the nodes are fetched again, node updates are applied
+     * incrementally by [updatePhotosIncrementally]
+     */
+    private fun monitorFetchNodesFinish() {
+        monitorFetchNodesFinishJob?.cancel()
+        monitorFetchNodesFinishJob = appEventGateway.monitorFetchNodesFinish()
+            .filter { it }
+            .onEach { refreshPhotos() }
+            .launchIn(appScope)
+    }
+
+    /**
+     * Apply node changes to the photos already loaded, without searching all the photos again
+     *
+     * Changed nodes that are still valid photos of the cloud drive are mapped again and inserted
+     * at their position in the timeline, the rest are removed. Changes received before the first
+     * full refresh are ignored, as that refresh already includes them.
+     *
+     * @param nodeIds ids of the changed nodes
+     */
+    private suspend fun updatePhotosIncrementally(nodeIds: List<NodeId>) =
+        withContext(ioDispatcher) {
+            if (photosStateFlow.value == null) return@withContext
+
+            val changedNodes = nodeIds.associateWith { nodeId ->
+                getMegaNode(nodeId)?.takeIf { isTimelineNode(it) }
+            }
+
+            photosMutex.withLock {
+                // The cache may have been cleared while the changed nodes were fetched
+                if (!isMonitoringInitiated) return@withContext
+                val loadedPhotos = photosStateFlow.value ?: return@withContext
+
+                val updatedPhotos = mutableListOf<Photo>()
+                for ((nodeId, megaNode) in changedNodes) {
+                    if (megaNode == null) {
+                        timelineNodeIds.remove(nodeId)
+                        imageNodesCache.remove(nodeId)
+                        continue
+                    }
 
-                appScope.launch {
-                    val changes = nodeUpdate.changes.values
-                    if (changes.flatten().intersect(photosRefreshRules).isNotEmpty()) {
-                        refreshPhotos()
+                    val photo = if (fileTypeInfoMapper(megaNode) is VideoFileTypeInfo) {
+                        mapMegaNodeToVideo(megaNode)
+                    } else {
+                        mapMegaNodeToImage(megaNode)
                     }
+                    updatedPhotos.add(photo)
+                    photosCache[nodeId] = photo
+                    timelineNodeIds.add(nodeId)
+                    imageNodesCache[nodeId] = mapImageNode(megaNode)
                 }
-            }.launchIn(appScope)
-    }
+
+                val photos = loadedPhotos.filterNotTo(mutableListOf()) {
+                    NodeId(it.id) in changedNodes
+                }
+                for (photo in updatedPhotos) {
+                    val index = photos.binarySearch(photo, timelineOrder)
+                    photos.add(if (index < 0) -(index + 1) else index, photo)
+                }
+                photosStateFlow.update { photos }
+            }
+
+            refreshImageNodesFlow.update { false }
+            refreshImageNodesFlow.update { true }
+        }
+
+    /**
+     * Check if the node belongs to the timeline, with the same rules as the full refresh, which
+     * only searches the cloud drive
+     */
+    private suspend fun isTimelineNode(node: MegaNode) =
+        (isImageNodeValid(node) || isVideoNodeValid(node)) && megaApiFacade.isInCloudDrive(node)
 
     private fun monitorRefreshPhotos() {
         refreshPhotosJob?.cancel()
@@ -175,11 +287,16 @@ internal class DefaultPhotosRepository @Inject constructor(
             async { videoNodes.map { mapMegaNodeToVideo(it) } },
         ).flatten()
 
-        for (photo in photos) {
-            photosCache[NodeId(photo.id)] = photo
-        }
+        photosMutex.withLock {
+            // The cache may have been cleared while the photos were mapped
+            if (!isMonitoringInitiated) return@launch
 
-        photosStateFlow.update { photos }
+            for (photo in photos) {
+                photosCache[NodeId(photo.id)] = photo
+            }
+
+            photosStateFlow.update { photos }
+        }
         refreshPhotosStateFlow.value = false
     }
 
@@ -200,6 +317,7 @@ internal class DefaultPhotosRepository @Inject constructor(
 
         refreshImageNodesFlow.update { false }
         for (node in nodes) {
+            timelineNodeIds.add(node.id)
             imageNodesCache[node.id] = node
         }
 
@@ -211,6 +329,7 @@ internal class DefaultPhotosRepository @Inject constructor(
             isMonitoringInitiated = true
 
             monitorNodeUpdates()
+            monitorFetchNodesFinish()
             monitorRefreshPhotos()
         }
         return photosStateFlow.filterNotNull()
@@ -583,18 +702,26 @@ internal class DefaultPhotosRepository @Inject constructor(
         }
     }
 
-    override fun clearCache() {
+    override suspend fun clearCache() {
         monitorNodeUpdatesJob?.cancel()
         monitorNodeUpdatesJob = null
 
+        monitorFetchNodesFinishJob?.cancel()
+        monitorFetchNodesFinishJob = null
+
         refreshPhotosJob?.cancel()
         refreshPhotosJob = null
 
-        isMonitoringInitiated = false
-        photosCache.clear()
-        imageNodesCache.clear()
+        // Cancelling does not wait for an update in flight, which checks the flag under the lock
+        photosMutex.withLock {
+            isMonitoringInitiated = false
+            Timber.d("Clearing photos cache: $photosCache, image nodes cache: $imageNodesCache")
+            photosCache.evictAll()
+            timelineNodeIds.clear()
+            imageNodesCache.evictAll()
 
-        photosStateFlow.value = null
+            photosStateFlow.value = null
+        }
         refreshPhotosStateFlow.value = true
         refreshImageNodesFlow.value = true
     }
@@ -725,9 +852,23 @@ internal class DefaultPhotosRepository @Inject constructor(
 
     override fun monitorImageNodes(): Flow<List<ImageNode>> = refreshImageNodesFlow
         .filter { it }
-        .mapLatest { imageNodesCache.values.toList() }
+        .mapLatest { timelineNodeIds.mapNotNull { getImageNode(it) } }
+
+    override suspend fun getImageNode(nodeId: NodeId): ImageNode? =
+        imageNodesCache[nodeId]
+            ?: nodeId.takeIf { it in timelineNodeIds }?.let {
+                withContext(ioDispatcher) {
+                    getMegaNode(nodeId)?.let { mapImageNode(it) }
+                        ?.also { imageNodesCache[nodeId] = it }
+                }
+            }
 
-    override suspend fun getImageNode(nodeId: NodeId) = imageNodesCache[nodeId]
+    private suspend fun mapImageNode(megaNode: MegaNode) = imageNodeMapper(
+        megaNode = megaNode,
+        hasVersion = megaApiFacade::hasVersion,
+        requireSerializedData = true,
+        offline = megaLocalRoomGateway.getOfflineInformation(megaNode.handle),
+    )
 
     override suspend fun getMediaDiscoveryNodes(
         parentId: NodeId,
@@ -827,4 +968,41 @@ internal class DefaultPhotosRepository @Inject constructor(
         return megaApiFacade.getMegaNodeByHandle(nodeHandle = nodeId.longValue)
     }
 
+    companion object {
+        /**
+         * Fractions of the maximum heap the photos and the image nodes caches may use
+         */
+        private const val PHOTOS_CACHE_HEAP_FRACTION = 32
+        private const val IMAGE_NODES_CACHE_HEAP_FRACTION = 16
+
+        /**
+         * Estimated size in bytes of the objects and fields of a photo or an image node, without
+         * their strings
+         */
+        private const val PHOTO_BASE_BYTES = 320
+        private const val IMAGE_NODE_BASE_BYTES = 640
+
+        private fun maxCacheBytes(heapFraction: Int) =
+            (Runtime.getRuntime().maxMemory() / heapFraction)
+                .coerceAtMost(Int.MAX_VALUE.toLong()).toInt()
+
+        private fun estimateBytes(photo: Photo) = with(photo) {
+            PHOTO_BASE_BYTES + stringBytes(name, thumbnailFilePath, previewFilePath)
+        }
+
+        private fun estimateBytes(imageNode: ImageNode) = with(imageNode) {
+            IMAGE_NODE_BASE_BYTES + stringBytes(name, base64Id, fingerprint, serializedData)
+        }
+
+        private fun stringBytes(vararg strings: String?) =
+            strings.sumOf { it?.length ?: 0 } * Char.SIZE_BYTES
+
+        /**
+         * Order of the photos emitted by [monitorPhotos]: the images, then the videos, each sorted
+         * like [MegaApiAndroid.ORDER_MODIFICATION_DESC]
+         */
+        private val timelineOrder = compareBy<Photo> { it is Photo.Video }
+            .thenByDescending { it.modificationTime }
+    }
+
 }
@@ -10,22 +10,16 @@ import kotlinx.coroutines.flow.asStateFlow
 import kotlinx.coroutines.flow.callbackFlow
 import kotlinx.coroutines.flow.cancellable
 import kotlinx.coroutines.flow.combine
-import kotlinx.coroutines.flow.emitAll
 import kotlinx.coroutines.flow.firstOrNull
-import kotlinx.coroutines.flow.flow
 import kotlinx.coroutines.flow.flowOn
 import kotlinx.coroutines.flow.map
 import kotlinx.coroutines.flow.mapNotNull
 import kotlinx.coroutines.flow.merge
-import kotlinx.coroutines.flow.update
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.suspendCancellableCoroutine
-import kotlinx.coroutines.sync.Mutex
-import kotlinx.coroutines.sync.withLock
 import kotlinx.coroutines.withContext
 import mega.privacy.android.data.extensions.failWithError
 import mega.privacy.android.data.extensions.getRequestListener
-import mega.privacy.android.data.extensions.isBackgroundTransfer
 import mega.privacy.android.data.gateway.AppEventGateway
 import mega.privacy.android.data.gateway.MegaLocalRoomGateway
 import mega.privacy.android.data.gateway.MegaLocalStorageGateway
@@ -34,7 +28,6 @@ import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.listener.OptionalMegaRequestListenerInterface
 import mega.privacy.android.data.listener.OptionalMegaTransferListenerInterface
 import mega.privacy.android.data.mapper.node.MegaNodeMapper
-import mega.privacy.android.data.mapper.transfer.AppDataTypeConstants
 import mega.privacy.android.data.mapper.transfer.CompletedTransferMapper
 import mega.privacy.android.data.mapper.transfer.PausedTransferEventMapper
 import mega.privacy.android.data.mapper.transfer.TransferAppDataStringMapper
@@ -96,6 +89,7 @@ internal class DefaultTransfersRepository @Inject constructor(
     private val completedTransferMapper: CompletedTransferMapper,
     private val cancelTokenProvider: CancelTokenProvider,
     private val megaNodeMapper: MegaNodeMapper,
+    private val pendingTransfersCounter: PendingTransfersCounter,
 ) : TransferRepository {
 
     private val monitorPausedTransfers = MutableStateFlow(false)
@@ -103,8 +97,8 @@ internal class DefaultTransfersRepository @Inject constructor(
     /**
      * to store current transferred bytes in memory instead of in database
      */
-    private val transferredBytesFlows =
-        HashMap<TransferType, MutableStateFlow<Map<Int, Long>>>()
+    private val transferredBytesAccumulators =
+        TransferType.values().associateWith { TransferredBytesAccumulator() }
 
     init {
         //pause transfers if db indicates it should be paused
@@ -226,86 +220,42 @@ internal class DefaultTransfersRepository @Inject constructor(
         }
     }
 
-    private suspend fun getUploadTransfers(): List<MegaTransfer> = withContext(ioDispatcher) {
-        megaApiGateway.getTransfers(MegaTransfer.TYPE_UPLOAD)
-    }
+    override suspend fun getNumPendingDownloadsNonBackground(): Int =
+        pendingTransfersCounter.count(PendingTransfersCounter.Category.Downloads)
 
-    private suspend fun getDownloadTransfers(): List<MegaTransfer> = withContext(ioDispatcher) {
-        megaApiGateway.getTransfers(MegaTransfer.TYPE_DOWNLOAD)
-    }
+    override suspend fun getNumPendingUploads(): Int =
+        pendingTransfersCounter.count(PendingTransfersCounter.Category.Uploads)
 
-    override suspend fun getNumPendingDownloadsNonBackground(): Int = withContext(ioDispatcher) {
-        getDownloadTransfers().count { transfer ->
-            !transfer.isFinished && !transfer.isBackgroundTransfer()
-        }
-    }
+    override suspend fun getNumPendingGeneralUploads() =
+        pendingTransfersCounter.count(PendingTransfersCounter.Category.GeneralUploads)
 
-    override suspend fun getNumPendingUploads(): Int = withContext(ioDispatcher) {
-        getUploadTransfers().count { transfer -> !transfer.isFinished }
-    }
+    override suspend fun getNumPendingCameraUploads() =
+        pendingTransfersCounter.count(PendingTransfersCounter.Category.CameraUploads)
 
-    override suspend fun getNumPendingGeneralUploads() = withContext(ioDispatcher) {
-        getUploadTransfers().count { transfer ->
-            !transfer.isFinished && !transfer.isCUUpload() && !transfer.isChatUpload()
-        }
-    }
+    override suspend fun getNumPendingChatUploads() =
+        pendingTransfersCounter.count(PendingTransfersCounter.Category.ChatUploads)
 
-    override suspend fun getNumPendingCameraUploads() = withContext(ioDispatcher) {
-        getUploadTransfers().count { transfer ->
-            !transfer.isFinished && transfer.isCUUpload()
-        }
-    }
-
-    override suspend fun getNumPendingChatUploads() = withContext(ioDispatcher) {
-        getUploadTransfers().count { transfer ->
-            !transfer.isFinished && transfer.isChatUpload()
-        }
-    }
-
-    override suspend fun getNumPendingTransfers(): Int = withContext(ioDispatcher) {
+    override suspend fun getNumPendingTransfers(): Int =
         getNumPendingDownloadsNonBackground() + getNumPendingUploads()
-    }
 
     override suspend fun isCompletedTransfersEmpty(): Boolean = withContext(ioDispatcher) {
         megaLocalRoomGateway.getCompletedTransfersCount() == 0
     }
 
-    override suspend fun getNumPendingPausedUploads(): Int = withContext(ioDispatcher) {
-        getUploadTransfers().count { transfer ->
-            !transfer.isFinished && transfer.state == MegaTransfer.STATE_PAUSED
-        }
-    }
-
-    override suspend fun getNumPendingPausedGeneralUploads() = withContext(ioDispatcher) {
-        getUploadTransfers().count { transfer ->
-            !transfer.isFinished && transfer.state == MegaTransfer.STATE_PAUSED
-                    && !transfer.isCUUpload() && !transfer.isChatUpload()
-        }
-    }
+    override suspend fun getNumPendingPausedUploads(): Int =
+        pendingTransfersCounter.count(PendingTransfersCounter.Category.PausedUploads)
 
-    override suspend fun getNumPendingPausedCameraUploads() = withContext(ioDispatcher) {
-        getUploadTransfers().count { transfer ->
-            !transfer.isFinished
-                    && transfer.state == MegaTransfer.STATE_PAUSED
-                    && transfer.isCUUpload()
-        }
-    }
+    override suspend fun getNumPendingPausedGeneralUploads() =
+        pendingTransfersCounter.count(PendingTransfersCounter.Category.PausedGeneralUploads)
 
-    override suspend fun getNumPendingPausedChatUploads() = withContext(ioDispatcher) {
-        getUploadTransfers().count { transfer ->
-            !transfer.isFinished
-                    && transfer.state == MegaTransfer.STATE_PAUSED
-                    && transfer.isChatUpload()
-        }
-    }
+    override suspend fun getNumPendingPausedCameraUploads() =
+        pendingTransfersCounter.count(PendingTransfersCounter.Category.PausedCameraUploads)
 
+    override suspend fun getNumPendingPausedChatUploads() =
+        pendingTransfersCounter.count(PendingTransfersCounter.Category.PausedChatUploads)
 
     override suspend fun getNumPendingNonBackgroundPausedDownloads(): Int =
-        withContext(ioDispatcher) {
-            getDownloadTransfers().count { transfer ->
-                !transfer.isFinished && !transfer.isBackgroundTransfer() && transfer.state == MegaTransfer.STATE_PAUSED
-            }
-        }
+        pendingTransfersCounter.count(PendingTransfersCounter.Category.PausedDownloads)
 
     override fun monitorTransferEvents(): Flow<TransferEvent> =
         merge(
@@ -317,6 +267,9 @@ internal class DefaultTransfersRepository @Inject constructor(
             },
         ).flowOn(ioDispatcher)
 
+    override suspend fun getTransferEventQueueMetrics() =
+        megaApiGateway.getGlobalTransferQueueMetrics()
+
     override suspend fun cancelTransferByTag(transferTag: Int) = withContext(ioDispatcher) {
         suspendCancellableCoroutine { continuation ->
             val listener = OptionalMegaRequestListenerInterface(
@@ -490,14 +443,13 @@ internal class DefaultTransfersRepository @Inject constructor(
         }
 
     override suspend fun updateTransferredBytes(transfer: Transfer) {
-        transferredBytesFlow(transfer.transferType).update {
-            it + (transfer.tag to transfer.transferredBytes)
-        }
+        transferredBytesAccumulator(transfer.transferType)
+            .update(transfer.tag, transfer.transferredBytes)
     }
 
     override suspend fun deleteAllActiveTransfersByType(transferType: TransferType) =
         withContext(ioDispatcher) {
-            transferredBytesFlow(transferType).value = mapOf()
+            transferredBytesAccumulator(transferType).clear()
             megaLocalRoomGateway.deleteAllActiveTransfersByType(transferType)
         }
 
@@ -507,22 +459,19 @@ internal class DefaultTransfersRepository @Inject constructor(
         }
 
     override fun getActiveTransferTotalsByType(transferType: TransferType): Flow<ActiveTransferTotals> =
-        flow {
-            val transferredBytesFlow = transferredBytesFlow(transferType)
-            emitAll(
-                megaLocalRoomGateway.getActiveTransfersByType(transferType).flowOn(ioDispatcher)
-                    .combine(transferredBytesFlow) { activeTransfers, transferredBytes ->
-                        activeTransferTotalsMapper(transferType, activeTransfers, transferredBytes)
-                    }
-            )
-        }.cancellable()
+        megaLocalRoomGateway.getActiveTransfersByType(transferType).flowOn(ioDispatcher)
+            .combine(
+                transferredBytesAccumulator(transferType).monitorTransferredBytes()
+            ) { activeTransfers, transferredBytes ->
+                activeTransferTotalsMapper(transferType, activeTransfers, transferredBytes)
+            }.cancellable()
 
     override suspend fun getCurrentActiveTransferTotalsByType(transferType: TransferType): ActiveTransferTotals =
         withContext(ioDispatcher) {
             activeTransferTotalsMapper(
                 type = transferType,
                 list = megaLocalRoomGateway.getCurrentActiveTransfersByType(transferType),
-                transferredBytes = transferredBytesFlow(transferType).value
+                transferredBytes = transferredBytesAccumulator(transferType).snapshot()
             )
         }
 
@@ -539,6 +488,7 @@ internal class DefaultTransfersRepository @Inject constructor(
 
         monitorPausedTransfers.emit(isPauseResponse)
         localStorageGateway.setTransferQueueStatus(isPauseResponse)
+        pendingTransfersCounter.reconcile()
         return@withContext isPauseResponse
     }
 
@@ -632,19 +582,7 @@ internal class DefaultTransfersRepository @Inject constructor(
     )
     override suspend fun getTotalDownloads() = megaApiGateway.totalDownloads
 
-    private val transferredBytesFlowMutex = Mutex()
-    private suspend fun transferredBytesFlow(transferType: TransferType): MutableStateFlow<Map<Int, Long>> {
-        transferredBytesFlowMutex.withLock {
-            return transferredBytesFlows[transferType]
-                ?: MutableStateFlow<Map<Int, Long>>(mapOf()).also {
-                    transferredBytesFlows[transferType] = it
-                }
-        }
-    }
+    private fun transferredBytesAccumulator(transferType: TransferType) =
+        transferredBytesAccumulators.getValue(transferType)
 }
 
-private fun MegaTransfer.isCUUpload() =
-    this.appData?.contains(AppDataTypeConstants.CameraUpload.sdkTypeValue) == true
-
-private fun MegaTransfer.isChatUpload() =
-    this.appData?.contains(AppDataTypeConstants.ChatUpload.sdkTypeValue) == true
@@ -7,10 +7,6 @@ import kotlinx.coroutines.async
 import kotlinx.coroutines.awaitAll
 import kotlinx.coroutines.coroutineScope
 import kotlinx.coroutines.flow.Flow
-import kotlinx.coroutines.flow.filterIsInstance
-import kotlinx.coroutines.flow.flowOn
-import kotlinx.coroutines.flow.map
-import kotlinx.coroutines.flow.mapNotNull
 import kotlinx.coroutines.suspendCancellableCoroutine
 import kotlinx.coroutines.withContext
 import mega.privacy.android.data.extensions.failWithError
@@ -27,7 +23,6 @@ import mega.privacy.android.data.listener.OptionalMegaRequestListenerInterface
 import mega.privacy.android.data.mapper.ChatFilesFolderUserAttributeMapper
 import mega.privacy.android.data.mapper.FileTypeInfoMapper
 import mega.privacy.android.data.mapper.MegaExceptionMapper
-import mega.privacy.android.data.mapper.NodeUpdateMapper
 import mega.privacy.android.data.mapper.OfflineInformationMapper
 import mega.privacy.android.data.mapper.OfflineNodeInformationMapper
 import mega.privacy.android.data.mapper.SortOrderIntMapper
@@ -37,7 +32,6 @@ import mega.privacy.android.data.mapper.node.NodeShareKeyResultMapper
 import mega.privacy.android.data.mapper.shares.AccessPermissionIntMapper
 import mega.privacy.android.data.mapper.shares.AccessPermissionMapper
 import mega.privacy.android.data.mapper.shares.ShareDataMapper
-import mega.privacy.android.data.model.GlobalUpdate
 import mega.privacy.android.domain.entity.FileTypeInfo
 import mega.privacy.android.domain.entity.FolderTreeInfo
 import mega.privacy.android.domain.entity.Offline
@@ -100,7 +94,7 @@ internal class NodeRepositoryImpl @Inject constructor(
     private val fileGateway: FileGateway,
     private val chatFilesFolderUserAttributeMapper: ChatFilesFolderUserAttributeMapper,
     private val streamingGateway: StreamingGateway,
-    private val nodeUpdateMapper: NodeUpdateMapper,
+    private val nodeUpdateBus: NodeUpdateBus,
     private val accessPermissionMapper: AccessPermissionMapper,
     private val nodeShareKeyResultMapper: NodeShareKeyResultMapper,
     private val accessPermissionIntMapper: AccessPermissionIntMapper,
@@ -296,19 +290,10 @@ internal class NodeRepositoryImpl @Inject constructor(
             } ?: throw SynchronisationException("Non null node found be null when fetched from api")
         }
 
-    override fun monitorNodeUpdates(): Flow<NodeUpdate> {
-        return megaApiGateway.globalUpdates
-            .filterIsInstance<GlobalUpdate.OnNodesUpdate>()
-            .mapNotNull {
-                it.nodeList?.map { megaNode ->
-                    convertToUnTypedNode(megaNode) to nodeUpdateMapper(megaNode)
-                }
-            }
-            .map { nodes ->
-                NodeUpdate(nodes.toMap())
-            }
-            .flowOn(ioDispatcher)
-    }
+    override fun monitorNodeUpdates(): Flow<NodeUpdate> = nodeUpdateBus.nodeUpdates
+
+    override fun monitorNodeUpdatesByIds(nodeIds: Set<NodeId>): Flow<NodeUpdate> =
+        nodeUpdateBus.monitorNodeUpdates(nodeIds)
 
     override fun monitorOfflineNodeUpdates(): Flow<List<Offline>> =
         megaLocalRoomGateway.monitorOfflineUpdates()
@@ -0,0 +1,247 @@
+package mega.privacy.android.data.repository
+
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.cancelAndJoin
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.channels.produceIn
+import kotlinx.coroutines.flow.buffer
+import kotlinx.coroutines.launch
+import mega.privacy.android.data.cryptography.HashSearchToken
+import mega.privacy.android.data.gateway.MegaLocalRoomGateway
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.data.mapper.FileTypeInfoMapper
+import mega.privacy.android.data.mapper.search.FileTypeSearchCategoryMapper
+import mega.privacy.android.data.model.node.IndexedNode
+import mega.privacy.android.domain.entity.SortOrder
+import mega.privacy.android.domain.entity.node.NodeChanges
+import mega.privacy.android.domain.entity.node.NodeUpdate
+import mega.privacy.android.domain.entity.search.SearchCategory
+import mega.privacy.android.domain.qualifier.ApplicationScope
+import mega.privacy.android.domain.qualifier.IoDispatcher
+import nz.mega.sdk.MegaNode
+import java.text.Normalizer
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Full text search index of the names of the cloud drive nodes
+ *
+ * The index is built from the SDK the first time it is searched, then kept up to date with the
+ * updates of [NodeUpdateBus]. It is built again when the logged in account changes, and [clear]
+ * empties it on logout. A name matches when each searched prefix starts one of its words, words
+ * being compared without case or accents.
+ *
+ * No name is stored: each word prefix, up to [MAX_TOKEN_LENGTH] characters, is indexed as its
+ * [HashSearchToken] hash. The nodes found are checked against their names before being returned.
+ *
+ * A search returns null when the index cannot answer it, so that the SDK is searched instead.
+ */
+@Singleton
+internal class NodeSearchIndex @Inject constructor(
+    private val megaApiGateway: MegaApiGateway,
+    private val megaLocalRoomGateway: MegaLocalRoomGateway,
+    private val nodeUpdateBus: NodeUpdateBus,
+    private val fileTypeInfoMapper: FileTypeInfoMapper,
+    private val fileTypeSearchCategoryMapper: FileTypeSearchCategoryMapper,
+    private val hashSearchToken: HashSearchToken,
+    @ApplicationScope private val applicationScope: CoroutineScope,
+    @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
+) {
+    private var indexJob: Job? = null
+    private var indexingRootHandle: Long? = null
+
+    @Volatile
+    private var indexedRootHandle: Long? = null
+
+    /**
+     * Search the cloud drive nodes in the index
+     *
+     * @param prefixes prefixes of the words of the names, see [nameWords]
+     * @param searchCategory [SearchCategory] of the nodes
+     * @param modificationTimeRange range of modification times in seconds, or null for any
+     * @param order [SortOrder] of the nodes
+     * @return the matching nodes, or null if the index cannot answer the search because it is not
+     * built yet or does not support the category or order
+     */
+    suspend fun search(
+        prefixes: List<String>,
+        searchCategory: SearchCategory,
+        modificationTimeRange: LongRange?,
+        order: SortOrder,
+    ): List<MegaNode>? {
+        if (prefixes.isEmpty() || searchCategory == SearchCategory.DOCUMENTS
+            || order !in SUPPORTED_ORDERS
+        ) return null
+        val rootHandle = megaApiGateway.getRootNode()?.handle ?: return null
+        if (indexedRootHandle != rootHandle || megaLocalRoomGateway.isNodeSearchIndexEmpty()) {
+            startIndexing(rootHandle)
+            return null
+        }
+        val megaNodes = megaLocalRoomGateway.searchIndexedNodes(
+            match = prefixes.joinToString(" ") { hashSearchToken(it.take(MAX_TOKEN_LENGTH)) },
+            searchCategory = searchCategory,
+            modificationTimeRange = modificationTimeRange,
+            order = order,
+        ).mapNotNull { megaApiGateway.getMegaNodeByHandle(it) }
+            // Longer prefixes were only matched by their first characters
+            .filter { matchesPrefixes(it.name.orEmpty(), prefixes) }
+        return when (order) {
+            // Names are not stored, so the index cannot sort by name
+            SortOrder.ORDER_DEFAULT_ASC -> megaNodes.sortedWith(FOLDERS_FIRST.then(BY_NAME))
+            SortOrder.ORDER_DEFAULT_DESC ->
+                megaNodes.sortedWith(FOLDERS_FIRST.then(BY_NAME.reversed()))
+
+            else -> megaNodes
+        }
+    }
+
+    /**
+     * Stop updating the index and empty it, the next search builds it again
+     */
+    suspend fun clear() {
+        val job = synchronized(this) {
+            indexedRootHandle = null
+            indexingRootHandle = null
+            indexJob.also { indexJob = null }
+        }
+        job?.cancelAndJoin()
+        megaLocalRoomGateway.clearNodeSearchIndex()
+    }
+
+    @Synchronized
+    private fun startIndexing(rootHandle: Long) {
+        val previousJob = indexJob
+        if (previousJob?.isActive == true && indexingRootHandle == rootHandle
+            && indexedRootHandle == null
+        ) return
+
+        indexedRootHandle = null
+        indexingRootHandle = rootHandle
+        indexJob = applicationScope.launch(ioDispatcher) {
+            previousJob?.cancel()
+            previousJob?.join()
+            // Receive the updates while the index is built, so that none is missed
+            val nodeUpdates = nodeUpdateBus.nodeUpdates.buffer(Channel.UNLIMITED).produceIn(this)
+            megaLocalRoomGateway.clearNodeSearchIndex()
+            megaApiGateway.getMegaNodeByHandle(rootHandle)?.let { indexDescendants(it) }
+            indexedRootHandle = rootHandle
+            for (nodeUpdate in nodeUpdates) {
+                update(nodeUpdate)
+            }
+        }
+    }
+
+    private suspend fun indexDescendants(folder: MegaNode) {
+        val folders = ArrayDeque(listOf(folder))
+        val indexedNodes = mutableListOf<IndexedNode>()
+        while (folders.isNotEmpty()) {
+            megaApiGateway.getChildrenByNode(folders.removeFirst()).forEach { child ->
+                indexedNodes.add(indexedNode(child))
+                if (child.isFolder) folders.add(child)
+            }
+            if (indexedNodes.size >= INDEX_BATCH_SIZE || folders.isEmpty()) {
+                megaLocalRoomGateway.insertOrUpdateIndexedNodes(indexedNodes.toList())
+                indexedNodes.clear()
+            }
+        }
+    }
+
+    private suspend fun update(nodeUpdate: NodeUpdate) {
+        val removedHandles = mutableListOf<Long>()
+        val updatedNodes = mutableListOf<IndexedNode>()
+        val movedFolders = mutableListOf<MegaNode>()
+        nodeUpdate.changes.forEach { (node, changes) ->
+            val megaNode = megaApiGateway.getMegaNodeByHandle(node.id.longValue)
+                ?.takeIf { NodeChanges.Remove !in changes && megaApiGateway.isInCloudDrive(it) }
+            if (megaNode == null) {
+                removedHandles.add(node.id.longValue)
+            } else {
+                updatedNodes.add(indexedNode(megaNode))
+                // The descendants of a folder moved into the cloud drive have no update
+                if (megaNode.isFolder && NodeChanges.Parent in changes) movedFolders.add(megaNode)
+            }
+        }
+        if (removedHandles.isNotEmpty()) megaLocalRoomGateway.deleteIndexedNodes(removedHandles)
+        if (updatedNodes.isNotEmpty()) megaLocalRoomGateway.insertOrUpdateIndexedNodes(updatedNodes)
+        movedFolders.forEach { indexDescendants(it) }
+    }
+
+    private fun indexedNode(megaNode: MegaNode) = IndexedNode(
+        handle = megaNode.handle,
+        nameTokens = nameTokens(megaNode.name.orEmpty()),
+        parentHandle = megaNode.parentHandle,
+        isFolder = megaNode.isFolder,
+        searchCategory = if (megaNode.isFolder) {
+            SearchCategory.ALL
+        } else {
+            fileTypeSearchCategoryMapper(fileTypeInfoMapper(megaNode))
+        },
+        size = if (megaNode.isFolder) 0 else megaNode.size,
+        modificationTime = modificationTime(megaNode),
+    )
+
+    private fun nameTokens(name: String) = nameWords(name)
+        .flatMap { word -> (1..minOf(word.length, MAX_TOKEN_LENGTH)).map { word.take(it) } }
+        .distinct()
+        .joinToString(" ") { hashSearchToken(it) }
+
+    companion object {
+        /**
+         * Orders the index can sort by, folders first as the SDK does
+         */
+        val SUPPORTED_ORDERS = setOf(
+            SortOrder.ORDER_DEFAULT_ASC,
+            SortOrder.ORDER_DEFAULT_DESC,
+            SortOrder.ORDER_SIZE_ASC,
+            SortOrder.ORDER_SIZE_DESC,
+            SortOrder.ORDER_MODIFICATION_ASC,
+            SortOrder.ORDER_MODIFICATION_DESC,
+        )
+
+        /**
+         * Maximum number of nodes inserted at once while the index is built
+         */
+        private const val INDEX_BATCH_SIZE = 1000
+
+        /**
+         * Length of the longest word prefix indexed
+         */
+        const val MAX_TOKEN_LENGTH = 12
+
+        private val FOLDERS_FIRST = compareByDescending<MegaNode> { it.isFolder }
+        private val BY_NAME =
+            compareBy<MegaNode, String>(String.CASE_INSENSITIVE_ORDER) { it.name.orEmpty() }
+
+        private val ACCENTS = Regex("\\p{M}+")
+        private val WORD_SEPARATORS = Regex("[^\\p{L}\\p{N}]+")
+
+        /**
+         * Words of a text as the index tokenizes them, lower case and without accents
+         */
+        fun nameWords(text: String): List<String> =
+            Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replace(ACCENTS, "")
+                .lowercase()
+                .split(WORD_SEPARATORS)
+                .filter { it.isNotEmpty() }
+
+        /**
+         * Check if each of the prefixes starts a word of the name, as the index matches them
+         *
+         * @param name name of the node
+         * @param prefixes prefixes, see [nameWords]
+         */
+        fun matchesPrefixes(name: String, prefixes: List<String>): Boolean {
+            val words = nameWords(name)
+            return prefixes.all { prefix -> words.any { it.startsWith(prefix) } }
+        }
+
+        /**
+         * Modification time of a node as indexed, the creation time for folders
+         */
+        fun modificationTime(megaNode: MegaNode): Long =
+            if (megaNode.isFolder) megaNode.creationTime else megaNode.modificationTime
+    }
+}
@@ -0,0 +1,93 @@
+package mega.privacy.android.data.repository
+
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.channels.produceIn
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.SharingStarted
+import kotlinx.coroutines.flow.buffer
+import kotlinx.coroutines.flow.channelFlow
+import kotlinx.coroutines.flow.filterIsInstance
+import kotlinx.coroutines.flow.flowOn
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.flow.mapNotNull
+import kotlinx.coroutines.flow.shareIn
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.data.mapper.NodeUpdateMapper
+import mega.privacy.android.data.mapper.node.NodeMapper
+import mega.privacy.android.data.model.GlobalUpdate
+import mega.privacy.android.domain.entity.node.Node
+import mega.privacy.android.domain.entity.node.NodeChanges
+import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.node.NodeUpdate
+import mega.privacy.android.domain.qualifier.ApplicationScope
+import mega.privacy.android.domain.qualifier.IoDispatcher
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Single source of the node updates, shared by all the subscribers
+ *
+ * Each batch of updated nodes received from the SDK is mapped once, however many subscribers
+ * there are. A batch is emitted as soon as it is mapped, merged with the batches already waiting
+ * behind it into a single [NodeUpdate], with the latest state of each node and all its changes.
+ */
+@Singleton
+internal class NodeUpdateBus @Inject constructor(
+    megaApiGateway: MegaApiGateway,
+    private val nodeMapper: NodeMapper,
+    private val nodeUpdateMapper: NodeUpdateMapper,
+    @ApplicationScope sharingScope: CoroutineScope,
+    @IoDispatcher ioDispatcher: CoroutineDispatcher,
+) {
+
+    /**
+     * All the node updates
+     */
+    val nodeUpdates: Flow<NodeUpdate> = megaApiGateway.globalUpdates
+        .filterIsInstance<GlobalUpdate.OnNodesUpdate>()
+        .mapNotNull { update -> update.nodeList?.takeIf { it.isNotEmpty() } }
+        .map { megaNodes ->
+            megaNodes.map { megaNode ->
+                nodeMapper(megaNode = megaNode, offline = null) to nodeUpdateMapper(megaNode)
+            }
+        }
+        .buffer(Channel.UNLIMITED)
+        .coalesce()
+        .buffer(Channel.RENDEZVOUS)
+        .flowOn(ioDispatcher)
+        .shareIn(sharingScope, SharingStarted.WhileSubscribed())
+
+    /**
+     * The updates of the given nodes
+     *
+     * @param nodeIds ids of the nodes to watch
+     */
+    fun monitorNodeUpdates(nodeIds: Set<NodeId>): Flow<NodeUpdate> =
+        nodeUpdates.filterNodes { it.id in nodeIds }
+
+    private fun Flow<NodeUpdate>.filterNodes(predicate: (Node) -> Boolean) =
+        mapNotNull { update ->
+            update.changes.filterKeys(predicate).takeIf { it.isNotEmpty() }?.let { NodeUpdate(it) }
+        }
+
+    private fun Flow<List<Pair<Node, List<NodeChanges>>>>.coalesce() = channelFlow {
+        val batches = produceIn(this)
+        for (firstBatch in batches) {
+            val changes = LinkedHashMap<NodeId, Pair<Node, List<NodeChanges>>>()
+            changes.merge(firstBatch)
+            while (true) {
+                changes.merge(batches.tryReceive().getOrNull() ?: break)
+            }
+            send(NodeUpdate(changes.values.toMap()))
+        }
+    }
+
+    private fun MutableMap<NodeId, Pair<Node, List<NodeChanges>>>.merge(
+        batch: List<Pair<Node, List<NodeChanges>>>,
+    ) = batch.forEach { (node, nodeChanges) ->
+        val previousChanges = get(node.id)?.second.orEmpty()
+        put(node.id, node to (previousChanges + nodeChanges).distinct())
+    }
+}
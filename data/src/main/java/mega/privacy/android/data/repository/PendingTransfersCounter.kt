@@ -0,0 +1,297 @@
+package mega.privacy.android.data.repository
+
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Deferred
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.channels.BufferOverflow
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.MutableSharedFlow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.flow.merge
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.withContext
+import mega.privacy.android.data.extensions.isBackgroundTransfer
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.data.mapper.transfer.AppDataTypeConstants
+import mega.privacy.android.data.model.GlobalTransfer
+import mega.privacy.android.domain.qualifier.ApplicationScope
+import mega.privacy.android.domain.qualifier.IoDispatcher
+import nz.mega.sdk.MegaTransfer
+import timber.log.Timber
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Number of pending transfers of each [Category], kept up to date from the global transfer events
+ *
+ * The counters are updated when a transfer starts, changes or finishes, so reading them does not
+ * need to list all the transfers. As an event may be missed, the counters are rebuilt from the
+ * full transfer lists every [RECONCILE_PERIOD_MILLIS], and on [reconcile].
+ */
+@Singleton
+internal class PendingTransfersCounter @Inject constructor(
+    private val megaApiGateway: MegaApiGateway,
+    @ApplicationScope private val scope: CoroutineScope,
+    @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
+) {
+
+    /**
+     * Pending transfers category
+     */
+    enum class Category {
+        /**
+         * Downloads, excluding the background ones
+         */
+        Downloads,
+
+        /**
+         * Paused downloads, excluding the background ones
+         */
+        PausedDownloads,
+
+        /**
+         * All uploads
+         */
+        Uploads,
+
+        /**
+         * All paused uploads
+         */
+        PausedUploads,
+
+        /**
+         * Uploads that are neither camera uploads nor chat uploads
+         */
+        GeneralUploads,
+
+        /**
+         * Paused uploads that are neither camera uploads nor chat uploads
+         */
+        PausedGeneralUploads,
+
+        /**
+         * Camera uploads
+         */
+        CameraUploads,
+
+        /**
+         * Paused camera uploads
+         */
+        PausedCameraUploads,
+
+        /**
+         * Chat uploads
+         */
+        ChatUploads,
+
+        /**
+         * Paused chat uploads
+         */
+        PausedChatUploads,
+    }
+
+    private val startLock = Any()
+    private var monitoringJob: Job? = null
+    private var initialised = CompletableDeferred<Unit>()
+
+    /**
+     * Whether the counters were rebuilt at least once since monitoring started
+     */
+    @Volatile
+    private var isRebuilt = false
+    private val reconcileRequests = MutableSharedFlow<Unit>(
+        extraBufferCapacity = 1,
+        onBufferOverflow = BufferOverflow.DROP_OLDEST,
+    )
+
+    /**
+     * Categories of each pending transfer as a bit mask of [Category] ordinals, keyed by tag
+     */
+    private var categoriesByTag = HashMap<Int, Int>()
+    private var counts = IntArray(Category.values().size)
+    private val lock = Any()
+
+    /**
+     * Number of pending transfers of a category
+     *
+     * The first call starts monitoring the transfers and waits for the initial count. Until the
+     * counters could be rebuilt, e.g. because listing the transfers failed, the transfers are
+     * counted from the full transfer lists instead. Monitoring starts again on the next call if
+     * it stopped.
+     *
+     * @param category [Category]
+     */
+    suspend fun count(category: Category): Int {
+        start().await()
+        return if (isRebuilt) {
+            synchronized(lock) { counts[category.ordinal] }
+        } else {
+            countFromTransfers(category)
+        }
+    }
+
+    /**
+     * Rebuild the counters from the full transfer lists, once the pending events are applied
+     *
+     * To be requested after an operation that changes many transfers at once
+     */
+    fun reconcile() {
+        reconcileRequests.tryEmit(Unit)
+    }
+
+    /**
+     * Start monitoring the transfers if not already monitoring
+     *
+     * @return a deferred completed once the first rebuild was attempted, or monitoring stopped
+     */
+    private fun start(): Deferred<Unit> = synchronized(startLock) {
+        if (monitoringJob?.isActive == true) return initialised
+        val firstRebuild = CompletableDeferred<Unit>()
+        initialised = firstRebuild
+        isRebuilt = false
+        monitoringJob = scope.launch(ioDispatcher) {
+            // events and reconciliations are applied in order, so a reconciliation never
+            // overwrites a more recent event. A null value requests a reconciliation
+            merge<GlobalTransfer?>(megaApiGateway.globalTransfer, reconciliations())
+                .collect { event ->
+                    if (event == null) {
+                        if (rebuild()) isRebuilt = true
+                        firstRebuild.complete(Unit)
+                    } else {
+                        onTransferEvent(event)
+                    }
+                }
+        }.apply {
+            invokeOnCompletion { cause ->
+                cause?.let { Timber.e(it, "Stopped monitoring the pending transfers") }
+                isRebuilt = false
+                firstRebuild.complete(Unit)
+            }
+        }
+        firstRebuild
+    }
+
+    private fun reconciliations(): Flow<Nothing?> = merge(
+        flow {
+            while (true) {
+                emit(null)
+                delay(RECONCILE_PERIOD_MILLIS)
+            }
+        },
+        reconcileRequests.map { null },
+    )
+
+    private fun onTransferEvent(event: GlobalTransfer) {
+        when (event) {
+            is GlobalTransfer.OnTransferStart,
+            is GlobalTransfer.OnTransferUpdate,
+            is GlobalTransfer.OnTransferTemporaryError,
+            -> put(event.transfer.tag, event.transfer.categories())
+
+            is GlobalTransfer.OnTransferFinish -> put(event.transfer.tag, 0)
+            is GlobalTransfer.OnTransferData -> Unit
+        }
+    }
+
+    private fun put(tag: Int, categories: Int) = synchronized(lock) {
+        val previous = if (categories == 0) {
+            categoriesByTag.remove(tag)
+        } else {
+            categoriesByTag.put(tag, categories)
+        } ?: 0
+        if (previous != categories) {
+            counts.add(previous, -1)
+            counts.add(categories, 1)
+        }
+    }
+
+    /**
+     * Rebuild the counters from the full transfer lists
+     *
+     * @return true if the counters were rebuilt, false if the transfers could not be listed
+     */
+    private suspend fun rebuild(): Boolean {
+        val transfers = getTransfers() ?: return false
+        val newCategoriesByTag = HashMap<Int, Int>(transfers.size * 2)
+        val newCounts = IntArray(Category.values().size)
+        transfers.forEach { (transfer, type) ->
+            val categories = transfer.categories(type)
+            if (categories != 0) {
+                newCategoriesByTag[transfer.tag] = categories
+                newCounts.add(categories, 1)
+            }
+        }
+        synchronized(lock) {
+            categoriesByTag = newCategoriesByTag
+            counts = newCounts
+        }
+        return true
+    }
+
+    private suspend fun countFromTransfers(category: Category): Int =
+        withContext(ioDispatcher) {
+            getTransfers()
+                ?.count { (transfer, type) ->
+                    transfer.categories(type) and (1 shl category.ordinal) != 0
+                } ?: 0
+        }
+
+    private suspend fun getTransfers() = runCatching {
+        listOf(MegaTransfer.TYPE_DOWNLOAD, MegaTransfer.TYPE_UPLOAD).flatMap { type ->
+            megaApiGateway.getTransfers(type).map { transfer -> transfer to type }
+        }
+    }.onFailure {
+        Timber.e(it, "Unable to get the transfers to count the pending ones")
+    }.getOrNull()
+
+    private fun IntArray.add(categories: Int, delta: Int) {
+        for (category in indices) {
+            if (categories and (1 shl category) != 0) this[category] += delta
+        }
+    }
+
+    private fun MegaTransfer.categories(transferType: Int = type): Int {
+        if (isFinished || isStreamingTransfer) return 0
+        val isPaused = state == MegaTransfer.STATE_PAUSED
+        if (transferType == MegaTransfer.TYPE_DOWNLOAD) {
+            return if (isBackgroundTransfer()) 0
+            else categoriesOf(Category.Downloads, Category.PausedDownloads, isPaused)
+        }
+        val isCameraUpload = isCUUpload()
+        val isChatUpload = isChatUpload()
+        var categories = categoriesOf(Category.Uploads, Category.PausedUploads, isPaused)
+        if (!isCameraUpload && !isChatUpload) {
+            categories = categories or
+                    categoriesOf(Category.GeneralUploads, Category.PausedGeneralUploads, isPaused)
+        }
+        if (isCameraUpload) {
+            categories = categories or
+                    categoriesOf(Category.CameraUploads, Category.PausedCameraUploads, isPaused)
+        }
+        if (isChatUpload) {
+            categories = categories or
+                    categoriesOf(Category.ChatUploads, Category.PausedChatUploads, isPaused)
+        }
+        return categories
+    }
+
+    private fun categoriesOf(pending: Category, paused: Category, isPaused: Boolean) =
+        (1 shl pending.ordinal) or (if (isPaused) 1 shl paused.ordinal else 0)
+
+    companion object {
+        /**
+         * Time between two rebuilds of the counters from the full transfer lists
+         */
+        const val RECONCILE_PERIOD_MILLIS = 30_000L
+    }
+}
+
+private fun MegaTransfer.isCUUpload() =
+    this.appData?.contains(AppDataTypeConstants.CameraUpload.sdkTypeValue) == true
+
+private fun MegaTransfer.isChatUpload() =
+    this.appData?.contains(AppDataTypeConstants.ChatUpload.sdkTypeValue) == true
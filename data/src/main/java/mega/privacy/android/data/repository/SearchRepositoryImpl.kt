@@ -1,6 +1,13 @@
 package mega.privacy.android.data.repository
 
+import kotlinx.coroutines.CancellationException
 import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.NonCancellable
+import kotlinx.coroutines.async
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.flowOn
 import kotlinx.coroutines.withContext
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.mapper.SortOrderIntMapper
@@ -15,6 +22,7 @@ import mega.privacy.android.domain.qualifier.IoDispatcher
 import mega.privacy.android.domain.repository.SearchRepository
 import mega.privacy.android.domain.usecase.GetLinksSortOrder
 import nz.mega.sdk.MegaApiAndroid
+import nz.mega.sdk.MegaCancelToken
 import nz.mega.sdk.MegaNode
 import javax.inject.Inject
 
@@ -31,6 +39,7 @@ internal class SearchRepositoryImpl @Inject constructor(
     private val cancelTokenProvider: CancelTokenProvider,
     private val getLinksSortOrder: GetLinksSortOrder,
     private val megaApiGateway: MegaApiGateway,
+    private val nodeSearchIndex: NodeSearchIndex,
     @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
 ) : SearchRepository {
     override fun getSearchCategories(): List<SearchCategory> = listOf(
@@ -49,33 +58,105 @@ internal class SearchRepositoryImpl @Inject constructor(
         query: String,
         order: SortOrder,
     ): List<UnTypedNode> = withContext(ioDispatcher) {
-        nodeId?.let {
-            if (query.isEmpty() && searchCategory == SearchCategory.ALL) {
-                getNodeChildren(it, order)
-            } else {
-                val megaCancelToken = cancelTokenProvider.getOrCreateCancelToken()
-                megaApiGateway.getMegaNodeByHandle(it.longValue)?.let { megaNode ->
-                    val searchList = if (searchCategory == SearchCategory.ALL) {
-                        megaApiGateway.search(
-                            parent = megaNode,
-                            query = query,
-                            megaCancelToken = megaCancelToken,
-                            order = sortOrderIntMapper(order)
-                        )
-                    } else {
-                        megaApiGateway.searchByType(
-                            parentNode = megaNode,
-                            searchString = query,
-                            cancelToken = megaCancelToken,
-                            recursive = true,
-                            order = sortOrderIntMapper(order),
-                            type = searchCategoryIntMapper(searchCategory)
-                        )
-                    }
-                    searchList.map { item -> nodeMapper(item) }
+        searchNodes(
+            nodeId = nodeId,
+            searchCategory = searchCategory,
+            query = query,
+            order = order,
+            megaCancelToken = { cancelTokenProvider.getOrCreateCancelToken() }
+        ).map { nodeMapper(it) }
+    }
+
+    override fun searchPaged(
+        nodeId: NodeId?,
+        searchCategory: SearchCategory,
+        query: String,
+        order: SortOrder,
+        pageSize: Int,
+    ): Flow<List<UnTypedNode>> = inPages(pageSize) { megaCancelToken ->
+        searchNodes(
+            nodeId = nodeId,
+            searchCategory = searchCategory,
+            query = query,
+            order = order,
+            megaCancelToken = { megaCancelToken }
+        )
+    }
+
+    private suspend fun searchNodes(
+        nodeId: NodeId?,
+        searchCategory: SearchCategory,
+        query: String,
+        order: SortOrder,
+        megaCancelToken: suspend () -> MegaCancelToken,
+    ): List<MegaNode> = nodeId?.let {
+        if (query.isEmpty() && searchCategory == SearchCategory.ALL) {
+            getNodeChildren(it, order)
+        } else {
+            val cancelToken = megaCancelToken()
+            megaApiGateway.getMegaNodeByHandle(it.longValue)?.let { megaNode ->
+                if (searchCategory == SearchCategory.ALL) {
+                    megaApiGateway.search(
+                        parent = megaNode,
+                        query = query,
+                        megaCancelToken = cancelToken,
+                        order = sortOrderIntMapper(order)
+                    )
+                } else {
+                    megaApiGateway.searchByType(
+                        parentNode = megaNode,
+                        searchString = query,
+                        cancelToken = cancelToken,
+                        recursive = true,
+                        order = sortOrderIntMapper(order),
+                        type = searchCategoryIntMapper(searchCategory)
+                    )
                 }
             }
-        }.orEmpty()
+        }
+    }.orEmpty()
+
+    override suspend fun searchByNamePrefix(
+        query: String,
+        searchCategory: SearchCategory,
+        modificationTimeRange: LongRange?,
+        order: SortOrder,
+    ): List<UnTypedNode> = withContext(ioDispatcher) {
+        val prefixes = NodeSearchIndex.nameWords(query)
+        if (prefixes.isEmpty()) return@withContext emptyList()
+        val megaNodes = nodeSearchIndex.search(
+            prefixes = prefixes,
+            searchCategory = searchCategory,
+            modificationTimeRange = modificationTimeRange,
+            order = order,
+        ) ?: searchByNamePrefixInSdk(prefixes, searchCategory, modificationTimeRange, order)
+        megaNodes.map { nodeMapper(it) }
+    }
+
+    /**
+     * Searches the SDK for the nodes the index would find, for the searches it cannot answer
+     *
+     * The SDK matches the query anywhere in the name, so the longest prefix is searched and only
+     * the nodes matching all the prefixes are kept.
+     */
+    private suspend fun searchByNamePrefixInSdk(
+        prefixes: List<String>,
+        searchCategory: SearchCategory,
+        modificationTimeRange: LongRange?,
+        order: SortOrder,
+    ): List<MegaNode> {
+        val rootNode = megaApiGateway.getRootNode() ?: return emptyList()
+        return searchNodes(
+            nodeId = NodeId(rootNode.handle),
+            searchCategory = searchCategory,
+            query = prefixes.maxBy { it.length },
+            order = order,
+            megaCancelToken = { cancelTokenProvider.getOrCreateCancelToken() }
+        ).filter { megaNode ->
+            NodeSearchIndex.matchesPrefixes(megaNode.name.orEmpty(), prefixes) &&
+                    (modificationTimeRange == null ||
+                            NodeSearchIndex.modificationTime(megaNode) in modificationTimeRange)
+        }
     }
 
     override suspend fun searchInShares(
@@ -83,69 +164,148 @@ internal class SearchRepositoryImpl @Inject constructor(
         order: SortOrder,
     ): List<UnTypedNode> {
         return withContext(ioDispatcher) {
-            val list = if (query.isEmpty()) {
-                megaApiGateway.getInShares(sortOrderIntMapper(order))
-            } else {
-                megaApiGateway.searchOnInShares(
-                    query,
-                    cancelTokenProvider.getOrCreateCancelToken(),
-                    sortOrderIntMapper(order)
-                )
-            }
-            list.map { nodeMapper(it) }
+            searchInShareNodes(query, order) { cancelTokenProvider.getOrCreateCancelToken() }
+                .map { nodeMapper(it) }
         }
     }
 
+    override fun searchInSharesPaged(
+        query: String,
+        order: SortOrder,
+        pageSize: Int,
+    ): Flow<List<UnTypedNode>> = inPages(pageSize) { megaCancelToken ->
+        searchInShareNodes(query, order) { megaCancelToken }
+    }
+
+    private suspend fun searchInShareNodes(
+        query: String,
+        order: SortOrder,
+        megaCancelToken: suspend () -> MegaCancelToken,
+    ): List<MegaNode> = if (query.isEmpty()) {
+        megaApiGateway.getInShares(sortOrderIntMapper(order))
+    } else {
+        megaApiGateway.searchOnInShares(
+            query,
+            megaCancelToken(),
+            sortOrderIntMapper(order)
+        )
+    }
+
     override suspend fun searchOutShares(query: String, order: SortOrder): List<UnTypedNode> =
         withContext(ioDispatcher) {
-            if (query.isEmpty()) {
-                val searchNodes = ArrayList<MegaNode>()
-                val outShares = megaApiGateway.getOutgoingSharesNode(null)
-                val addedHandles = mutableSetOf<Long>()
-                for (outShare in outShares) {
-                    if (!addedHandles.contains(outShare.nodeHandle)) {
-                        megaApiGateway.getMegaNodeByHandle(outShare.nodeHandle)?.let {
-                            addedHandles.add(it.handle)
-                            searchNodes.add(it)
-                        }
-                    }
+            searchOutShareNodes(query, order) { cancelTokenProvider.getOrCreateCancelToken() }
+                .map { nodeMapper(it) }
+        }
+
+    override fun searchOutSharesPaged(
+        query: String,
+        order: SortOrder,
+        pageSize: Int,
+    ): Flow<List<UnTypedNode>> = inPages(pageSize) { megaCancelToken ->
+        searchOutShareNodes(query, order) { megaCancelToken }
+    }
+
+    private suspend fun searchOutShareNodes(
+        query: String,
+        order: SortOrder,
+        megaCancelToken: suspend () -> MegaCancelToken,
+    ): List<MegaNode> = if (query.isEmpty()) {
+        val searchNodes = ArrayList<MegaNode>()
+        val outShares = megaApiGateway.getOutgoingSharesNode(null)
+        val addedHandles = mutableSetOf<Long>()
+        for (outShare in outShares) {
+            if (!addedHandles.contains(outShare.nodeHandle)) {
+                megaApiGateway.getMegaNodeByHandle(outShare.nodeHandle)?.let {
+                    addedHandles.add(it.handle)
+                    searchNodes.add(it)
                 }
-                searchNodes
-            } else {
-                megaApiGateway.searchOnOutShares(
-                    query = query,
-                    megaCancelToken = cancelTokenProvider.getOrCreateCancelToken(),
-                    order = sortOrderIntMapper(order)
-                )
-            }.map { nodeMapper(it) }
+            }
         }
+        searchNodes
+    } else {
+        megaApiGateway.searchOnOutShares(
+            query = query,
+            megaCancelToken = megaCancelToken(),
+            order = sortOrderIntMapper(order)
+        )
+    }
 
     override suspend fun searchLinkShares(
         query: String,
         order: SortOrder,
         isFirstLevelNavigation: Boolean,
     ): List<UnTypedNode> = withContext(ioDispatcher) {
-        if (query.isEmpty()) {
-            megaApiGateway.getPublicLinks(
-                if (isFirstLevelNavigation) sortOrderIntMapper(
-                    getLinksSortOrder()
-                ) else sortOrderIntMapper(order)
-            )
-        } else {
-            megaApiGateway.searchOnLinkShares(
-                query,
-                cancelTokenProvider.getOrCreateCancelToken(),
-                sortOrderIntMapper(order)
-            )
+        searchLinkShareNodes(query, order, isFirstLevelNavigation) {
+            cancelTokenProvider.getOrCreateCancelToken()
         }.map { nodeMapper(it) }
     }
 
+    override fun searchLinkSharesPaged(
+        query: String,
+        order: SortOrder,
+        isFirstLevelNavigation: Boolean,
+        pageSize: Int,
+    ): Flow<List<UnTypedNode>> = inPages(pageSize) { megaCancelToken ->
+        searchLinkShareNodes(query, order, isFirstLevelNavigation) { megaCancelToken }
+    }
+
+    private suspend fun searchLinkShareNodes(
+        query: String,
+        order: SortOrder,
+        isFirstLevelNavigation: Boolean,
+        megaCancelToken: suspend () -> MegaCancelToken,
+    ): List<MegaNode> = if (query.isEmpty()) {
+        megaApiGateway.getPublicLinks(
+            if (isFirstLevelNavigation) sortOrderIntMapper(
+                getLinksSortOrder()
+            ) else sortOrderIntMapper(order)
+        )
+    } else {
+        megaApiGateway.searchOnLinkShares(
+            query,
+            megaCancelToken(),
+            sortOrderIntMapper(order)
+        )
+    }
+
+    /**
+     * Emits the nodes found by [searchNodes] in pages of [pageSize] nodes, mapping each page only
+     * when it is collected
+     *
+     * Every paged search cancels the search of the previous query with a new cancel token. The
+     * SDK search is also cancelled as soon as the collector is cancelled, so that a query that
+     * changed does not keep the SDK busy. An empty page is emitted if no node is found.
+     */
+    private fun inPages(
+        pageSize: Int,
+        searchNodes: suspend (MegaCancelToken) -> List<MegaNode>,
+    ): Flow<List<UnTypedNode>> = flow {
+        require(pageSize > 0) { "Page size must be positive" }
+        val megaCancelToken = cancelTokenProvider.cancelAndCreateNewToken()
+        val megaNodes = coroutineScope {
+            val search = async { searchNodes(megaCancelToken) }
+            try {
+                search.await()
+            } catch (e: CancellationException) {
+                withContext(NonCancellable) { cancelTokenProvider.cancelToken(megaCancelToken) }
+                throw e
+            }
+        }
+        if (megaNodes.isEmpty()) {
+            emit(emptyList())
+        } else {
+            megaNodes.asSequence().chunked(pageSize).forEach { page ->
+                emit(page.map { nodeMapper(it) })
+            }
+        }
+    }.flowOn(ioDispatcher)
+
     private suspend fun getNodeChildren(
         nodeId: NodeId,
         order: SortOrder?,
-    ): List<UnTypedNode> = withContext(ioDispatcher) {
+    ): List<MegaNode> =
         megaApiGateway.getMegaNodeByHandle(nodeId.longValue)?.let { parent ->
-            val childList = order?.let { sortOrder ->
+            order?.let { sortOrder ->
                 megaApiGateway.getChildrenByNode(
                     parent,
                     sortOrderIntMapper(sortOrder)
@@ -153,9 +313,5 @@ internal class SearchRepositoryImpl @Inject constructor(
             } ?: run {
                 megaApiGateway.getChildrenByNode(parent)
             }
-            childList.map { nodeMapper(it) }
-        } ?: run {
-            emptyList()
-        }
-    }
-}
\ No newline at end of file
+        }.orEmpty()
+}
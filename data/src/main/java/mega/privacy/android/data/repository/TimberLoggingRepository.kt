@@ -115,6 +115,8 @@ internal class TimberLoggingRepository @Inject constructor(
         withContext(ioDispatcher) { chatLogger.writeLogEntry(logMessage) }
 
     override suspend fun compressLogs(): File = withContext(ioDispatcher) {
+        sdkLogger.flush()
+        chatLogger.flush()
         val loggingDirectoryPath = loggingConfig.getLoggingDirectoryPath()
         require(loggingDirectoryPath != null) { "Logging configuration file missing or logging directory not configured" }
         createEmptyFile().apply {
@@ -0,0 +1,144 @@
+package mega.privacy.android.data.repository
+
+import kotlinx.coroutines.FlowPreview
+import kotlinx.coroutines.channels.BufferOverflow
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.MutableSharedFlow
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.flow.onSubscription
+import kotlinx.coroutines.flow.sample
+
+/**
+ * In memory store of the bytes transferred by each active transfer, keyed by transfer tag
+ *
+ * Updating a transfer does not allocate: the values are kept in primitive arrays split in
+ * [STRIPES] independently locked stripes, so concurrent transfer updates rarely contend. The
+ * values are published at most once every [SAMPLE_PERIOD_MILLIS], instead of on every update.
+ */
+internal class TransferredBytesAccumulator {
+
+    private val stripes = Array(STRIPES) { IntLongMap() }
+
+    private val changes = MutableSharedFlow<Unit>(
+        extraBufferCapacity = 1,
+        onBufferOverflow = BufferOverflow.DROP_OLDEST,
+    )
+
+    /**
+     * Set the bytes transferred by a transfer
+     *
+     * @param tag transfer tag
+     * @param transferredBytes bytes transferred so far
+     */
+    fun update(tag: Int, transferredBytes: Long) {
+        val stripe = stripeOf(tag)
+        synchronized(stripe) { stripe.put(tag, transferredBytes) }
+        changes.tryEmit(Unit)
+    }
+
+    /**
+     * Forget all the transfers
+     */
+    fun clear() {
+        stripes.forEach { stripe -> synchronized(stripe) { stripe.clear() } }
+        changes.tryEmit(Unit)
+    }
+
+    /**
+     * Copy of the bytes transferred by each transfer
+     */
+    fun snapshot(): Map<Int, Long> = buildMap {
+        stripes.forEach { stripe ->
+            synchronized(stripe) { stripe.forEach { tag, bytes -> put(tag, bytes) } }
+        }
+    }
+
+    /**
+     * Monitor the bytes transferred by each transfer
+     *
+     * The current values are emitted after the first sample period, then the values are emitted
+     * at most once every [SAMPLE_PERIOD_MILLIS] while transfers are updated
+     */
+    @OptIn(FlowPreview::class)
+    fun monitorTransferredBytes(): Flow<Map<Int, Long>> = changes
+        .onSubscription { emit(Unit) }
+        .sample(SAMPLE_PERIOD_MILLIS)
+        .map { snapshot() }
+
+    private fun stripeOf(tag: Int) = stripes[(tag xor (tag ushr 16)) and (STRIPES - 1)]
+
+    /**
+     * Open addressing hash map of int keys to long values, without boxing. Not thread safe
+     */
+    private class IntLongMap {
+        private var keys = IntArray(INITIAL_CAPACITY)
+        private var values = LongArray(INITIAL_CAPACITY)
+        private var used = BooleanArray(INITIAL_CAPACITY)
+        private var size = 0
+
+        fun put(key: Int, value: Long) {
+            var index = indexOf(key)
+            if (!used[index]) {
+                if ((size + 1) * 4 > keys.size * 3) {
+                    grow()
+                    index = indexOf(key)
+                }
+                used[index] = true
+                keys[index] = key
+                size++
+            }
+            values[index] = value
+        }
+
+        fun clear() {
+            keys = IntArray(INITIAL_CAPACITY)
+            values = LongArray(INITIAL_CAPACITY)
+            used = BooleanArray(INITIAL_CAPACITY)
+            size = 0
+        }
+
+        fun forEach(action: (key: Int, value: Long) -> Unit) {
+            for (index in keys.indices) {
+                if (used[index]) action(keys[index], values[index])
+            }
+        }
+
+        private fun indexOf(key: Int): Int {
+            val mask = keys.size - 1
+            var index = (key * HASH_MULTIPLIER) and mask
+            while (used[index] && keys[index] != key) {
+                index = (index + 1) and mask
+            }
+            return index
+        }
+
+        private fun grow() {
+            val oldKeys = keys
+            val oldValues = values
+            val oldUsed = used
+            keys = IntArray(oldKeys.size * 2)
+            values = LongArray(oldKeys.size * 2)
+            used = BooleanArray(oldKeys.size * 2)
+            size = 0
+            for (index in oldKeys.indices) {
+                if (oldUsed[index]) put(oldKeys[index], oldValues[index])
+            }
+        }
+    }
+
+    companion object {
+        /**
+         * Number of independently locked stripes, a power of 2
+         */
+        const val STRIPES = 16
+
+        /**
+         * Minimum time between two emissions of [monitorTransferredBytes]
+         */
+        const val SAMPLE_PERIOD_MILLIS = 200L
+
+        private const val INITIAL_CAPACITY = 16
+
+        private const val HASH_MULTIPLIER = -0x61c88647
+    }
+}
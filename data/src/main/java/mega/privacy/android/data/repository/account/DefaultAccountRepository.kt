@@ -54,6 +54,7 @@ import mega.privacy.android.data.mapper.login.UserCredentialsMapper
 import mega.privacy.android.data.mapper.settings.CookieSettingsIntMapper
 import mega.privacy.android.data.mapper.settings.CookieSettingsMapper
 import mega.privacy.android.data.model.GlobalUpdate
+import mega.privacy.android.data.repository.NodeSearchIndex
 import mega.privacy.android.domain.entity.AccountType
 import mega.privacy.android.domain.entity.MyAccountUpdate
 import mega.privacy.android.domain.entity.MyAccountUpdate.Action
@@ -158,6 +159,7 @@ internal class DefaultAccountRepository @Inject constructor(
     private val cameraUploadsSettingsPreferenceGateway: CameraUploadsSettingsPreferenceGateway,
     private val cookieSettingsMapper: CookieSettingsMapper,
     private val cookieSettingsIntMapper: CookieSettingsIntMapper,
+    private val nodeSearchIndex: NodeSearchIndex,
 ) : AccountRepository {
     override suspend fun getUserAccount(): UserAccount = withContext(ioDispatcher) {
         val user = megaApiGateway.getLoggedInUser()
@@ -668,6 +670,7 @@ internal class DefaultAccountRepository @Inject constructor(
         megaLocalRoomGateway.deleteAllSyncRecordsTypeAny()
         megaLocalRoomGateway.deleteAllCompletedTransfers()
         megaLocalRoomGateway.clearOffline()
+        nodeSearchIndex.clear()
         callsPreferencesGateway.clearPreferences()
         chatPreferencesGateway.clearPreferences()
         accountPreferencesGateway.clearPreferences()
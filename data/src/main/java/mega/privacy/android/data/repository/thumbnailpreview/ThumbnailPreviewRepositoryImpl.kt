@@ -1,8 +1,11 @@
 package mega.privacy.android.data.repository.thumbnailpreview
 
+import kotlinx.coroutines.CancellationException
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.suspendCancellableCoroutine
 import kotlinx.coroutines.withContext
+import mega.privacy.android.data.cache.ThumbnailPreviewDiskCache
+import mega.privacy.android.data.cache.ThumbnailPreviewDiskCache.Folder
 import mega.privacy.android.data.constant.CacheFolderConstant
 import mega.privacy.android.data.constant.FileConstant
 import mega.privacy.android.data.extensions.getPreviewFileName
@@ -11,11 +14,11 @@ import mega.privacy.android.data.extensions.getThumbnailFileName
 import mega.privacy.android.data.gateway.CacheGateway
 import mega.privacy.android.data.gateway.api.MegaApiFolderGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
-import mega.privacy.android.data.listener.OptionalMegaRequestListenerInterface
+import mega.privacy.android.data.repository.thumbnailpreview.ThumbnailPreviewRequestScheduler.Kind
+import mega.privacy.android.data.repository.thumbnailpreview.ThumbnailPreviewRequestScheduler.Priority
 import mega.privacy.android.data.wrapper.StringWrapper
 import mega.privacy.android.domain.qualifier.IoDispatcher
 import mega.privacy.android.domain.repository.thumbnailpreview.ThumbnailPreviewRepository
-import nz.mega.sdk.MegaError
 import nz.mega.sdk.MegaNode
 import java.io.File
 import javax.inject.Inject
@@ -26,6 +29,8 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
     @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
     private val cacheGateway: CacheGateway,
     private val stringWrapper: StringWrapper,
+    private val requestScheduler: ThumbnailPreviewRequestScheduler,
+    private val diskCache: ThumbnailPreviewDiskCache,
 ) : ThumbnailPreviewRepository {
 
     override suspend fun getThumbnailFromLocal(handle: Long): File? =
@@ -34,7 +39,7 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
                 getThumbnailFile(this).takeIf {
                     it?.exists() ?: false
                 }
-            }
+            }.also { recordLookup(Folder.Thumbnail, it) }
         }
 
     override suspend fun getPublicNodeThumbnailFromLocal(handle: Long): File? =
@@ -43,7 +48,7 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
                 getThumbnailFile(this).takeIf {
                     it?.exists() ?: false
                 }
-            }
+            }.also { recordLookup(Folder.Thumbnail, it) }
         }
 
     private suspend fun getThumbnailFile(node: MegaNode): File? =
@@ -52,40 +57,57 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
             "${node.base64Handle}${FileConstant.JPG_EXTENSION}"
         )
 
-    override suspend fun getThumbnailFromServer(handle: Long): File? =
+    override suspend fun getThumbnailFromServer(handle: Long, isPrefetch: Boolean): File? =
         withContext(ioDispatcher) {
             megaApi.getMegaNodeByHandle(handle)?.let { node ->
                 if (!node.hasThumbnail()) return@withContext null
                 getThumbnailFile(node)?.let { thumbnail ->
-                    suspendCancellableCoroutine { continuation ->
-                        val listener = continuation.getRequestListener("getThumbnailFromServer") {
-                            thumbnail
+                    requestScheduler.execute(handle, Kind.Thumbnail, priorityOf(isPrefetch)) {
+                        suspendCancellableCoroutine { continuation ->
+                            val listener =
+                                continuation.getRequestListener("getThumbnailFromServer") {
+                                    thumbnail
+                                }
+                            megaApi.getThumbnail(node, thumbnail.absolutePath, listener)
+                            continuation.invokeOnCancellation {
+                                megaApi.removeRequestListener(listener)
+                            }
                         }
-                        megaApi.getThumbnail(node, thumbnail.absolutePath, listener)
-                        continuation.invokeOnCancellation { megaApi.removeRequestListener(listener) }
-                    }
+                    }.also { diskCache.onWritten(Folder.Thumbnail, it) }
                 }
             }
         }
 
-    override suspend fun getPublicNodeThumbnailFromServer(handle: Long): File? =
+    override suspend fun getPublicNodeThumbnailFromServer(
+        handle: Long,
+        isPrefetch: Boolean,
+    ): File? =
         withContext(ioDispatcher) {
             megaApiFolder.getMegaNodeByHandle(handle)?.let { node ->
                 getThumbnailFile(node)?.let { thumbnail ->
-                    suspendCancellableCoroutine { continuation ->
-                        val listener =
-                            continuation.getRequestListener("getPublicNodeThumbnailFromServer") {
-                                thumbnail
+                    requestScheduler.execute(
+                        handle,
+                        Kind.PublicNodeThumbnail,
+                        priorityOf(isPrefetch)
+                    ) {
+                        suspendCancellableCoroutine { continuation ->
+                            val listener =
+                                continuation.getRequestListener("getPublicNodeThumbnailFromServer") {
+                                    thumbnail
+                                }
+                            megaApiFolder.getThumbnail(node, thumbnail.absolutePath, listener)
+                            continuation.invokeOnCancellation {
+                                megaApiFolder.removeRequestListener(listener)
                             }
-                        megaApiFolder.getThumbnail(node, thumbnail.absolutePath, listener)
-                        continuation.invokeOnCancellation {
-                            megaApiFolder.removeRequestListener(listener)
                         }
-                    }
+                    }.also { diskCache.onWritten(Folder.Thumbnail, it) }
                 }
             }
         }
 
+    private fun priorityOf(isPrefetch: Boolean) =
+        if (isPrefetch) Priority.Prefetch else Priority.Visible
+
     private suspend fun getPreviewFile(node: MegaNode): File? =
         cacheGateway.getCacheFile(
             CacheFolderConstant.PREVIEW_FOLDER,
@@ -99,20 +121,24 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
                 getPreviewFile(this).takeIf {
                     it?.exists() ?: false
                 }
-            }
+            }.also { recordLookup(Folder.Preview, it) }
         }
 
     override suspend fun getPreviewFromServer(handle: Long): File? =
         withContext(ioDispatcher) {
             megaApi.getMegaNodeByHandle(handle)?.let { node ->
                 getPreviewFile(node)?.let { preview ->
-                    suspendCancellableCoroutine { continuation ->
-                        val listener = continuation.getRequestListener("getPreviewFromServer") {
-                            preview
+                    requestScheduler.execute(handle, Kind.Preview, Priority.Visible) {
+                        suspendCancellableCoroutine { continuation ->
+                            val listener = continuation.getRequestListener("getPreviewFromServer") {
+                                preview
+                            }
+                            megaApi.getPreview(node, preview.absolutePath, listener)
+                            continuation.invokeOnCancellation {
+                                megaApi.removeRequestListener(listener)
+                            }
                         }
-                        megaApi.getPreview(node, preview.absolutePath, listener)
-                        continuation.invokeOnCancellation { megaApi.removeRequestListener(listener) }
-                    }
+                    }.also { diskCache.onWritten(Folder.Preview, it) }
                 }
             }
         }
@@ -128,15 +154,22 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
         if (node == null || thumbnailFolderPath == null || !node.hasThumbnail()) {
             callback(false)
         } else {
-            megaApi.getThumbnail(
-                node,
-                getThumbnailPath(thumbnailFolderPath, node),
-                OptionalMegaRequestListenerInterface(
-                    onRequestFinish = { _, error ->
-                        callback(error.errorCode == MegaError.API_OK)
+            val success = runCatching {
+                requestScheduler.execute(handle, Kind.Thumbnail, Priority.Visible) {
+                    suspendCancellableCoroutine { continuation ->
+                        val listener = continuation.getRequestListener("downloadThumbnail") {
+                            File(getThumbnailPath(thumbnailFolderPath, node))
+                        }
+                        megaApi.getThumbnail(
+                            node,
+                            getThumbnailPath(thumbnailFolderPath, node),
+                            listener
+                        )
+                        continuation.invokeOnCancellation { megaApi.removeRequestListener(listener) }
                     }
-                )
-            )
+                }.also { diskCache.onWritten(Folder.Thumbnail, it) }
+            }.onFailure { if (it is CancellationException) throw it }.isSuccess
+            callback(success)
         }
     }
 
@@ -151,15 +184,22 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
         if (node == null || previewFolderPath == null || !node.hasPreview()) {
             callback(false)
         } else {
-            megaApi.getPreview(
-                node,
-                getPreviewPath(previewFolderPath, node),
-                OptionalMegaRequestListenerInterface(
-                    onRequestFinish = { _, error ->
-                        callback(error.errorCode == MegaError.API_OK)
+            val success = runCatching {
+                requestScheduler.execute(handle, Kind.Preview, Priority.Visible) {
+                    suspendCancellableCoroutine { continuation ->
+                        val listener = continuation.getRequestListener("downloadPreview") {
+                            File(getPreviewPath(previewFolderPath, node))
+                        }
+                        megaApi.getPreview(
+                            node,
+                            getPreviewPath(previewFolderPath, node),
+                            listener
+                        )
+                        continuation.invokeOnCancellation { megaApi.removeRequestListener(listener) }
                     }
-                )
-            )
+                }.also { diskCache.onWritten(Folder.Preview, it) }
+            }.onFailure { if (it is CancellationException) throw it }.isSuccess
+            callback(success)
         }
     }
 
@@ -184,6 +224,9 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
                 )
 
                 continuation.invokeOnCancellation { megaApi.removeRequestListener(listener) }
+            }.also {
+                val thumbnail = File(getThumbnailPath(thumbnailFolderPath, node))
+                diskCache.onWritten(Folder.Thumbnail, thumbnail)
             }
         }
     }
@@ -209,10 +252,17 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
                 )
 
                 continuation.invokeOnCancellation { megaApi.removeRequestListener(listener) }
+            }.also {
+                val preview = File(getPreviewPath(previewFolderPath, node))
+                diskCache.onWritten(Folder.Preview, preview)
             }
         }
     }
 
+    private suspend fun recordLookup(folder: Folder, file: File?) {
+        if (file != null) diskCache.onHit(folder, file) else diskCache.onMiss(folder)
+    }
+
     private fun getPreviewPath(previewFolderPath: String, megaNode: MegaNode) =
         "$previewFolderPath${File.separator}${megaNode.getPreviewFileName()}"
 
@@ -243,7 +293,9 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
         val thumbnailFileName = getThumbnailOrPreviewFileName(handle)
         val thumbnailFile = getThumbnailFile(thumbnailFileName)
         requireNotNull(thumbnailFile)
-        megaApi.createThumbnail(file.absolutePath, thumbnailFile.absolutePath)
+        megaApi.createThumbnail(file.absolutePath, thumbnailFile.absolutePath).also { created ->
+            if (created) diskCache.onWritten(Folder.Thumbnail, thumbnailFile)
+        }
     }
 
 
@@ -251,7 +303,9 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
         val previewFileName = getThumbnailOrPreviewFileName(handle)
         val previewFile = getPreviewFile(previewFileName)
         requireNotNull(previewFile)
-        megaApi.createPreview(file.absolutePath, previewFile.absolutePath)
+        megaApi.createPreview(file.absolutePath, previewFile.absolutePath).also { created ->
+            if (created) diskCache.onWritten(Folder.Preview, previewFile)
+        }
     }
 
     override suspend fun createPreview(name: String, file: File) =
@@ -259,7 +313,9 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
             val previewFileName = getThumbnailOrPreviewFileName(name)
             val previewFile = getPreviewFile(previewFileName)
             requireNotNull(previewFile)
-            megaApi.createPreview(file.absolutePath, previewFile.absolutePath)
+            megaApi.createPreview(file.absolutePath, previewFile.absolutePath).also { created ->
+                if (created) diskCache.onWritten(Folder.Preview, previewFile)
+            }
         }
 
     override suspend fun deleteThumbnail(handle: Long) = withContext(ioDispatcher) {
@@ -0,0 +1,161 @@
+package mega.privacy.android.data.repository.thumbnailpreview
+
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.CoroutineStart
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.launch
+import mega.privacy.android.domain.qualifier.ApplicationScope
+import java.util.PriorityQueue
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Schedules the thumbnail and preview requests to the SDK
+ *
+ * - Requests for the same node and kind are coalesced, every caller awaits the same request.
+ * - At most [MAX_RUNNING_REQUESTS] requests run at the same time, the pending ones are started by
+ *   [Priority] and then in arrival order.
+ * - A request is cancelled when all its callers are cancelled, e.g. when the cells requesting it
+ *   leave the screen. If it was still pending it is never sent to the SDK.
+ */
+@Singleton
+internal class ThumbnailPreviewRequestScheduler @Inject constructor(
+    @ApplicationScope private val scope: CoroutineScope,
+) {
+
+    /**
+     * Kind of file requested
+     */
+    enum class Kind {
+        Thumbnail,
+        Preview,
+        PublicNodeThumbnail,
+    }
+
+    /**
+     * Priority of a request, the lower the ordinal the sooner the request is started
+     */
+    enum class Priority {
+        /**
+         * Requested to be displayed right away
+         */
+        Visible,
+
+        /**
+         * Requested in advance or in the background
+         */
+        Prefetch,
+    }
+
+    private data class Key(val handle: Long, val kind: Kind)
+
+    private class Request(
+        val key: Key,
+        var priority: Priority,
+        val sequence: Long,
+        val block: suspend () -> Any?,
+    ) {
+        val result = CompletableDeferred<Any?>()
+        var waiters = 0
+        var job: Job? = null
+    }
+
+    private val lock = Any()
+
+    private val requests = HashMap<Key, Request>()
+
+    private val pendingRequests = PriorityQueue<Request>(
+        compareBy<Request>({ it.priority.ordinal }, { it.sequence })
+    )
+
+    private var runningRequests = 0
+
+    private var sequence = 0L
+
+    /**
+     * Run the request for a node, or join the one already running or pending for it
+     *
+     * @param handle node handle
+     * @param kind kind of file requested
+     * @param priority priority of the request. If the request is pending and the new priority is
+     * higher, it is promoted
+     * @param block the request, only invoked if there is no other request for the same node and kind
+     * @return the result of the request
+     */
+    suspend fun <T> execute(
+        handle: Long,
+        kind: Kind,
+        priority: Priority,
+        block: suspend () -> T,
+    ): T {
+        val request = synchronized(lock) {
+            val key = Key(handle, kind)
+            val request = requests[key]?.also { existing ->
+                if (priority < existing.priority && pendingRequests.remove(existing)) {
+                    existing.priority = priority
+                    pendingRequests.add(existing)
+                }
+            } ?: Request(key, priority, sequence++, block).also {
+                requests[key] = it
+                pendingRequests.add(it)
+            }
+            request.waiters++
+            request
+        }
+        startPendingRequests()
+
+        try {
+            @Suppress("UNCHECKED_CAST")
+            return request.result.await() as T
+        } finally {
+            release(request)
+        }
+    }
+
+    private fun release(request: Request) {
+        val job = synchronized(lock) {
+            request.waiters--
+            if (request.waiters > 0 || request.result.isCompleted) return
+            requests.remove(request.key, request)
+            pendingRequests.remove(request)
+            request.job
+        }
+        job?.cancel()
+    }
+
+    private fun startPendingRequests() {
+        while (true) {
+            val request = synchronized(lock) {
+                if (runningRequests >= MAX_RUNNING_REQUESTS) return
+                pendingRequests.poll()?.also { runningRequests++ } ?: return
+            }
+            val job = scope.launch(start = CoroutineStart.LAZY) {
+                try {
+                    request.result.complete(request.block())
+                } catch (e: Throwable) {
+                    request.result.completeExceptionally(e)
+                }
+            }
+            job.invokeOnCompletion {
+                synchronized(lock) {
+                    runningRequests--
+                    requests.remove(request.key, request)
+                }
+                startPendingRequests()
+            }
+            val isAbandoned = synchronized(lock) {
+                request.job = job
+                request.waiters == 0
+            }
+            if (isAbandoned) job.cancel() else job.start()
+        }
+    }
+
+    companion object {
+        /**
+         * Maximum number of requests sent to the SDK at the same time
+         */
+        const val MAX_RUNNING_REQUESTS = 8
+    }
+}
@@ -0,0 +1,68 @@
+package mega.privacy.android.data.cache
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.gateway.CacheGateway
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.stub
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import java.io.File
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class CacheFolderPathsTest {
+
+    @TempDir
+    lateinit var cacheDir: File
+
+    private val cacheGateway = mock<CacheGateway>()
+    private val underTest = CacheFolderPaths(cacheGateway)
+
+    @Test
+    fun `test that the thumbnail folder is resolved once`() = runTest {
+        val thumbnailFolder = File(cacheDir, "thumbnails").apply { mkdir() }
+        cacheGateway.stub {
+            onBlocking { getThumbnailCacheFolder() }.thenReturn(thumbnailFolder)
+        }
+
+        repeat(3) {
+            assertThat(underTest.getThumbnailFolderPath()).isEqualTo(thumbnailFolder.path)
+        }
+        verify(cacheGateway, times(1)).getThumbnailCacheFolder()
+    }
+
+    @Test
+    fun `test that a folder that could not be created is resolved again`() = runTest {
+        val previewFolder = File(cacheDir, "previews").apply { mkdir() }
+        cacheGateway.stub {
+            onBlocking { getPreviewCacheFolder() }.thenReturn(null, previewFolder)
+        }
+
+        assertThat(underTest.getPreviewFolderPath()).isNull()
+        assertThat(underTest.getPreviewFolderPath()).isEqualTo(previewFolder.path)
+        verify(cacheGateway, times(2)).getPreviewCacheFolder()
+    }
+
+    @Test
+    fun `test that a folder deleted with the cache is resolved again`() = runTest {
+        val fullSizeFolder = File(cacheDir, "fullSize").apply { mkdir() }
+        cacheGateway.stub {
+            onBlocking { getFullSizeCacheFolder() }.thenReturn(fullSizeFolder)
+        }
+
+        underTest.getFullSizeFolderPath()
+        fullSizeFolder.delete()
+        underTest.getFullSizeFolderPath()
+
+        verify(cacheGateway, times(2)).getFullSizeCacheFolder()
+    }
+
+    @Test
+    fun `test that the file path is in the folder`() {
+        assertThat(underTest.getFilePath("cache", "a.jpg"))
+            .isEqualTo("cache${File.separator}a.jpg")
+    }
+}
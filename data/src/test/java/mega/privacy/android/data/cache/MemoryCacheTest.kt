@@ -0,0 +1,48 @@
+package mega.privacy.android.data.cache
+
+import android.content.ComponentCallbacks2
+import com.google.common.truth.Truth.assertThat
+import org.junit.Test
+
+internal class MemoryCacheTest {
+
+    private fun createCache(maxBytes: Int) =
+        MemoryCache<Int, String>(maxBytes) { _, value -> value.length }
+
+    @Test
+    fun `test that the least recently used entries are evicted by their size`() {
+        val underTest = createCache(maxBytes = 10)
+        underTest[1] = "12345"
+        underTest[2] = "1234"
+        underTest[1]
+        underTest[3] = "123"
+
+        assertThat(underTest[2]).isNull()
+        assertThat(underTest[1]).isEqualTo("12345")
+        assertThat(underTest[3]).isEqualTo("123")
+        assertThat(underTest.size()).isEqualTo(8)
+        assertThat(underTest.evictionCount()).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that the cache is trimmed to half its size when memory is running low`() {
+        val underTest = createCache(maxBytes = 4)
+        (1..4).forEach { underTest[it] = "$it" }
+
+        underTest.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW)
+
+        assertThat(underTest.size()).isEqualTo(2)
+        assertThat(underTest[3]).isEqualTo("3")
+        assertThat(underTest[4]).isEqualTo("4")
+    }
+
+    @Test
+    fun `test that the cache is emptied when the app is in background and memory is needed`() {
+        val underTest = createCache(maxBytes = 4)
+        (1..4).forEach { underTest[it] = "$it" }
+
+        underTest.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_MODERATE)
+
+        assertThat(underTest.size()).isEqualTo(0)
+    }
+}
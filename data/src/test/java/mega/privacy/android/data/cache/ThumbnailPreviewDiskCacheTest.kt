@@ -0,0 +1,144 @@
+package mega.privacy.android.data.cache
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.cache.ThumbnailPreviewDiskCache.Folder
+import mega.privacy.android.data.constant.CacheFolderConstant
+import mega.privacy.android.data.gateway.CacheGateway
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.stub
+import org.mockito.kotlin.verifyNoInteractions
+import java.io.File
+import java.io.RandomAccessFile
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class ThumbnailPreviewDiskCacheTest {
+
+    @TempDir
+    lateinit var cacheDir: File
+
+    private lateinit var thumbnailFolder: File
+    private lateinit var previewFolder: File
+
+    private val cacheGateway = mock<CacheGateway>()
+
+    @BeforeEach
+    fun setUp() {
+        thumbnailFolder = File(cacheDir, CacheFolderConstant.THUMBNAIL_FOLDER).apply { mkdir() }
+        previewFolder = File(cacheDir, CacheFolderConstant.PREVIEW_FOLDER).apply { mkdir() }
+        cacheGateway.stub {
+            onBlocking { getOrCreateCacheFolder(CacheFolderConstant.THUMBNAIL_FOLDER) }
+                .thenReturn(thumbnailFolder)
+            onBlocking { getOrCreateCacheFolder(CacheFolderConstant.PREVIEW_FOLDER) }
+                .thenReturn(previewFolder)
+        }
+    }
+
+    @Test
+    fun `test that the existing files are indexed on first use`() = runTest {
+        createFile(thumbnailFolder, "a.jpg", 10)
+        createFile(thumbnailFolder, "b.jpg", 20)
+        val underTest = createUnderTest(backgroundScope)
+
+        assertThat(underTest.getMetrics(Folder.Thumbnail).sizeInBytes).isEqualTo(30)
+        assertThat(underTest.getMetrics(Folder.Preview).sizeInBytes).isEqualTo(0)
+    }
+
+    @Test
+    fun `test that hits and misses are counted`() = runTest {
+        val file = createFile(thumbnailFolder, "a.jpg", 10)
+        val underTest = createUnderTest(backgroundScope)
+
+        underTest.onHit(Folder.Thumbnail, file)
+        underTest.onHit(Folder.Thumbnail, file)
+        underTest.onMiss(Folder.Thumbnail)
+
+        val metrics = underTest.getMetrics(Folder.Thumbnail)
+        assertThat(metrics.hitCount).isEqualTo(2)
+        assertThat(metrics.missCount).isEqualTo(1)
+        assertThat(metrics.hitRate).isWithin(0.001f).of(2f / 3)
+    }
+
+    @Test
+    fun `test that the least recently accessed files are evicted when over budget`() = runTest {
+        val fileSize = Folder.Thumbnail.maxSizeInBytes / 4
+        val files = (1..4).map {
+            createFile(thumbnailFolder, "$it.jpg", fileSize, lastModified = it * 1000L)
+        }
+        val underTest = createUnderTest(backgroundScope)
+        underTest.onHit(Folder.Thumbnail, files[0])
+
+        underTest.onWritten(Folder.Thumbnail, createFile(thumbnailFolder, "5.jpg", fileSize))
+        underTest.trim(Folder.Thumbnail)
+
+        assertThat(files[0].exists()).isTrue()
+        assertThat(files[1].exists()).isFalse()
+        assertThat(files[2].exists()).isFalse()
+        val metrics = underTest.getMetrics(Folder.Thumbnail)
+        assertThat(metrics.sizeInBytes).isAtMost(Folder.Thumbnail.maxSizeInBytes)
+        assertThat(metrics.evictionCount).isEqualTo(2)
+    }
+
+    @Test
+    fun `test that previews do not evict thumbnails`() = runTest {
+        val thumbnail = createFile(thumbnailFolder, "a.jpg", 10)
+        val underTest = createUnderTest(backgroundScope)
+
+        underTest.onWritten(
+            Folder.Preview,
+            createFile(previewFolder, "a.jpg", Folder.Preview.maxSizeInBytes + 1)
+        )
+        underTest.trim(Folder.Preview)
+
+        assertThat(thumbnail.exists()).isTrue()
+        assertThat(underTest.getMetrics(Folder.Thumbnail).evictionCount).isEqualTo(0)
+    }
+
+    @Test
+    fun `test that the lookups do not scan the folder`() = runTest {
+        val file = createFile(thumbnailFolder, "a.jpg", 10)
+        val underTest = createUnderTest(backgroundScope)
+
+        underTest.onHit(Folder.Thumbnail, file)
+        underTest.onMiss(Folder.Thumbnail)
+
+        verifyNoInteractions(cacheGateway)
+    }
+
+    @Test
+    fun `test that the files written by other writers are counted and evicted`() = runTest {
+        val fileSize = Folder.Thumbnail.maxSizeInBytes / 4
+        val otherFiles = (1..4).map {
+            createFile(thumbnailFolder, "$it.jpg", fileSize, lastModified = it * 1000L)
+        }
+        val underTest = createUnderTest(backgroundScope)
+
+        underTest.onWritten(Folder.Thumbnail, createFile(thumbnailFolder, "5.jpg", 10))
+        underTest.trim(Folder.Thumbnail)
+
+        assertThat(otherFiles[0].exists()).isFalse()
+        assertThat(otherFiles[1].exists()).isTrue()
+        val metrics = underTest.getMetrics(Folder.Thumbnail)
+        assertThat(metrics.sizeInBytes).isEqualTo(3 * fileSize + 10)
+        assertThat(metrics.evictionCount).isEqualTo(1)
+    }
+
+    private fun createUnderTest(scope: CoroutineScope) =
+        ThumbnailPreviewDiskCache(cacheGateway, scope, UnconfinedTestDispatcher())
+
+    private fun createFile(
+        folder: File,
+        name: String,
+        size: Long,
+        lastModified: Long? = null,
+    ) = File(folder, name).apply {
+        RandomAccessFile(this, "rw").use { it.setLength(size) }
+        lastModified?.let { setLastModified(it) }
+    }
+}
@@ -0,0 +1,89 @@
+package mega.privacy.android.data.facade
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.async
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.model.GlobalTransfer
+import nz.mega.sdk.MegaTransfer
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.mock
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class GlobalTransferQueueTest {
+
+    private val underTest = GlobalTransferQueue(maxConflatedEvents = 2)
+
+    @Test
+    fun `test that the pending updates of a transfer are merged into the latest one`() = runTest {
+        val transfer = createMegaTransfer(1)
+        val firstUpdate = GlobalTransfer.OnTransferUpdate(transfer)
+        val lastUpdate = GlobalTransfer.OnTransferUpdate(transfer)
+
+        underTest.offer(firstUpdate)
+        underTest.offer(lastUpdate)
+
+        assertThat(underTest.take()).isSameInstanceAs(lastUpdate)
+        assertThat(underTest.getMetrics().mergedEventCount).isEqualTo(1)
+        assertThat(underTest.getMetrics().queueDepth).isEqualTo(0)
+    }
+
+    @Test
+    fun `test that the start and finish events are never merged`() = runTest {
+        val transfer = createMegaTransfer(1)
+        val events = listOf(
+            GlobalTransfer.OnTransferStart(transfer),
+            GlobalTransfer.OnTransferUpdate(transfer),
+            GlobalTransfer.OnTransferFinish(transfer, mock()),
+        )
+
+        events.forEach { underTest.offer(it) }
+
+        assertThat(List(events.size) { underTest.take() }).isEqualTo(events)
+    }
+
+    @Test
+    fun `test that an update received after a finish event is delivered after it`() = runTest {
+        val transfer = createMegaTransfer(1)
+        val update = GlobalTransfer.OnTransferUpdate(transfer)
+        val error = GlobalTransfer.OnTransferTemporaryError(transfer, mock())
+        val laterUpdate = GlobalTransfer.OnTransferUpdate(transfer)
+
+        underTest.offer(update)
+        underTest.offer(error)
+        underTest.offer(laterUpdate)
+
+        assertThat(List(3) { underTest.take() }).containsExactly(update, error, laterUpdate)
+            .inOrder()
+    }
+
+    @Test
+    fun `test that the updates of a new transfer are dropped when the queue is full`() = runTest {
+        val start = GlobalTransfer.OnTransferStart(createMegaTransfer(4))
+
+        (1..3).forEach { underTest.offer(GlobalTransfer.OnTransferUpdate(createMegaTransfer(it))) }
+        underTest.offer(start)
+
+        val metrics = underTest.getMetrics()
+        assertThat(metrics.droppedEventCount).isEqualTo(1)
+        assertThat(metrics.queueDepth).isEqualTo(3)
+        assertThat(metrics.maxQueueDepth).isEqualTo(3)
+    }
+
+    @Test
+    fun `test that take waits for an event`() = runTest {
+        val start = GlobalTransfer.OnTransferStart(createMegaTransfer(1))
+        val event = async { underTest.take() }
+        runCurrent()
+        assertThat(event.isCompleted).isFalse()
+
+        underTest.offer(start)
+
+        assertThat(event.await()).isSameInstanceAs(start)
+    }
+
+    private fun createMegaTransfer(tag: Int) = mock<MegaTransfer> {
+        on { this.tag }.thenReturn(tag)
+    }
+}
@@ -12,12 +12,14 @@ import mega.privacy.android.data.database.dao.BackupDao
 import mega.privacy.android.data.database.dao.CameraUploadsRecordDao
 import mega.privacy.android.data.database.dao.CompletedTransferDao
 import mega.privacy.android.data.database.dao.ContactDao
+import mega.privacy.android.data.database.dao.NodeSearchIndexDao
 import mega.privacy.android.data.database.dao.OfflineDao
 import mega.privacy.android.data.database.dao.SdTransferDao
 import mega.privacy.android.data.database.dao.SyncRecordDao
 import mega.privacy.android.data.database.entity.BackupEntity
 import mega.privacy.android.data.database.entity.CameraUploadsRecordEntity
 import mega.privacy.android.data.database.entity.CompletedTransferEntity
+import mega.privacy.android.data.database.entity.NodeSearchIndexEntity
 import mega.privacy.android.data.database.entity.SdTransferEntity
 import mega.privacy.android.data.database.entity.SyncRecordEntity
 import mega.privacy.android.data.mapper.SyncStatusIntMapper
@@ -38,7 +40,9 @@ import mega.privacy.android.data.mapper.transfer.completed.CompletedTransferEnti
 import mega.privacy.android.data.mapper.transfer.completed.CompletedTransferModelMapper
 import mega.privacy.android.data.mapper.transfer.sd.SdTransferEntityMapper
 import mega.privacy.android.data.mapper.transfer.sd.SdTransferModelMapper
+import mega.privacy.android.data.model.node.IndexedNode
 import mega.privacy.android.domain.entity.SdTransfer
+import mega.privacy.android.domain.entity.SortOrder
 import mega.privacy.android.domain.entity.SyncRecord
 import mega.privacy.android.domain.entity.SyncRecordType
 import mega.privacy.android.domain.entity.SyncStatus
@@ -47,6 +51,7 @@ import mega.privacy.android.domain.entity.backup.BackupInfoType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUploadStatus
+import mega.privacy.android.domain.entity.search.SearchCategory
 import mega.privacy.android.domain.entity.transfer.CompletedTransfer
 import org.junit.jupiter.api.BeforeAll
 import org.junit.jupiter.api.BeforeEach
@@ -60,6 +65,7 @@ import org.junit.jupiter.params.provider.ValueSource
 import org.mockito.kotlin.doReturn
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.reset
+import org.mockito.kotlin.stub
 import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 import java.util.stream.Stream
@@ -98,6 +104,7 @@ internal class MegaLocalRoomFacadeTest {
     private val cameraUploadsRecordDao: CameraUploadsRecordDao = mock()
     private val cameraUploadsRecordEntityMapper: CameraUploadsRecordEntityMapper = mock()
     private val cameraUploadsRecordModelMapper: CameraUploadsRecordModelMapper = mock()
+    private val nodeSearchIndexDao: NodeSearchIndexDao = mock()
 
     @BeforeAll
     fun setUp() {
@@ -130,6 +137,7 @@ internal class MegaLocalRoomFacadeTest {
             cameraUploadsRecordDao = cameraUploadsRecordDao,
             cameraUploadsRecordEntityMapper = cameraUploadsRecordEntityMapper,
             cameraUploadsRecordModelMapper = cameraUploadsRecordModelMapper,
+            nodeSearchIndexDao = nodeSearchIndexDao,
         )
     }
 
@@ -156,6 +164,7 @@ internal class MegaLocalRoomFacadeTest {
             cameraUploadsRecordDao,
             cameraUploadsRecordEntityMapper,
             cameraUploadsRecordModelMapper,
+            nodeSearchIndexDao,
         )
     }
 
@@ -701,9 +710,7 @@ internal class MegaLocalRoomFacadeTest {
         runTest {
             val entities = listOf<CameraUploadsRecordEntity>(mock())
             val expected = listOf<CameraUploadsRecord>(mock())
-            entities.mapIndexed { index, entity ->
-                whenever(cameraUploadsRecordModelMapper(entity)).thenReturn(expected[index])
-            }
+            whenever(cameraUploadsRecordModelMapper(entities)).thenReturn(expected)
             val status = listOf<CameraUploadsRecordUploadStatus>(mock())
             val types = listOf<SyncRecordType>(mock())
             val folderTypes = listOf<CameraUploadFolderType>(mock())
@@ -816,6 +823,35 @@ internal class MegaLocalRoomFacadeTest {
         Arguments.of("encryptedMediaId", "encryptedTimestamp", null),
     )
 
+    @Test
+    fun `test that setCameraUploadsRecordGpsCoordinates saves the encrypted coordinates`() =
+        runTest {
+            val mediaId = 0L
+            val timestamp = 1L
+            val folderType = CameraUploadFolderType.Primary
+
+            whenever(encryptData(mediaId.toString())).thenReturn("encryptedMediaId")
+            whenever(encryptData(timestamp.toString())).thenReturn("encryptedTimestamp")
+            whenever(encryptData("1.5")).thenReturn("encryptedLatitude")
+            whenever(encryptData("2.5")).thenReturn("encryptedLongitude")
+
+            underTest.setCameraUploadsRecordGpsCoordinates(
+                mediaId,
+                timestamp,
+                folderType,
+                1.5F,
+                2.5F,
+            )
+
+            verify(cameraUploadsRecordDao).updateCameraUploadsRecordGpsCoordinates(
+                "encryptedMediaId",
+                "encryptedTimestamp",
+                folderType,
+                "encryptedLatitude",
+                "encryptedLongitude",
+            )
+        }
+
     @Test
     fun `test that deleteCameraUploadsRecords deletes the corresponding items`() =
         runTest {
@@ -831,9 +867,7 @@ internal class MegaLocalRoomFacadeTest {
         runTest {
             val entities = listOf<CameraUploadsRecordEntity>(mock())
             val expected = listOf<CameraUploadsRecord>(mock())
-            entities.mapIndexed { index, entity ->
-                whenever(cameraUploadsRecordModelMapper(entity)).thenReturn(expected[index])
-            }
+            whenever(cameraUploadsRecordModelMapper(entities)).thenReturn(expected)
             whenever(
                 cameraUploadsRecordDao.getAllCameraUploadsRecords()
             ).thenReturn(entities)
@@ -841,6 +875,94 @@ internal class MegaLocalRoomFacadeTest {
             assertThat(underTest.getAllCameraUploadsRecords()).isEqualTo(expected)
         }
 
+    @Test
+    fun `test that insertOrUpdateIndexedNodes inserts the nodes as entities`() = runTest {
+        val indexedNode = IndexedNode(
+            handle = 1L,
+            nameTokens = "a1f0 b2e1",
+            parentHandle = 2L,
+            isFolder = false,
+            searchCategory = SearchCategory.IMAGES,
+            size = 100L,
+            modificationTime = 1000L,
+        )
+
+        underTest.insertOrUpdateIndexedNodes(listOf(indexedNode))
+
+        verify(nodeSearchIndexDao).insertOrUpdateNodes(
+            listOf(
+                NodeSearchIndexEntity(
+                    handle = 1L,
+                    nameTokens = "a1f0 b2e1",
+                    parentHandle = 2L,
+                    isFolder = false,
+                    category = SearchCategory.IMAGES.name,
+                    size = 100L,
+                    modificationTime = 1000L,
+                )
+            )
+        )
+    }
+
+    @Test
+    fun `test that deleteIndexedNodes deletes the nodes and all their indexed descendants`() =
+        runTest {
+            nodeSearchIndexDao.stub {
+                onBlocking { getChildHandles(listOf(1L)) }.thenReturn(listOf(2L, 3L))
+                onBlocking { getChildHandles(listOf(2L, 3L)) }.thenReturn(listOf(4L))
+                onBlocking { getChildHandles(listOf(4L)) }.thenReturn(emptyList())
+            }
+
+            underTest.deleteIndexedNodes(listOf(1L))
+
+            verify(nodeSearchIndexDao).deleteNodes(listOf(1L))
+            verify(nodeSearchIndexDao).deleteNodes(listOf(2L, 3L))
+            verify(nodeSearchIndexDao).deleteNodes(listOf(4L))
+        }
+
+    @Test
+    fun `test that searchIndexedNodes searches any category and time when they are not set`() =
+        runTest {
+            nodeSearchIndexDao.stub {
+                onBlocking {
+                    searchNodes("a1f0", null, null, null, SortOrder.ORDER_SIZE_DESC.name)
+                }.thenReturn(listOf(1L))
+            }
+
+            assertThat(
+                underTest.searchIndexedNodes(
+                    match = "a1f0",
+                    searchCategory = SearchCategory.ALL,
+                    modificationTimeRange = null,
+                    order = SortOrder.ORDER_SIZE_DESC,
+                )
+            ).containsExactly(1L)
+        }
+
+    @Test
+    fun `test that searchIndexedNodes filters by category and modification time`() = runTest {
+        nodeSearchIndexDao.stub {
+            onBlocking {
+                searchNodes(
+                    "a1f0",
+                    SearchCategory.VIDEO.name,
+                    10L,
+                    20L,
+                    SortOrder.ORDER_DEFAULT_ASC.name
+                )
+            }.thenReturn(listOf(2L))
+        }
+
+        assertThat(
+            underTest.searchIndexedNodes(
+                match = "a1f0",
+                searchCategory = SearchCategory.VIDEO,
+                modificationTimeRange = 10L..20L,
+                order = SortOrder.ORDER_DEFAULT_ASC,
+            )
+        ).containsExactly(2L)
+    }
+
     private fun provideDoesFileNameExistParameters() = Stream.of(
         Arguments.of(true, 1, true),
         Arguments.of(false, 1, true),
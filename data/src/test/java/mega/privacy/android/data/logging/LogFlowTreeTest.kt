@@ -1,8 +1,11 @@
 package mega.privacy.android.data.logging
 
+import app.cash.turbine.test
+import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.entity.logging.CreateLogEntryRequest
 import mega.privacy.android.domain.entity.logging.LogEntry
 import mega.privacy.android.domain.usecase.CreateLogEntry
 import org.junit.Before
@@ -10,6 +13,7 @@ import org.junit.Test
 import org.mockito.kotlin.any
 import org.mockito.kotlin.argForWhich
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.stub
 import org.mockito.kotlin.verifyBlocking
 import timber.log.Timber
 
@@ -44,4 +48,54 @@ class LogFlowTreeTest {
         verifyBlocking(createLogEntry) { invoke(argForWhich { loggingClasses.containsAll(expected) }) }
     }
 
+    @Test
+    fun `test that the caller trace is captured for untagged messages`() = runTest {
+        underTest.d("Message")
+
+        verifyBlocking(createLogEntry) { invoke(argForWhich { trace.isNotEmpty() }) }
+    }
+
+    @Test
+    fun `test that the caller trace is not captured for tagged messages`() = runTest {
+        Timber.plant(underTest)
+        try {
+            Timber.tag("[sdk]").d("Message")
+        } finally {
+            Timber.uproot(underTest)
+        }
+
+        verifyBlocking(createLogEntry) { invoke(argForWhich { tag == "[sdk]" && trace.isEmpty() }) }
+    }
+
+    @Test
+    fun `test that entries are emitted in the order they are logged`() = runTest {
+        createLogEntry.stub {
+            onBlocking { invoke(any()) }.thenAnswer {
+                LogEntry(message = it.getArgument<CreateLogEntryRequest>(0).message, priority = 0)
+            }
+        }
+        val messages = List(10) { "Message $it" }
+
+        underTest.logFlow.test {
+            messages.forEach { underTest.d(it) }
+            assertThat(List(messages.size) { awaitItem().message }).isEqualTo(messages)
+        }
+    }
+
+    @Test
+    fun `test that entries are still emitted after an entry fails to be created`() = runTest {
+        createLogEntry.stub {
+            onBlocking { invoke(any()) }.thenAnswer {
+                val message = it.getArgument<CreateLogEntryRequest>(0).message
+                if (message == "Failing") throw IllegalStateException()
+                LogEntry(message = message, priority = 0)
+            }
+        }
+
+        underTest.logFlow.test {
+            underTest.d("Failing")
+            underTest.d("Message")
+            assertThat(awaitItem().message).isEqualTo("Message")
+        }
+    }
 }
\ No newline at end of file
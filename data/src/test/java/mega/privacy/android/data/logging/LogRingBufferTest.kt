@@ -0,0 +1,78 @@
+package mega.privacy.android.data.logging
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.async
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import org.junit.jupiter.api.Test
+import kotlin.concurrent.thread
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class LogRingBufferTest {
+
+    @Test
+    fun `test that entries are polled in the order they are offered`() {
+        val underTest = LogRingBuffer<Int>(capacity = 4)
+
+        (1..3).forEach { underTest.offer(it) }
+
+        assertThat(List(3) { underTest.poll() }).containsExactly(1, 2, 3).inOrder()
+        assertThat(underTest.poll()).isNull()
+    }
+
+    @Test
+    fun `test that new entries are dropped when the buffer is full`() {
+        val underTest = LogRingBuffer<Int>(capacity = 2)
+
+        val offered = (1..3).map { underTest.offer(it) }
+
+        assertThat(offered).containsExactly(true, true, false).inOrder()
+        assertThat(underTest.droppedCount).isEqualTo(1)
+        assertThat(underTest.poll()).isEqualTo(1)
+        assertThat(underTest.offer(4)).isTrue()
+        assertThat(List(2) { underTest.poll() }).containsExactly(2, 4).inOrder()
+    }
+
+    @Test
+    fun `test that the capacity is rounded up to a power of two`() {
+        val underTest = LogRingBuffer<Int>(capacity = 3)
+
+        val offered = (1..5).map { underTest.offer(it) }
+
+        assertThat(offered.count { it }).isEqualTo(4)
+    }
+
+    @Test
+    fun `test that take waits for an entry`() = runTest {
+        val underTest = LogRingBuffer<Int>()
+        val entry = async { underTest.take() }
+        runCurrent()
+        assertThat(entry.isCompleted).isFalse()
+
+        underTest.offer(1)
+
+        assertThat(entry.await()).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that no entry is lost with concurrent producers`() = runTest {
+        val underTest = LogRingBuffer<Int>(capacity = PRODUCERS * ENTRIES_PER_PRODUCER)
+        val producers = List(PRODUCERS) { producer ->
+            thread {
+                repeat(ENTRIES_PER_PRODUCER) { underTest.offer(producer * ENTRIES_PER_PRODUCER + it) }
+            }
+        }
+
+        val taken = List(PRODUCERS * ENTRIES_PER_PRODUCER) { underTest.take() }
+        producers.forEach { it.join() }
+
+        assertThat(taken.toSet()).hasSize(PRODUCERS * ENTRIES_PER_PRODUCER)
+        assertThat(underTest.droppedCount).isEqualTo(0)
+    }
+
+    private companion object {
+        const val PRODUCERS = 4
+        const val ENTRIES_PER_PRODUCER = 1_000
+    }
+}
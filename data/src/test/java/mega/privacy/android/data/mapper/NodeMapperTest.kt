@@ -3,6 +3,7 @@ package mega.privacy.android.data.mapper
 import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.cache.CacheFolderPaths
 import mega.privacy.android.data.gateway.MegaLocalRoomGateway
 import mega.privacy.android.data.gateway.api.MegaApiFolderGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
@@ -24,7 +25,10 @@ import org.junit.jupiter.params.ParameterizedTest
 import org.junit.jupiter.params.provider.ValueSource
 import org.mockito.kotlin.any
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
 import org.mockito.kotlin.stub
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 
 @OptIn(ExperimentalCoroutinesApi::class)
@@ -65,7 +69,7 @@ class NodeMapperTest {
     internal fun setUp() {
         underTest = NodeMapper(
             fileNodeMapper = FileNodeMapper(
-                cacheGateway = mock(),
+                cacheFolderPaths = CacheFolderPaths(mock()),
                 megaApiGateway = megaApiGateway,
                 fileTypeInfoMapper = { PdfFileTypeInfo },
                 offlineAvailabilityMapper = offlineAvailabilityMapper,
@@ -115,6 +119,7 @@ class NodeMapperTest {
             onBlocking { getNumChildFiles(node) }.thenReturn(expectedNumChildFiles)
             onBlocking { isInRubbish(node) }.thenReturn(true)
             onBlocking { isPendingShare(node) }.thenReturn(true)
+            on { getMegaNodeByHandleBlocking(expectedId) }.thenReturn(node)
         }
         whenever(megaLocalRoomGateway.getOfflineInformation(node.handle)).thenReturn(null)
         whenever(megaLocalRoomGateway.isOfflineInformationAvailable(node.handle)).thenReturn(true)
@@ -132,10 +137,77 @@ class NodeMapperTest {
         assertThat(actual.isTakenDown).isEqualTo(node.isTakenDown)
         assertThat(actual).isInstanceOf(DefaultFolderNode::class.java)
         val actualAsFolder = actual as DefaultFolderNode
+        assertThat(actualAsFolder.childFolderCount).isEqualTo(expectedNumChildFolders)
+        assertThat(actualAsFolder.childFileCount).isEqualTo(expectedNumChildFiles)
         assertThat(actualAsFolder.isInRubbishBin).isTrue()
         assertThat(actualAsFolder.isPendingShare).isTrue()
     }
 
+    @Test
+    fun `test that the folder child counts are read while mapping`() = runTest {
+        val node = getMockNode(isFile = false)
+        megaApiGateway.stub {
+            on { getNumChildFolders(node) }.thenReturn(2)
+            on { getNumChildFiles(node) }.thenReturn(3)
+        }
+
+        val actual = underTest(megaNode = node) as DefaultFolderNode
+
+        verify(megaApiGateway, times(1)).getNumChildFolders(node)
+        verify(megaApiGateway, times(1)).getNumChildFiles(node)
+        assertThat(actual.childFolderCount).isEqualTo(2)
+        assertThat(actual.childFileCount).isEqualTo(3)
+    }
+
+    @Test
+    fun `test that the folder versions are read from the node looked up when first accessed`() =
+        runTest {
+            val node = getMockNode(isFile = false)
+            megaApiGateway.stub {
+                on { getMegaNodeByHandleBlocking(expectedId) }.thenReturn(node)
+                on { hasVersion(node) }.thenReturn(true)
+            }
+
+            val actual = underTest(megaNode = node) as DefaultFolderNode
+
+            verify(megaApiGateway, never()).getMegaNodeByHandleBlocking(expectedId)
+            verify(megaApiGateway, never()).hasVersion(node)
+            assertThat(actual.hasVersion).isTrue()
+            assertThat(actual.hasVersion).isTrue()
+            verify(megaApiGateway, times(1)).getMegaNodeByHandleBlocking(expectedId)
+            verify(megaApiGateway, times(1)).hasVersion(node)
+            verify(megaApiGateway, never()).isInRubbish(node)
+        }
+
+    @Test
+    fun `test that the lazy attributes are false when the node no longer exists`() = runTest {
+        val node = getMockNode(isFile = true)
+        megaApiGateway.stub {
+            on { getMegaNodeByHandleBlocking(expectedId) }.thenReturn(null)
+        }
+
+        val actual = underTest(megaNode = node)
+
+        assertThat(actual.hasVersion).isFalse()
+        verify(megaApiGateway, never()).hasVersion(node)
+    }
+
+    @Test
+    fun `test that folders mapped from the same node are equal without reading the attributes`() =
+        runTest {
+            val node = getMockNode(isFile = false)
+
+            val first = underTest(megaNode = node)
+            val second = underTest(megaNode = node)
+
+            assertThat(first).isEqualTo(second)
+            assertThat(first.hashCode()).isEqualTo(second.hashCode())
+            assertThat(first.toString()).isNotEmpty()
+            verify(megaApiGateway, never()).getMegaNodeByHandleBlocking(any())
+            verify(megaApiGateway, never()).hasVersion(node)
+            verify(megaApiGateway, never()).isInRubbish(node)
+        }
+
     @Test
     fun `test that serialized string is not null when requireSerializedString is true`() = runTest {
         val megaNode = getMockNode(isFile = true)
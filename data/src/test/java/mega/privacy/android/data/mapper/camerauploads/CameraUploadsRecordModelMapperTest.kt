@@ -18,8 +18,11 @@ import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
 import org.junit.jupiter.api.assertThrows
+import org.mockito.kotlin.any
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
 import org.mockito.kotlin.reset
+import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 
 @OptIn(ExperimentalCoroutinesApi::class)
@@ -150,13 +153,64 @@ class CameraUploadsRecordModelMapperTest {
     }
 
 
+    @Test
+    fun `test that mapper decrypts all the entities in a single batch when invoked with a list`() =
+        runTest {
+            val entities = listOf(1L, 2L).map {
+                CameraUploadsRecordEntity(
+                    encryptedMediaId = "mediaId$it",
+                    encryptedFileName = "fileName$it",
+                    encryptedFilePath = "filePath$it",
+                    encryptedTimestamp = "timestamp$it",
+                    folderType = CameraUploadFolderType.Primary,
+                    fileType = SyncRecordType.TYPE_PHOTO,
+                    uploadStatus = CameraUploadsRecordUploadStatus.PENDING,
+                    encryptedOriginalFingerprint = "originalFingerprint$it",
+                    encryptedGeneratedFingerprint = null,
+                    encryptedTempFilePath = "tempFilePath$it",
+                )
+            }
+            val expected = listOf(1L, 2L).map {
+                CameraUploadsRecord(
+                    mediaId = it,
+                    fileName = "fileName$it",
+                    filePath = "filePath$it",
+                    timestamp = it * 100,
+                    folderType = CameraUploadFolderType.Primary,
+                    type = SyncRecordType.TYPE_PHOTO,
+                    uploadStatus = CameraUploadsRecordUploadStatus.PENDING,
+                    originalFingerprint = "originalFingerprint$it",
+                    generatedFingerprint = null,
+                    tempFilePath = "tempFilePath$it",
+                )
+            }
+            whenever(decryptData.decryptAll(any())).thenReturn(
+                expected.flatMap {
+                    listOf(
+                        it.mediaId.toString(),
+                        it.timestamp.toString(),
+                        it.fileName,
+                        it.filePath,
+                        it.originalFingerprint,
+                        null,
+                        it.tempFilePath,
+                        null,
+                        null,
+                    )
+                }
+            )
+
+            assertThat(underTest(entities)).isEqualTo(expected)
+            verify(decryptData, never()).invoke(any())
+        }
+
     @Test
     fun `test that when the coroutine is cancelled mapper returns cancellation exception`() {
         val testScope = TestScope()
         testScope.launch {
             cancel()
             assertThrows<CancellationException> {
-                underTest(mock())
+                underTest(mock<CameraUploadsRecordEntity>())
             }
         }
     }
@@ -40,12 +40,13 @@ internal class FetchChildrenMapperTest {
     @Test
     internal fun `test that the children are returned as untyped nodes when the function is called`() =
         runTest {
-            val megaNode = mock<MegaNode>()
+            val megaNode = mock<MegaNode> { on { handle }.thenReturn(1L) }
             val expectedOrder = 5
             val sortOrder = SortOrder.ORDER_ALPHABETICAL_ASC
             whenever(sortOrderIntMapper(sortOrder)).thenReturn(expectedOrder)
             val child = mock<MegaNode>()
             megaApiGateway.stub {
+                onBlocking { getMegaNodeByHandle(1L) }.thenReturn(megaNode)
                 onBlocking { getChildren(megaNode, expectedOrder) }.thenReturn(listOf(child))
             }
             val expected = mock<FileNode>()
@@ -57,4 +58,15 @@ internal class FetchChildrenMapperTest {
 
         }
 
+    @Test
+    internal fun `test that no children are returned when the node no longer exists`() =
+        runTest {
+            val megaNode = mock<MegaNode> { on { handle }.thenReturn(1L) }
+            megaApiGateway.stub {
+                onBlocking { getMegaNodeByHandle(1L) }.thenReturn(null)
+            }
+
+            val func = underTest(megaNode)
+            assertThat(func(SortOrder.ORDER_ALPHABETICAL_ASC)).isEmpty()
+        }
 }
\ No newline at end of file
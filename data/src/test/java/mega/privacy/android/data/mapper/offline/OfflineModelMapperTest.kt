@@ -51,4 +51,64 @@ internal class OfflineModelMapperTest {
         whenever(decryptData(model.encryptedIncomingHandle)).thenReturn(expected.handleIncoming)
         Truth.assertThat(underTest(model)).isEqualTo(expected)
     }
-}
\ No newline at end of file
+
+    @Test
+    fun `test that mapper decrypts all the entities in a single batch when invoked with a list`() =
+        runTest {
+            val entities = listOf(
+                OfflineEntity(
+                    id = 1,
+                    encryptedHandle = "handle1",
+                    encryptedPath = "path1",
+                    encryptedName = "name1",
+                    parentId = -1,
+                    encryptedType = "type1",
+                    incoming = 0,
+                    encryptedIncomingHandle = "incoming1",
+                    lastModifiedTime = 10
+                ),
+                OfflineEntity(
+                    id = 2,
+                    encryptedHandle = "handle2",
+                    encryptedPath = "path2",
+                    encryptedName = "name2",
+                    parentId = 1,
+                    encryptedType = "type2",
+                    incoming = 1,
+                    encryptedIncomingHandle = null,
+                    lastModifiedTime = 20
+                ),
+            )
+            val encryptedFields = listOf(
+                "handle1", "path1", "name1", "type1", "incoming1",
+                "handle2", "path2", "name2", "type2", null,
+            )
+            whenever(decryptData.decryptAll(encryptedFields))
+                .thenReturn(encryptedFields.map { it?.let { field -> "decrypted $field" } })
+
+            Truth.assertThat(underTest(entities)).containsExactly(
+                Offline(
+                    id = 1,
+                    handle = "decrypted handle1",
+                    path = "decrypted path1",
+                    name = "decrypted name1",
+                    parentId = -1,
+                    type = "decrypted type1",
+                    origin = 0,
+                    handleIncoming = "decrypted incoming1",
+                    lastModifiedTime = 10,
+                ),
+                Offline(
+                    id = 2,
+                    handle = "decrypted handle2",
+                    path = "decrypted path2",
+                    name = "decrypted name2",
+                    parentId = 1,
+                    type = "decrypted type2",
+                    origin = 1,
+                    handleIncoming = "",
+                    lastModifiedTime = 20,
+                ),
+            ).inOrder()
+        }
+}
@@ -0,0 +1,41 @@
+package mega.privacy.android.data.mapper.search
+
+import com.google.common.truth.Truth
+import mega.privacy.android.domain.entity.AudioFileTypeInfo
+import mega.privacy.android.domain.entity.FileTypeInfo
+import mega.privacy.android.domain.entity.GifFileTypeInfo
+import mega.privacy.android.domain.entity.PdfFileTypeInfo
+import mega.privacy.android.domain.entity.RawFileTypeInfo
+import mega.privacy.android.domain.entity.StaticImageFileTypeInfo
+import mega.privacy.android.domain.entity.TextFileTypeInfo
+import mega.privacy.android.domain.entity.UnknownFileTypeInfo
+import mega.privacy.android.domain.entity.VideoFileTypeInfo
+import mega.privacy.android.domain.entity.search.SearchCategory
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.Arguments
+import org.junit.jupiter.params.provider.MethodSource
+import java.util.stream.Stream
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class FileTypeSearchCategoryMapperTest {
+    private val underTest = FileTypeSearchCategoryMapper()
+
+    @ParameterizedTest(name = "test {0} is mapped to {1}")
+    @MethodSource("provideParameters")
+    fun `test mapped correctly`(fileTypeInfo: FileTypeInfo, searchCategory: SearchCategory) {
+        val actual = underTest(fileTypeInfo)
+        Truth.assertThat(actual).isEqualTo(searchCategory)
+    }
+
+    private fun provideParameters(): Stream<Arguments> = Stream.of(
+        Arguments.of(StaticImageFileTypeInfo("image/jpeg", "jpg"), SearchCategory.IMAGES),
+        Arguments.of(GifFileTypeInfo("image/gif", "gif"), SearchCategory.IMAGES),
+        Arguments.of(RawFileTypeInfo("image/x-canon-cr2", "cr2"), SearchCategory.IMAGES),
+        Arguments.of(VideoFileTypeInfo("video/mp4", "mp4", 10), SearchCategory.VIDEO),
+        Arguments.of(AudioFileTypeInfo("audio/mpeg", "mp3", 10), SearchCategory.AUDIO),
+        Arguments.of(PdfFileTypeInfo, SearchCategory.ALL),
+        Arguments.of(TextFileTypeInfo("text/plain", "txt"), SearchCategory.ALL),
+        Arguments.of(UnknownFileTypeInfo("application/octet-stream", "bin"), SearchCategory.ALL),
+    )
+}
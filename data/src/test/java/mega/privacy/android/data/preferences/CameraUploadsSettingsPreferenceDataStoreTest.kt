@@ -2,6 +2,7 @@ package mega.privacy.android.data.preferences
 
 import androidx.datastore.core.DataStore
 import androidx.datastore.preferences.core.Preferences
+import com.google.gson.Gson
 import com.google.common.truth.Truth
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.ExperimentalCoroutinesApi
@@ -13,6 +14,9 @@ import kotlinx.coroutines.test.runTest
 import kotlinx.coroutines.test.setMain
 import mega.privacy.android.data.cryptography.DecryptData
 import mega.privacy.android.data.cryptography.EncryptData
+import mega.privacy.android.domain.entity.MediaStoreFileType
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
+import mega.privacy.android.domain.entity.camerauploads.MediaStoreScanWatermark
 import org.junit.jupiter.api.AfterAll
 import org.junit.jupiter.api.BeforeAll
 import org.junit.jupiter.api.BeforeEach
@@ -381,4 +385,58 @@ internal class CameraUploadsSettingsPreferenceDataStoreTest {
 
             Truth.assertThat(underTest.isUploadByWifi()).isEqualTo(expected)
         }
+
+    @Test
+    internal fun `test that media store scan watermark is encrypted when set`() =
+        runTest {
+            val input = MediaStoreScanWatermark(
+                parentPath = "parentPath",
+                mediaStoreVersion = "version",
+                generation = 10L,
+                timestamp = 1000L,
+            )
+
+            underTest.setMediaStoreScanWatermark(
+                CameraUploadFolderType.Primary,
+                MediaStoreFileType.IMAGES_EXTERNAL,
+                input,
+            )
+
+            verifyBlocking(encryptData) { invoke(Gson().toJson(input)) }
+        }
+
+    @Test
+    internal fun `test that media store scan watermark is decrypted when retrieved`() =
+        runTest {
+            val expected = MediaStoreScanWatermark(
+                parentPath = "parentPath",
+                mediaStoreVersion = null,
+                generation = null,
+                timestamp = 1000L,
+            )
+
+            decryptData.stub {
+                onBlocking { invoke(any()) }.thenReturn(Gson().toJson(expected))
+            }
+
+            Truth.assertThat(
+                underTest.getMediaStoreScanWatermark(
+                    CameraUploadFolderType.Primary,
+                    MediaStoreFileType.IMAGES_EXTERNAL,
+                )
+            ).isEqualTo(expected)
+        }
+
+    @Test
+    internal fun `test that media store scan watermark is null when the saved value is invalid`() =
+        runTest {
+            decryptData.stub { onBlocking { invoke(any()) }.thenReturn("invalid") }
+
+            Truth.assertThat(
+                underTest.getMediaStoreScanWatermark(
+                    CameraUploadFolderType.Secondary,
+                    MediaStoreFileType.VIDEO_EXTERNAL,
+                )
+            ).isNull()
+        }
 }
@@ -96,6 +96,28 @@ internal class CancelTokenProviderTest {
             verify(megaCancelToken).cancel()
         }
 
+    @Test
+    fun `test that a token is cancelled and no longer returned when it is the current one`() =
+        runTest {
+            stubTokenCreation()
+            val token = underTest.getOrCreateCancelToken()
+            underTest.cancelToken(token)
+            underTest.getOrCreateCancelToken()
+            verify(megaCancelToken).cancel()
+            verify(megaApiGateway, times(2)).createCancelToken()
+        }
+
+    @Test
+    fun `test that cancelling a previous token keeps the current one`() = runTest {
+        val previousToken = mock<MegaCancelToken>()
+        stubTokenCreation()
+        underTest.getOrCreateCancelToken()
+        underTest.cancelToken(previousToken)
+        underTest.getOrCreateCancelToken()
+        verify(previousToken).cancel()
+        verify(megaApiGateway).createCancelToken()
+    }
+
     private fun stubTokenCreation() {
         whenever(megaApiGateway.createCancelToken()).thenReturn(megaCancelToken)
     }
@@ -124,6 +124,7 @@ class DefaultAccountRepositoryTest {
         mock<CameraUploadsSettingsPreferenceGateway>()
     private val cookieSettingsMapper = mock<CookieSettingsMapper>()
     private val cookieSettingsIntMapper = mock<CookieSettingsIntMapper>()
+    private val nodeSearchIndex = mock<NodeSearchIndex>()
 
     private val pricing = mock<MegaPricing> {
         on { numProducts }.thenReturn(1)
@@ -226,6 +227,7 @@ class DefaultAccountRepositoryTest {
             cameraUploadsSettingsPreferenceGateway = cameraUploadsSettingsPreferenceGateway,
             cookieSettingsMapper = cookieSettingsMapper,
             cookieSettingsIntMapper = cookieSettingsIntMapper,
+            nodeSearchIndex = nodeSearchIndex,
         )
 
     }
@@ -969,6 +971,7 @@ class DefaultAccountRepositoryTest {
             verify(localStorageGateway).clearPreferences()
             verify(localStorageGateway).setFirstTime(false)
             verify(megaLocalRoomGateway).clearOffline()
+            verify(nodeSearchIndex).clear()
             verify(localStorageGateway).clearContacts()
             verify(localStorageGateway).clearNonContacts()
             verify(localStorageGateway).clearChatItems()
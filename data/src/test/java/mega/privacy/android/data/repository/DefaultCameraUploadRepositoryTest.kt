@@ -45,10 +45,12 @@ import mega.privacy.android.domain.entity.VideoCompressionState
 import mega.privacy.android.domain.entity.VideoQuality
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsStatusInfo
+import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.settings.camerauploads.UploadOption
 import mega.privacy.android.domain.exception.MegaException
 import mega.privacy.android.domain.repository.CameraUploadRepository
 import nz.mega.sdk.MegaError
+import nz.mega.sdk.MegaNode
 import nz.mega.sdk.MegaRequest
 import org.junit.jupiter.api.BeforeAll
 import org.junit.jupiter.api.BeforeEach
@@ -925,4 +927,27 @@ class DefaultCameraUploadRepositoryTest {
             }
         }
     }
+
+    @Nested
+    @DisplayName("Fingerprints")
+    inner class FingerprintsTest {
+        @Test
+        fun `test that the files of the folder are mapped by fingerprint`() = runTest {
+            val folder = mock<MegaNode>()
+            whenever(megaApiGateway.getMegaNodeByHandle(1L)).thenReturn(folder)
+            whenever(megaApiGateway.getFileHandlesByFingerprint(folder))
+                .thenReturn(mapOf("fingerprint" to 2L, "originalFingerprint" to 3L))
+
+            assertThat(underTest.getFileNodeIdsByFingerprint(NodeId(1L))).isEqualTo(
+                mapOf("fingerprint" to NodeId(2L), "originalFingerprint" to NodeId(3L))
+            )
+        }
+
+        @Test
+        fun `test that an empty map is returned if the folder does not exist`() = runTest {
+            whenever(megaApiGateway.getMegaNodeByHandle(1L)).thenReturn(null)
+
+            assertThat(underTest.getFileNodeIdsByFingerprint(NodeId(1L))).isEmpty()
+        }
+    }
 }
@@ -1,11 +1,15 @@
 package mega.privacy.android.data.repository
 
+import app.cash.turbine.test
 import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.MutableSharedFlow
 import kotlinx.coroutines.flow.flowOf
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.gateway.AppEventGateway
 import mega.privacy.android.data.gateway.CacheGateway
 import mega.privacy.android.data.gateway.FileGateway
 import mega.privacy.android.data.gateway.MegaLocalStorageGateway
@@ -17,6 +21,7 @@ import mega.privacy.android.data.listener.OptionalMegaRequestListenerInterface
 import mega.privacy.android.data.mapper.FileTypeInfoMapper
 import mega.privacy.android.data.mapper.ImageMapper
 import mega.privacy.android.data.mapper.VideoMapper
+import mega.privacy.android.data.mapper.node.ImageNodeMapper
 import mega.privacy.android.data.mapper.photos.ContentConsumptionMegaStringMapMapper
 import mega.privacy.android.data.mapper.photos.TimelineFilterPreferencesJSONMapper
 import mega.privacy.android.data.wrapper.DateUtilWrapper
@@ -26,22 +31,33 @@ import mega.privacy.android.domain.entity.RawFileTypeInfo
 import mega.privacy.android.domain.entity.StaticImageFileTypeInfo
 import mega.privacy.android.domain.entity.UnknownFileTypeInfo
 import mega.privacy.android.domain.entity.VideoFileTypeInfo
+import mega.privacy.android.domain.entity.node.ImageNode
+import mega.privacy.android.domain.entity.node.Node
+import mega.privacy.android.domain.entity.node.NodeChanges
 import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.node.NodeUpdate
 import mega.privacy.android.domain.entity.photos.Photo
 import mega.privacy.android.domain.repository.NodeRepository
 import mega.privacy.android.domain.repository.PhotosRepository
+import nz.mega.sdk.MegaApiAndroid
 import nz.mega.sdk.MegaApiJava
+import nz.mega.sdk.MegaCancelToken
 import nz.mega.sdk.MegaError
 import nz.mega.sdk.MegaNode
 import nz.mega.sdk.MegaRequest
 import nz.mega.sdk.MegaStringMap
 import org.junit.Before
 import org.junit.Test
+import org.mockito.Mockito.mockStatic
 import org.mockito.kotlin.any
+import org.mockito.kotlin.anyOrNull
 import org.mockito.kotlin.eq
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 import java.time.LocalDateTime
+import java.time.ZoneOffset
 
 @OptIn(ExperimentalCoroutinesApi::class)
 class DefaultPhotosRepositoryTest {
@@ -69,6 +85,12 @@ class DefaultPhotosRepositoryTest {
     private val cameraUploadsSettingsPreferenceGateway =
         mock<CameraUploadsSettingsPreferenceGateway>()
 
+    private val imageNodeMapper = mock<ImageNodeMapper>()
+
+    private val appEventGateway = mock<AppEventGateway> {
+        on { monitorFetchNodesFinish() }.thenReturn(flowOf())
+    }
+
     private val success = mock<MegaError> { on { errorCode }.thenReturn(MegaError.API_OK) }
 
     @Before
@@ -236,6 +258,160 @@ class DefaultPhotosRepositoryTest {
             .isEqualTo(expectedMegaStringMapValue.toString())
     }
 
+    @Test
+    fun `test that a node update is applied to the loaded photos without searching them again`() =
+        runTest {
+            val nodeId = NodeId(1L)
+            val nodeUpdates = MutableSharedFlow<NodeUpdate>()
+            val favouriteMegaNode = createMegaNode(
+                handle = nodeId.longValue,
+                name = "file.image",
+                isFavourite = true,
+            )
+            stubLoadedPhotos(nodeId, nodeUpdates)
+
+            mockStatic(MegaCancelToken::class.java).use { cancelTokenMock ->
+                cancelTokenMock.`when`<MegaCancelToken> { MegaCancelToken.createInstance() }
+                    .thenReturn(mock())
+                underTest = createUnderTest(backgroundScope)
+                underTest.monitorPhotos().test {
+                    assertThat(awaitItem().single().isFavourite).isFalse()
+
+                    whenever(megaApiGateway.getMegaNodeByHandle(nodeId.longValue))
+                        .thenReturn(favouriteMegaNode)
+                    nodeUpdates.emit(
+                        NodeUpdate(mapOf(createNode(nodeId) to listOf(NodeChanges.Favourite)))
+                    )
+
+                    assertThat(awaitItem().single().isFavourite).isTrue()
+                }
+            }
+            verify(megaApiGateway, times(1)).searchByType(
+                any(),
+                any(),
+                eq(MegaApiAndroid.FILE_TYPE_PHOTO),
+                any(),
+            )
+        }
+
+    @Test
+    fun `test that a removed node is removed from the loaded photos`() = runTest {
+        val nodeId = NodeId(1L)
+        val nodeUpdates = MutableSharedFlow<NodeUpdate>()
+        stubLoadedPhotos(nodeId, nodeUpdates)
+
+        mockStatic(MegaCancelToken::class.java).use { cancelTokenMock ->
+            cancelTokenMock.`when`<MegaCancelToken> { MegaCancelToken.createInstance() }
+                .thenReturn(mock())
+            underTest = createUnderTest(backgroundScope)
+            underTest.monitorPhotos().test {
+                assertThat(awaitItem()).hasSize(1)
+
+                whenever(megaApiGateway.getMegaNodeByHandle(nodeId.longValue)).thenReturn(null)
+                nodeUpdates.emit(
+                    NodeUpdate(mapOf(createNode(nodeId) to listOf(NodeChanges.Remove)))
+                )
+
+                assertThat(awaitItem()).isEmpty()
+            }
+        }
+    }
+
+    @Test
+    fun `test that a changed node outside of the cloud drive is not added to the loaded photos`() =
+        runTest {
+            val nodeId = NodeId(1L)
+            val incomingShareNodeId = NodeId(2L)
+            val nodeUpdates = MutableSharedFlow<NodeUpdate>()
+            stubLoadedPhotos(nodeId, nodeUpdates)
+            val incomingShareMegaNode = createMegaNode(
+                handle = incomingShareNodeId.longValue,
+                name = "shared.image",
+            )
+            whenever(megaApiGateway.isInCloudDrive(incomingShareMegaNode)).thenReturn(false)
+            val favouriteMegaNode = createMegaNode(
+                handle = nodeId.longValue,
+                name = "file.image",
+                isFavourite = true,
+            )
+
+            mockStatic(MegaCancelToken::class.java).use { cancelTokenMock ->
+                cancelTokenMock.`when`<MegaCancelToken> { MegaCancelToken.createInstance() }
+                    .thenReturn(mock())
+                underTest = createUnderTest(backgroundScope)
+                underTest.monitorPhotos().test {
+                    assertThat(awaitItem().map { it.id }).containsExactly(nodeId.longValue)
+
+                    whenever(megaApiGateway.getMegaNodeByHandle(incomingShareNodeId.longValue))
+                        .thenReturn(incomingShareMegaNode)
+                    whenever(megaApiGateway.getMegaNodeByHandle(nodeId.longValue))
+                        .thenReturn(favouriteMegaNode)
+                    nodeUpdates.emit(
+                        NodeUpdate(
+                            mapOf(
+                                createNode(incomingShareNodeId) to listOf(NodeChanges.New),
+                                createNode(nodeId) to listOf(NodeChanges.Favourite),
+                            )
+                        )
+                    )
+
+                    val photos = awaitItem()
+                    assertThat(photos.map { it.id }).containsExactly(nodeId.longValue)
+                    assertThat(photos.single().isFavourite).isTrue()
+                }
+            }
+        }
+
+    @Test
+    fun `test that a new photo is inserted in the loaded photos by modification time`() =
+        runTest {
+            val nodeId = NodeId(1L)
+            val nodeUpdates = MutableSharedFlow<NodeUpdate>()
+            stubLoadedPhotos(nodeId, nodeUpdates)
+            whenever(dateUtilWrapper.fromEpoch(any())).thenAnswer {
+                LocalDateTime.ofEpochSecond(it.arguments[0] as Long, 0, ZoneOffset.UTC)
+            }
+            val olderMegaNode = createMegaNode(handle = 1L, name = "older.image", modificationTime = 10L)
+            val newestMegaNode = createMegaNode(handle = 2L, name = "newest.image", modificationTime = 30L)
+            val middleMegaNode = createMegaNode(handle = 3L, name = "middle.image", modificationTime = 20L)
+            whenever(
+                megaApiGateway.searchByType(any(), any(), eq(MegaApiAndroid.FILE_TYPE_PHOTO), any())
+            ).thenReturn(listOf(newestMegaNode, olderMegaNode))
+
+            mockStatic(MegaCancelToken::class.java).use { cancelTokenMock ->
+                cancelTokenMock.`when`<MegaCancelToken> { MegaCancelToken.createInstance() }
+                    .thenReturn(mock())
+                underTest = createUnderTest(backgroundScope)
+                underTest.monitorPhotos().test {
+                    assertThat(awaitItem().map { it.id }).containsExactly(2L, 1L).inOrder()
+
+                    whenever(megaApiGateway.getMegaNodeByHandle(3L)).thenReturn(middleMegaNode)
+                    nodeUpdates.emit(
+                        NodeUpdate(mapOf(createNode(NodeId(3L)) to listOf(NodeChanges.New)))
+                    )
+
+                    assertThat(awaitItem().map { it.id }).containsExactly(2L, 3L, 1L).inOrder()
+                }
+            }
+        }
+
+    private suspend fun stubLoadedPhotos(nodeId: NodeId, nodeUpdates: Flow<NodeUpdate>) {
+        val megaNode = createMegaNode(handle = nodeId.longValue, name = "file.image")
+        val imageNode = mock<ImageNode> { on { id }.thenReturn(nodeId) }
+        whenever(nodeRepository.monitorNodeUpdates()).thenReturn(nodeUpdates)
+        whenever(
+            megaApiGateway.searchByType(any(), any(), eq(MegaApiAndroid.FILE_TYPE_PHOTO), any())
+        ).thenReturn(listOf(megaNode))
+        whenever(
+            megaApiGateway.searchByType(any(), any(), eq(MegaApiAndroid.FILE_TYPE_VIDEO), any())
+        ).thenReturn(emptyList())
+        whenever(megaApiGateway.isInRubbish(any())).thenReturn(false)
+        whenever(megaApiGateway.isInCloudDrive(any())).thenReturn(true)
+        whenever(imageNodeMapper(any(), any(), any(), anyOrNull())).thenReturn(imageNode)
+    }
+
+    private fun createNode(nodeId: NodeId): Node = mock { on { id }.thenReturn(nodeId) }
+
     private fun createUnderTest(coroutineScope: CoroutineScope) = DefaultPhotosRepository(
         nodeRepository = nodeRepository,
         megaApiFacade = megaApiGateway,
@@ -252,10 +428,12 @@ class DefaultPhotosRepositoryTest {
         megaChatApiGateway = megaChatApiGateway,
         timelineFilterPreferencesJSONMapper = timelineFilterPreferencesJSONMapper,
         contentConsumptionMegaStringMapMapper = contentConsumptionMegaStringMapMapper,
-        imageNodeMapper = mock(),
+        imageNodeMapper = imageNodeMapper,
         megaLocalRoomGateway = mock(),
         cameraUploadsSettingsPreferenceGateway = cameraUploadsSettingsPreferenceGateway,
         sortOrderIntMapper = mock(),
+        appEventGateway = appEventGateway,
+        context = mock(),
     )
 
     private fun createMegaNode(
@@ -265,6 +443,7 @@ class DefaultPhotosRepositoryTest {
         isFavourite: Boolean = false,
         size: Long = 0L,
         duration: Int = 0,
+        modificationTime: Long = 0L,
     ): MegaNode = mock {
         on { this.handle }.thenReturn(handle)
         on { this.parentHandle }.thenReturn(parentHandle)
@@ -272,6 +451,9 @@ class DefaultPhotosRepositoryTest {
         on { this.isFavourite }.thenReturn(isFavourite)
         on { this.size }.thenReturn(size)
         on { this.duration }.thenReturn(duration)
+        on { this.modificationTime }.thenReturn(modificationTime)
+        on { isFile }.thenReturn(true)
+        on { hasThumbnail() }.thenReturn(true)
     }
 
     private fun createImage(
@@ -18,7 +18,6 @@ import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.listener.OptionalMegaRequestListenerInterface
 import mega.privacy.android.data.listener.OptionalMegaTransferListenerInterface
 import mega.privacy.android.data.mapper.node.MegaNodeMapper
-import mega.privacy.android.data.mapper.transfer.AppDataTypeConstants
 import mega.privacy.android.data.mapper.transfer.CompletedTransferMapper
 import mega.privacy.android.data.mapper.transfer.PausedTransferEventMapper
 import mega.privacy.android.data.mapper.transfer.TransferAppDataStringMapper
@@ -36,6 +35,7 @@ import mega.privacy.android.domain.entity.transfer.ActiveTransferTotals
 import mega.privacy.android.domain.entity.transfer.CompletedTransfer
 import mega.privacy.android.domain.entity.transfer.Transfer
 import mega.privacy.android.domain.entity.transfer.TransferEvent
+import mega.privacy.android.domain.entity.transfer.TransferEventQueueMetrics
 import mega.privacy.android.domain.entity.transfer.TransferType
 import mega.privacy.android.domain.exception.MegaException
 import nz.mega.sdk.MegaError
@@ -58,6 +58,7 @@ import org.mockito.kotlin.anyOrNull
 import org.mockito.kotlin.eq
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.reset
+import org.mockito.kotlin.stub
 import org.mockito.kotlin.times
 import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
@@ -84,6 +85,7 @@ class DefaultTransfersRepositoryTest {
     private val cancelTokenProvider = mock<CancelTokenProvider>()
     private val activeTransferTotalsMapper = mock<ActiveTransferTotalsMapper>()
     private val megaNodeMapper = mock<MegaNodeMapper>()
+    private val pendingTransfersCounter = mock<PendingTransfersCounter>()
 
     private val testScope = CoroutineScope(UnconfinedTestDispatcher())
 
@@ -113,6 +115,7 @@ class DefaultTransfersRepositoryTest {
             cancelTokenProvider = cancelTokenProvider,
             scope = testScope,
             megaNodeMapper = megaNodeMapper,
+            pendingTransfersCounter = pendingTransfersCounter,
         )
     }
 
@@ -131,6 +134,7 @@ class DefaultTransfersRepositoryTest {
             cancelTokenProvider,
             completedTransferMapper,
             megaNodeMapper,
+            pendingTransfersCounter,
         )
     }
 
@@ -815,6 +819,19 @@ class DefaultTransfersRepositoryTest {
         }
     }
 
+    @Test
+    fun `test that getTransferEventQueueMetrics returns the global transfer queue metrics`() =
+        runTest {
+            val metrics = TransferEventQueueMetrics(
+                queueDepth = 1,
+                maxQueueDepth = 10,
+                mergedEventCount = 5L,
+                droppedEventCount = 0L,
+            )
+            whenever(megaApiGateway.getGlobalTransferQueueMetrics()).thenReturn(metrics)
+            assertThat(underTest.getTransferEventQueueMetrics()).isEqualTo(metrics)
+        }
+
     @Test
     fun `test that monitorTransferEvents emits transfer paused events`() = runTest {
         val pause = RequestEvent.OnRequestFinish(mock(), mock())
@@ -866,61 +883,60 @@ class DefaultTransfersRepositoryTest {
     inner class PendingCounters {
         @Test
         fun `test that getNumPendingGeneralUploads returns correctly`() = runTest {
-            stubUploadTransfers()
+            stubCount(PendingTransfersCounter.Category.GeneralUploads, 2)
             assertThat(underTest.getNumPendingGeneralUploads()).isEqualTo(2)
         }
 
         @Test
         fun `test that getNumPendingCameraUploads returns correctly`() = runTest {
-            stubUploadTransfers()
+            stubCount(PendingTransfersCounter.Category.CameraUploads, 2)
             assertThat(underTest.getNumPendingCameraUploads()).isEqualTo(2)
         }
 
         @Test
         fun `test that getNumPendingChatUploads returns correctly`() = runTest {
-            stubUploadTransfers()
+            stubCount(PendingTransfersCounter.Category.ChatUploads, 2)
             assertThat(underTest.getNumPendingChatUploads()).isEqualTo(2)
         }
 
         @Test
         fun `test that getNumPendingPausedGeneralUploads returns correctly`() = runTest {
-            stubUploadTransfers()
+            stubCount(PendingTransfersCounter.Category.PausedGeneralUploads, 1)
             assertThat(underTest.getNumPendingPausedGeneralUploads()).isEqualTo(1)
         }
 
         @Test
         fun `test that getNumPendingPausedCameraUploads returns correctly`() = runTest {
-            stubUploadTransfers()
+            stubCount(PendingTransfersCounter.Category.PausedCameraUploads, 1)
             assertThat(underTest.getNumPendingPausedCameraUploads()).isEqualTo(1)
         }
 
         @Test
         fun `test that getNumPendingPausedChatUploads returns correctly`() = runTest {
-            stubUploadTransfers()
+            stubCount(PendingTransfersCounter.Category.PausedChatUploads, 1)
             assertThat(underTest.getNumPendingPausedChatUploads()).isEqualTo(1)
         }
 
-        private fun stubUploadTransfers() = runTest {
-            val megaTransfers =
-                (1..3).flatMap { type ->
-                    listOf(true, false).flatMap { paused ->
-                        listOf(true, false).map { finished ->
-                            val megaTransfer = mock<MegaTransfer>()
-                            whenever(megaTransfer.isFinished).thenReturn(finished)
-                            whenever(megaTransfer.state).thenReturn(if (paused) MegaTransfer.STATE_PAUSED else MegaTransfer.STATE_ACTIVE)
-                            whenever(megaTransfer.appData).thenReturn(
-                                when (type) {
-                                    2 -> AppDataTypeConstants.CameraUpload.sdkTypeValue
-                                    3 -> AppDataTypeConstants.ChatUpload.sdkTypeValue
-                                    else -> null
-                                }
-                            )
-                            megaTransfer
-                        }
-                    }
-                }
-            whenever(megaApiGateway.getTransfers(MegaTransfer.TYPE_UPLOAD))
-                .thenReturn(megaTransfers)
+        @Test
+        fun `test that getNumPendingTransfers returns the non background downloads and the uploads`() =
+            runTest {
+                stubCount(PendingTransfersCounter.Category.Downloads, 3)
+                stubCount(PendingTransfersCounter.Category.Uploads, 4)
+                assertThat(underTest.getNumPendingTransfers()).isEqualTo(7)
+            }
+
+        @Test
+        fun `test that the pending transfers are reconciled when the transfers are paused`() =
+            runTest {
+                stubPauseTransfers(true)
+                underTest.pauseTransfers(true)
+                verify(pendingTransfersCounter).reconcile()
+            }
+
+        private fun stubCount(category: PendingTransfersCounter.Category, pendingCount: Int) {
+            pendingTransfersCounter.stub {
+                onBlocking { count(category) }.thenReturn(pendingCount)
+            }
         }
     }
 
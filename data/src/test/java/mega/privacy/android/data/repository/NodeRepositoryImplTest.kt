@@ -5,6 +5,7 @@ import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.cache.CacheFolderPaths
 import mega.privacy.android.data.gateway.CacheGateway
 import mega.privacy.android.data.gateway.FileGateway
 import mega.privacy.android.data.gateway.MegaLocalRoomGateway
@@ -17,7 +18,6 @@ import mega.privacy.android.data.listener.OptionalMegaRequestListenerInterface
 import mega.privacy.android.data.mapper.ChatFilesFolderUserAttributeMapper
 import mega.privacy.android.data.mapper.FileTypeInfoMapper
 import mega.privacy.android.data.mapper.MegaExceptionMapper
-import mega.privacy.android.data.mapper.NodeUpdateMapper
 import mega.privacy.android.data.mapper.OfflineInformationMapper
 import mega.privacy.android.data.mapper.OfflineNodeInformationMapper
 import mega.privacy.android.data.mapper.SortOrderIntMapper
@@ -94,7 +94,7 @@ class NodeRepositoryImplTest {
     private val fileGateway: FileGateway = mock()
     private val chatFilesFolderUserAttributeMapper: ChatFilesFolderUserAttributeMapper = mock()
     private val streamingGateway: StreamingGateway = mock()
-    private val nodeUpdateMapper: NodeUpdateMapper = mock()
+    private val nodeUpdateBus: NodeUpdateBus = mock()
     private val folderNode: TypedFolderNode = mock()
     private val accessPermissionMapper: AccessPermissionMapper = mock()
     private val accessPermissionIntMapper: AccessPermissionIntMapper = AccessPermissionIntMapper()
@@ -103,7 +103,7 @@ class NodeRepositoryImplTest {
     private val megaLocalRoomGateway: MegaLocalRoomGateway = mock()
     private val offlineAvailabilityMapper: OfflineAvailabilityMapper = mock()
     private val fileNodeMapper = FileNodeMapper(
-        cacheGateway = cacheGateway,
+        cacheFolderPaths = CacheFolderPaths(cacheGateway),
         megaApiGateway = megaApiGateway,
         fileTypeInfoMapper = fileTypeInfoMapper,
         offlineAvailabilityMapper = offlineAvailabilityMapper,
@@ -140,7 +140,7 @@ class NodeRepositoryImplTest {
             fileGateway = fileGateway,
             chatFilesFolderUserAttributeMapper = chatFilesFolderUserAttributeMapper,
             streamingGateway = streamingGateway,
-            nodeUpdateMapper = nodeUpdateMapper,
+            nodeUpdateBus = nodeUpdateBus,
             accessPermissionMapper = accessPermissionMapper,
             nodeShareKeyResultMapper = nodeShareKeyResultMapper,
             accessPermissionIntMapper = accessPermissionIntMapper,
@@ -164,7 +164,7 @@ class NodeRepositoryImplTest {
             fileGateway,
             chatFilesFolderUserAttributeMapper,
             streamingGateway,
-            nodeUpdateMapper,
+            nodeUpdateBus,
             accessPermissionMapper,
             nodeShareKeyResultMapper,
             accessPermissionMapper,
@@ -0,0 +1,341 @@
+package mega.privacy.android.data.repository
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.MutableSharedFlow
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.cryptography.HashSearchToken
+import mega.privacy.android.data.gateway.MegaLocalRoomGateway
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.data.mapper.search.FileTypeSearchCategoryMapper
+import mega.privacy.android.data.model.node.IndexedNode
+import mega.privacy.android.domain.entity.SortOrder
+import mega.privacy.android.domain.entity.StaticImageFileTypeInfo
+import mega.privacy.android.domain.entity.node.FileNode
+import mega.privacy.android.domain.entity.node.NodeChanges
+import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.node.NodeUpdate
+import mega.privacy.android.domain.entity.search.SearchCategory
+import nz.mega.sdk.MegaNode
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.any
+import org.mockito.kotlin.anyOrNull
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.stub
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class NodeSearchIndexTest {
+
+    private val nodeUpdates = MutableSharedFlow<NodeUpdate>()
+    private val megaApiGateway = mock<MegaApiGateway>()
+    private val megaLocalRoomGateway = mock<MegaLocalRoomGateway>()
+    private val nodeUpdateBus = mock<NodeUpdateBus>()
+    private val hashSearchToken = HashSearchToken(ByteArray(32))
+
+    private val rootNode =
+        createMegaNode(handle = ROOT_HANDLE, parentHandle = -1L, isFolder = true)
+    private val folderNode =
+        createMegaNode(handle = 2L, parentHandle = ROOT_HANDLE, isFolder = true)
+    private val photoNode = createMegaNode(handle = 3L, parentHandle = 2L, isFolder = false)
+    private val rootPhotoNode =
+        createMegaNode(handle = 4L, parentHandle = ROOT_HANDLE, isFolder = false)
+
+    @BeforeEach
+    fun resetMocks() {
+        reset(megaApiGateway, megaLocalRoomGateway, nodeUpdateBus)
+        nodeUpdateBus.stub { on { nodeUpdates }.thenReturn(nodeUpdates) }
+        megaApiGateway.stub {
+            onBlocking { getRootNode() }.thenReturn(rootNode)
+            onBlocking { getMegaNodeByHandle(ROOT_HANDLE) }.thenReturn(rootNode)
+            onBlocking { getChildrenByNode(rootNode) }.thenReturn(listOf(folderNode, rootPhotoNode))
+            onBlocking { getChildrenByNode(folderNode) }.thenReturn(listOf(photoNode))
+        }
+    }
+
+    @Test
+    fun `test that the first search builds the index from the cloud drive and is not answered`() =
+        runTest(UnconfinedTestDispatcher()) {
+            val underTest = createUnderTest(backgroundScope)
+
+            assertThat(search(underTest)).isNull()
+
+            verify(megaLocalRoomGateway).clearNodeSearchIndex()
+            verify(megaLocalRoomGateway).insertOrUpdateIndexedNodes(
+                listOf(
+                    indexedFolder(folderNode),
+                    indexedPhoto(rootPhotoNode),
+                    indexedPhoto(photoNode),
+                )
+            )
+        }
+
+    @Test
+    fun `test that the index answers the searches once it is built`() =
+        runTest(UnconfinedTestDispatcher()) {
+            val underTest = createUnderTest(backgroundScope)
+            val holidayPhoto = createMegaNode(
+                handle = 3L, parentHandle = 2L, isFolder = false, name = "Holiday photo.jpg"
+            )
+            val otherPhoto = createMegaNode(
+                handle = 4L, parentHandle = ROOT_HANDLE, isFolder = false, name = "Other.jpg"
+            )
+            megaApiGateway.stub {
+                onBlocking { getMegaNodeByHandle(3L) }.thenReturn(holidayPhoto)
+                onBlocking { getMegaNodeByHandle(4L) }.thenReturn(otherPhoto)
+            }
+            megaLocalRoomGateway.stub {
+                onBlocking {
+                    searchIndexedNodes(
+                        match = tokens("holi", "ph"),
+                        searchCategory = SearchCategory.IMAGES,
+                        modificationTimeRange = 10L..20L,
+                        order = SortOrder.ORDER_SIZE_DESC,
+                    )
+                }.thenReturn(listOf(3L, 4L))
+            }
+            search(underTest)
+
+            val actual = underTest.search(
+                prefixes = listOf("holi", "ph"),
+                searchCategory = SearchCategory.IMAGES,
+                modificationTimeRange = 10L..20L,
+                order = SortOrder.ORDER_SIZE_DESC,
+            )
+
+            assertThat(actual).containsExactly(holidayPhoto)
+        }
+
+    @Test
+    fun `test that the index searches long prefixes by their first characters`() =
+        runTest(UnconfinedTestDispatcher()) {
+            val underTest = createUnderTest(backgroundScope)
+            megaLocalRoomGateway.stub {
+                onBlocking { searchIndexedNodes(any(), any(), anyOrNull(), any()) }
+                    .thenReturn(emptyList())
+            }
+            search(underTest)
+
+            underTest.search(
+                prefixes = listOf("photographers"),
+                searchCategory = SearchCategory.ALL,
+                modificationTimeRange = null,
+                order = SortOrder.ORDER_SIZE_ASC,
+            )
+
+            verify(megaLocalRoomGateway).searchIndexedNodes(
+                match = tokens("photographer"),
+                searchCategory = SearchCategory.ALL,
+                modificationTimeRange = null,
+                order = SortOrder.ORDER_SIZE_ASC,
+            )
+        }
+
+    @Test
+    fun `test that the nodes found are sorted by name with the folders first`() =
+        runTest(UnconfinedTestDispatcher()) {
+            val underTest = createUnderTest(backgroundScope)
+            val bFile = createMegaNode(5L, parentHandle = 2L, isFolder = false, name = "Photo b")
+            val aFile = createMegaNode(6L, parentHandle = 2L, isFolder = false, name = "photo A")
+            val cFolder = createMegaNode(7L, parentHandle = 2L, isFolder = true, name = "Photo c")
+            megaApiGateway.stub {
+                onBlocking { getMegaNodeByHandle(5L) }.thenReturn(bFile)
+                onBlocking { getMegaNodeByHandle(6L) }.thenReturn(aFile)
+                onBlocking { getMegaNodeByHandle(7L) }.thenReturn(cFolder)
+            }
+            megaLocalRoomGateway.stub {
+                onBlocking { searchIndexedNodes(any(), any(), anyOrNull(), any()) }
+                    .thenReturn(listOf(5L, 6L, 7L))
+            }
+            search(underTest)
+
+            assertThat(searchAll(underTest, SortOrder.ORDER_DEFAULT_ASC))
+                .containsExactly(cFolder, aFile, bFile).inOrder()
+            assertThat(searchAll(underTest, SortOrder.ORDER_DEFAULT_DESC))
+                .containsExactly(cFolder, bFile, aFile).inOrder()
+        }
+
+    @Test
+    fun `test that clear stops updating the index and empties it`() =
+        runTest(UnconfinedTestDispatcher()) {
+            val underTest = createUnderTest(backgroundScope)
+            search(underTest)
+
+            underTest.clear()
+            nodeUpdates.emit(NodeUpdate(mapOf(createNode(7L) to listOf(NodeChanges.Remove))))
+
+            verify(megaLocalRoomGateway, times(2)).clearNodeSearchIndex()
+            verify(megaLocalRoomGateway, never()).deleteIndexedNodes(any())
+            assertThat(nodeUpdates.subscriptionCount.value).isEqualTo(0)
+        }
+
+    @Test
+    fun `test that the index is built again if it was cleared`() =
+        runTest(UnconfinedTestDispatcher()) {
+            val underTest = createUnderTest(backgroundScope)
+            search(underTest)
+            megaLocalRoomGateway.stub { onBlocking { isNodeSearchIndexEmpty() }.thenReturn(true) }
+
+            assertThat(search(underTest)).isNull()
+            verify(megaLocalRoomGateway, times(2)).clearNodeSearchIndex()
+        }
+
+    @Test
+    fun `test that the searches the index cannot sort or filter are not answered`() =
+        runTest(UnconfinedTestDispatcher()) {
+            val underTest = createUnderTest(backgroundScope)
+
+            assertThat(
+                underTest.search(listOf("a"), SearchCategory.DOCUMENTS, null, SortOrder.ORDER_NONE)
+            ).isNull()
+            assertThat(
+                underTest.search(listOf("a"), SearchCategory.ALL, null, SortOrder.ORDER_LABEL_ASC)
+            ).isNull()
+            verify(megaLocalRoomGateway, never()).clearNodeSearchIndex()
+        }
+
+    @Test
+    fun `test that node updates are applied to the index`() =
+        runTest(UnconfinedTestDispatcher()) {
+            val underTest = createUnderTest(backgroundScope)
+            search(underTest)
+            val renamedNode =
+                createMegaNode(handle = 5L, parentHandle = ROOT_HANDLE, isFolder = false)
+            val movedToRubbishNode =
+                createMegaNode(handle = 6L, parentHandle = 99L, isFolder = true)
+            megaApiGateway.stub {
+                onBlocking { getMegaNodeByHandle(5L) }.thenReturn(renamedNode)
+                onBlocking { isInCloudDrive(renamedNode) }.thenReturn(true)
+                onBlocking { getMegaNodeByHandle(6L) }.thenReturn(movedToRubbishNode)
+                onBlocking { isInCloudDrive(movedToRubbishNode) }.thenReturn(false)
+            }
+
+            nodeUpdates.emit(
+                NodeUpdate(
+                    mapOf(
+                        createNode(5L) to listOf(NodeChanges.Name),
+                        createNode(6L) to listOf(NodeChanges.Parent),
+                        createNode(7L) to listOf(NodeChanges.Remove),
+                    )
+                )
+            )
+
+            verify(megaLocalRoomGateway).deleteIndexedNodes(listOf(6L, 7L))
+            verify(megaLocalRoomGateway)
+                .insertOrUpdateIndexedNodes(listOf(indexedPhoto(renamedNode)))
+        }
+
+    @Test
+    fun `test that the descendants of a folder moved into the cloud drive are indexed`() =
+        runTest(UnconfinedTestDispatcher()) {
+            val underTest = createUnderTest(backgroundScope)
+            search(underTest)
+            val restoredFolder =
+                createMegaNode(handle = 8L, parentHandle = ROOT_HANDLE, isFolder = true)
+            val restoredPhoto =
+                createMegaNode(handle = 9L, parentHandle = 8L, isFolder = false)
+            megaApiGateway.stub {
+                onBlocking { getMegaNodeByHandle(8L) }.thenReturn(restoredFolder)
+                onBlocking { isInCloudDrive(restoredFolder) }.thenReturn(true)
+                onBlocking { getChildrenByNode(restoredFolder) }.thenReturn(listOf(restoredPhoto))
+            }
+
+            nodeUpdates.emit(NodeUpdate(mapOf(createNode(8L) to listOf(NodeChanges.Parent))))
+
+            verify(megaLocalRoomGateway)
+                .insertOrUpdateIndexedNodes(listOf(indexedFolder(restoredFolder)))
+            verify(megaLocalRoomGateway)
+                .insertOrUpdateIndexedNodes(listOf(indexedPhoto(restoredPhoto)))
+        }
+
+    @Test
+    fun `test that names are split in words without case or accents`() {
+        assertThat(NodeSearchIndex.nameWords("Été_2023 Holiday-Photo.JPG"))
+            .containsExactly("ete", "2023", "holiday", "photo", "jpg").inOrder()
+    }
+
+    @Test
+    fun `test that a name matches if each prefix starts one of its words`() {
+        assertThat(NodeSearchIndex.matchesPrefixes("Holiday photo.jpg", listOf("ph", "holi")))
+            .isTrue()
+        assertThat(NodeSearchIndex.matchesPrefixes("Holiday photo.jpg", listOf("oto"))).isFalse()
+        assertThat(NodeSearchIndex.matchesPrefixes("Holiday photo.jpg", listOf("ph", "x")))
+            .isFalse()
+    }
+
+    private suspend fun search(underTest: NodeSearchIndex) = underTest.search(
+        prefixes = listOf("a"),
+        searchCategory = SearchCategory.ALL,
+        modificationTimeRange = null,
+        order = SortOrder.ORDER_DEFAULT_ASC,
+    )
+
+    private suspend fun searchAll(underTest: NodeSearchIndex, order: SortOrder) =
+        underTest.search(
+            prefixes = listOf("photo"),
+            searchCategory = SearchCategory.ALL,
+            modificationTimeRange = null,
+            order = order,
+        )
+
+    private fun tokens(vararg prefixes: String) = prefixes.joinToString(" ") { hashSearchToken(it) }
+
+    private fun TestScope.createUnderTest(scope: CoroutineScope) = NodeSearchIndex(
+        megaApiGateway = megaApiGateway,
+        megaLocalRoomGateway = megaLocalRoomGateway,
+        nodeUpdateBus = nodeUpdateBus,
+        fileTypeInfoMapper = { StaticImageFileTypeInfo("image/jpeg", "jpg") },
+        fileTypeSearchCategoryMapper = FileTypeSearchCategoryMapper(),
+        hashSearchToken = hashSearchToken,
+        applicationScope = scope,
+        ioDispatcher = UnconfinedTestDispatcher(testScheduler),
+    )
+
+    private fun createMegaNode(
+        handle: Long,
+        parentHandle: Long,
+        isFolder: Boolean,
+        name: String = "Node $handle",
+    ) = mock<MegaNode> {
+        on { this.handle }.thenReturn(handle)
+        on { this.parentHandle }.thenReturn(parentHandle)
+        on { this.isFolder }.thenReturn(isFolder)
+        on { this.name }.thenReturn(name)
+        on { size }.thenReturn(handle * 100)
+        on { modificationTime }.thenReturn(handle * 10)
+        on { creationTime }.thenReturn(handle)
+    }
+
+    private fun createNode(handle: Long) = mock<FileNode> { on { id }.thenReturn(NodeId(handle)) }
+
+    private fun indexedFolder(megaNode: MegaNode) = IndexedNode(
+        handle = megaNode.handle,
+        nameTokens = tokens("n", "no", "nod", "node", megaNode.handle.toString()),
+        parentHandle = megaNode.parentHandle,
+        isFolder = true,
+        searchCategory = SearchCategory.ALL,
+        size = 0,
+        modificationTime = megaNode.creationTime,
+    )
+
+    private fun indexedPhoto(megaNode: MegaNode) = IndexedNode(
+        handle = megaNode.handle,
+        nameTokens = tokens("n", "no", "nod", "node", megaNode.handle.toString()),
+        parentHandle = megaNode.parentHandle,
+        isFolder = false,
+        searchCategory = SearchCategory.IMAGES,
+        size = megaNode.size,
+        modificationTime = megaNode.modificationTime,
+    )
+
+    private companion object {
+        const val ROOT_HANDLE = 1L
+    }
+}
@@ -0,0 +1,138 @@
+package mega.privacy.android.data.repository
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.MutableSharedFlow
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.advanceUntilIdle
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.data.mapper.node.NodeMapper
+import mega.privacy.android.data.model.GlobalUpdate
+import mega.privacy.android.domain.entity.node.FileNode
+import mega.privacy.android.domain.entity.node.NodeChanges
+import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.node.NodeUpdate
+import nz.mega.sdk.MegaNode
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.stub
+import org.mockito.kotlin.whenever
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class NodeUpdateBusTest {
+
+    private val globalUpdates = MutableSharedFlow<GlobalUpdate>()
+    private val megaApiGateway = mock<MegaApiGateway>()
+    private val nodeMapper = mock<NodeMapper>()
+    private var nodeUpdateMapperCalls = 0
+
+    @BeforeEach
+    fun resetMocks() {
+        reset(megaApiGateway, nodeMapper)
+        nodeUpdateMapperCalls = 0
+        whenever(megaApiGateway.globalUpdates).thenReturn(globalUpdates)
+    }
+
+    @Test
+    fun `test that a batch is emitted without waiting for the next ones`() =
+        runTest(UnconfinedTestDispatcher()) {
+            val underTest = createUnderTest(backgroundScope)
+            val updates = collect(underTest.nodeUpdates)
+
+            globalUpdates.emit(nodesUpdate(createMegaNode(1L, 10L)))
+            runCurrent()
+
+            assertThat(updates.single().changes.keys.map { it.id }).containsExactly(NodeId(1L))
+        }
+
+    @Test
+    fun `test that the batches waiting behind a slow subscriber are merged`() =
+        runTest(UnconfinedTestDispatcher()) {
+            val underTest = createUnderTest(backgroundScope)
+            val firstUpdateProcessed = CompletableDeferred<Unit>()
+            val updates = mutableListOf<NodeUpdate>()
+            backgroundScope.launch {
+                underTest.nodeUpdates.collect {
+                    updates.add(it)
+                    if (updates.size == 1) firstUpdateProcessed.await()
+                }
+            }
+
+            (1L..5L).forEach { globalUpdates.emit(nodesUpdate(createMegaNode(it, 10L))) }
+            firstUpdateProcessed.complete(Unit)
+            advanceUntilIdle()
+
+            assertThat(updates.size).isLessThan(5)
+            assertThat(updates.flatMap { update -> update.changes.keys.map { it.id } })
+                .containsExactly(NodeId(1L), NodeId(2L), NodeId(3L), NodeId(4L), NodeId(5L))
+                .inOrder()
+        }
+
+    @Test
+    fun `test that the nodes are mapped once for all the subscribers`() =
+        runTest(UnconfinedTestDispatcher()) {
+            val underTest = createUnderTest(backgroundScope)
+            val firstSubscriberUpdates = collect(underTest.nodeUpdates)
+            val secondSubscriberUpdates = collect(underTest.nodeUpdates)
+
+            globalUpdates.emit(nodesUpdate(createMegaNode(1L, 10L)))
+            advanceUntilIdle()
+
+            assertThat(firstSubscriberUpdates).hasSize(1)
+            assertThat(secondSubscriberUpdates).hasSize(1)
+            assertThat(nodeUpdateMapperCalls).isEqualTo(1)
+        }
+
+    @Test
+    fun `test that only the updates of the watched nodes are emitted`() =
+        runTest(UnconfinedTestDispatcher()) {
+            val underTest = createUnderTest(backgroundScope)
+            val updates = collect(underTest.monitorNodeUpdates(setOf(NodeId(2L))))
+
+            globalUpdates.emit(nodesUpdate(createMegaNode(1L, 10L)))
+            globalUpdates.emit(nodesUpdate(createMegaNode(1L, 10L), createMegaNode(2L, 10L)))
+            advanceUntilIdle()
+
+            assertThat(updates.single().changes.keys.map { it.id }).containsExactly(NodeId(2L))
+        }
+
+    private fun createUnderTest(scope: CoroutineScope) = NodeUpdateBus(
+        megaApiGateway = megaApiGateway,
+        nodeMapper = nodeMapper,
+        nodeUpdateMapper = {
+            nodeUpdateMapperCalls++
+            listOf(NodeChanges.Name)
+        },
+        sharingScope = scope,
+        ioDispatcher = UnconfinedTestDispatcher(),
+    )
+
+    private fun TestScope.collect(flow: Flow<NodeUpdate>) = mutableListOf<NodeUpdate>().also {
+        backgroundScope.launch { flow.toList(it) }
+    }
+
+    private fun nodesUpdate(vararg megaNodes: MegaNode) =
+        GlobalUpdate.OnNodesUpdate(arrayListOf(*megaNodes))
+
+    private fun createMegaNode(handle: Long, parentHandle: Long): MegaNode {
+        val megaNode = mock<MegaNode>()
+        val node = mock<FileNode> {
+            on { id }.thenReturn(NodeId(handle))
+            on { parentId }.thenReturn(NodeId(parentHandle))
+        }
+        nodeMapper.stub {
+            onBlocking { invoke(megaNode, false, false, null) }.thenReturn(node)
+        }
+        return megaNode
+    }
+}
@@ -0,0 +1,205 @@
+package mega.privacy.android.data.repository
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.MutableSharedFlow
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.advanceTimeBy
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.extensions.APP_DATA_BACKGROUND_TRANSFER
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.data.mapper.transfer.AppDataTypeConstants
+import mega.privacy.android.data.model.GlobalTransfer
+import mega.privacy.android.data.repository.PendingTransfersCounter.Category
+import nz.mega.sdk.MegaTransfer
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.stub
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class PendingTransfersCounterTest {
+
+    private val globalTransfer = MutableSharedFlow<GlobalTransfer>()
+    private val megaApiGateway = mock<MegaApiGateway>()
+    private var nextTag = 0
+
+    @BeforeEach
+    fun resetMocks() {
+        reset(megaApiGateway)
+        whenever(megaApiGateway.globalTransfer).thenReturn(globalTransfer)
+        stubTransfers(downloads = emptyList(), uploads = emptyList())
+    }
+
+    @Test
+    fun `test that the pending uploads are counted by category`() = runTest {
+        val uploads = listOf(null, CAMERA_UPLOAD, CHAT_UPLOAD).flatMap { appData ->
+            listOf(true, false).flatMap { paused ->
+                listOf(true, false).map { finished ->
+                    createMegaTransfer(MegaTransfer.TYPE_UPLOAD, appData, paused, finished)
+                }
+            }
+        }
+        stubTransfers(downloads = emptyList(), uploads = uploads)
+        val underTest = createUnderTest()
+
+        assertThat(underTest.count(Category.Uploads)).isEqualTo(6)
+        assertThat(underTest.count(Category.PausedUploads)).isEqualTo(3)
+        assertThat(underTest.count(Category.GeneralUploads)).isEqualTo(2)
+        assertThat(underTest.count(Category.PausedGeneralUploads)).isEqualTo(1)
+        assertThat(underTest.count(Category.CameraUploads)).isEqualTo(2)
+        assertThat(underTest.count(Category.PausedCameraUploads)).isEqualTo(1)
+        assertThat(underTest.count(Category.ChatUploads)).isEqualTo(2)
+        assertThat(underTest.count(Category.PausedChatUploads)).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that the background downloads are not counted`() = runTest {
+        val downloads = listOf(
+            createMegaTransfer(MegaTransfer.TYPE_DOWNLOAD),
+            createMegaTransfer(MegaTransfer.TYPE_DOWNLOAD, paused = true),
+            createMegaTransfer(MegaTransfer.TYPE_DOWNLOAD, APP_DATA_BACKGROUND_TRANSFER),
+        )
+        stubTransfers(downloads = downloads, uploads = emptyList())
+        val underTest = createUnderTest()
+
+        assertThat(underTest.count(Category.Downloads)).isEqualTo(2)
+        assertThat(underTest.count(Category.PausedDownloads)).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that the counters follow the started and finished transfers`() = runTest {
+        val underTest = createUnderTest()
+        val transfer = createMegaTransfer(MegaTransfer.TYPE_UPLOAD, CAMERA_UPLOAD)
+
+        assertThat(underTest.count(Category.CameraUploads)).isEqualTo(0)
+        globalTransfer.emit(GlobalTransfer.OnTransferStart(transfer))
+        assertThat(underTest.count(Category.CameraUploads)).isEqualTo(1)
+        assertThat(underTest.count(Category.Uploads)).isEqualTo(1)
+        globalTransfer.emit(GlobalTransfer.OnTransferFinish(transfer, mock()))
+        assertThat(underTest.count(Category.CameraUploads)).isEqualTo(0)
+        assertThat(underTest.count(Category.Uploads)).isEqualTo(0)
+    }
+
+    @Test
+    fun `test that a transfer started twice is counted once`() = runTest {
+        val underTest = createUnderTest()
+        val transfer = createMegaTransfer(MegaTransfer.TYPE_DOWNLOAD)
+
+        underTest.count(Category.Downloads)
+        globalTransfer.emit(GlobalTransfer.OnTransferStart(transfer))
+        globalTransfer.emit(GlobalTransfer.OnTransferUpdate(transfer))
+
+        assertThat(underTest.count(Category.Downloads)).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that a paused transfer update moves it to the paused category`() = runTest {
+        val underTest = createUnderTest()
+        val transfer = createMegaTransfer(MegaTransfer.TYPE_UPLOAD)
+
+        underTest.count(Category.Uploads)
+        globalTransfer.emit(GlobalTransfer.OnTransferStart(transfer))
+        whenever(transfer.state).thenReturn(MegaTransfer.STATE_PAUSED)
+        globalTransfer.emit(GlobalTransfer.OnTransferUpdate(transfer))
+
+        assertThat(underTest.count(Category.GeneralUploads)).isEqualTo(1)
+        assertThat(underTest.count(Category.PausedGeneralUploads)).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that the counters are rebuilt when reconciled`() = runTest {
+        val underTest = createUnderTest()
+        assertThat(underTest.count(Category.ChatUploads)).isEqualTo(0)
+
+        stubTransfers(
+            downloads = emptyList(),
+            uploads = listOf(createMegaTransfer(MegaTransfer.TYPE_UPLOAD, CHAT_UPLOAD)),
+        )
+        underTest.reconcile()
+
+        assertThat(underTest.count(Category.ChatUploads)).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that the counters are rebuilt periodically`() = runTest {
+        val underTest = createUnderTest()
+        underTest.count(Category.Uploads)
+
+        advanceTimeBy(PendingTransfersCounter.RECONCILE_PERIOD_MILLIS + 1)
+
+        verify(megaApiGateway, times(2)).getTransfers(MegaTransfer.TYPE_UPLOAD)
+    }
+
+    @Test
+    fun `test that the transfers are counted from the lists when the first rebuild fails`() =
+        runTest {
+            val upload = createMegaTransfer(MegaTransfer.TYPE_UPLOAD)
+            megaApiGateway.stub {
+                onBlocking { getTransfers(MegaTransfer.TYPE_UPLOAD) }
+                    .thenThrow(RuntimeException())
+                    .thenReturn(listOf(upload))
+            }
+            val underTest = createUnderTest()
+
+            assertThat(underTest.count(Category.Uploads)).isEqualTo(1)
+        }
+
+    @Test
+    fun `test that the streaming transfers are not counted`() = runTest {
+        val streamingDownload = createMegaTransfer(MegaTransfer.TYPE_DOWNLOAD, streaming = true)
+        stubTransfers(downloads = listOf(streamingDownload), uploads = emptyList())
+        val underTest = createUnderTest()
+
+        assertThat(underTest.count(Category.Downloads)).isEqualTo(0)
+        globalTransfer.emit(
+            GlobalTransfer.OnTransferStart(
+                createMegaTransfer(MegaTransfer.TYPE_DOWNLOAD, streaming = true)
+            )
+        )
+        assertThat(underTest.count(Category.Downloads)).isEqualTo(0)
+    }
+
+    private fun TestScope.createUnderTest() = PendingTransfersCounter(
+        megaApiGateway = megaApiGateway,
+        scope = backgroundScope,
+        ioDispatcher = UnconfinedTestDispatcher(testScheduler),
+    )
+
+    private fun stubTransfers(downloads: List<MegaTransfer>, uploads: List<MegaTransfer>) {
+        megaApiGateway.stub {
+            onBlocking { getTransfers(MegaTransfer.TYPE_DOWNLOAD) }.thenReturn(downloads)
+            onBlocking { getTransfers(MegaTransfer.TYPE_UPLOAD) }.thenReturn(uploads)
+        }
+    }
+
+    private fun createMegaTransfer(
+        type: Int,
+        appData: String? = null,
+        paused: Boolean = false,
+        finished: Boolean = false,
+        streaming: Boolean = false,
+    ): MegaTransfer {
+        val transferTag = nextTag++
+        return mock {
+            on { this.type }.thenReturn(type)
+            on { this.appData }.thenReturn(appData)
+            on { state }.thenReturn(
+                if (paused) MegaTransfer.STATE_PAUSED else MegaTransfer.STATE_ACTIVE
+            )
+            on { isFinished }.thenReturn(finished)
+            on { isStreamingTransfer }.thenReturn(streaming)
+            on { tag }.thenReturn(transferTag)
+        }
+    }
+
+    companion object {
+        private val CAMERA_UPLOAD = AppDataTypeConstants.CameraUpload.sdkTypeValue
+        private val CHAT_UPLOAD = AppDataTypeConstants.ChatUpload.sdkTypeValue
+    }
+}
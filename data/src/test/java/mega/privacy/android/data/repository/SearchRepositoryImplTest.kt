@@ -3,7 +3,14 @@ package mega.privacy.android.data.repository
 import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.awaitCancellation
+import kotlinx.coroutines.cancelAndJoin
+import kotlinx.coroutines.flow.collect
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.launch
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.runCurrent
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.mapper.SortOrderIntMapper
@@ -11,7 +18,9 @@ import mega.privacy.android.data.mapper.node.NodeMapper
 import mega.privacy.android.data.mapper.search.SearchCategoryIntMapper
 import mega.privacy.android.data.mapper.search.SearchCategoryMapper
 import mega.privacy.android.domain.entity.SortOrder
+import mega.privacy.android.domain.entity.node.FileNode
 import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.node.UnTypedNode
 import mega.privacy.android.domain.entity.search.SearchCategory
 import mega.privacy.android.domain.repository.SearchRepository
 import mega.privacy.android.domain.usecase.GetLinksSortOrder
@@ -22,7 +31,11 @@ import org.junit.jupiter.api.BeforeAll
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
 import org.mockito.kotlin.any
+import org.mockito.kotlin.clearInvocations
+import org.mockito.kotlin.doSuspendableAnswer
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.stub
 import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 
@@ -37,6 +50,7 @@ class SearchRepositoryImplTest {
     private val getLinksSortOrder: GetLinksSortOrder = mock()
     private val sortOrderIntMapper: SortOrderIntMapper = mock()
     private val megaCancelToken: MegaCancelToken = mock()
+    private val nodeSearchIndex: NodeSearchIndex = mock()
 
     @BeforeAll
     fun setUp() {
@@ -48,7 +62,8 @@ class SearchRepositoryImplTest {
             ioDispatcher = ioDispatcher,
             cancelTokenProvider = cancelTokenProvider,
             getLinksSortOrder = getLinksSortOrder,
-            sortOrderIntMapper = sortOrderIntMapper
+            sortOrderIntMapper = sortOrderIntMapper,
+            nodeSearchIndex = nodeSearchIndex,
         )
     }
 
@@ -218,7 +233,156 @@ class SearchRepositoryImplTest {
             )
         }
 
+    @Test
+    fun `test that searchPaged emits the results in pages of the given size`() = runTest {
+        val megaNodes = stubPagedSearch(results = 5)
+
+        val pages = underTest.searchPaged(
+            nodeId = NodeId(pagedSearchHandle),
+            query = "a",
+            order = SortOrder.ORDER_NONE,
+            pageSize = 2,
+        ).toList()
+
+        assertThat(pages.map { it.size }).containsExactly(2, 2, 1).inOrder()
+        verify(nodeMapper).invoke(megaNodes.last())
+    }
+
+    @Test
+    fun `test that searchPaged only maps the pages that are collected`() = runTest {
+        val megaNodes = stubPagedSearch(results = 5)
+
+        underTest.searchPaged(
+            nodeId = NodeId(pagedSearchHandle),
+            query = "a",
+            order = SortOrder.ORDER_NONE,
+            pageSize = 2,
+        ).first()
+
+        verify(nodeMapper).invoke(megaNodes[1])
+        verify(nodeMapper, never()).invoke(megaNodes[2])
+    }
+
+    @Test
+    fun `test that searchPaged emits an empty page if nothing is found`() = runTest {
+        stubPagedSearch(results = 0)
+
+        val pages = underTest.searchPaged(
+            nodeId = NodeId(pagedSearchHandle),
+            query = "a",
+            order = SortOrder.ORDER_NONE,
+            pageSize = 2,
+        ).toList()
+
+        assertThat(pages).containsExactly(emptyList<UnTypedNode>())
+    }
+
+    @Test
+    fun `test that searchPaged cancels the search when the collection is cancelled`() = runTest {
+        val megaNode = mock<MegaNode>()
+        whenever(cancelTokenProvider.cancelAndCreateNewToken()).thenReturn(megaCancelToken)
+        whenever(megaApiGateway.getMegaNodeByHandle(pagedSearchHandle)).thenReturn(megaNode)
+        megaApiGateway.stub {
+            onBlocking { search(any(), any(), any(), any()) } doSuspendableAnswer {
+                awaitCancellation()
+            }
+        }
+
+        val collection = launch {
+            underTest.searchPaged(
+                nodeId = NodeId(pagedSearchHandle),
+                query = "a",
+                order = SortOrder.ORDER_NONE,
+                pageSize = 2,
+            ).collect()
+        }
+        runCurrent()
+        collection.cancelAndJoin()
+
+        verify(cancelTokenProvider).cancelToken(megaCancelToken)
+    }
+
+    @Test
+    fun `test that searchByNamePrefix returns the nodes found in the index`() = runTest {
+        clearInvocations(megaApiGateway)
+        val megaNode = mock<MegaNode>()
+        val fileNode = mock<FileNode>()
+        nodeSearchIndex.stub {
+            onBlocking {
+                search(listOf("holiday", "ph"), SearchCategory.IMAGES, null, SortOrder.ORDER_NONE)
+            }.thenReturn(listOf(megaNode))
+        }
+        whenever(nodeMapper(megaNode)).thenReturn(fileNode)
+
+        val actual = underTest.searchByNamePrefix(
+            query = "Holiday ph",
+            searchCategory = SearchCategory.IMAGES,
+            order = SortOrder.ORDER_NONE,
+        )
+
+        assertThat(actual).containsExactly(fileNode)
+        verify(megaApiGateway, never()).searchByType(any(), any(), any(), any(), any(), any())
+    }
+
+    @Test
+    fun `test that searchByNamePrefix filters the SDK results when the index cannot answer`() =
+        runTest {
+            val rootNode = mock<MegaNode> { on { handle }.thenReturn(rootHandle) }
+            val matching = mock<MegaNode> {
+                on { name }.thenReturn("My holiday photo.jpg")
+                on { modificationTime }.thenReturn(15L)
+            }
+            val notPrefixed = mock<MegaNode> {
+                on { name }.thenReturn("Theholiday photo.jpg")
+                on { modificationTime }.thenReturn(15L)
+            }
+            val tooOld = mock<MegaNode> {
+                on { name }.thenReturn("Holiday photo.jpg")
+                on { modificationTime }.thenReturn(5L)
+            }
+            val fileNode = mock<FileNode>()
+            nodeSearchIndex.stub { onBlocking { search(any(), any(), any(), any()) }.thenReturn(null) }
+            whenever(megaApiGateway.getRootNode()).thenReturn(rootNode)
+            whenever(megaApiGateway.getMegaNodeByHandle(rootHandle)).thenReturn(rootNode)
+            whenever(cancelTokenProvider.getOrCreateCancelToken()).thenReturn(megaCancelToken)
+            whenever(sortOrderIntMapper(SortOrder.ORDER_NONE)).thenReturn(0)
+            whenever(megaApiGateway.search(rootNode, "holiday", megaCancelToken, 0))
+                .thenReturn(listOf(matching, notPrefixed, tooOld))
+            whenever(nodeMapper(matching)).thenReturn(fileNode)
+
+            val actual = underTest.searchByNamePrefix(
+                query = "ph Holiday",
+                modificationTimeRange = 10L..20L,
+                order = SortOrder.ORDER_NONE,
+            )
+
+            assertThat(actual).containsExactly(fileNode)
+        }
+
+    @Test
+    fun `test that searchByNamePrefix finds nothing if the query has no words`() = runTest {
+        clearInvocations(nodeSearchIndex)
+        assertThat(
+            underTest.searchByNamePrefix(query = " .- ", order = SortOrder.ORDER_NONE)
+        ).isEmpty()
+        verify(nodeSearchIndex, never()).search(any(), any(), any(), any())
+    }
+
+    private suspend fun stubPagedSearch(results: Int): List<MegaNode> {
+        clearInvocations(nodeMapper)
+        val megaNode = mock<MegaNode>()
+        val megaNodes = List(results) { mock<MegaNode>() }
+        whenever(sortOrderIntMapper(any())).thenReturn(0)
+        whenever(cancelTokenProvider.cancelAndCreateNewToken()).thenReturn(megaCancelToken)
+        whenever(megaApiGateway.getMegaNodeByHandle(pagedSearchHandle)).thenReturn(megaNode)
+        whenever(megaApiGateway.search(megaNode, "a", megaCancelToken, 0)).thenReturn(megaNodes)
+        whenever(nodeMapper(any())).thenReturn(mock<FileNode>())
+        return megaNodes
+    }
+
     companion object {
+        private const val pagedSearchHandle = 5L
+        private const val rootHandle = 7L
         private const val nodeHandle = 1L
         private val nodeId = NodeId(nodeHandle)
     }
@@ -0,0 +1,54 @@
+package mega.privacy.android.data.repository
+
+import app.cash.turbine.test
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.runTest
+import org.junit.jupiter.api.Test
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class TransferredBytesAccumulatorTest {
+
+    private val underTest = TransferredBytesAccumulator()
+
+    @Test
+    fun `test that the latest transferred bytes of each transfer are kept`() {
+        underTest.update(1, 100L)
+        underTest.update(2, 200L)
+        underTest.update(1, 150L)
+
+        assertThat(underTest.snapshot()).containsExactly(1, 150L, 2, 200L)
+    }
+
+    @Test
+    fun `test that many transfers are kept`() {
+        val expected = (0 until 1000).associateWith { it * 10L }
+
+        expected.forEach { (tag, bytes) -> underTest.update(tag, bytes) }
+
+        assertThat(underTest.snapshot()).isEqualTo(expected)
+    }
+
+    @Test
+    fun `test that clear forgets all the transfers`() {
+        underTest.update(1, 100L)
+
+        underTest.clear()
+
+        assertThat(underTest.snapshot()).isEmpty()
+    }
+
+    @Test
+    fun `test that the updates within a sample period are emitted once`() = runTest {
+        underTest.update(1, 100L)
+
+        underTest.monitorTransferredBytes().test {
+            assertThat(awaitItem()).containsExactly(1, 100L)
+            underTest.update(1, 200L)
+            underTest.update(1, 300L)
+            underTest.update(2, 50L)
+            assertThat(awaitItem()).containsExactly(1, 300L, 2, 50L)
+            expectNoEvents()
+        }
+    }
+}
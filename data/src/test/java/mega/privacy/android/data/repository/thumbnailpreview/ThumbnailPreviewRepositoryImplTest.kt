@@ -1,10 +1,12 @@
 package mega.privacy.android.data.repository.thumbnailpreview
 
 import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.advanceUntilIdle
 import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.cache.ThumbnailPreviewDiskCache
 import mega.privacy.android.data.constant.CacheFolderConstant
 import mega.privacy.android.data.gateway.CacheGateway
 import mega.privacy.android.data.gateway.api.MegaApiFolderGateway
@@ -41,6 +43,7 @@ class ThumbnailPreviewRepositoryImplTest {
     private val megaApiFolder = mock<MegaApiFolderGateway>()
     private val cacheGateway = mock<CacheGateway>()
     private val stringWrapper = mock<StringWrapper>()
+    private val diskCache = mock<ThumbnailPreviewDiskCache>()
 
     private val cacheDir = File("cache")
     private val thumbnailName = "thumbnailName"
@@ -58,6 +61,10 @@ class ThumbnailPreviewRepositoryImplTest {
             ioDispatcher = UnconfinedTestDispatcher(),
             cacheGateway = cacheGateway,
             stringWrapper = stringWrapper,
+            requestScheduler = ThumbnailPreviewRequestScheduler(
+                CoroutineScope(UnconfinedTestDispatcher())
+            ),
+            diskCache = diskCache,
         )
     }
 
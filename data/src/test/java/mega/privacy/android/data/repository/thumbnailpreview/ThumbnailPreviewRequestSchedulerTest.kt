@@ -0,0 +1,119 @@
+package mega.privacy.android.data.repository.thumbnailpreview
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.async
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.repository.thumbnailpreview.ThumbnailPreviewRequestScheduler.Kind
+import mega.privacy.android.data.repository.thumbnailpreview.ThumbnailPreviewRequestScheduler.Priority
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.api.assertThrows
+
+@OptIn(ExperimentalCoroutinesApi::class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ThumbnailPreviewRequestSchedulerTest {
+
+    @Test
+    fun `test that concurrent requests for the same node and kind share one request`() =
+        runTest(UnconfinedTestDispatcher()) {
+            val underTest = ThumbnailPreviewRequestScheduler(backgroundScope)
+            val response = CompletableDeferred<String>()
+            var invocations = 0
+            val block: suspend () -> String = {
+                invocations++
+                response.await()
+            }
+
+            val first = async { underTest.execute(1L, Kind.Thumbnail, Priority.Visible, block) }
+            val second = async { underTest.execute(1L, Kind.Thumbnail, Priority.Visible, block) }
+            response.complete("thumbnail")
+
+            assertThat(first.await()).isEqualTo("thumbnail")
+            assertThat(second.await()).isEqualTo("thumbnail")
+            assertThat(invocations).isEqualTo(1)
+        }
+
+    @Test
+    fun `test that requests for different kinds are not shared`() =
+        runTest(UnconfinedTestDispatcher()) {
+            val underTest = ThumbnailPreviewRequestScheduler(backgroundScope)
+
+            val thumbnail = underTest.execute(1L, Kind.Thumbnail, Priority.Visible) { "thumbnail" }
+            val preview = underTest.execute(1L, Kind.Preview, Priority.Visible) { "preview" }
+
+            assertThat(thumbnail).isEqualTo("thumbnail")
+            assertThat(preview).isEqualTo("preview")
+        }
+
+    @Test
+    fun `test that the error of the request is thrown to all the callers`() =
+        runTest(UnconfinedTestDispatcher()) {
+            val underTest = ThumbnailPreviewRequestScheduler(backgroundScope)
+
+            assertThrows<IllegalStateException> {
+                underTest.execute<String>(1L, Kind.Thumbnail, Priority.Visible) {
+                    throw IllegalStateException()
+                }
+            }
+        }
+
+    @Test
+    fun `test that pending visible requests are started before pending prefetch requests`() =
+        runTest(UnconfinedTestDispatcher()) {
+            val underTest = ThumbnailPreviewRequestScheduler(backgroundScope)
+            val startedHandles = mutableListOf<Long>()
+            val blockers = List(ThumbnailPreviewRequestScheduler.MAX_RUNNING_REQUESTS) {
+                CompletableDeferred<Unit>()
+            }
+            val running = blockers.mapIndexed { index, blocker ->
+                async {
+                    underTest.execute(100L + index, Kind.Thumbnail, Priority.Visible) {
+                        blocker.await()
+                    }
+                }
+            }
+            val prefetch = async {
+                underTest.execute(1L, Kind.Thumbnail, Priority.Prefetch) { startedHandles += 1L }
+            }
+            val visible = async {
+                underTest.execute(2L, Kind.Thumbnail, Priority.Visible) { startedHandles += 2L }
+            }
+            assertThat(startedHandles).isEmpty()
+
+            blockers.forEach { it.complete(Unit) }
+            running.forEach { it.await() }
+            prefetch.await()
+            visible.await()
+
+            assertThat(startedHandles).containsExactly(2L, 1L).inOrder()
+        }
+
+    @Test
+    fun `test that a pending request is not started when all its callers are cancelled`() =
+        runTest(UnconfinedTestDispatcher()) {
+            val underTest = ThumbnailPreviewRequestScheduler(backgroundScope)
+            val blockers = List(ThumbnailPreviewRequestScheduler.MAX_RUNNING_REQUESTS) {
+                CompletableDeferred<Unit>()
+            }
+            val running = blockers.mapIndexed { index, blocker ->
+                async {
+                    underTest.execute(100L + index, Kind.Thumbnail, Priority.Visible) {
+                        blocker.await()
+                    }
+                }
+            }
+            var isStarted = false
+            val pending = async {
+                underTest.execute(1L, Kind.Thumbnail, Priority.Visible) { isStarted = true }
+            }
+
+            pending.cancel()
+            blockers.forEach { it.complete(Unit) }
+            running.forEach { it.await() }
+
+            assertThat(isStarted).isFalse()
+        }
+}
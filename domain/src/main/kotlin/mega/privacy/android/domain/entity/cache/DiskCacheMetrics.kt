@@ -0,0 +1,24 @@
+package mega.privacy.android.domain.entity.cache
+
+/**
+ * Metrics of a disk cache since the app started
+ *
+ * @property sizeInBytes current size of the cached files
+ * @property maxSizeInBytes size budget of the cache, files are evicted above it
+ * @property hitCount number of lookups that found the file cached
+ * @property missCount number of lookups that did not find the file cached
+ * @property evictionCount number of files evicted to stay within the budget
+ */
+data class DiskCacheMetrics(
+    val sizeInBytes: Long,
+    val maxSizeInBytes: Long,
+    val hitCount: Long,
+    val missCount: Long,
+    val evictionCount: Long,
+) {
+    /**
+     * Ratio of lookups that found the file cached, 0 if there were no lookups
+     */
+    val hitRate: Float
+        get() = (hitCount + missCount).takeIf { it > 0 }?.let { hitCount.toFloat() / it } ?: 0f
+}
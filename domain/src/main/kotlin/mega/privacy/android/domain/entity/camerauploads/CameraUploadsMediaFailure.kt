@@ -0,0 +1,16 @@
+package mega.privacy.android.domain.entity.camerauploads
+
+import mega.privacy.android.domain.entity.MediaStoreFileType
+
+/**
+ * Media retrieved from the media store that could not be turned into a [CameraUploadsRecord]
+ *
+ * @property media the [CameraUploadsMedia] that failed
+ * @property mediaStoreFileType the [MediaStoreFileType] the media was retrieved from
+ * @property cause the error thrown, or null if the file could not be fingerprinted
+ */
+data class CameraUploadsMediaFailure(
+    val media: CameraUploadsMedia,
+    val mediaStoreFileType: MediaStoreFileType,
+    val cause: Throwable?,
+)
@@ -0,0 +1,12 @@
+package mega.privacy.android.domain.entity.camerauploads
+
+/**
+ * Result of a media store scan for Camera Uploads
+ *
+ * @property records the new [CameraUploadsRecord] to save
+ * @property failures the media that could not be turned into a record, to retry on the next scan
+ */
+data class CameraUploadsMediaScanResult(
+    val records: List<CameraUploadsRecord>,
+    val failures: List<CameraUploadsMediaFailure>,
+)
@@ -0,0 +1,26 @@
+package mega.privacy.android.domain.entity.camerauploads
+
+/**
+ * Position reached by the last successful scan of a media store volume for Camera Uploads
+ *
+ * Only media added or modified after the watermark needs to be read on the next scan.
+ * A watermark is only valid while the parent path and the media store version stay the same,
+ * otherwise a full scan is required
+ *
+ * @property parentPath local folder path the scan was filtered with
+ * @property mediaStoreVersion opaque version of the media store volume. It changes when the volume
+ *                             is re-indexed, in which case generations are no longer comparable
+ * @property generation media store generation of the volume when the scan started,
+ *                      null if generations are not supported by the device
+ * @property timestamp time in seconds when the scan started
+ * @property fullScanTimestamp time in seconds when the last full scan started, null if unknown
+ * @property failedScans number of consecutive scans that held the watermark back at a failed media
+ */
+data class MediaStoreScanWatermark(
+    val parentPath: String,
+    val mediaStoreVersion: String?,
+    val generation: Long?,
+    val timestamp: Long,
+    val fullScanTimestamp: Long? = null,
+    val failedScans: Int = 0,
+)
@@ -9,7 +9,6 @@ package mega.privacy.android.domain.entity.logging
  * @property throwable
  * @property trace
  * @property loggingClasses
- * @property sdkLoggers
  */
 data class CreateLogEntryRequest(
     val tag: String?,
@@ -18,5 +17,11 @@ data class CreateLogEntryRequest(
     val throwable: Throwable?,
     val trace: List<StackTraceElement>,
     val loggingClasses: List<String>,
-    val sdkLoggers: List<String>,
-)
\ No newline at end of file
+) {
+    companion object {
+        /**
+         * Tag of the logs of the chat SDK
+         */
+        const val CHAT_SDK_TAG = "[chat]"
+    }
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package mega.privacy.android.domain.entity.transfer
+
+/**
+ * Metrics of the queue of transfer events waiting to be delivered, since the app started
+ *
+ * @property queueDepth number of events currently waiting to be delivered
+ * @property maxQueueDepth highest number of events that were waiting to be delivered at once
+ * @property mergedEventCount number of update events merged into a pending update of the same transfer
+ * @property droppedEventCount number of update events dropped because the queue was full
+ */
+data class TransferEventQueueMetrics(
+    val queueDepth: Int,
+    val maxQueueDepth: Int,
+    val mergedEventCount: Long,
+    val droppedEventCount: Long,
+)
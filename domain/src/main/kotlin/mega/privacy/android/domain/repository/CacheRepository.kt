@@ -1,5 +1,7 @@
 package mega.privacy.android.domain.repository
 
+import mega.privacy.android.domain.entity.cache.DiskCacheMetrics
+
 /**
  * Cache Repository
  */
@@ -13,4 +15,14 @@ interface CacheRepository {
      * Clear Cache
      */
     suspend fun clearCache()
+
+    /**
+     * Get the metrics of the thumbnail disk cache
+     */
+    suspend fun getThumbnailCacheMetrics(): DiskCacheMetrics
+
+    /**
+     * Get the metrics of the preview disk cache
+     */
+    suspend fun getPreviewCacheMetrics(): DiskCacheMetrics
 }
\ No newline at end of file
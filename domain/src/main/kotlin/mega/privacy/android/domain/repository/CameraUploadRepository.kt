@@ -19,6 +19,7 @@ import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUploa
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsSettingsAction
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsStatusInfo
 import mega.privacy.android.domain.entity.camerauploads.HeartbeatStatus
+import mega.privacy.android.domain.entity.camerauploads.MediaStoreScanWatermark
 import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.settings.camerauploads.UploadOption
 
@@ -717,6 +718,64 @@ interface CameraUploadRepository {
      */
     fun getMediaSelectionQuery(parentPath: String): String
 
+    /**
+     * Get the selection query to filter the media based on the parent path, restricted to the
+     * media added or modified after the given watermark
+     *
+     * @param parentPath path that contains the media
+     * @param watermark [MediaStoreScanWatermark] reached by the previous scan
+     */
+    fun getIncrementalMediaSelectionQuery(
+        parentPath: String,
+        watermark: MediaStoreScanWatermark,
+    ): String
+
+    /**
+     * Capture the current position of the media store for a given media type
+     *
+     * @param mediaStoreFileType different media store file type
+     * @param parentPath path that contains the media
+     *
+     * @return the current [MediaStoreScanWatermark]
+     */
+    suspend fun getCurrentMediaStoreScanWatermark(
+        mediaStoreFileType: MediaStoreFileType,
+        parentPath: String,
+    ): MediaStoreScanWatermark
+
+    /**
+     * Get the watermark saved after the last successful media store scan
+     *
+     * @param folderType the [CameraUploadFolderType] that was scanned
+     * @param mediaStoreFileType the [MediaStoreFileType] that was scanned
+     *
+     * @return the saved [MediaStoreScanWatermark], or null if a full scan is needed
+     */
+    suspend fun getMediaStoreScanWatermark(
+        folderType: CameraUploadFolderType,
+        mediaStoreFileType: MediaStoreFileType,
+    ): MediaStoreScanWatermark?
+
+    /**
+     * Save the watermark reached by a successful media store scan
+     *
+     * @param folderType the [CameraUploadFolderType] that was scanned
+     * @param mediaStoreFileType the [MediaStoreFileType] that was scanned
+     * @param watermark the [MediaStoreScanWatermark] to save
+     */
+    suspend fun setMediaStoreScanWatermark(
+        folderType: CameraUploadFolderType,
+        mediaStoreFileType: MediaStoreFileType,
+        watermark: MediaStoreScanWatermark,
+    )
+
+    /**
+     * Invalidate the media store scan watermarks, so the next scan reads the whole media store
+     *
+     * @param folderTypes a list of [CameraUploadFolderType]
+     */
+    suspend fun clearMediaStoreScanWatermarks(folderTypes: List<CameraUploadFolderType>)
+
     /**
      * Save a list of [CameraUploadsRecord] in the database
      *
@@ -775,10 +834,37 @@ interface CameraUploadRepository {
         generatedFingerprint: String,
     )
 
+    /**
+     * Set the gps coordinates extracted from the file of the camera uploads record
+     *
+     * @param mediaId the id of the record
+     * @param timestamp the timestamp of the record
+     * @param folderType the folder type of the record
+     * @param latitude the latitude extracted from the file
+     * @param longitude the longitude extracted from the file
+     */
+    suspend fun setRecordGpsCoordinates(
+        mediaId: Long,
+        timestamp: Long,
+        folderType: CameraUploadFolderType,
+        latitude: Float,
+        longitude: Float,
+    )
+
     /**
      * Clear the camera uploads record given the folder types
      *
      * @param folderTypes a list of folder type (Primary, Secondary, or both)
      */
     suspend fun clearRecords(folderTypes: List<CameraUploadFolderType>)
+
+    /**
+     * Get the files of a folder by their fingerprint, in a single pass
+     *
+     * Each file is mapped by its fingerprint and, if it has one, by its original fingerprint
+     *
+     * @param folderNodeId the [NodeId] of the folder
+     * @return a map of fingerprint to [NodeId], empty if the folder does not exist
+     */
+    suspend fun getFileNodeIdsByFingerprint(folderNodeId: NodeId): Map<String, NodeId>
 }
@@ -153,6 +153,14 @@ interface NodeRepository {
      */
     fun monitorNodeUpdates(): Flow<NodeUpdate>
 
+    /**
+     * Monitor the updates of the given nodes
+     *
+     * @param nodeIds ids of the nodes to watch
+     * @return a flow of the node updates containing only the given nodes
+     */
+    fun monitorNodeUpdatesByIds(nodeIds: Set<NodeId>): Flow<NodeUpdate>
+
     /**
      * monitor offline node updates
      */
@@ -1,5 +1,6 @@
 package mega.privacy.android.domain.repository
 
+import kotlinx.coroutines.flow.Flow
 import mega.privacy.android.domain.entity.SortOrder
 import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.node.UnTypedNode
@@ -33,6 +34,45 @@ interface SearchRepository {
         order: SortOrder
     ): List<UnTypedNode>
 
+    /**
+     * Search node and emit the results in pages of [UnTypedNode], mapped as they are collected
+     *
+     * Cancelling the collection cancels the search. An empty page is emitted if nothing is found.
+     *
+     * @param nodeId [NodeId] place where needed to be searched
+     * @param searchCategory Search Category for search
+     * @param query string to be search
+     * @param order oder in which result should be there
+     * @param pageSize maximum number of nodes in every page
+     */
+    fun searchPaged(
+        nodeId: NodeId?,
+        searchCategory: SearchCategory = SearchCategory.ALL,
+        query: String,
+        order: SortOrder,
+        pageSize: Int,
+    ): Flow<List<UnTypedNode>>
+
+    /**
+     * Search the cloud drive for the nodes with a word in their name starting with each word of
+     * the query, ignoring case and accents
+     *
+     * The search is answered from an on-device index of the node names when possible, and from
+     * the SDK otherwise. Nothing is found if the query has no words.
+     *
+     * @param query words to be searched, as typed
+     * @param searchCategory Search Category for search
+     * @param modificationTimeRange range of modification times in seconds, creation times for
+     * folders, or null for any
+     * @param order oder in which result should be there
+     */
+    suspend fun searchByNamePrefix(
+        query: String,
+        searchCategory: SearchCategory = SearchCategory.ALL,
+        modificationTimeRange: LongRange? = null,
+        order: SortOrder,
+    ): List<UnTypedNode>
+
     /**
      * Search Nodes in incoming shares
      * @param query string to be search
@@ -43,6 +83,18 @@ interface SearchRepository {
         order: SortOrder
     ): List<UnTypedNode>
 
+    /**
+     * Search Nodes in incoming shares and emit the results in pages, see [searchPaged]
+     * @param query string to be search
+     * @param order oder in which result should be there
+     * @param pageSize maximum number of nodes in every page
+     */
+    fun searchInSharesPaged(
+        query: String,
+        order: SortOrder,
+        pageSize: Int,
+    ): Flow<List<UnTypedNode>>
+
     /**
      * Search Nodes in incoming shares
      * @param query string to be search
@@ -53,6 +105,18 @@ interface SearchRepository {
         order: SortOrder
     ): List<UnTypedNode>
 
+    /**
+     * Search Nodes in outgoing shares and emit the results in pages, see [searchPaged]
+     * @param query string to be search
+     * @param order oder in which result should be there
+     * @param pageSize maximum number of nodes in every page
+     */
+    fun searchOutSharesPaged(
+        query: String,
+        order: SortOrder,
+        pageSize: Int,
+    ): Flow<List<UnTypedNode>>
+
     /**
      * Search nodes in links
      * @param query string to be search
@@ -64,4 +128,18 @@ interface SearchRepository {
         order: SortOrder,
         isFirstLevelNavigation: Boolean,
     ): List<UnTypedNode>
+
+    /**
+     * Search nodes in links and emit the results in pages, see [searchPaged]
+     * @param query string to be search
+     * @param order oder in which result should be there
+     * @param isFirstLevelNavigation first level navigation
+     * @param pageSize maximum number of nodes in every page
+     */
+    fun searchLinkSharesPaged(
+        query: String,
+        order: SortOrder,
+        isFirstLevelNavigation: Boolean,
+        pageSize: Int,
+    ): Flow<List<UnTypedNode>>
 }
\ No newline at end of file
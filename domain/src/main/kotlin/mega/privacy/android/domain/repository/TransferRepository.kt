@@ -12,6 +12,7 @@ import mega.privacy.android.domain.entity.transfer.Transfer
 import mega.privacy.android.domain.entity.transfer.TransferAppData
 import mega.privacy.android.domain.entity.transfer.TransferData
 import mega.privacy.android.domain.entity.transfer.TransferEvent
+import mega.privacy.android.domain.entity.transfer.TransferEventQueueMetrics
 import mega.privacy.android.domain.entity.transfer.TransferType
 import mega.privacy.android.domain.entity.transfer.TransfersFinishedState
 import mega.privacy.android.domain.exception.MegaException
@@ -27,6 +28,13 @@ interface TransferRepository {
      */
     fun monitorTransferEvents(): Flow<TransferEvent>
 
+    /**
+     * Get the metrics of the queue of transfer events waiting to be delivered
+     *
+     * @return [TransferEventQueueMetrics]
+     */
+    suspend fun getTransferEventQueueMetrics(): TransferEventQueueMetrics
+
     /**
      * Gets the number of pending download transfers that are not background transfers.
      *
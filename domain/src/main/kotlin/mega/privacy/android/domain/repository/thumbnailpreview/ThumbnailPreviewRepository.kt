@@ -25,18 +25,22 @@ interface ThumbnailPreviewRepository {
     /**
      * Check thumbnail from server
      * @param handle node handle
+     * @param isPrefetch whether the thumbnail is not shown yet, so that the requests of the
+     * shown thumbnails are sent first
      * @return thumbnail file
      */
     @Throws(MegaException::class)
-    suspend fun getThumbnailFromServer(handle: Long): File?
+    suspend fun getThumbnailFromServer(handle: Long, isPrefetch: Boolean = false): File?
 
     /**
      * Check public node thumbnail from server
      * @param handle node handle
+     * @param isPrefetch whether the thumbnail is not shown yet, so that the requests of the
+     * shown thumbnails are sent first
      * @return thumbnail file
      */
     @Throws(MegaException::class)
-    suspend fun getPublicNodeThumbnailFromServer(handle: Long): File?
+    suspend fun getPublicNodeThumbnailFromServer(handle: Long, isPrefetch: Boolean = false): File?
 
     /**
      * Check preview from local
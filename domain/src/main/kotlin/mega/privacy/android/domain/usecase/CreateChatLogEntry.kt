@@ -9,6 +9,7 @@ import javax.inject.Inject
 /**
  * Create chat log entry implementation of [CreateLogEntry]
  *
+ * Chat SDK logs are told apart by their tag, so the caller trace is only needed for app logs
  */
 internal class CreateChatLogEntry @Inject constructor(
     private val createTraceString: CreateTraceString,
@@ -19,29 +20,30 @@ internal class CreateChatLogEntry @Inject constructor(
     private var appVersion: String? = null
 
     override suspend fun invoke(request: CreateLogEntryRequest): LogEntry? {
-        val entry = if (isChatLog(request.tag)) {
-            var megaTag: String? = null
-            var stackTrace: String? = null
-
-            if (isNotSdkLog(request.trace, request.sdkLoggers)) {
-                megaTag = createClientAppTag(request.priority)
-                stackTrace = createTraceString(request.trace, request.loggingClasses)
-            }
-            LogEntry(
-                megaTag,
+        return when {
+            isChatSdkLog(request.tag) -> LogEntry(
+                null,
                 request.message,
-                stackTrace,
+                null,
                 request.priority.intValue,
                 request.throwable
             )
-        } else null
-        return entry
+
+            isAppLog(request.tag) -> LogEntry(
+                createClientAppTag(request.priority),
+                request.message,
+                createTraceString(request.trace, request.loggingClasses),
+                request.priority.intValue,
+                request.throwable
+            )
+
+            else -> null
+        }
     }
 
-    private fun isChatLog(tag: String?) = tag == null
+    private fun isChatSdkLog(tag: String?) = tag == CreateLogEntryRequest.CHAT_SDK_TAG
 
-    private fun isNotSdkLog(trace: List<StackTraceElement>, sdkLoggers: List<String>) =
-        trace.none { it.className in sdkLoggers }
+    private fun isAppLog(tag: String?) = tag == null
 
     private suspend fun createClientAppTag(priority: LogPriority): String =
         "[${getFormattedTime()}][${priority.name}][clientApp ${getAppVersion()}]"
@@ -8,6 +8,7 @@ import javax.inject.Inject
 /**
  * Create sdk log entry implementation of [CreateLogEntry]
  *
+ * Chat SDK logs are left to the chat log entries
  */
 internal class CreateSdkLogEntry @Inject constructor(
     private val createTraceString: CreateTraceString,
@@ -18,6 +19,8 @@ internal class CreateSdkLogEntry @Inject constructor(
 
     override suspend fun invoke(request: CreateLogEntryRequest): LogEntry? {
         return when {
+            isChatSdkLog(request.tag) -> null
+
             isSdkLog(request.tag) -> LogEntry(
                 request.tag,
                 request.message,
@@ -26,22 +29,19 @@ internal class CreateSdkLogEntry @Inject constructor(
                 request.throwable
             )
 
-            isNotSdkLog(request.trace, request.sdkLoggers) -> LogEntry(
+            else -> LogEntry(
                 "[clientApp ${getAppVersion()}]",
                 request.message,
                 createTraceString(request.trace, request.loggingClasses),
                 request.priority.intValue,
                 request.throwable
             )
-
-            else -> null
         }
     }
 
-    private fun isSdkLog(tag: String?) = tag != null
+    private fun isChatSdkLog(tag: String?) = tag == CreateLogEntryRequest.CHAT_SDK_TAG
 
-    private fun isNotSdkLog(trace: List<StackTraceElement>, sdkLoggers: List<String>) =
-        trace.none { it.className in sdkLoggers }
+    private fun isSdkLog(tag: String?) = tag != null
 
     private suspend fun getAppVersion() =
         appVersion ?: environmentRepository.getAppInfo().appVersion.also {
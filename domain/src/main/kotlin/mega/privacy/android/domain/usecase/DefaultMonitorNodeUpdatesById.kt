@@ -11,7 +11,7 @@ class DefaultMonitorNodeUpdatesById @Inject constructor(
     private val nodeRepository: NodeRepository,
 ) : MonitorNodeUpdatesById {
     override fun invoke(nodeId: NodeId): Flow<List<NodeChanges>> =
-        nodeRepository.monitorNodeUpdates().mapNotNull { update ->
+        nodeRepository.monitorNodeUpdatesByIds(setOf(nodeId)).mapNotNull { update ->
             update.changes.entries.firstOrNull { it.key.id == nodeId }?.value
         }
 }
\ No newline at end of file
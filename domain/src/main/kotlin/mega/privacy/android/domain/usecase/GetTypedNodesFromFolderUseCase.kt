@@ -2,7 +2,6 @@ package mega.privacy.android.domain.usecase
 
 import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.emitAll
-import kotlinx.coroutines.flow.filter
 import kotlinx.coroutines.flow.flow
 import kotlinx.coroutines.flow.map
 import kotlinx.coroutines.flow.mapLatest
@@ -41,12 +40,7 @@ class GetTypedNodesFromFolderUseCase @Inject constructor(
     }
 
     private fun getMonitoredList(folderId: NodeId, nodeIds: List<NodeId>) =
-        nodeRepository.monitorNodeUpdates()
-            .filter { changes ->
-                changes.changes.keys.map { it.id }
-                    .intersect(
-                        nodeIds.toSet()
-                    ).isNotEmpty()
-            }.map { getChildren(folderId) }
+        nodeRepository.monitorNodeUpdatesByIds(nodeIds.toSet())
+            .map { getChildren(folderId) }
 
 }
\ No newline at end of file
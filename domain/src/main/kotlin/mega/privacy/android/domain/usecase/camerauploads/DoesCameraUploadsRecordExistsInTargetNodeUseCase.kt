@@ -1,26 +1,49 @@
 package mega.privacy.android.domain.usecase.camerauploads
 
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.FlowPreview
 import kotlinx.coroutines.async
 import kotlinx.coroutines.awaitAll
 import kotlinx.coroutines.coroutineScope
-import kotlinx.coroutines.yield
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.emitAll
+import kotlinx.coroutines.flow.flatMapMerge
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.sync.withPermit
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
 import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.repository.CameraUploadRepository
 import javax.inject.Inject
 
 /**
  * Check if the record has already been updated in the target node or exists in a different folder,
  * except rubbish bin and set property `existsInTargetNode` and `existingNodeId` to the [CameraUploadsRecord]
+ *
+ * The files of the target nodes are mapped by fingerprint once per call, so the records already
+ * uploaded to their target node are resolved without any lookup. Only the other records are looked
+ * for in the rest of the cloud drive
  */
 class DoesCameraUploadsRecordExistsInTargetNodeUseCase @Inject constructor(
+    private val cameraUploadRepository: CameraUploadRepository,
     private val findNodeWithFingerprintInParentNodeUseCase: FindNodeWithFingerprintInParentNodeUseCase,
 ) {
 
+    companion object {
+        /**
+         * Maximum number of records checked at the same time
+         */
+        const val CONCURRENT_CHECKS_LIMIT = 8
+    }
+
     /**
      * Check if the record has already been updated in the target node or exists in a different folder,
      * except rubbish bin and set property `existsInTargetNode` and `existingNodeId` to the [CameraUploadsRecord]
      *
+     * The records are returned in the same order as [recordList]. Records that fail the check
+     * are dropped
+     *
      * @param recordList
      * @param primaryUploadNodeId
      * @param secondaryUploadNodeId
@@ -31,25 +54,112 @@ class DoesCameraUploadsRecordExistsInTargetNodeUseCase @Inject constructor(
         primaryUploadNodeId: NodeId,
         secondaryUploadNodeId: NodeId,
     ): List<CameraUploadsRecord> = coroutineScope {
-        return@coroutineScope recordList.map { record ->
+        val filesInTargetNodes = getFilesInTargetNodes(primaryUploadNodeId, secondaryUploadNodeId)
+        val semaphore = Semaphore(CONCURRENT_CHECKS_LIMIT)
+        recordList.map { record ->
             async {
-                yield()
-                runCatching {
-                    findNodeWithFingerprintInParentNodeUseCase(
-                        record.originalFingerprint,
-                        record.generatedFingerprint,
-                        when (record.folderType) {
-                            CameraUploadFolderType.Primary -> primaryUploadNodeId
-                            CameraUploadFolderType.Secondary -> secondaryUploadNodeId
-                        },
-                    )
-                }.getOrNull()?.let { (existsInTargetNode, existingNodeId) ->
-                    record.copy(
-                        existsInTargetNode = existsInTargetNode,
-                        existingNodeId = existingNodeId,
+                semaphore.withPermit {
+                    checkRecord(
+                        record = record,
+                        filesInTargetNodes = filesInTargetNodes,
+                        primaryUploadNodeId = primaryUploadNodeId,
+                        secondaryUploadNodeId = secondaryUploadNodeId,
                     )
                 }
             }
         }.awaitAll().filterNotNull()
     }
+
+    /**
+     * Check the existence of the records as they are emitted,
+     * with at most [concurrency] records checked at the same time
+     *
+     * The records are not emitted in order. Records that fail the check are dropped
+     *
+     * @param records
+     * @param primaryUploadNodeId
+     * @param secondaryUploadNodeId
+     * @param concurrency
+     * @return a flow of [CameraUploadsRecord]
+     */
+    @OptIn(FlowPreview::class, ExperimentalCoroutinesApi::class)
+    operator fun invoke(
+        records: Flow<CameraUploadsRecord>,
+        primaryUploadNodeId: NodeId,
+        secondaryUploadNodeId: NodeId,
+        concurrency: Int = CONCURRENT_CHECKS_LIMIT,
+    ): Flow<CameraUploadsRecord> = flow {
+        val filesInTargetNodes = getFilesInTargetNodes(primaryUploadNodeId, secondaryUploadNodeId)
+        emitAll(
+            records.flatMapMerge(concurrency) { record ->
+                flow {
+                    checkRecord(
+                        record = record,
+                        filesInTargetNodes = filesInTargetNodes,
+                        primaryUploadNodeId = primaryUploadNodeId,
+                        secondaryUploadNodeId = secondaryUploadNodeId,
+                    )?.let { emit(it) }
+                }
+            }
+        )
+    }
+
+    /**
+     * Set `existsInTargetNode` and `existingNodeId` to the record
+     *
+     * @return the updated [CameraUploadsRecord], or null if the check failed
+     */
+    private suspend fun checkRecord(
+        record: CameraUploadsRecord,
+        filesInTargetNodes: Map<CameraUploadFolderType, Map<String, NodeId>>,
+        primaryUploadNodeId: NodeId,
+        secondaryUploadNodeId: NodeId,
+    ): CameraUploadsRecord? {
+        val filesInTargetNode = filesInTargetNodes.getValue(record.folderType)
+        val nodeIdInTargetNode = filesInTargetNode[record.originalFingerprint]
+            ?: record.generatedFingerprint?.let { filesInTargetNode[it] }
+        if (nodeIdInTargetNode != null) {
+            return record.copy(
+                existsInTargetNode = true,
+                existingNodeId = nodeIdInTargetNode,
+            )
+        }
+        return runCatching {
+            findNodeWithFingerprintInParentNodeUseCase(
+                record.originalFingerprint,
+                record.generatedFingerprint,
+                when (record.folderType) {
+                    CameraUploadFolderType.Primary -> primaryUploadNodeId
+                    CameraUploadFolderType.Secondary -> secondaryUploadNodeId
+                },
+            )
+        }.getOrNull()?.let { (existsInTargetNode, existingNodeId) ->
+            record.copy(
+                existsInTargetNode = existsInTargetNode,
+                existingNodeId = existingNodeId,
+            )
+        }
+    }
+
+    /**
+     * Map the files of the primary and secondary target nodes by fingerprint
+     *
+     * A target node that cannot be read is mapped to an empty map, so its records are looked for
+     * one by one
+     */
+    private suspend fun getFilesInTargetNodes(
+        primaryUploadNodeId: NodeId,
+        secondaryUploadNodeId: NodeId,
+    ): Map<CameraUploadFolderType, Map<String, NodeId>> = coroutineScope {
+        val primaryFiles = async { getFilesInTargetNode(primaryUploadNodeId) }
+        val secondaryFiles = async { getFilesInTargetNode(secondaryUploadNodeId) }
+        mapOf(
+            CameraUploadFolderType.Primary to primaryFiles.await(),
+            CameraUploadFolderType.Secondary to secondaryFiles.await(),
+        )
+    }
+
+    private suspend fun getFilesInTargetNode(nodeId: NodeId) =
+        runCatching { cameraUploadRepository.getFileNodeIdsByFingerprint(nodeId) }
+            .getOrDefault(emptyMap())
 }
@@ -1,9 +1,16 @@
 package mega.privacy.android.domain.usecase.camerauploads
 
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.FlowPreview
 import kotlinx.coroutines.async
 import kotlinx.coroutines.awaitAll
 import kotlinx.coroutines.coroutineScope
-import kotlinx.coroutines.yield
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.emitAll
+import kotlinx.coroutines.flow.flatMapMerge
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.sync.withPermit
 import mega.privacy.android.domain.entity.SyncRecordType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
 import mega.privacy.android.domain.usecase.file.GetGPSCoordinatesUseCase
@@ -12,35 +19,90 @@ import javax.inject.Inject
 /**
  * Extract the gps coordinates from the file and assign `latitude` and `longitude`
  * to the [CameraUploadsRecord]
- * This operation is only needed if the records does not exists yet in the cloud
+ * This operation is only needed if the records does not exists yet in the cloud,
+ * and is skipped when the location tags are not included in the uploads
+ *
+ * The extracted coordinates are saved in the record, so the files are not read again
+ * if the camera uploads process is interrupted before they are uploaded
  */
 class ExtractGpsCoordinatesUseCase @Inject constructor(
     private val getGPSCoordinatesUseCase: GetGPSCoordinatesUseCase,
+    private val areLocationTagsEnabledUseCase: AreLocationTagsEnabledUseCase,
+    private val setCameraUploadsRecordGpsCoordinatesUseCase: SetCameraUploadsRecordGpsCoordinatesUseCase,
 ) {
+
+    companion object {
+        /**
+         * Maximum number of files read at the same time
+         */
+        const val CONCURRENT_EXTRACTIONS_LIMIT = 4
+    }
+
     /**
      * Extract the gps coordinates from the file corresponding to the [CameraUploadsRecord]
      * and set the record property `latitude` and `longitude` if retrieved
      *
+     * The records are returned in the same order as [recordList]
+     *
      * @param recordList
      * @return a list of [CameraUploadsRecord] with the gps coordinates populated
      */
     suspend operator fun invoke(
         recordList: List<CameraUploadsRecord>,
     ): List<CameraUploadsRecord> = coroutineScope {
-        return@coroutineScope recordList.map { record ->
-            async {
-                yield()
-                if (record.existingNodeId == null) {
-                    runCatching {
-                        getGPSCoordinatesUseCase(
-                            record.filePath,
-                            record.type == SyncRecordType.TYPE_VIDEO,
-                        ).let { (latitude, longitude) ->
-                            record.copy(latitude = latitude, longitude = longitude)
-                        }
-                    }.getOrDefault(record)
-                } else record
-            }
+        if (!areLocationTagsEnabledUseCase()) return@coroutineScope recordList
+        val semaphore = Semaphore(CONCURRENT_EXTRACTIONS_LIMIT)
+        recordList.map { record ->
+            async { semaphore.withPermit { extractGpsCoordinates(record) } }
         }.awaitAll()
     }
+
+    /**
+     * Extract the gps coordinates of the records as they are emitted,
+     * with at most [concurrency] files read at the same time
+     *
+     * The records are not emitted in order
+     *
+     * @param records
+     * @param concurrency
+     * @return a flow of [CameraUploadsRecord] with the gps coordinates populated
+     */
+    @OptIn(FlowPreview::class, ExperimentalCoroutinesApi::class)
+    operator fun invoke(
+        records: Flow<CameraUploadsRecord>,
+        concurrency: Int = CONCURRENT_EXTRACTIONS_LIMIT,
+    ): Flow<CameraUploadsRecord> = flow {
+        if (!areLocationTagsEnabledUseCase()) {
+            emitAll(records)
+            return@flow
+        }
+        emitAll(
+            records.flatMapMerge(concurrency) { record ->
+                flow { emit(extractGpsCoordinates(record)) }
+            }
+        )
+    }
+
+    private suspend fun extractGpsCoordinates(record: CameraUploadsRecord): CameraUploadsRecord {
+        if (record.existingNodeId != null || (record.latitude != null && record.longitude != null))
+            return record
+
+        return runCatching {
+            getGPSCoordinatesUseCase(
+                record.filePath,
+                record.type == SyncRecordType.TYPE_VIDEO,
+            ).let { (latitude, longitude) ->
+                runCatching {
+                    setCameraUploadsRecordGpsCoordinatesUseCase(
+                        mediaId = record.mediaId,
+                        timestamp = record.timestamp,
+                        folderType = record.folderType,
+                        latitude = latitude,
+                        longitude = longitude,
+                    )
+                }
+                record.copy(latitude = latitude, longitude = longitude)
+            }
+        }.getOrDefault(record)
+    }
 }
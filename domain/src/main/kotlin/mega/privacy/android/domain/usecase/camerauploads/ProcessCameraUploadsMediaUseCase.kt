@@ -2,8 +2,13 @@ package mega.privacy.android.domain.usecase.camerauploads
 
 import kotlinx.coroutines.async
 import kotlinx.coroutines.coroutineScope
+import mega.privacy.android.domain.entity.MediaStoreFileType
 import mega.privacy.android.domain.entity.SyncRecordType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaFailure
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
+import mega.privacy.android.domain.entity.camerauploads.MediaStoreScanWatermark
+import mega.privacy.android.domain.repository.CameraUploadRepository
 import mega.privacy.android.domain.usecase.IsSecondaryFolderEnabled
 import javax.inject.Inject
 
@@ -11,11 +16,18 @@ import javax.inject.Inject
  * Use case to retrieve media from the media stores, and save them in the database
  * to be uploaded by Camera Uploads
  *
+ * Only the media added or modified since the last successful scan are retrieved, unless the
+ * saved [MediaStoreScanWatermark] is missing or no longer valid, or the last full scan is older
+ * than [FULL_SCAN_INTERVAL_SECONDS]. Clearing the records also clears the watermarks, so that the
+ * next scan is a full one
+ *
  * @property getPrimaryFolderPathUseCase
  * @property getSecondaryFolderPathUseCase
  * @property getMediaStoreFileTypesUseCase
  * @property isSecondaryFolderEnabled
  * @property retrieveMediaFromMediaStoreUseCase
+ * @property saveCameraUploadsRecordUseCase
+ * @property cameraUploadRepository
  */
 class ProcessCameraUploadsMediaUseCase @Inject constructor(
     private val getPrimaryFolderPathUseCase: GetPrimaryFolderPathUseCase,
@@ -24,40 +36,38 @@ class ProcessCameraUploadsMediaUseCase @Inject constructor(
     private val isSecondaryFolderEnabled: IsSecondaryFolderEnabled,
     private val retrieveMediaFromMediaStoreUseCase: RetrieveMediaFromMediaStoreUseCase,
     private val saveCameraUploadsRecordUseCase: SaveCameraUploadsRecordUseCase,
+    private val cameraUploadRepository: CameraUploadRepository,
 ) {
 
     /**
      * Invoke
      * @param tempRoot [String]
+     * @return the media that could not be turned into a record. They are retried on the next scan
      */
     suspend operator fun invoke(
         tempRoot: String,
-    ) = coroutineScope {
+    ): List<CameraUploadsMediaFailure> = coroutineScope {
         val (photoMediaStoreTypes, videoMediaStoreTypes) = getMediaStoreFileTypesUseCase().partition { it.isImageFileType() }
         val primaryFolderPath = getPrimaryFolderPathUseCase()
 
         val primaryPhotoMedia = async {
-            photoMediaStoreTypes.takeUnless { it.isEmpty() }?.let {
-                retrieveMediaFromMediaStoreUseCase(
-                    parentPath = primaryFolderPath,
-                    types = it,
-                    folderType = CameraUploadFolderType.Primary,
-                    fileType = SyncRecordType.TYPE_PHOTO,
-                    tempRoot = tempRoot,
-                )
-            } ?: emptyList()
+            retrieveMedia(
+                parentPath = primaryFolderPath,
+                types = photoMediaStoreTypes,
+                folderType = CameraUploadFolderType.Primary,
+                fileType = SyncRecordType.TYPE_PHOTO,
+                tempRoot = tempRoot,
+            )
         }
 
         val primaryVideoMedia = async {
-            videoMediaStoreTypes.takeUnless { it.isEmpty() }?.let {
-                retrieveMediaFromMediaStoreUseCase(
-                    parentPath = primaryFolderPath,
-                    types = it,
-                    folderType = CameraUploadFolderType.Primary,
-                    fileType = SyncRecordType.TYPE_VIDEO,
-                    tempRoot = tempRoot,
-                )
-            } ?: emptyList()
+            retrieveMedia(
+                parentPath = primaryFolderPath,
+                types = videoMediaStoreTypes,
+                folderType = CameraUploadFolderType.Primary,
+                fileType = SyncRecordType.TYPE_VIDEO,
+                tempRoot = tempRoot,
+            )
         }
 
         val isSecondaryFolderEnabled = isSecondaryFolderEnabled()
@@ -66,39 +76,153 @@ class ProcessCameraUploadsMediaUseCase @Inject constructor(
         val secondaryPhotoMedia =
             if (isSecondaryFolderEnabled) {
                 async {
-                    photoMediaStoreTypes.takeUnless { it.isEmpty() }?.let {
-                        retrieveMediaFromMediaStoreUseCase(
-                            parentPath = secondaryFolderPath,
-                            types = it,
-                            folderType = CameraUploadFolderType.Secondary,
-                            fileType = SyncRecordType.TYPE_PHOTO,
-                            tempRoot = tempRoot,
-                        )
-                    }.orEmpty()
+                    retrieveMedia(
+                        parentPath = secondaryFolderPath,
+                        types = photoMediaStoreTypes,
+                        folderType = CameraUploadFolderType.Secondary,
+                        fileType = SyncRecordType.TYPE_PHOTO,
+                        tempRoot = tempRoot,
+                    )
                 }
             } else null
 
         val secondaryVideoMedia =
             if (isSecondaryFolderEnabled) {
                 async {
-                    videoMediaStoreTypes.takeUnless { it.isEmpty() }?.let {
-                        retrieveMediaFromMediaStoreUseCase(
-                            parentPath = secondaryFolderPath,
-                            types = it,
-                            folderType = CameraUploadFolderType.Secondary,
-                            fileType = SyncRecordType.TYPE_VIDEO,
-                            tempRoot = tempRoot,
-                        )
-                    }.orEmpty()
+                    retrieveMedia(
+                        parentPath = secondaryFolderPath,
+                        types = videoMediaStoreTypes,
+                        folderType = CameraUploadFolderType.Secondary,
+                        fileType = SyncRecordType.TYPE_VIDEO,
+                        tempRoot = tempRoot,
+                    )
                 }
             } else null
 
-        val combinedList = buildList {
-            addAll(primaryPhotoMedia.await())
-            addAll(primaryVideoMedia.await())
-            secondaryPhotoMedia?.let { addAll(it.await()) }
-            secondaryVideoMedia?.let { addAll(it.await()) }
+        val scanResults = buildList {
+            add(primaryPhotoMedia.await())
+            add(primaryVideoMedia.await())
+            secondaryPhotoMedia?.let { add(it.await()) }
+            secondaryVideoMedia?.let { add(it.await()) }
+        }
+        saveCameraUploadsRecordUseCase(scanResults.flatMap { it.records })
+
+        // Only move the watermarks forward once the records are safely saved
+        scanResults.forEach { result ->
+            result.watermarks.forEach { (mediaStoreFileType, watermark) ->
+                cameraUploadRepository.setMediaStoreScanWatermark(
+                    folderType = result.folderType,
+                    mediaStoreFileType = mediaStoreFileType,
+                    watermark = watermark,
+                )
+            }
+        }
+        return@coroutineScope scanResults.flatMap { it.failures }
+    }
+
+    /**
+     * Retrieve the media of the given types contained in the parent path
+     *
+     * @return a [MediaScanResult] with the records retrieved and the watermarks to save
+     */
+    private suspend fun retrieveMedia(
+        parentPath: String,
+        types: List<MediaStoreFileType>,
+        folderType: CameraUploadFolderType,
+        fileType: SyncRecordType,
+        tempRoot: String,
+    ): MediaScanResult {
+        if (types.isEmpty()) return MediaScanResult(folderType, emptyList(), emptyList(), emptyMap())
+
+        val currentWatermarks = types.associateWith {
+            cameraUploadRepository.getCurrentMediaStoreScanWatermark(it, parentPath)
+        }
+        val savedWatermarks = types.associateWith {
+            cameraUploadRepository.getMediaStoreScanWatermark(folderType, it)
+        }
+        val previousWatermarks = types.mapNotNull { type ->
+            savedWatermarks[type]
+                ?.takeIf { it.isValidFor(currentWatermarks[type]) }
+                ?.let { type to it }
+        }.toMap()
+
+        val result = retrieveMediaFromMediaStoreUseCase(
+            parentPath = parentPath,
+            types = types,
+            folderType = folderType,
+            fileType = fileType,
+            tempRoot = tempRoot,
+            watermarks = previousWatermarks,
+        )
+        val watermarks = currentWatermarks.mapValues { (type, current) ->
+            current.copy(
+                fullScanTimestamp = previousWatermarks[type]?.fullScanTimestamp
+                    ?: current.timestamp
+            ).cappedAt(
+                failures = result.failures.filter { it.mediaStoreFileType == type },
+                failedScans = savedWatermarks[type]?.failedScans ?: 0,
+            )
+        }
+        return MediaScanResult(folderType, result.records, result.failures, watermarks)
+    }
+
+    /**
+     * Move the watermark back so that the next scan retrieves the failed media again
+     *
+     * The generation of a media is not known, so the capped watermark falls back to the date
+     * of the oldest failed media. The timestamp of a media is in milliseconds, the one of the
+     * watermark in seconds. After [MAX_FAILED_SCANS] consecutive capped scans the failed media
+     * are no longer retried, so that a media that always fails does not make every scan a full one
+     *
+     * @param failedScans number of consecutive scans the saved watermark was capped
+     */
+    private fun MediaStoreScanWatermark.cappedAt(
+        failures: List<CameraUploadsMediaFailure>,
+        failedScans: Int,
+    ): MediaStoreScanWatermark {
+        val oldestFailure = failures.minOfOrNull { it.media.timestamp / 1000 }
+        return when {
+            oldestFailure == null -> this
+            failedScans >= MAX_FAILED_SCANS -> this
+            else -> copy(
+                generation = null,
+                timestamp = minOf(timestamp, oldestFailure),
+                failedScans = failedScans + 1,
+            )
         }
-        saveCameraUploadsRecordUseCase(combinedList)
+    }
+
+    /**
+     * Check if a saved watermark can still be used to scan incrementally
+     *
+     * The watermark is invalidated when the folder changes, when the media store has been
+     * re-indexed since it was saved, or when the last full scan is too old, so that the media
+     * missed by an incremental scan are eventually retrieved
+     */
+    private fun MediaStoreScanWatermark.isValidFor(current: MediaStoreScanWatermark?) =
+        current != null
+                && parentPath == current.parentPath
+                && mediaStoreVersion == current.mediaStoreVersion
+                && (generation == null || current.generation == null || generation <= current.generation)
+                && fullScanTimestamp != null
+                && current.timestamp - fullScanTimestamp < FULL_SCAN_INTERVAL_SECONDS
+
+    private data class MediaScanResult(
+        val folderType: CameraUploadFolderType,
+        val records: List<CameraUploadsRecord>,
+        val failures: List<CameraUploadsMediaFailure>,
+        val watermarks: Map<MediaStoreFileType, MediaStoreScanWatermark>,
+    )
+
+    companion object {
+        /**
+         * Maximum time in seconds between two full scans
+         */
+        const val FULL_SCAN_INTERVAL_SECONDS = 7L * 24 * 60 * 60
+
+        /**
+         * Maximum number of consecutive scans retrying the media that failed
+         */
+        const val MAX_FAILED_SCANS = 5
     }
 }
@@ -1,8 +1,13 @@
 package mega.privacy.android.domain.usecase.camerauploads
 
 import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.currentCoroutineContext
 import kotlinx.coroutines.ensureActive
-import kotlinx.coroutines.withContext
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.asFlow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.flowOn
+import kotlinx.coroutines.flow.toList
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
 import mega.privacy.android.domain.entity.node.NodeId
@@ -39,30 +44,47 @@ class RenameCameraUploadsRecordsUseCase @Inject constructor(
         recordList: List<CameraUploadsRecord>,
         primaryUploadNodeId: NodeId,
         secondaryUploadNodeId: NodeId,
-    ): List<CameraUploadsRecord> = withContext(ioDispatcher) {
+    ): List<CameraUploadsRecord> =
+        invoke(recordList.asFlow(), primaryUploadNodeId, secondaryUploadNodeId).toList()
+
+    /**
+     * Rename the records as they are emitted
+     *
+     * The records are renamed sequentially, because the name given to a record depends on the
+     * names given to the previous ones
+     *
+     * @param records the flow of records to rename
+     * @param primaryUploadNodeId primary cloud folder
+     * @param secondaryUploadNodeId secondary cloud folder
+     * @return a flow of renamed [CameraUploadsRecord]
+     */
+    operator fun invoke(
+        records: Flow<CameraUploadsRecord>,
+        primaryUploadNodeId: NodeId,
+        secondaryUploadNodeId: NodeId,
+    ): Flow<CameraUploadsRecord> = flow {
         val keepName = areUploadFileNamesKeptUseCase()
-        val renamedRecordList = arrayListOf<CameraUploadsRecord>()
-        recordList.forEach { record ->
-            ensureActive()
+        val usedFileNames = mutableMapOf<CameraUploadFolderType, MutableSet<String>>()
+        records.collect { record ->
+            currentCoroutineContext().ensureActive()
             val parentNodeId = when (record.folderType) {
                 CameraUploadFolderType.Primary -> primaryUploadNodeId
                 CameraUploadFolderType.Secondary -> secondaryUploadNodeId
             }
+            val fileNamesInFolder = usedFileNames.getOrPut(record.folderType) { mutableSetOf() }
 
             val originalFileName = getFileName(record, keepName)
             var fileName = originalFileName
             var photoIndex = 0
-            while (
-                fileNameAlreadyExists(fileName, parentNodeId, record.folderType, renamedRecordList)
-            ) {
-                ensureActive()
+            while (fileNameAlreadyExists(fileName, parentNodeId, fileNamesInFolder)) {
+                currentCoroutineContext().ensureActive()
                 fileName = getFileNameWithIndex(originalFileName, photoIndex++)
             }
 
-            renamedRecordList.add(record.copy(fileName = fileName))
+            fileNamesInFolder.add(fileName)
+            emit(record.copy(fileName = fileName))
         }
-        return@withContext renamedRecordList
-    }
+    }.flowOn(ioDispatcher)
 
     /**
      * Get the file name depending of the user setting to keep the original name
@@ -107,18 +129,15 @@ class RenameCameraUploadsRecordsUseCase @Inject constructor(
      *
      * @param fileName
      * @param parentNodeId
-     * @param folderType
-     * @param recordList
+     * @param fileNamesInFolder the names already given to the records of the same folder
      * @return true if the [fileName] is already used
      */
     private suspend fun fileNameAlreadyExists(
         fileName: String,
         parentNodeId: NodeId,
-        folderType: CameraUploadFolderType,
-        recordList: List<CameraUploadsRecord>
+        fileNamesInFolder: Set<String>,
     ): Boolean =
-        fileNameExistsInCloud(fileName, parentNodeId)
-                || fileNameExistsInList(fileName, recordList, folderType)
+        fileNamesInFolder.contains(fileName) || fileNameExistsInCloud(fileName, parentNodeId)
 
     /**
      * Check if the [fileName] is already used for one of the node in the target folder on the Cloud drive
@@ -129,19 +148,4 @@ class RenameCameraUploadsRecordsUseCase @Inject constructor(
      */
     private suspend fun fileNameExistsInCloud(fileName: String, parentNodeId: NodeId): Boolean =
         getChildNodeUseCase(parentNodeId, fileName) != null
-
-    /**
-     * Check if the [fileName] is already used for one of the future node in the list that is being processed
-     *
-     * @param fileName
-     * @param recordList
-     * @param folderType
-     * @return true if the [fileName] is already used in the current list
-     */
-    private fun fileNameExistsInList(
-        fileName: String,
-        recordList: List<CameraUploadsRecord>,
-        folderType: CameraUploadFolderType
-    ): Boolean =
-        recordList.any { it.folderType == folderType && it.fileName == fileName }
 }
@@ -8,13 +8,19 @@ import mega.privacy.android.domain.entity.MediaStoreFileType
 import mega.privacy.android.domain.entity.SyncRecordType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaFailure
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaScanResult
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
+import mega.privacy.android.domain.entity.camerauploads.MediaStoreScanWatermark
 import mega.privacy.android.domain.repository.CameraUploadRepository
 import mega.privacy.android.domain.usecase.camerauploads.mapper.CameraUploadsRecordMapper
 import javax.inject.Inject
 
 /**
  * Retrieve a list of [CameraUploadsMedia] from the media store
+ *
+ * A media that fails to be turned into a [CameraUploadsRecord] is reported as a
+ * [CameraUploadsMediaFailure], so that the scan watermark does not move past it
  */
 class RetrieveMediaFromMediaStoreUseCase @Inject constructor(
     private val cameraUploadRepository: CameraUploadRepository,
@@ -26,8 +32,12 @@ class RetrieveMediaFromMediaStoreUseCase @Inject constructor(
      *
      * @param parentPath used for filtering the media contained in the parent path
      * @param types types of files that we want to retrieve. This types will be converted to proper Uri
+     * @param watermarks the [MediaStoreScanWatermark] reached by the previous scan of each type.
+     *                   Only the media changed after it are retrieved. If a type has no watermark,
+     *                   all its media are retrieved
      *
-     * @return a list of [CameraUploadsRecord]
+     * @return a [CameraUploadsMediaScanResult] with the new records, and the media that could not
+     *         be turned into a record
      */
     suspend operator fun invoke(
         parentPath: String,
@@ -35,40 +45,57 @@ class RetrieveMediaFromMediaStoreUseCase @Inject constructor(
         folderType: CameraUploadFolderType,
         fileType: SyncRecordType,
         tempRoot: String,
-    ): List<CameraUploadsRecord> = coroutineScope {
-        val selectionQuery = cameraUploadRepository.getMediaSelectionQuery(parentPath)
+        watermarks: Map<MediaStoreFileType, MediaStoreScanWatermark>,
+    ): CameraUploadsMediaScanResult = coroutineScope {
+        val fullSelectionQuery = cameraUploadRepository.getMediaSelectionQuery(parentPath)
 
         val (recordsInPrimaryFolder, recordsInSecondaryFolder) =
             cameraUploadRepository.getAllCameraUploadsRecords()
                 .partition { it.folderType == CameraUploadFolderType.Primary }
 
-        return@coroutineScope types.flatMap {
+        val records = mutableListOf<CameraUploadsRecord>()
+        val failures = mutableListOf<CameraUploadsMediaFailure>()
+        types.forEach { type ->
+            val selectionQuery = watermarks[type]?.let {
+                cameraUploadRepository.getIncrementalMediaSelectionQuery(parentPath, it)
+            } ?: fullSelectionQuery
+
             cameraUploadRepository.getMediaList(
-                mediaStoreFileType = it,
+                mediaStoreFileType = type,
                 selectionQuery = selectionQuery,
-            ).map {
+            ).map { media ->
                 async {
                     yield()
+                    val exists = checkCameraUploadsRecordAlreadyExists(
+                        cameraUploadsMedia = media,
+                        recordsToCheck =
+                        if (folderType == CameraUploadFolderType.Primary)
+                            recordsInPrimaryFolder
+                        else recordsInSecondaryFolder,
+                    )
+                    if (exists) return@async null
                     runCatching {
-                        val exists = checkCameraUploadsRecordAlreadyExists(
-                            cameraUploadsMedia = it,
-                            recordsToCheck =
-                            if (folderType == CameraUploadFolderType.Primary)
-                                recordsInPrimaryFolder
-                            else recordsInSecondaryFolder,
+                        cameraUploadsRecordMapper(
+                            media = media,
+                            folderType = folderType,
+                            fileType = fileType,
+                            tempRoot = tempRoot,
                         )
-                        if (!exists) {
-                            cameraUploadsRecordMapper(
-                                media = it,
-                                folderType = folderType,
-                                fileType = fileType,
-                                tempRoot = tempRoot,
-                            )
-                        } else null
-                    }.getOrNull()
+                    }.fold(
+                        onSuccess = { record ->
+                            record ?: CameraUploadsMediaFailure(media, type, null)
+                        },
+                        onFailure = { CameraUploadsMediaFailure(media, type, it) },
+                    )
+                }
+            }.awaitAll().forEach {
+                when (it) {
+                    is CameraUploadsRecord -> records.add(it)
+                    is CameraUploadsMediaFailure -> failures.add(it)
                 }
-            }.awaitAll().filterNotNull()
+            }
         }
+        return@coroutineScope CameraUploadsMediaScanResult(records, failures)
     }
 
     /**
@@ -0,0 +1,36 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
+import mega.privacy.android.domain.repository.CameraUploadRepository
+import javax.inject.Inject
+
+/**
+ * Set the gps coordinates extracted from the file of the camera uploads record
+ */
+class SetCameraUploadsRecordGpsCoordinatesUseCase @Inject constructor(
+    private val cameraUploadRepository: CameraUploadRepository,
+) {
+
+    /**
+     * Set the gps coordinates extracted from the file of the camera uploads record
+     *
+     * @param mediaId the id of the record
+     * @param timestamp the timestamp of the record
+     * @param folderType the folder type of the record
+     * @param latitude the latitude extracted from the file
+     * @param longitude the longitude extracted from the file
+     */
+    suspend operator fun invoke(
+        mediaId: Long,
+        timestamp: Long,
+        folderType: CameraUploadFolderType,
+        latitude: Float,
+        longitude: Float,
+    ) = cameraUploadRepository.setRecordGpsCoordinates(
+        mediaId = mediaId,
+        timestamp = timestamp,
+        folderType = folderType,
+        latitude = latitude,
+        longitude = longitude,
+    )
+}
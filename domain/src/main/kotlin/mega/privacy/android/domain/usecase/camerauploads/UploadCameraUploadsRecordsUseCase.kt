@@ -1,8 +1,10 @@
 package mega.privacy.android.domain.usecase.camerauploads
 
 import kotlinx.coroutines.channels.Channel.Factory.UNLIMITED
+import kotlinx.coroutines.coroutineScope
 import kotlinx.coroutines.delay
 import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.asFlow
 import kotlinx.coroutines.flow.buffer
 import kotlinx.coroutines.flow.cancellable
 import kotlinx.coroutines.flow.catch
@@ -11,7 +13,6 @@ import kotlinx.coroutines.flow.flow
 import kotlinx.coroutines.flow.onCompletion
 import kotlinx.coroutines.flow.retry
 import kotlinx.coroutines.flow.singleOrNull
-import kotlinx.coroutines.joinAll
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.sync.Semaphore
 import kotlinx.coroutines.yield
@@ -112,240 +113,265 @@ class UploadCameraUploadsRecordsUseCase @Inject constructor(
         primaryUploadNodeId: NodeId,
         secondaryUploadNodeId: NodeId,
         tempRoot: String,
+    ): Flow<CameraUploadsTransferProgress> = invoke(
+        cameraUploadsRecords.asFlow(),
+        primaryUploadNodeId,
+        secondaryUploadNodeId,
+        tempRoot,
+    )
+
+    /**
+     * Camera Uploads upload process
+     *
+     * The records are uploaded as soon as they are emitted.
+     * A new record is only collected when an upload slot is available,
+     * so the upstream flow is not consumed faster than the records can be uploaded
+     *
+     * @param cameraUploadsRecords The flow of records to process
+     * @param primaryUploadNodeId The primary upload node id
+     * @param secondaryUploadNodeId The secondary upload node id
+     * @param tempRoot The file path to the temporary folder to generate temp files
+     */
+    operator fun invoke(
+        cameraUploadsRecords: Flow<CameraUploadsRecord>,
+        primaryUploadNodeId: NodeId,
+        secondaryUploadNodeId: NodeId,
+        tempRoot: String,
     ): Flow<CameraUploadsTransferProgress> = channelFlow {
         val videoQuality = getUploadVideoQualityUseCase()
         val locationTagsDisabled = !areLocationTagsEnabledUseCase()
 
-        cameraUploadsRecords.map { record ->
-            launch {
+        coroutineScope {
+            cameraUploadsRecords.collect { record ->
                 semaphore.acquire()
+                launch {
+                    yield()
 
-                yield()
-
-                val parentNodeId =
-                    getParentNodeId(record, primaryUploadNodeId, secondaryUploadNodeId)
-
-                when {
-                    // node does not exist => upload
-                    record.existingNodeId == null -> {
-
-                        val shouldRemoveLocationTags =
-                            record.type == SyncRecordType.TYPE_PHOTO && locationTagsDisabled
-                        val shouldCompressVideo =
-                            record.type == SyncRecordType.TYPE_VIDEO && videoQuality != VideoQuality.ORIGINAL
-
-                        yield()
-
-                        // create temporary file
-                        if (shouldRemoveLocationTags) {
-                            createTempFileAndRemoveCoordinates(record, tempRoot)
-                                .catch {
-                                    trySend(CameraUploadsTransferProgress.Error(record, it))
-                                    setCameraUploadsRecordUploadStatus(
-                                        record = record,
-                                        status = if (it is FileNotFoundException)
-                                            CameraUploadsRecordUploadStatus.LOCAL_FILE_NOT_EXIST
-                                        else CameraUploadsRecordUploadStatus.FAILED
-                                    ).onFailure { error ->
-                                        trySend(CameraUploadsTransferProgress.Error(record, error))
+                    val parentNodeId =
+                        getParentNodeId(record, primaryUploadNodeId, secondaryUploadNodeId)
+
+                    when {
+                        // node does not exist => upload
+                        record.existingNodeId == null -> {
+
+                            val shouldRemoveLocationTags =
+                                record.type == SyncRecordType.TYPE_PHOTO && locationTagsDisabled
+                            val shouldCompressVideo =
+                                record.type == SyncRecordType.TYPE_VIDEO && videoQuality != VideoQuality.ORIGINAL
+
+                            yield()
+
+                            // create temporary file
+                            if (shouldRemoveLocationTags) {
+                                createTempFileAndRemoveCoordinates(record, tempRoot)
+                                    .catch {
+                                        trySend(CameraUploadsTransferProgress.Error(record, it))
+                                        setCameraUploadsRecordUploadStatus(
+                                            record = record,
+                                            status = if (it is FileNotFoundException)
+                                                CameraUploadsRecordUploadStatus.LOCAL_FILE_NOT_EXIST
+                                            else CameraUploadsRecordUploadStatus.FAILED
+                                        ).onFailure { error ->
+                                            trySend(CameraUploadsTransferProgress.Error(record, error))
+                                        }
                                     }
-                                }
-                                .singleOrNull()
-                                ?: run {
-                                    semaphore.release()
-                                    return@launch
-                                }
-                        }
+                                    .singleOrNull()
+                                    ?: run {
+                                        semaphore.release()
+                                        return@launch
+                                    }
+                            }
 
-                        yield()
+                            yield()
 
-                        // Compress Video
-                        if (shouldCompressVideo) {
-                            videoCompressionSemaphore.acquire()
-                            compressVideo(record, tempRoot, videoQuality)
-                                .catch {
-                                    emit(VideoCompressionState.Finished)
-                                    trySend(CameraUploadsTransferProgress.Error(record, it))
-                                }
-                                .onCompletion { videoCompressionSemaphore.release() }
-                                .collect {
-                                    when (it) {
-                                        is VideoCompressionState.Progress -> {
-                                            trySend(
-                                                CameraUploadsTransferProgress.Compressing.Progress(
-                                                    record = record,
-                                                    progress = it.progress,
+                            // Compress Video
+                            if (shouldCompressVideo) {
+                                videoCompressionSemaphore.acquire()
+                                compressVideo(record, tempRoot, videoQuality)
+                                    .catch {
+                                        emit(VideoCompressionState.Finished)
+                                        trySend(CameraUploadsTransferProgress.Error(record, it))
+                                    }
+                                    .onCompletion { videoCompressionSemaphore.release() }
+                                    .collect {
+                                        when (it) {
+                                            is VideoCompressionState.Progress -> {
+                                                trySend(
+                                                    CameraUploadsTransferProgress.Compressing.Progress(
+                                                        record = record,
+                                                        progress = it.progress,
+                                                    )
                                                 )
-                                            )
-                                        }
+                                            }
 
-                                        is VideoCompressionState.Successful -> {
-                                            trySend(
+                                            is VideoCompressionState.Successful -> {
+                                                trySend(
 
-                                                CameraUploadsTransferProgress.Compressing.Successful(
-                                                    record = record,
+                                                    CameraUploadsTransferProgress.Compressing.Successful(
+                                                        record = record,
+                                                    )
                                                 )
-                                            )
-                                        }
+                                            }
 
-                                        is VideoCompressionState.InsufficientStorage -> {
-                                            trySend(
-                                                CameraUploadsTransferProgress.Compressing.InsufficientStorage(
-                                                    record = record,
+                                            is VideoCompressionState.InsufficientStorage -> {
+                                                trySend(
+                                                    CameraUploadsTransferProgress.Compressing.InsufficientStorage(
+                                                        record = record,
+                                                    )
                                                 )
-                                            )
-                                        }
+                                            }
 
-                                        else -> Unit
+                                            else -> Unit
+                                        }
                                     }
-                                }
-                        }
+                            }
 
-                        yield()
+                            yield()
 
-                        // generate fingerprint and save it
-                        // This step is important to check if a file exist in the cloud drive,
-                        // in case the original fingerprint cannot be assigned to the Node after the transfer finishes
-                        val setGeneratedFingerprintJob = launch {
-                            setGeneratedFingerprint(record)
-                                .onFailure {
-                                    trySend(CameraUploadsTransferProgress.Error(record, it))
-                                }
-                        }
-
-                        // retrieve path of file to upload
-                        val path = getPath(record, shouldRemoveLocationTags, shouldCompressVideo)
-
-                        yield()
-
-                        // upload
-                        startUploadUseCase(
-                            localPath = path,
-                            parentNodeId = parentNodeId,
-                            fileName = record.fileName,
-                            modificationTime = record.timestamp / 1000,
-                            appData = TransferType.CU_UPLOAD.name,
-                            isSourceTemporary = false,
-                            shouldStartFirst = false,
-                        ).collect { transferEvent ->
-                            when (transferEvent) {
-                                is TransferEvent.TransferStartEvent -> {
-                                    // set status to STARTED
-                                    setCameraUploadsRecordUploadStatus(
-                                        record = record,
-                                        status = CameraUploadsRecordUploadStatus.STARTED,
-                                    ).onFailure {
+                            // generate fingerprint and save it
+                            // This step is important to check if a file exist in the cloud drive,
+                            // in case the original fingerprint cannot be assigned to the Node after the transfer finishes
+                            val setGeneratedFingerprintJob = launch {
+                                setGeneratedFingerprint(record)
+                                    .onFailure {
                                         trySend(CameraUploadsTransferProgress.Error(record, it))
                                     }
+                            }
 
-                                    trySend(
-                                        CameraUploadsTransferProgress.ToUpload(
+                            // retrieve path of file to upload
+                            val path = getPath(record, shouldRemoveLocationTags, shouldCompressVideo)
+
+                            yield()
+
+                            // upload
+                            startUploadUseCase(
+                                localPath = path,
+                                parentNodeId = parentNodeId,
+                                fileName = record.fileName,
+                                modificationTime = record.timestamp / 1000,
+                                appData = TransferType.CU_UPLOAD.name,
+                                isSourceTemporary = false,
+                                shouldStartFirst = false,
+                            ).collect { transferEvent ->
+                                when (transferEvent) {
+                                    is TransferEvent.TransferStartEvent -> {
+                                        // set status to STARTED
+                                        setCameraUploadsRecordUploadStatus(
                                             record = record,
-                                            transferEvent = transferEvent,
-                                        )
-                                    )
-                                }
-
-                                is TransferEvent.TransferFinishEvent -> {
-                                    yield()
-                                    processTransferFinishEvent(record, transferEvent)
-                                        .collect {
+                                            status = CameraUploadsRecordUploadStatus.STARTED,
+                                        ).onFailure {
                                             trySend(CameraUploadsTransferProgress.Error(record, it))
                                         }
 
-                                    // Make sure that the generated fingerprint has complete
-                                    setGeneratedFingerprintJob.join()
+                                        trySend(
+                                            CameraUploadsTransferProgress.ToUpload(
+                                                record = record,
+                                                transferEvent = transferEvent,
+                                            )
+                                        )
+                                    }
+
+                                    is TransferEvent.TransferFinishEvent -> {
+                                        yield()
+                                        processTransferFinishEvent(record, transferEvent)
+                                            .collect {
+                                                trySend(CameraUploadsTransferProgress.Error(record, it))
+                                            }
 
-                                    // delete temp file
-                                    deleteTempFile(record)
-                                        .onFailure {
-                                            trySend(CameraUploadsTransferProgress.Error(record, it))
-                                        }
+                                        // Make sure that the generated fingerprint has complete
+                                        setGeneratedFingerprintJob.join()
 
+                                        // delete temp file
+                                        deleteTempFile(record)
+                                            .onFailure {
+                                                trySend(CameraUploadsTransferProgress.Error(record, it))
+                                            }
 
-                                    trySend(
-                                        CameraUploadsTransferProgress.Uploaded(
-                                            record = record,
-                                            transferEvent = transferEvent,
-                                            nodeId = NodeId(transferEvent.transfer.nodeHandle),
+
+                                        trySend(
+                                            CameraUploadsTransferProgress.Uploaded(
+                                                record = record,
+                                                transferEvent = transferEvent,
+                                                nodeId = NodeId(transferEvent.transfer.nodeHandle),
+                                            )
                                         )
-                                    )
 
-                                    semaphore.release()
-                                }
+                                        semaphore.release()
+                                    }
 
-                                is TransferEvent.TransferUpdateEvent -> {
-                                    trySend(
-                                        CameraUploadsTransferProgress.UploadInProgress.TransferUpdate(
-                                            record = record,
-                                            transferEvent = transferEvent,
+                                    is TransferEvent.TransferUpdateEvent -> {
+                                        trySend(
+                                            CameraUploadsTransferProgress.UploadInProgress.TransferUpdate(
+                                                record = record,
+                                                transferEvent = transferEvent,
+                                            )
                                         )
-                                    )
-                                }
+                                    }
 
-                                is TransferEvent.TransferTemporaryErrorEvent ->
-                                    trySend(
-                                        CameraUploadsTransferProgress.UploadInProgress.TransferTemporaryError(
-                                            record = record,
-                                            transferEvent = transferEvent,
+                                    is TransferEvent.TransferTemporaryErrorEvent ->
+                                        trySend(
+                                            CameraUploadsTransferProgress.UploadInProgress.TransferTemporaryError(
+                                                record = record,
+                                                transferEvent = transferEvent,
+                                            )
                                         )
-                                    )
 
-                                else -> Unit
+                                    else -> Unit
+                                }
                             }
                         }
-                    }
 
-                    // node exists but not in target folder => copy
-                    record.existsInTargetNode == false -> {
-                        trySend(
-                            CameraUploadsTransferProgress.ToCopy(
-                                record = record,
-                                nodeId = record.existingNodeId,
+                        // node exists but not in target folder => copy
+                        record.existsInTargetNode == false -> {
+                            trySend(
+                                CameraUploadsTransferProgress.ToCopy(
+                                    record = record,
+                                    nodeId = record.existingNodeId,
+                                )
                             )
-                        )
-
-                        copyNode(
-                            record = record,
-                            existingNodeId = record.existingNodeId,
-                            parentNodeId = parentNodeId,
-                        ).onFailure {
-                            trySend(CameraUploadsTransferProgress.Error(record, it))
-                        }
 
-                        trySend(
-                            CameraUploadsTransferProgress.Copied(
+                            copyNode(
                                 record = record,
-                                nodeId = record.existingNodeId,
+                                existingNodeId = record.existingNodeId,
+                                parentNodeId = parentNodeId,
+                            ).onFailure {
+                                trySend(CameraUploadsTransferProgress.Error(record, it))
+                            }
+
+                            trySend(
+                                CameraUploadsTransferProgress.Copied(
+                                    record = record,
+                                    nodeId = record.existingNodeId,
+                                )
                             )
-                        )
 
-                        setCameraUploadsRecordUploadStatus(
-                            record = record,
-                            status = CameraUploadsRecordUploadStatus.COPIED
-                        ).onFailure {
-                            trySend(CameraUploadsTransferProgress.Error(record, it))
+                            setCameraUploadsRecordUploadStatus(
+                                record = record,
+                                status = CameraUploadsRecordUploadStatus.COPIED
+                            ).onFailure {
+                                trySend(CameraUploadsTransferProgress.Error(record, it))
+                            }
+
+                            semaphore.release()
+                            return@launch
                         }
 
-                        semaphore.release()
-                        return@launch
-                    }
+                        // node exists in target folder or is in rubbish bin => do nothing
+                        else -> {
+                            setCameraUploadsRecordUploadStatus(
+                                record = record,
+                                status = CameraUploadsRecordUploadStatus.ALREADY_EXISTS,
+                            ).onFailure {
+                                trySend(CameraUploadsTransferProgress.Error(record, it))
+                            }
 
-                    // node exists in target folder or is in rubbish bin => do nothing
-                    else -> {
-                        setCameraUploadsRecordUploadStatus(
-                            record = record,
-                            status = CameraUploadsRecordUploadStatus.ALREADY_EXISTS,
-                        ).onFailure {
-                            trySend(CameraUploadsTransferProgress.Error(record, it))
+                            semaphore.release()
+                            return@launch
                         }
-
-                        semaphore.release()
-                        return@launch
                     }
                 }
             }
-        }.joinAll()
+        }
         channel.close()
     }
         .buffer(UNLIMITED)
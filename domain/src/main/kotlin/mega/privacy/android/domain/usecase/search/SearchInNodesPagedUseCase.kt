@@ -0,0 +1,59 @@
+package mega.privacy.android.domain.usecase.search
+
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.emitAll
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.map
+import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.node.TypedNode
+import mega.privacy.android.domain.entity.search.SearchCategory
+import mega.privacy.android.domain.repository.SearchRepository
+import mega.privacy.android.domain.usecase.AddNodeType
+import mega.privacy.android.domain.usecase.GetCloudSortOrder
+import javax.inject.Inject
+
+/**
+ * Use case to search in nodes for nodeID, emitting the results in pages so that the first ones
+ * can be shown before the whole search is mapped
+ *
+ * @property addNodeType [AddNodeType]
+ * @property searchRepository [SearchRepository]
+ * @property getCloudSortOrder [GetCloudSortOrder]
+ */
+class SearchInNodesPagedUseCase @Inject constructor(
+    private val addNodeType: AddNodeType,
+    private val searchRepository: SearchRepository,
+    private val getCloudSortOrder: GetCloudSortOrder,
+) {
+    /**
+     * invoke
+     * @param nodeId [NodeId] where search should be performed
+     * @param searchCategory [SearchCategory] filter type of search
+     * @param query query to be searched
+     * @param pageSize maximum number of nodes in every page
+     * @return flow of the pages of results, cancelling its collection cancels the search
+     */
+    operator fun invoke(
+        nodeId: NodeId?,
+        searchCategory: SearchCategory = SearchCategory.ALL,
+        query: String,
+        pageSize: Int = SEARCH_PAGE_SIZE,
+    ): Flow<List<TypedNode>> = flow {
+        emitAll(
+            searchRepository.searchPaged(
+                nodeId = nodeId,
+                query = query,
+                searchCategory = searchCategory,
+                order = getCloudSortOrder(),
+                pageSize = pageSize
+            )
+        )
+    }.map { page -> page.map { addNodeType(it) } }
+
+    companion object {
+        /**
+         * Default number of nodes in every page, enough to fill the screen
+         */
+        const val SEARCH_PAGE_SIZE = 100
+    }
+}
@@ -0,0 +1,40 @@
+package mega.privacy.android.domain.usecase.search
+
+import mega.privacy.android.domain.entity.node.TypedNode
+import mega.privacy.android.domain.entity.search.SearchCategory
+import mega.privacy.android.domain.repository.SearchRepository
+import mega.privacy.android.domain.usecase.AddNodeType
+import mega.privacy.android.domain.usecase.GetCloudSortOrder
+import javax.inject.Inject
+
+/**
+ * Use case to search the cloud drive for the nodes whose name has words starting with the words
+ * of the query, fast enough to search as the query is typed
+ *
+ * @property addNodeType [AddNodeType]
+ * @property searchRepository [SearchRepository]
+ * @property getCloudSortOrder [GetCloudSortOrder]
+ */
+class SearchNodesByNamePrefixUseCase @Inject constructor(
+    private val addNodeType: AddNodeType,
+    private val searchRepository: SearchRepository,
+    private val getCloudSortOrder: GetCloudSortOrder,
+) {
+    /**
+     * invoke
+     * @param query query to be searched
+     * @param searchCategory [SearchCategory] filter type of search
+     * @param modificationTimeRange range of modification times in seconds, or null for any
+     * @return list of [TypedNode]
+     */
+    suspend operator fun invoke(
+        query: String,
+        searchCategory: SearchCategory = SearchCategory.ALL,
+        modificationTimeRange: LongRange? = null,
+    ): List<TypedNode> = searchRepository.searchByNamePrefix(
+        query = query,
+        searchCategory = searchCategory,
+        modificationTimeRange = modificationTimeRange,
+        order = getCloudSortOrder(),
+    ).map { addNodeType(it) }
+}
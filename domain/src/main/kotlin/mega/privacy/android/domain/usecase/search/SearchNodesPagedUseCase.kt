@@ -0,0 +1,133 @@
+package mega.privacy.android.domain.usecase.search
+
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.emitAll
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.map
+import mega.privacy.android.domain.entity.node.Node
+import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.node.TypedNode
+import mega.privacy.android.domain.entity.node.UnTypedNode
+import mega.privacy.android.domain.entity.search.SearchCategory
+import mega.privacy.android.domain.entity.search.SearchType
+import mega.privacy.android.domain.repository.NodeRepository
+import mega.privacy.android.domain.repository.SearchRepository
+import mega.privacy.android.domain.usecase.AddNodeType
+import mega.privacy.android.domain.usecase.GetBackupsNodeUseCase
+import mega.privacy.android.domain.usecase.GetCloudSortOrder
+import mega.privacy.android.domain.usecase.GetRootNodeUseCase
+import mega.privacy.android.domain.usecase.GetRubbishNodeUseCase
+import mega.privacy.android.domain.usecase.node.GetNodeByHandleUseCase
+import mega.privacy.android.domain.usecase.node.GetTypedChildrenNodeUseCase
+import mega.privacy.android.domain.usecase.search.SearchInNodesPagedUseCase.Companion.SEARCH_PAGE_SIZE
+import javax.inject.Inject
+
+/**
+ * Search Nodes Paged Use Case
+ *
+ * Same as [SearchNodesUseCase], but emits the results in pages so that the first ones can be shown
+ * before the whole search is mapped, and only lists the children of the parent for an empty query
+ * when no category is selected
+ */
+class SearchNodesPagedUseCase @Inject constructor(
+    private val searchInNodesPagedUseCase: SearchInNodesPagedUseCase,
+    private val searchRepository: SearchRepository,
+    private val addNodeType: AddNodeType,
+    private val getRootNodeUseCase: GetRootNodeUseCase,
+    private val getNodeByHandleUseCase: GetNodeByHandleUseCase,
+    private val getRubbishNodeUseCase: GetRubbishNodeUseCase,
+    private val getBackupsNodeUseCase: GetBackupsNodeUseCase,
+    private val getTypedChildrenNodeUseCase: GetTypedChildrenNodeUseCase,
+    private val getCloudSortOrder: GetCloudSortOrder,
+    private val nodeRepository: NodeRepository,
+) {
+
+    /**
+     * Invocation
+     *
+     * @param query search query
+     * @param parentHandle search parent
+     * @param searchType search type [SearchType]
+     * @param searchCategory search category [SearchCategory]
+     * @param isFirstLevel checks if user is on first level navigation
+     * @param pageSize maximum number of nodes in every page
+     *
+     * @return flow of the pages of results, cancelling its collection cancels the search
+     */
+    operator fun invoke(
+        query: String,
+        parentHandle: Long,
+        searchType: SearchType,
+        isFirstLevel: Boolean,
+        searchCategory: SearchCategory = SearchCategory.ALL,
+        pageSize: Int = SEARCH_PAGE_SIZE,
+    ): Flow<List<TypedNode>> = flow {
+        val invalidNodeHandle = nodeRepository.getInvalidHandle()
+        val isChildrenListing = query.isEmpty() && parentHandle != invalidNodeHandle
+        if (isChildrenListing && searchCategory == SearchCategory.ALL) {
+            emit(
+                getTypedChildrenNodeUseCase(
+                    parentNodeId = NodeId(longValue = parentHandle),
+                    order = getCloudSortOrder()
+                )
+            )
+            return@flow
+        }
+        val pages = when (searchType) {
+            SearchType.INCOMING_SHARES -> searchRepository.searchInSharesPaged(
+                query = query,
+                order = getCloudSortOrder(),
+                pageSize = pageSize
+            ).withNodeType()
+
+            SearchType.OUTGOING_SHARES -> searchRepository.searchOutSharesPaged(
+                query = query,
+                order = getCloudSortOrder(),
+                pageSize = pageSize
+            ).withNodeType()
+
+            SearchType.LINKS -> searchRepository.searchLinkSharesPaged(
+                query = query,
+                order = getCloudSortOrder(),
+                isFirstLevelNavigation = isFirstLevel,
+                pageSize = pageSize
+            ).withNodeType()
+
+            else -> {
+                val node = getSearchParentNode(searchType, parentHandle, invalidNodeHandle)
+                searchInNodesPagedUseCase(
+                    nodeId = node?.id,
+                    searchCategory = searchCategory,
+                    query = query,
+                    pageSize = pageSize
+                )
+            }
+        }
+        emitAll(pages)
+    }
+
+    private fun Flow<List<UnTypedNode>>.withNodeType() =
+        map { page -> page.map { addNodeType(it) } }
+
+    /**
+     * This method Returns [Node] for respective selected [SearchType]
+     *
+     * @param searchType
+     * @param parentHandle
+     * @return [Node]
+     */
+    private suspend fun getSearchParentNode(
+        searchType: SearchType,
+        parentHandle: Long,
+        invalidNodeHandle: Long,
+    ): Node? = if (parentHandle == invalidNodeHandle) {
+        when (searchType) {
+            SearchType.CLOUD_DRIVE -> getRootNodeUseCase()
+            SearchType.RUBBISH_BIN -> getRubbishNodeUseCase()
+            SearchType.BACKUPS -> getBackupsNodeUseCase()
+            else -> null
+        }
+    } else {
+        getNodeByHandleUseCase(parentHandle)
+    }
+}
@@ -0,0 +1,23 @@
+package mega.privacy.android.domain.usecase.thumbnailpreview
+
+import mega.privacy.android.domain.repository.thumbnailpreview.ThumbnailPreviewRepository
+import java.io.File
+import javax.inject.Inject
+
+/**
+ * The use case implementation class to get the node preview only if it is already in the cache
+ * @param thumbnailPreviewRepository [ThumbnailPreviewRepository]
+ */
+class GetPreviewFromLocalUseCase @Inject constructor(
+    private val thumbnailPreviewRepository: ThumbnailPreviewRepository,
+) {
+
+    /**
+     * Invoke
+     *
+     * @param nodeId
+     * @return the preview file, or null if it is not in the cache
+     */
+    suspend operator fun invoke(nodeId: Long): File? =
+        thumbnailPreviewRepository.getPreviewFromLocal(nodeId)
+}
@@ -0,0 +1,28 @@
+package mega.privacy.android.domain.usecase.thumbnailpreview
+
+import mega.privacy.android.domain.repository.thumbnailpreview.ThumbnailPreviewRepository
+import java.io.File
+import javax.inject.Inject
+
+/**
+ * The use case implementation class to get the node thumbnail only if it is already in the cache
+ * @param thumbnailPreviewRepository [ThumbnailPreviewRepository]
+ */
+class GetThumbnailFromLocalUseCase @Inject constructor(
+    private val thumbnailPreviewRepository: ThumbnailPreviewRepository,
+) {
+
+    /**
+     * Invoke
+     *
+     * @param nodeId
+     * @param isPublicNode whether the node belongs to a folder link
+     * @return the thumbnail file, or null if it is not in the cache
+     */
+    suspend operator fun invoke(nodeId: Long, isPublicNode: Boolean = false): File? =
+        if (isPublicNode) {
+            thumbnailPreviewRepository.getPublicNodeThumbnailFromLocal(nodeId)
+        } else {
+            thumbnailPreviewRepository.getThumbnailFromLocal(nodeId)
+        }
+}
@@ -0,0 +1,33 @@
+package mega.privacy.android.domain.usecase.thumbnailpreview
+
+import mega.privacy.android.domain.repository.thumbnailpreview.ThumbnailPreviewRepository
+import java.io.File
+import javax.inject.Inject
+
+/**
+ * The use case implementation class to download the node thumbnail into the cache
+ * @param thumbnailPreviewRepository [ThumbnailPreviewRepository]
+ */
+class GetThumbnailFromServerUseCase @Inject constructor(
+    private val thumbnailPreviewRepository: ThumbnailPreviewRepository,
+) {
+
+    /**
+     * Invoke
+     *
+     * @param nodeId
+     * @param isPublicNode whether the node belongs to a folder link
+     * @param isPrefetch whether the thumbnail is not shown yet
+     * @return the thumbnail file, or null if the node has no thumbnail
+     */
+    suspend operator fun invoke(
+        nodeId: Long,
+        isPublicNode: Boolean = false,
+        isPrefetch: Boolean = false,
+    ): File? =
+        if (isPublicNode) {
+            thumbnailPreviewRepository.getPublicNodeThumbnailFromServer(nodeId, isPrefetch)
+        } else {
+            thumbnailPreviewRepository.getThumbnailFromServer(nodeId, isPrefetch)
+        }
+}
@@ -12,6 +12,7 @@ import org.junit.Test
 import org.mockito.kotlin.any
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.verify
+import org.mockito.kotlin.verifyNoInteractions
 import org.mockito.kotlin.verifyNoMoreInteractions
 
 @OptIn(ExperimentalCoroutinesApi::class)
@@ -57,23 +58,20 @@ class CreateChatLogEntryTest {
             throwable = null,
             trace = emptyList(),
             loggingClasses = emptyList(),
-            sdkLoggers = emptyList()
         )
         val actual = underTest(request)
         assertThat(actual).isNull()
     }
 
     @Test
-    fun `test that logs from sdk loggers has no tag added`() = runTest {
-        val loggingClass = "loggingClass"
+    fun `test that logs from the chat sdk have no tag added`() = runTest {
         val request = CreateLogEntryRequest(
-            tag = null,
+            tag = CreateLogEntryRequest.CHAT_SDK_TAG,
             message = "message",
             priority = LogPriority.DEBUG,
             throwable = null,
-            trace = listOf(StackTraceElement(loggingClass, "", "", 1)),
+            trace = emptyList(),
             loggingClasses = emptyList(),
-            sdkLoggers = listOf(loggingClass),
         )
         val actual = underTest(request)
 
@@ -81,20 +79,20 @@ class CreateChatLogEntryTest {
     }
 
     @Test
-    fun `test that sdk logs have no trace added`() = runTest {
-        val loggingClass = "loggingClass"
+    fun `test that chat sdk logs have no trace added`() = runTest {
         val request = CreateLogEntryRequest(
-            tag = null,
+            tag = CreateLogEntryRequest.CHAT_SDK_TAG,
             message = "message",
             priority = LogPriority.DEBUG,
             throwable = null,
-            trace = listOf(StackTraceElement(loggingClass, "", "", 1)),
+            trace = emptyList(),
             loggingClasses = emptyList(),
-            sdkLoggers = listOf(loggingClass),
         )
         val actual = underTest(request)
 
+        assertThat(actual).isNotNull()
         assertThat(actual?.stackTrace).isNull()
+        verifyNoInteractions(createTraceString)
     }
 
     @Test
@@ -108,7 +106,6 @@ class CreateChatLogEntryTest {
             throwable = null,
             trace = emptyList(),
             loggingClasses = emptyList(),
-            sdkLoggers = emptyList()
         )
         val actual = underTest(request)
 
@@ -124,7 +121,6 @@ class CreateChatLogEntryTest {
             throwable = null,
             trace = emptyList(),
             loggingClasses = emptyList(),
-            sdkLoggers = emptyList()
         )
         val actual = underTest(request)
 
@@ -149,7 +145,6 @@ class CreateChatLogEntryTest {
                 throwable = null,
                 trace = emptyList(),
                 loggingClasses = emptyList(),
-                sdkLoggers = emptyList()
             )
             val actual = underTest(request)
 
@@ -166,7 +161,6 @@ class CreateChatLogEntryTest {
             throwable = null,
             trace = emptyList(),
             loggingClasses = emptyList(),
-            sdkLoggers = emptyList()
         )
         val actual = underTest(request)
 
@@ -183,7 +177,6 @@ class CreateChatLogEntryTest {
             throwable = null,
             trace = emptyList(),
             loggingClasses = emptyList(),
-            sdkLoggers = emptyList()
         )
         val actual = underTest(request)
 
@@ -199,7 +192,6 @@ class CreateChatLogEntryTest {
             throwable = null,
             trace = emptyList(),
             loggingClasses = emptyList(),
-            sdkLoggers = emptyList()
         )
         val first = underTest(request)
         assertThat(first?.tag).contains(appVersion)
@@ -51,7 +51,6 @@ class CreateSdkLogEntryTest {
             throwable = null,
             trace = emptyList(),
             loggingClasses = emptyList(),
-            sdkLoggers = emptyList()
         )
         val actual = underTest(request)
 
@@ -68,7 +67,6 @@ class CreateSdkLogEntryTest {
             throwable = null,
             trace = emptyList(),
             loggingClasses = emptyList(),
-            sdkLoggers = emptyList()
         )
         val actual = underTest(request)
 
@@ -76,16 +74,14 @@ class CreateSdkLogEntryTest {
     }
 
     @Test
-    fun `test that trace from loggers with no tag returns null`() = runTest {
-        val loggingClass = "loggingClass"
+    fun `test that chat sdk logs return null`() = runTest {
         val request = CreateLogEntryRequest(
-            tag = null,
+            tag = CreateLogEntryRequest.CHAT_SDK_TAG,
             message = "message",
             priority = LogPriority.DEBUG,
             throwable = null,
-            trace = listOf(StackTraceElement(loggingClass, "", "", 1)),
+            trace = emptyList(),
             loggingClasses = emptyList(),
-            sdkLoggers = listOf(loggingClass),
         )
         val actual = underTest(request)
 
@@ -104,7 +100,6 @@ class CreateSdkLogEntryTest {
             throwable = throwable,
             trace = emptyList(),
             loggingClasses = emptyList(),
-            sdkLoggers = emptyList()
         )
         val actual = underTest(request)
 
@@ -123,7 +118,6 @@ class CreateSdkLogEntryTest {
             throwable = null,
             trace = emptyList(),
             loggingClasses = emptyList(),
-            sdkLoggers = emptyList()
         )
         val actual = underTest(request)
 
@@ -139,7 +133,6 @@ class CreateSdkLogEntryTest {
             throwable = null,
             trace = emptyList(),
             loggingClasses = emptyList(),
-            sdkLoggers = emptyList()
         )
         val first = underTest(request)
         assertThat(first?.tag).contains(appVersion)
@@ -42,7 +42,7 @@ class DefaultMonitorNodeUpdatesByIdTest {
         val expectedUpdate1 = mapOf(node to expectedChanges1, otherNode to otherChanges1)
         val filteredUpdate = mapOf(otherNode to otherChanges2)
         val expectedUpdate2 = mapOf(node to expectedChanges2)
-        whenever(nodeRepository.monitorNodeUpdates()).thenReturn(
+        whenever(nodeRepository.monitorNodeUpdatesByIds(setOf(id))).thenReturn(
             flowOf(
                 NodeUpdate(expectedUpdate1),
                 NodeUpdate(filteredUpdate),
@@ -19,6 +19,7 @@ import org.junit.Before
 import org.junit.Test
 import org.mockito.kotlin.any
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 
 
@@ -37,7 +38,7 @@ class GetTypedNodesFromFolderUseCaseTest {
             nodeRepository = nodeRepository,
             addNodeType = addNodeType
         )
-        whenever(nodeRepository.monitorNodeUpdates()).thenReturn(emptyFlow())
+        whenever(nodeRepository.monitorNodeUpdatesByIds(any())).thenReturn(emptyFlow())
     }
 
     @Test
@@ -63,7 +64,7 @@ class GetTypedNodesFromFolderUseCaseTest {
                 listOf(childNode)
             )
             val map = mapOf<Node, List<NodeChanges>>(childNode to emptyList())
-            whenever(nodeRepository.monitorNodeUpdates()).thenReturn(
+            whenever(nodeRepository.monitorNodeUpdatesByIds(setOf(fileNodeId, nodeId))).thenReturn(
                 flowOf(NodeUpdate(map))
             )
             underTest(nodeId).test {
@@ -113,7 +114,7 @@ class GetTypedNodesFromFolderUseCaseTest {
             listOf(childNode)
         )
         val map = mapOf<Node, List<NodeChanges>>(folderNode to emptyList())
-        whenever(nodeRepository.monitorNodeUpdates()).thenReturn(
+        whenever(nodeRepository.monitorNodeUpdatesByIds(setOf(fileNodeId, folderId))).thenReturn(
             flowOf(NodeUpdate(map))
         )
         underTest(folderId).test {
@@ -124,7 +125,7 @@ class GetTypedNodesFromFolderUseCaseTest {
     }
 
     @Test
-    fun `test that no new list is emitted if the update does not match any of the nodes`() =
+    fun `test that only the updates of the folder and its children are monitored`() =
         runTest {
             val folderId = NodeId(1)
             val folderNode = mock<FolderNode> { on { id }.thenReturn(folderId) }
@@ -132,15 +133,12 @@ class GetTypedNodesFromFolderUseCaseTest {
             val childNode = mock<FileNode> { on { id }.thenReturn(fileNodeId) }
             whenever(nodeRepository.getNodeById(folderId)).thenReturn(folderNode)
             whenever(nodeRepository.getNodeChildren(folderNode)).thenReturn(
-                emptyList()
-            )
-            whenever(nodeRepository.monitorNodeUpdates()).thenReturn(
-                flowOf(NodeUpdate(emptyMap()))
+                listOf(childNode)
             )
             underTest(folderId).test {
                 awaitItem()
                 awaitComplete()
             }
+            verify(nodeRepository).monitorNodeUpdatesByIds(setOf(fileNodeId, folderId))
         }
-
 }
\ No newline at end of file
@@ -2,12 +2,16 @@ package mega.privacy.android.domain.usecase.camerauploads
 
 import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.asFlow
+import kotlinx.coroutines.flow.toList
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.domain.entity.SyncRecordType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUploadStatus
 import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.repository.CameraUploadRepository
 import org.junit.jupiter.api.Assertions.*
 import org.junit.jupiter.api.BeforeAll
 import org.junit.jupiter.api.BeforeEach
@@ -15,9 +19,12 @@ import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
 import org.junit.jupiter.params.ParameterizedTest
 import org.junit.jupiter.params.provider.EnumSource
+import org.mockito.kotlin.doSuspendableAnswer
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.reset
+import org.mockito.kotlin.stub
 import org.mockito.kotlin.verify
+import org.mockito.kotlin.verifyNoInteractions
 import org.mockito.kotlin.whenever
 
 @ExperimentalCoroutinesApi
@@ -25,11 +32,12 @@ import org.mockito.kotlin.whenever
 class DoesCameraUploadsRecordExistsInTargetNodeUseCaseTest {
     private lateinit var underTest: DoesCameraUploadsRecordExistsInTargetNodeUseCase
 
+    private val cameraUploadRepository = mock<CameraUploadRepository>()
     private val findNodeWithFingerprintInParentNodeUseCase =
         mock<FindNodeWithFingerprintInParentNodeUseCase>()
 
-    private val primaryUploadNodeId = mock<NodeId>()
-    private val secondaryUploadNodeId = mock<NodeId>()
+    private val primaryUploadNodeId = NodeId(1L)
+    private val secondaryUploadNodeId = NodeId(2L)
 
     private val record = CameraUploadsRecord(
         mediaId = 1L,
@@ -47,6 +55,7 @@ class DoesCameraUploadsRecordExistsInTargetNodeUseCaseTest {
     @BeforeAll
     fun setUp() {
         underTest = DoesCameraUploadsRecordExistsInTargetNodeUseCase(
+            cameraUploadRepository = cameraUploadRepository,
             findNodeWithFingerprintInParentNodeUseCase = findNodeWithFingerprintInParentNodeUseCase,
         )
     }
@@ -54,8 +63,22 @@ class DoesCameraUploadsRecordExistsInTargetNodeUseCaseTest {
     @BeforeEach
     fun resetMocks() {
         reset(
+            cameraUploadRepository,
             findNodeWithFingerprintInParentNodeUseCase,
         )
+        stubFilesInTargetNodes(emptyMap(), emptyMap())
+    }
+
+    private fun stubFilesInTargetNodes(
+        primaryFiles: Map<String, NodeId>,
+        secondaryFiles: Map<String, NodeId>,
+    ) {
+        cameraUploadRepository.stub {
+            onBlocking { getFileNodeIdsByFingerprint(primaryUploadNodeId) }
+                .thenReturn(primaryFiles)
+            onBlocking { getFileNodeIdsByFingerprint(secondaryUploadNodeId) }
+                .thenReturn(secondaryFiles)
+        }
     }
 
     @ParameterizedTest
@@ -156,4 +179,94 @@ class DoesCameraUploadsRecordExistsInTargetNodeUseCaseTest {
             val result = underTest(list, primaryUploadNodeId, secondaryUploadNodeId)
             assertThat(result.size).isEqualTo(size - 1)
         }
+
+    @ParameterizedTest(name = "when folder type is {0}")
+    @EnumSource(CameraUploadFolderType::class)
+    fun `test that a record whose fingerprint is in its target node is resolved without lookup`(
+        type: CameraUploadFolderType,
+    ) = runTest {
+        val existingNodeId = NodeId(3L)
+        val files = mapOf(record.originalFingerprint to existingNodeId)
+        when (type) {
+            CameraUploadFolderType.Primary -> stubFilesInTargetNodes(files, emptyMap())
+            CameraUploadFolderType.Secondary -> stubFilesInTargetNodes(emptyMap(), files)
+        }
+
+        val result = underTest(
+            listOf(record.copy(folderType = type)),
+            primaryUploadNodeId,
+            secondaryUploadNodeId,
+        )
+
+        assertThat(result.single().existsInTargetNode).isTrue()
+        assertThat(result.single().existingNodeId).isEqualTo(existingNodeId)
+        verifyNoInteractions(findNodeWithFingerprintInParentNodeUseCase)
+    }
+
+    @Test
+    fun `test that a record matching a file of the other target node is looked up`() = runTest {
+        stubFilesInTargetNodes(emptyMap(), mapOf(record.originalFingerprint to NodeId(3L)))
+
+        underTest(listOf(record), primaryUploadNodeId, secondaryUploadNodeId)
+
+        verify(findNodeWithFingerprintInParentNodeUseCase).invoke(
+            record.originalFingerprint,
+            record.generatedFingerprint,
+            primaryUploadNodeId,
+        )
+    }
+
+    @Test
+    fun `test that the target nodes are mapped once for all the records`() = runTest {
+        val list = List(5) { index -> record.copy(mediaId = index.toLong()) }
+
+        underTest(list, primaryUploadNodeId, secondaryUploadNodeId)
+
+        verify(cameraUploadRepository).getFileNodeIdsByFingerprint(primaryUploadNodeId)
+        verify(cameraUploadRepository).getFileNodeIdsByFingerprint(secondaryUploadNodeId)
+    }
+
+    @Test
+    fun `test that the records are returned in the same order as the list`() = runTest {
+        val list = List(5) { index ->
+            record.copy(mediaId = index.toLong(), originalFingerprint = "fingerprint$index")
+        }
+        list.forEachIndexed { index, record ->
+            findNodeWithFingerprintInParentNodeUseCase.stub {
+                onBlocking {
+                    invoke(record.originalFingerprint, record.generatedFingerprint, primaryUploadNodeId)
+                }.doSuspendableAnswer {
+                    // The first records take the longest to be checked
+                    delay((list.size - index) * 100L)
+                    Pair(false, null)
+                }
+            }
+        }
+
+        val result = underTest(list, primaryUploadNodeId, secondaryUploadNodeId)
+
+        assertThat(result.map { it.mediaId }).isEqualTo(list.map { it.mediaId })
+    }
+
+    @Test
+    fun `test that the existence of every record emitted by a flow is checked`() = runTest {
+        val existingNodeId = NodeId(3L)
+        val list = List(5) { index ->
+            record.copy(mediaId = index.toLong(), originalFingerprint = "fingerprint$index")
+        }
+        list.forEach {
+            whenever(
+                findNodeWithFingerprintInParentNodeUseCase(
+                    it.originalFingerprint,
+                    it.generatedFingerprint,
+                    primaryUploadNodeId,
+                )
+            ).thenReturn(Pair(false, existingNodeId))
+        }
+
+        val result = underTest(list.asFlow(), primaryUploadNodeId, secondaryUploadNodeId).toList()
+
+        assertThat(result.map { it.mediaId }).containsExactlyElementsIn(list.map { it.mediaId })
+        assertThat(result.all { it.existingNodeId == existingNodeId }).isTrue()
+    }
 }
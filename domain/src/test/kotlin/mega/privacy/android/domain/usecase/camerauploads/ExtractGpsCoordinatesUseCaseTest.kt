@@ -2,6 +2,9 @@ package mega.privacy.android.domain.usecase.camerauploads
 
 import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.asFlow
+import kotlinx.coroutines.flow.toList
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.domain.entity.SyncRecordType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
@@ -15,8 +18,11 @@ import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
 import org.junit.jupiter.params.ParameterizedTest
 import org.junit.jupiter.params.provider.ValueSource
+import org.mockito.kotlin.doSuspendableAnswer
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.reset
+import org.mockito.kotlin.stub
+import org.mockito.kotlin.verify
 import org.mockito.kotlin.verifyNoInteractions
 import org.mockito.kotlin.whenever
 
@@ -26,6 +32,9 @@ class ExtractGpsCoordinatesUseCaseTest {
     private lateinit var underTest: ExtractGpsCoordinatesUseCase
 
     private val getGPSCoordinatesUseCase = mock<GetGPSCoordinatesUseCase>()
+    private val areLocationTagsEnabledUseCase = mock<AreLocationTagsEnabledUseCase>()
+    private val setCameraUploadsRecordGpsCoordinatesUseCase =
+        mock<SetCameraUploadsRecordGpsCoordinatesUseCase>()
 
     private val record = CameraUploadsRecord(
         mediaId = 1L,
@@ -44,14 +53,19 @@ class ExtractGpsCoordinatesUseCaseTest {
     fun setUp() {
         underTest = ExtractGpsCoordinatesUseCase(
             getGPSCoordinatesUseCase = getGPSCoordinatesUseCase,
+            areLocationTagsEnabledUseCase = areLocationTagsEnabledUseCase,
+            setCameraUploadsRecordGpsCoordinatesUseCase = setCameraUploadsRecordGpsCoordinatesUseCase,
         )
     }
 
     @BeforeEach
-    fun resetMocks() {
+    fun resetMocks() = runTest {
         reset(
             getGPSCoordinatesUseCase,
+            areLocationTagsEnabledUseCase,
+            setCameraUploadsRecordGpsCoordinatesUseCase,
         )
+        whenever(areLocationTagsEnabledUseCase()).thenReturn(true)
     }
 
     @ParameterizedTest(name = "when existence of a Node is {0}")
@@ -126,4 +140,71 @@ class ExtractGpsCoordinatesUseCaseTest {
             }
             assertThat(underTest(list).size).isEqualTo(expected)
         }
+
+    @Test
+    fun `test that the extracted coordinates are saved in the record`() = runTest {
+        whenever(getGPSCoordinatesUseCase(record.filePath, true)).thenReturn(Pair(1.5F, 2.5F))
+
+        underTest(listOf(record))
+
+        verify(setCameraUploadsRecordGpsCoordinatesUseCase).invoke(
+            mediaId = record.mediaId,
+            timestamp = record.timestamp,
+            folderType = record.folderType,
+            latitude = 1.5F,
+            longitude = 2.5F,
+        )
+    }
+
+    @Test
+    fun `test that the coordinates are not extracted again when the record already has them`() =
+        runTest {
+            val list = listOf(record.copy(latitude = 1.5F, longitude = 2.5F))
+
+            assertThat(underTest(list)).isEqualTo(list)
+            verifyNoInteractions(getGPSCoordinatesUseCase)
+        }
+
+    @Test
+    fun `test that the coordinates are not extracted when the location tags are disabled`() =
+        runTest {
+            whenever(areLocationTagsEnabledUseCase()).thenReturn(false)
+            val list = listOf(record)
+
+            assertThat(underTest(list)).isEqualTo(list)
+            verifyNoInteractions(getGPSCoordinatesUseCase)
+        }
+
+    @Test
+    fun `test that the records are returned in the same order as the list`() = runTest {
+        val list = List(5) { index ->
+            record.copy(mediaId = index.toLong(), filePath = "filePath/$index")
+        }
+        list.forEachIndexed { index, record ->
+            getGPSCoordinatesUseCase.stub {
+                onBlocking { invoke(record.filePath, true) }.doSuspendableAnswer {
+                    // The first records take the longest to be read
+                    delay((list.size - index) * 100L)
+                    Pair(index.toFloat(), index.toFloat())
+                }
+            }
+        }
+
+        assertThat(underTest(list).map { it.mediaId }).isEqualTo(list.map { it.mediaId })
+    }
+
+    @Test
+    fun `test that the coordinates of every record emitted by a flow are extracted`() = runTest {
+        val list = List(5) { index ->
+            record.copy(mediaId = index.toLong(), filePath = "filePath/$index")
+        }
+        list.forEach {
+            whenever(getGPSCoordinatesUseCase(it.filePath, true)).thenReturn(Pair(1.5F, 2.5F))
+        }
+
+        val actual = underTest(list.asFlow()).toList()
+
+        assertThat(actual.map { it.mediaId }).containsExactlyElementsIn(list.map { it.mediaId })
+        assertThat(actual.all { it.latitude == 1.5F && it.longitude == 2.5F }).isTrue()
+    }
 }
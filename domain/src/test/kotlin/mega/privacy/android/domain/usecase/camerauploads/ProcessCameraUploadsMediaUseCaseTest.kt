@@ -5,23 +5,33 @@ import kotlinx.coroutines.test.runTest
 import mega.privacy.android.domain.entity.MediaStoreFileType
 import mega.privacy.android.domain.entity.SyncRecordType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaFailure
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaScanResult
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
+import mega.privacy.android.domain.entity.camerauploads.MediaStoreScanWatermark
+import mega.privacy.android.domain.repository.CameraUploadRepository
 import mega.privacy.android.domain.usecase.IsSecondaryFolderEnabled
+import mega.privacy.android.domain.usecase.camerauploads.ProcessCameraUploadsMediaUseCase.Companion.FULL_SCAN_INTERVAL_SECONDS
+import mega.privacy.android.domain.usecase.camerauploads.ProcessCameraUploadsMediaUseCase.Companion.MAX_FAILED_SCANS
 import mega.privacy.android.domain.usecase.camerauploads.mapper.CameraUploadsRecordMapper
 import org.junit.jupiter.api.Assertions.*
 import org.junit.jupiter.api.BeforeAll
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.DisplayName
 import org.junit.jupiter.api.Nested
+import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
 import org.junit.jupiter.params.ParameterizedTest
 import org.junit.jupiter.params.provider.Arguments
 import org.junit.jupiter.params.provider.MethodSource
 import org.mockito.kotlin.any
 import org.mockito.kotlin.eq
+import org.mockito.kotlin.inOrder
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.never
 import org.mockito.kotlin.reset
+import org.mockito.kotlin.stub
 import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 import java.util.stream.Stream
@@ -39,6 +49,7 @@ class ProcessCameraUploadsMediaUseCaseTest {
     private val retrieveMediaFromMediaStoreUseCase = mock<RetrieveMediaFromMediaStoreUseCase>()
     private val cameraUploadsRecordMapper = mock<CameraUploadsRecordMapper>()
     private val saveCameraUploadsRecordUseCase = mock<SaveCameraUploadsRecordUseCase>()
+    private val cameraUploadRepository = mock<CameraUploadRepository>()
 
     @BeforeAll
     fun setUp() {
@@ -49,6 +60,7 @@ class ProcessCameraUploadsMediaUseCaseTest {
             isSecondaryFolderEnabled = isSecondaryFolderEnabled,
             retrieveMediaFromMediaStoreUseCase = retrieveMediaFromMediaStoreUseCase,
             saveCameraUploadsRecordUseCase = saveCameraUploadsRecordUseCase,
+            cameraUploadRepository = cameraUploadRepository,
         )
     }
 
@@ -62,9 +74,26 @@ class ProcessCameraUploadsMediaUseCaseTest {
             retrieveMediaFromMediaStoreUseCase,
             cameraUploadsRecordMapper,
             saveCameraUploadsRecordUseCase,
+            cameraUploadRepository,
         )
+        stubCurrentWatermarks()
     }
 
+    private fun stubCurrentWatermarks() {
+        cameraUploadRepository.stub {
+            onBlocking { getCurrentMediaStoreScanWatermark(any(), any()) }.thenAnswer {
+                currentWatermark(it.arguments[1] as String)
+            }
+        }
+    }
+
+    private fun currentWatermark(parentPath: String) = MediaStoreScanWatermark(
+        parentPath = parentPath,
+        mediaStoreVersion = "version",
+        generation = 10L,
+        timestamp = 1000L,
+    )
+
     @TestInstance(TestInstance.Lifecycle.PER_CLASS)
     @Nested
     @DisplayName("test that media are retrieved")
@@ -81,8 +110,8 @@ class ProcessCameraUploadsMediaUseCaseTest {
             val tempRoot = "tempRoot"
             whenever(getMediaStoreFileTypesUseCase()).thenReturn(mediaStoreFileType)
             whenever(getPrimaryFolderPathUseCase()).thenReturn(primaryFolderPath)
-            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any()))
-                .thenReturn(emptyList())
+            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any(), any()))
+                .thenReturn(CameraUploadsMediaScanResult(emptyList(), emptyList()))
             whenever(isSecondaryFolderEnabled()).thenReturn(false)
 
             val (photoFileTypes, videoFileTypes) = mediaStoreFileType.partition { it.isImageFileType() }
@@ -95,6 +124,7 @@ class ProcessCameraUploadsMediaUseCaseTest {
                 folderType,
                 fileType,
                 tempRoot,
+                emptyMap(),
             )
             verify(retrieveMediaFromMediaStoreUseCase, never()).invoke(
                 primaryFolderPath,
@@ -102,6 +132,7 @@ class ProcessCameraUploadsMediaUseCaseTest {
                 folderType,
                 fileType,
                 tempRoot,
+                emptyMap(),
             )
         }
 
@@ -115,8 +146,8 @@ class ProcessCameraUploadsMediaUseCaseTest {
             val tempRoot = "tempRoot"
             whenever(getMediaStoreFileTypesUseCase()).thenReturn(mediaStoreFileType)
             whenever(getPrimaryFolderPathUseCase()).thenReturn(primaryFolderPath)
-            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any()))
-                .thenReturn(emptyList())
+            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any(), any()))
+                .thenReturn(CameraUploadsMediaScanResult(emptyList(), emptyList()))
             whenever(isSecondaryFolderEnabled()).thenReturn(false)
 
             val (photoFileTypes, videoFileTypes) = mediaStoreFileType.partition { it.isImageFileType() }
@@ -129,6 +160,7 @@ class ProcessCameraUploadsMediaUseCaseTest {
                 folderType,
                 SyncRecordType.TYPE_PHOTO,
                 tempRoot,
+                emptyMap(),
             )
             verify(retrieveMediaFromMediaStoreUseCase).invoke(
                 primaryFolderPath,
@@ -136,6 +168,7 @@ class ProcessCameraUploadsMediaUseCaseTest {
                 folderType,
                 SyncRecordType.TYPE_VIDEO,
                 tempRoot,
+                emptyMap(),
             )
         }
 
@@ -149,8 +182,8 @@ class ProcessCameraUploadsMediaUseCaseTest {
             val tempRoot = "tempRoot"
             whenever(getMediaStoreFileTypesUseCase()).thenReturn(mediaStoreFileType)
             whenever(getPrimaryFolderPathUseCase()).thenReturn(primaryFolderPath)
-            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any()))
-                .thenReturn(emptyList())
+            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any(), any()))
+                .thenReturn(CameraUploadsMediaScanResult(emptyList(), emptyList()))
             whenever(isSecondaryFolderEnabled()).thenReturn(false)
 
             val types = mediaStoreFileType.partition { it.isImageFileType() }
@@ -163,6 +196,7 @@ class ProcessCameraUploadsMediaUseCaseTest {
                 folderType,
                 SyncRecordType.TYPE_PHOTO,
                 tempRoot,
+                emptyMap(),
             )
             verify(retrieveMediaFromMediaStoreUseCase).invoke(
                 primaryFolderPath,
@@ -170,6 +204,7 @@ class ProcessCameraUploadsMediaUseCaseTest {
                 folderType,
                 SyncRecordType.TYPE_VIDEO,
                 tempRoot,
+                emptyMap(),
             )
         }
 
@@ -182,8 +217,8 @@ class ProcessCameraUploadsMediaUseCaseTest {
             val secondaryFolderPath = "secondaryFolderPath"
             whenever(getMediaStoreFileTypesUseCase()).thenReturn(mediaStoreFileType)
             whenever(getPrimaryFolderPathUseCase()).thenReturn(primaryFolderPath)
-            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any()))
-                .thenReturn(emptyList())
+            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any(), any()))
+                .thenReturn(CameraUploadsMediaScanResult(emptyList(), emptyList()))
             whenever(isSecondaryFolderEnabled()).thenReturn(false)
             whenever(getSecondaryFolderPathUseCase()).thenReturn(secondaryFolderPath)
 
@@ -195,6 +230,7 @@ class ProcessCameraUploadsMediaUseCaseTest {
                 any(),
                 any(),
                 any(),
+                any(),
             )
         }
 
@@ -209,8 +245,8 @@ class ProcessCameraUploadsMediaUseCaseTest {
             val tempRoot = "tempRoot"
             whenever(getMediaStoreFileTypesUseCase()).thenReturn(mediaStoreFileType)
             whenever(getPrimaryFolderPathUseCase()).thenReturn(primaryFolderPath)
-            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any()))
-                .thenReturn(emptyList())
+            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any(), any()))
+                .thenReturn(CameraUploadsMediaScanResult(emptyList(), emptyList()))
             whenever(isSecondaryFolderEnabled()).thenReturn(true)
             whenever(getSecondaryFolderPathUseCase()).thenReturn(secondaryFolderPath)
 
@@ -224,13 +260,15 @@ class ProcessCameraUploadsMediaUseCaseTest {
                 folderType,
                 SyncRecordType.TYPE_PHOTO,
                 tempRoot,
+                emptyMap(),
             )
             verify(retrieveMediaFromMediaStoreUseCase, never()).invoke(
                 secondaryFolderPath,
                 types.second,
                 folderType,
                 SyncRecordType.TYPE_VIDEO,
-                tempRoot
+                tempRoot,
+                emptyMap(),
             )
         }
 
@@ -245,8 +283,8 @@ class ProcessCameraUploadsMediaUseCaseTest {
             val tempRoot = "tempRoot"
             whenever(getMediaStoreFileTypesUseCase()).thenReturn(mediaStoreFileType)
             whenever(getPrimaryFolderPathUseCase()).thenReturn(primaryFolderPath)
-            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any()))
-                .thenReturn(emptyList())
+            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any(), any()))
+                .thenReturn(CameraUploadsMediaScanResult(emptyList(), emptyList()))
             whenever(isSecondaryFolderEnabled()).thenReturn(true)
             whenever(getSecondaryFolderPathUseCase()).thenReturn(secondaryFolderPath)
 
@@ -260,6 +298,7 @@ class ProcessCameraUploadsMediaUseCaseTest {
                 folderType,
                 SyncRecordType.TYPE_PHOTO,
                 tempRoot,
+                emptyMap(),
             )
             verify(retrieveMediaFromMediaStoreUseCase).invoke(
                 secondaryFolderPath,
@@ -267,6 +306,7 @@ class ProcessCameraUploadsMediaUseCaseTest {
                 folderType,
                 SyncRecordType.TYPE_VIDEO,
                 tempRoot,
+                emptyMap(),
             )
         }
 
@@ -281,8 +321,8 @@ class ProcessCameraUploadsMediaUseCaseTest {
             val tempRoot = "tempRoot"
             whenever(getMediaStoreFileTypesUseCase()).thenReturn(mediaStoreFileType)
             whenever(getPrimaryFolderPathUseCase()).thenReturn(primaryFolderPath)
-            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any()))
-                .thenReturn(emptyList())
+            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any(), any()))
+                .thenReturn(CameraUploadsMediaScanResult(emptyList(), emptyList()))
             whenever(isSecondaryFolderEnabled()).thenReturn(true)
             whenever(getSecondaryFolderPathUseCase()).thenReturn(secondaryFolderPath)
 
@@ -296,6 +336,7 @@ class ProcessCameraUploadsMediaUseCaseTest {
                 folderType,
                 SyncRecordType.TYPE_PHOTO,
                 tempRoot,
+                emptyMap(),
             )
             verify(retrieveMediaFromMediaStoreUseCase).invoke(
                 secondaryFolderPath,
@@ -303,6 +344,7 @@ class ProcessCameraUploadsMediaUseCaseTest {
                 folderType,
                 SyncRecordType.TYPE_VIDEO,
                 tempRoot,
+                emptyMap(),
             )
         }
     }
@@ -349,36 +391,40 @@ class ProcessCameraUploadsMediaUseCaseTest {
                         types.first,
                         primaryFolderType,
                         photoRecordType,
-                        tempRoot
+                        tempRoot,
+                        emptyMap(),
                     )
-                ).thenReturn(photoPrimaryRecordList)
+                ).thenReturn(CameraUploadsMediaScanResult(photoPrimaryRecordList, emptyList()))
                 whenever(
                     retrieveMediaFromMediaStoreUseCase(
                         primaryFolderPath,
                         types.second,
                         primaryFolderType,
                         videoRecordType,
-                        tempRoot
+                        tempRoot,
+                        emptyMap(),
                     )
-                ).thenReturn(videoPrimaryRecordList)
+                ).thenReturn(CameraUploadsMediaScanResult(videoPrimaryRecordList, emptyList()))
                 whenever(
                     retrieveMediaFromMediaStoreUseCase(
                         secondaryFolderPath,
                         types.first,
                         secondaryFolderType,
                         photoRecordType,
-                        tempRoot
+                        tempRoot,
+                        emptyMap(),
                     )
-                ).thenReturn(photoSecondaryRecordList)
+                ).thenReturn(CameraUploadsMediaScanResult(photoSecondaryRecordList, emptyList()))
                 whenever(
                     retrieveMediaFromMediaStoreUseCase(
                         secondaryFolderPath,
                         types.second,
                         secondaryFolderType,
                         videoRecordType,
-                        tempRoot
+                        tempRoot,
+                        emptyMap(),
                     )
-                ).thenReturn(videoSecondaryRecordList)
+                ).thenReturn(CameraUploadsMediaScanResult(videoSecondaryRecordList, emptyList()))
                 whenever(isSecondaryFolderEnabled()).thenReturn(true)
                 whenever(getSecondaryFolderPathUseCase()).thenReturn(secondaryFolderPath)
 
@@ -390,6 +436,207 @@ class ProcessCameraUploadsMediaUseCaseTest {
             }
     }
 
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    @Nested
+    @DisplayName("test that media store scan watermarks are used")
+    inner class ScanWatermarks {
+
+        private val primaryFolderPath = "primaryFolderPath"
+        private val tempRoot = "tempRoot"
+        private val mediaStoreFileType = MediaStoreFileType.IMAGES_EXTERNAL
+
+        @BeforeEach
+        fun setUp() = runTest {
+            whenever(getMediaStoreFileTypesUseCase()).thenReturn(listOf(mediaStoreFileType))
+            whenever(getPrimaryFolderPathUseCase()).thenReturn(primaryFolderPath)
+            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any(), any()))
+                .thenReturn(CameraUploadsMediaScanResult(emptyList(), emptyList()))
+            whenever(isSecondaryFolderEnabled()).thenReturn(false)
+        }
+
+        @Test
+        fun `test that the saved watermark is used when it is still valid`() = runTest {
+            val savedWatermark = currentWatermark(primaryFolderPath)
+                .copy(generation = 5L, fullScanTimestamp = 900L)
+            whenever(
+                cameraUploadRepository.getMediaStoreScanWatermark(
+                    CameraUploadFolderType.Primary,
+                    mediaStoreFileType,
+                )
+            ).thenReturn(savedWatermark)
+
+            underTest(tempRoot)
+
+            verify(retrieveMediaFromMediaStoreUseCase).invoke(
+                primaryFolderPath,
+                listOf(mediaStoreFileType),
+                CameraUploadFolderType.Primary,
+                SyncRecordType.TYPE_PHOTO,
+                tempRoot,
+                mapOf(mediaStoreFileType to savedWatermark),
+            )
+        }
+
+        @ParameterizedTest(name = "when the saved watermark is {0}")
+        @MethodSource("mega.privacy.android.domain.usecase.camerauploads.ProcessCameraUploadsMediaUseCaseTest#provideInvalidWatermarkParameters")
+        fun `test that a full scan is done when the saved watermark is no longer valid`(
+            savedWatermark: MediaStoreScanWatermark,
+        ) = runTest {
+            whenever(
+                cameraUploadRepository.getMediaStoreScanWatermark(
+                    CameraUploadFolderType.Primary,
+                    mediaStoreFileType,
+                )
+            ).thenReturn(savedWatermark)
+
+            underTest(tempRoot)
+
+            verify(retrieveMediaFromMediaStoreUseCase).invoke(
+                primaryFolderPath,
+                listOf(mediaStoreFileType),
+                CameraUploadFolderType.Primary,
+                SyncRecordType.TYPE_PHOTO,
+                tempRoot,
+                emptyMap(),
+            )
+        }
+
+        @Test
+        fun `test that a full scan is done when the last full scan is too old`() = runTest {
+            whenever(
+                cameraUploadRepository.getMediaStoreScanWatermark(
+                    CameraUploadFolderType.Primary,
+                    mediaStoreFileType,
+                )
+            ).thenReturn(
+                currentWatermark(primaryFolderPath).copy(
+                    generation = 5L,
+                    fullScanTimestamp = 1000L - FULL_SCAN_INTERVAL_SECONDS,
+                )
+            )
+
+            underTest(tempRoot)
+
+            verify(retrieveMediaFromMediaStoreUseCase).invoke(
+                primaryFolderPath,
+                listOf(mediaStoreFileType),
+                CameraUploadFolderType.Primary,
+                SyncRecordType.TYPE_PHOTO,
+                tempRoot,
+                emptyMap(),
+            )
+            verify(cameraUploadRepository).setMediaStoreScanWatermark(
+                CameraUploadFolderType.Primary,
+                mediaStoreFileType,
+                currentWatermark(primaryFolderPath).copy(fullScanTimestamp = 1000L),
+            )
+        }
+
+        @Test
+        fun `test that the time of the last full scan is kept by an incremental scan`() = runTest {
+            whenever(
+                cameraUploadRepository.getMediaStoreScanWatermark(
+                    CameraUploadFolderType.Primary,
+                    mediaStoreFileType,
+                )
+            ).thenReturn(
+                currentWatermark(primaryFolderPath).copy(generation = 5L, fullScanTimestamp = 900L)
+            )
+
+            underTest(tempRoot)
+
+            verify(cameraUploadRepository).setMediaStoreScanWatermark(
+                CameraUploadFolderType.Primary,
+                mediaStoreFileType,
+                currentWatermark(primaryFolderPath).copy(fullScanTimestamp = 900L),
+            )
+        }
+
+        @Test
+        fun `test that the current watermark is saved after the records are saved`() = runTest {
+            underTest(tempRoot)
+
+            with(inOrder(saveCameraUploadsRecordUseCase, cameraUploadRepository)) {
+                verify(saveCameraUploadsRecordUseCase).invoke(emptyList())
+                verify(cameraUploadRepository).setMediaStoreScanWatermark(
+                    CameraUploadFolderType.Primary,
+                    mediaStoreFileType,
+                    currentWatermark(primaryFolderPath).copy(fullScanTimestamp = 1000L),
+                )
+            }
+        }
+
+        @Test
+        fun `test that the watermark is not saved if the records could not be saved`() = runTest {
+            whenever(saveCameraUploadsRecordUseCase(any())).thenThrow(RuntimeException())
+
+            runCatching { underTest(tempRoot) }
+
+            verify(cameraUploadRepository, never()).setMediaStoreScanWatermark(any(), any(), any())
+        }
+
+        @Test
+        fun `test that the watermark is capped at the oldest media that failed`() = runTest {
+            val failures = failures(800_000L, 500_000L)
+            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any(), any()))
+                .thenReturn(CameraUploadsMediaScanResult(emptyList(), failures))
+
+            val actual = underTest(tempRoot)
+
+            assertEquals(failures, actual)
+            verify(cameraUploadRepository).setMediaStoreScanWatermark(
+                CameraUploadFolderType.Primary,
+                mediaStoreFileType,
+                currentWatermark(primaryFolderPath).copy(
+                    generation = null,
+                    timestamp = 500L,
+                    fullScanTimestamp = 1000L,
+                    failedScans = 1,
+                ),
+            )
+        }
+
+        @Test
+        fun `test that the watermark is no longer capped after too many failed scans`() = runTest {
+            whenever(
+                cameraUploadRepository.getMediaStoreScanWatermark(
+                    CameraUploadFolderType.Primary,
+                    mediaStoreFileType,
+                )
+            ).thenReturn(
+                currentWatermark(primaryFolderPath).copy(
+                    generation = null,
+                    timestamp = 500L,
+                    fullScanTimestamp = 900L,
+                    failedScans = MAX_FAILED_SCANS,
+                )
+            )
+            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any(), any()))
+                .thenReturn(CameraUploadsMediaScanResult(emptyList(), failures(500_000L)))
+
+            underTest(tempRoot)
+
+            verify(cameraUploadRepository).setMediaStoreScanWatermark(
+                CameraUploadFolderType.Primary,
+                mediaStoreFileType,
+                currentWatermark(primaryFolderPath).copy(fullScanTimestamp = 900L),
+            )
+        }
+
+        private fun failures(vararg timestamps: Long) = timestamps.map {
+            CameraUploadsMediaFailure(
+                media = CameraUploadsMedia(
+                    mediaId = it,
+                    displayName = "name",
+                    filePath = "path",
+                    timestamp = it,
+                ),
+                mediaStoreFileType = mediaStoreFileType,
+                cause = RuntimeException(),
+            )
+        }
+    }
+
     companion object {
         @JvmStatic
         fun provideImageMediaStoreFileTypeParameters(): Stream<Arguments> = Stream.of(
@@ -479,6 +726,34 @@ class ProcessCameraUploadsMediaUseCaseTest {
             ),
         )
 
+        @JvmStatic
+        fun provideInvalidWatermarkParameters(): Stream<Arguments> = Stream.of(
+            Arguments.of(
+                MediaStoreScanWatermark(
+                    parentPath = "otherFolderPath",
+                    mediaStoreVersion = "version",
+                    generation = 5L,
+                    timestamp = 500L,
+                )
+            ),
+            Arguments.of(
+                MediaStoreScanWatermark(
+                    parentPath = "primaryFolderPath",
+                    mediaStoreVersion = "otherVersion",
+                    generation = 5L,
+                    timestamp = 500L,
+                )
+            ),
+            Arguments.of(
+                MediaStoreScanWatermark(
+                    parentPath = "primaryFolderPath",
+                    mediaStoreVersion = "version",
+                    generation = 50L,
+                    timestamp = 500L,
+                )
+            ),
+        )
+
         @JvmStatic
         fun provideAllMediaStoreFileTypeParameters(): Stream<Arguments> =
             Stream.of(
@@ -2,6 +2,8 @@ package mega.privacy.android.domain.usecase.camerauploads
 
 import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.asFlow
+import kotlinx.coroutines.flow.toList
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.domain.entity.SyncRecordType
@@ -250,6 +252,25 @@ class RenameCameraUploadsRecordsUseCaseTest {
         assertThat(actual).isEqualTo(expected)
     }
 
+    @ParameterizedTest(name = "when folder type is {0}")
+    @MethodSource("provideFolderTypeParameters")
+    fun `test that the records emitted by a flow are renamed in order`(
+        folderType: CameraUploadFolderType,
+    ) = runTest {
+        val recordList = getRecordList(folderType)
+
+        whenever(areUploadFileNamesKeptUseCase()).thenReturn(true)
+
+        val renamedList = underTest(
+            recordList.asFlow(),
+            primaryUploadNodeId,
+            secondaryUploadNodeId,
+        ).toList()
+
+        assertThat(renamedList.map { it.mediaId }).isEqualTo(recordList.map { it.mediaId })
+        assertThat(renamedList.map { it.fileName }).isEqualTo(listOf("picture.jpg", "picture_1.jpg"))
+    }
+
     private fun provideFolderTypeParameters(): Stream<Arguments> =
         Stream.of(
             Arguments.of(CameraUploadFolderType.Primary),
@@ -7,7 +7,9 @@ import mega.privacy.android.domain.entity.MediaStoreFileType
 import mega.privacy.android.domain.entity.SyncRecordType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaFailure
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
+import mega.privacy.android.domain.entity.camerauploads.MediaStoreScanWatermark
 import mega.privacy.android.domain.repository.CameraUploadRepository
 import mega.privacy.android.domain.usecase.camerauploads.mapper.CameraUploadsRecordMapper
 import org.junit.jupiter.api.BeforeAll
@@ -107,12 +109,12 @@ class RetrieveMediaFromMediaStoreUseCaseTest {
 
             val expected = cameraUploadsRecordList1 + cameraUploadsRecordList2
 
-            assertThat(underTest(parentPath, types, folderType, fileType, tempRoot))
+            assertThat(underTest(parentPath, types, folderType, fileType, tempRoot, emptyMap()).records)
                 .isEqualTo(expected)
         }
 
     @Test
-    fun `test that if an error is thrown when mapping, the record is omitted in the result returned`() =
+    fun `test that if an error is thrown when mapping, the media is returned as a failure`() =
         runTest {
             val parentPath = ""
             val mediaStoreFileType1 = mock<MediaStoreFileType>()
@@ -169,8 +171,43 @@ class RetrieveMediaFromMediaStoreUseCaseTest {
 
             whenever(cameraUploadRepository.getAllCameraUploadsRecords()).thenReturn(emptyList())
 
-            assertThat(underTest(parentPath, types, folderType, fileType, tempRoot))
-                .isEqualTo(cameraUploadsRecordList1)
+            val actual = underTest(parentPath, types, folderType, fileType, tempRoot, emptyMap())
+            assertThat(actual.records).isEqualTo(cameraUploadsRecordList1)
+            assertThat(actual.failures.map { it.media }).isEqualTo(cameraUploadsMediaList2)
+            assertThat(actual.failures.map { it.mediaStoreFileType })
+                .containsExactly(mediaStoreFileType2)
+        }
+
+    @Test
+    fun `test that a media that cannot be fingerprinted is returned as a failure`() =
+        runTest {
+            val parentPath = ""
+            val mediaStoreFileType1 = mock<MediaStoreFileType>()
+            val folderType = mock<CameraUploadFolderType>()
+            val fileType = mock<SyncRecordType>()
+            val tempRoot = "tempRoot"
+            val selectionQuery = "selectionQuery"
+            val media = mock<CameraUploadsMedia>()
+            whenever(cameraUploadRepository.getMediaSelectionQuery(parentPath))
+                .thenReturn(selectionQuery)
+            whenever(cameraUploadRepository.getMediaList(mediaStoreFileType1, selectionQuery))
+                .thenReturn(listOf(media))
+            whenever(cameraUploadsRecordMapper(media, folderType, fileType, tempRoot))
+                .thenReturn(null)
+            whenever(cameraUploadRepository.getAllCameraUploadsRecords()).thenReturn(emptyList())
+
+            val actual = underTest(
+                parentPath,
+                listOf(mediaStoreFileType1),
+                folderType,
+                fileType,
+                tempRoot,
+                emptyMap(),
+            )
+
+            assertThat(actual.records).isEmpty()
+            assertThat(actual.failures)
+                .containsExactly(CameraUploadsMediaFailure(media, mediaStoreFileType1, null))
         }
 
     @Test
@@ -218,7 +255,53 @@ class RetrieveMediaFromMediaStoreUseCaseTest {
             val expected =
                 cameraUploadsRecordList1.filterNot { it.mediaId == 1111L && it.timestamp == 1234L }
 
-            assertThat(underTest(parentPath, types, folderType, fileType, tempRoot))
+            assertThat(underTest(parentPath, types, folderType, fileType, tempRoot, emptyMap()).records)
                 .isEqualTo(expected)
         }
+
+    @Test
+    fun `test that only the media changed since the watermark are retrieved when a watermark is provided`() =
+        runTest {
+            val parentPath = "parentPath"
+            val mediaStoreFileType1 = mock<MediaStoreFileType>()
+            val mediaStoreFileType2 = mock<MediaStoreFileType>()
+            val types = listOf(mediaStoreFileType1, mediaStoreFileType2)
+            val folderType = mock<CameraUploadFolderType>()
+            val fileType = mock<SyncRecordType>()
+            val tempRoot = "tempRoot"
+            val selectionQuery = "selectionQuery"
+            val incrementalSelectionQuery = "incrementalSelectionQuery"
+            val watermark = mock<MediaStoreScanWatermark>()
+
+            val media1 = mock<CameraUploadsMedia>()
+            val media2 = mock<CameraUploadsMedia>()
+            val record1 = mock<CameraUploadsRecord>()
+            val record2 = mock<CameraUploadsRecord>()
+            whenever(cameraUploadRepository.getMediaSelectionQuery(parentPath))
+                .thenReturn(selectionQuery)
+            whenever(cameraUploadRepository.getIncrementalMediaSelectionQuery(parentPath, watermark))
+                .thenReturn(incrementalSelectionQuery)
+            whenever(
+                cameraUploadRepository.getMediaList(mediaStoreFileType1, incrementalSelectionQuery)
+            ).thenReturn(listOf(media1))
+            whenever(
+                cameraUploadRepository.getMediaList(mediaStoreFileType2, selectionQuery)
+            ).thenReturn(listOf(media2))
+            whenever(cameraUploadsRecordMapper(media1, folderType, fileType, tempRoot))
+                .thenReturn(record1)
+            whenever(cameraUploadsRecordMapper(media2, folderType, fileType, tempRoot))
+                .thenReturn(record2)
+            whenever(cameraUploadRepository.getAllCameraUploadsRecords()).thenReturn(emptyList())
+
+            assertThat(
+                underTest(
+                    parentPath,
+                    types,
+                    folderType,
+                    fileType,
+                    tempRoot,
+                    mapOf(mediaStoreFileType1 to watermark),
+                ).records
+            ).isEqualTo(listOf(record1, record2))
+        }
 }
@@ -420,6 +420,36 @@ class UploadCameraUploadsRecordsUseCaseTest {
             )
         }
 
+        @ParameterizedTest(name = "when folder type is {0}")
+        @MethodSource("provideParameters")
+        fun `test that a record emitted by a flow is uploaded`(
+            cameraUploadFolderType: CameraUploadFolderType,
+        ) = runTest {
+            setInput(cameraUploadFolderType)
+            whenever(fileSystemRepository.doesFileExist(record.tempFilePath)).thenReturn(false)
+            whenever(fileSystemRepository.doesFileExist(record.filePath)).thenReturn(true)
+            mockStartUploadUseCase(record.filePath)
+            whenever(deleteThumbnailUseCase(transferFinished.nodeHandle)).thenReturn(true)
+            whenever(deletePreviewUseCase(transferFinished.nodeHandle)).thenReturn(true)
+
+            underTest(
+                flowOf(record),
+                primaryUploadNodeId,
+                secondaryUploadNodeId,
+                tempRoot,
+            ).collect()
+
+            verify(startUploadUseCase).invoke(
+                localPath = record.filePath,
+                parentNodeId = uploadNodeId,
+                fileName = record.fileName,
+                modificationTime = record.timestamp / 1000,
+                appData = TransferType.CU_UPLOAD.name,
+                isSourceTemporary = false,
+                shouldStartFirst = false,
+            )
+        }
+
         @ParameterizedTest(name = "when folder type is {0}")
         @MethodSource("provideParameters")
         fun `test that if record is uploaded and the generated fingerprint exists then the generated fingerprint is set`(
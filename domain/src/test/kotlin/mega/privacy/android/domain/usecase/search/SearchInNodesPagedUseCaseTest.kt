@@ -0,0 +1,63 @@
+package mega.privacy.android.domain.usecase.search
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.entity.SortOrder
+import mega.privacy.android.domain.entity.node.FolderNode
+import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.node.TypedFolderNode
+import mega.privacy.android.domain.entity.search.SearchCategory
+import mega.privacy.android.domain.repository.SearchRepository
+import mega.privacy.android.domain.usecase.AddNodeType
+import mega.privacy.android.domain.usecase.GetCloudSortOrder
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.stub
+import org.mockito.kotlin.whenever
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class SearchInNodesPagedUseCaseTest {
+    private val addNodeType: AddNodeType = mock()
+    private val searchRepository: SearchRepository = mock()
+    private val getCloudSortOrder: GetCloudSortOrder = mock()
+
+    private val underTest = SearchInNodesPagedUseCase(
+        addNodeType = addNodeType,
+        searchRepository = searchRepository,
+        getCloudSortOrder = getCloudSortOrder
+    )
+
+    @Test
+    fun `test that every page of the search is returned as typed nodes`() = runTest {
+        val query = "Any query"
+        val parentNodeId = NodeId(111L)
+        val folderNodes = List(3) { mock<FolderNode>() }
+        val typedFolderNodes = List(3) { mock<TypedFolderNode>() }
+        folderNodes.forEachIndexed { index, node ->
+            whenever(addNodeType(node)).thenReturn(typedFolderNodes[index])
+        }
+        getCloudSortOrder.stub { onBlocking { invoke() }.thenReturn(SortOrder.ORDER_DEFAULT_ASC) }
+        whenever(
+            searchRepository.searchPaged(
+                nodeId = parentNodeId,
+                searchCategory = SearchCategory.ALL,
+                query = query,
+                order = SortOrder.ORDER_DEFAULT_ASC,
+                pageSize = 2
+            )
+        ).thenReturn(flowOf(folderNodes.take(2), folderNodes.drop(2)))
+
+        val actual = underTest(
+            nodeId = parentNodeId,
+            searchCategory = SearchCategory.ALL,
+            query = query,
+            pageSize = 2
+        ).toList()
+
+        assertThat(actual).containsExactly(typedFolderNodes.take(2), typedFolderNodes.drop(2))
+            .inOrder()
+    }
+}
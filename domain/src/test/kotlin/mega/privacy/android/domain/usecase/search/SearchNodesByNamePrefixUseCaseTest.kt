@@ -0,0 +1,58 @@
+package mega.privacy.android.domain.usecase.search
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.entity.SortOrder
+import mega.privacy.android.domain.entity.node.FileNode
+import mega.privacy.android.domain.entity.node.TypedFileNode
+import mega.privacy.android.domain.entity.search.SearchCategory
+import mega.privacy.android.domain.repository.SearchRepository
+import mega.privacy.android.domain.usecase.AddNodeType
+import mega.privacy.android.domain.usecase.GetCloudSortOrder
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.stub
+import org.mockito.kotlin.whenever
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class SearchNodesByNamePrefixUseCaseTest {
+    private val addNodeType: AddNodeType = mock()
+    private val searchRepository: SearchRepository = mock()
+    private val getCloudSortOrder: GetCloudSortOrder = mock()
+
+    private val underTest = SearchNodesByNamePrefixUseCase(
+        addNodeType = addNodeType,
+        searchRepository = searchRepository,
+        getCloudSortOrder = getCloudSortOrder
+    )
+
+    @Test
+    fun `test that the nodes found with the cloud sort order are returned as typed nodes`() =
+        runTest {
+            val fileNode = mock<FileNode>()
+            val typedFileNode = mock<TypedFileNode>()
+            whenever(addNodeType(fileNode)).thenReturn(typedFileNode)
+            getCloudSortOrder.stub {
+                onBlocking { invoke() }.thenReturn(SortOrder.ORDER_MODIFICATION_DESC)
+            }
+            searchRepository.stub {
+                onBlocking {
+                    searchByNamePrefix(
+                        query = "holi",
+                        searchCategory = SearchCategory.IMAGES,
+                        modificationTimeRange = 10L..20L,
+                        order = SortOrder.ORDER_MODIFICATION_DESC,
+                    )
+                }.thenReturn(listOf(fileNode))
+            }
+
+            val actual = underTest(
+                query = "holi",
+                searchCategory = SearchCategory.IMAGES,
+                modificationTimeRange = 10L..20L,
+            )
+
+            assertThat(actual).containsExactly(typedFileNode)
+        }
+}
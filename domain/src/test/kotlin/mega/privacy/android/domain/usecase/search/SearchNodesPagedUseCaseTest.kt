@@ -0,0 +1,155 @@
+package mega.privacy.android.domain.usecase.search
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.entity.SortOrder
+import mega.privacy.android.domain.entity.node.FolderNode
+import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.node.TypedFolderNode
+import mega.privacy.android.domain.entity.search.SearchCategory
+import mega.privacy.android.domain.entity.search.SearchType
+import mega.privacy.android.domain.repository.NodeRepository
+import mega.privacy.android.domain.repository.SearchRepository
+import mega.privacy.android.domain.usecase.AddNodeType
+import mega.privacy.android.domain.usecase.GetBackupsNodeUseCase
+import mega.privacy.android.domain.usecase.GetCloudSortOrder
+import mega.privacy.android.domain.usecase.GetRootNodeUseCase
+import mega.privacy.android.domain.usecase.GetRubbishNodeUseCase
+import mega.privacy.android.domain.usecase.node.GetNodeByHandleUseCase
+import mega.privacy.android.domain.usecase.node.GetTypedChildrenNodeUseCase
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.EnumSource
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.whenever
+
+@OptIn(ExperimentalCoroutinesApi::class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SearchNodesPagedUseCaseTest {
+    private val searchInNodesPagedUseCase = mock<SearchInNodesPagedUseCase>()
+    private val searchRepository = mock<SearchRepository>()
+    private val addNodeType = mock<AddNodeType>()
+    private val getRootNodeUseCase = mock<GetRootNodeUseCase>()
+    private val getNodeByHandleUseCase = mock<GetNodeByHandleUseCase>()
+    private val getRubbishNodeUseCase = mock<GetRubbishNodeUseCase>()
+    private val getBackupsNodeUseCase = mock<GetBackupsNodeUseCase>()
+    private val getTypedChildrenNodeUseCase = mock<GetTypedChildrenNodeUseCase>()
+    private val getCloudSortOrder = mock<GetCloudSortOrder>()
+    private val nodeRepository = mock<NodeRepository>()
+    private val folderNodes = List(3) { mock<FolderNode>() }
+    private val typedFolderNodes = List(3) { mock<TypedFolderNode>() }
+    private val pageSize = 2
+
+    private val underTest = SearchNodesPagedUseCase(
+        searchInNodesPagedUseCase = searchInNodesPagedUseCase,
+        searchRepository = searchRepository,
+        addNodeType = addNodeType,
+        getRootNodeUseCase = getRootNodeUseCase,
+        getNodeByHandleUseCase = getNodeByHandleUseCase,
+        getRubbishNodeUseCase = getRubbishNodeUseCase,
+        getBackupsNodeUseCase = getBackupsNodeUseCase,
+        getTypedChildrenNodeUseCase = getTypedChildrenNodeUseCase,
+        getCloudSortOrder = getCloudSortOrder,
+        nodeRepository = nodeRepository,
+    )
+
+    @BeforeEach
+    fun resetMock() = runTest {
+        reset(
+            searchInNodesPagedUseCase,
+            searchRepository,
+            addNodeType,
+            getRootNodeUseCase,
+            getNodeByHandleUseCase,
+            getRubbishNodeUseCase,
+            getBackupsNodeUseCase,
+            getTypedChildrenNodeUseCase,
+            getCloudSortOrder,
+            nodeRepository
+        )
+        whenever(nodeRepository.getInvalidHandle()).thenReturn(-1L)
+        whenever(getCloudSortOrder()).thenReturn(SortOrder.ORDER_DEFAULT_ASC)
+        folderNodes.forEachIndexed { index, node ->
+            whenever(addNodeType(node)).thenReturn(typedFolderNodes[index])
+        }
+    }
+
+    @ParameterizedTest(name = "test that when search type is {0} every page of the search is returned")
+    @EnumSource(SearchType::class)
+    fun `test that every page of the search is returned for given search type`(
+        searchType: SearchType,
+    ) = runTest {
+        val query = "query"
+        val parentHandle = -1L
+        val parentNode = mock<TypedFolderNode> {
+            on { id }.thenReturn(NodeId(1L))
+        }
+        val pages = flowOf(folderNodes.take(pageSize), folderNodes.drop(pageSize))
+        val typedPages = flowOf(typedFolderNodes.take(pageSize), typedFolderNodes.drop(pageSize))
+        whenever(getRootNodeUseCase()).thenReturn(parentNode)
+        whenever(getRubbishNodeUseCase()).thenReturn(parentNode)
+        whenever(getBackupsNodeUseCase()).thenReturn(parentNode)
+        whenever(searchRepository.searchInSharesPaged(query, SortOrder.ORDER_DEFAULT_ASC, pageSize))
+            .thenReturn(pages)
+        whenever(searchRepository.searchOutSharesPaged(query, SortOrder.ORDER_DEFAULT_ASC, pageSize))
+            .thenReturn(pages)
+        whenever(
+            searchRepository.searchLinkSharesPaged(
+                query = query,
+                order = SortOrder.ORDER_DEFAULT_ASC,
+                isFirstLevelNavigation = false,
+                pageSize = pageSize
+            )
+        ).thenReturn(pages)
+        whenever(
+            searchInNodesPagedUseCase(
+                nodeId = any(),
+                searchCategory = any(),
+                query = any(),
+                pageSize = any()
+            )
+        ).thenReturn(typedPages)
+
+        val actual = underTest(
+            query = query,
+            parentHandle = parentHandle,
+            searchType = searchType,
+            isFirstLevel = false,
+            pageSize = pageSize
+        ).toList()
+
+        assertThat(actual).containsExactly(
+            typedFolderNodes.take(pageSize),
+            typedFolderNodes.drop(pageSize)
+        ).inOrder()
+    }
+
+    @Test
+    fun `test that the children are returned in a single page when the query is empty`() =
+        runTest {
+            val parentHandle = 12345L
+            whenever(
+                getTypedChildrenNodeUseCase(
+                    parentNodeId = NodeId(parentHandle),
+                    order = SortOrder.ORDER_DEFAULT_ASC
+                )
+            ).thenReturn(typedFolderNodes)
+
+            val actual = underTest(
+                query = "",
+                parentHandle = parentHandle,
+                searchType = SearchType.OTHER,
+                isFirstLevel = false,
+                searchCategory = SearchCategory.ALL
+            ).toList()
+
+            assertThat(actual).containsExactly(typedFolderNodes)
+        }
+}
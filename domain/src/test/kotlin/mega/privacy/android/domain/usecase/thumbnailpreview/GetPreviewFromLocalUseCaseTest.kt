@@ -0,0 +1,43 @@
+package mega.privacy.android.domain.usecase.thumbnailpreview
+
+import com.google.common.truth.Truth
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.repository.thumbnailpreview.ThumbnailPreviewRepository
+import org.junit.Before
+import org.junit.Test
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.verifyNoMoreInteractions
+import org.mockito.kotlin.whenever
+import java.io.File
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class GetPreviewFromLocalUseCaseTest {
+    private lateinit var underTest: GetPreviewFromLocalUseCase
+    private val thumbnailPreviewRepository = mock<ThumbnailPreviewRepository>()
+
+    @Before
+    fun setUp() {
+        underTest = GetPreviewFromLocalUseCase(
+            thumbnailPreviewRepository = thumbnailPreviewRepository,
+        )
+    }
+
+    @Test
+    fun `test that the local preview is returned`() = runTest {
+        val expected = mock<File>()
+        whenever(thumbnailPreviewRepository.getPreviewFromLocal(1L)).thenReturn(expected)
+
+        Truth.assertThat(underTest(1L)).isEqualTo(expected)
+    }
+
+    @Test
+    fun `test that the server is not asked when the preview is not in the cache`() = runTest {
+        whenever(thumbnailPreviewRepository.getPreviewFromLocal(1L)).thenReturn(null)
+
+        Truth.assertThat(underTest(1L)).isNull()
+        verify(thumbnailPreviewRepository).getPreviewFromLocal(1L)
+        verifyNoMoreInteractions(thumbnailPreviewRepository)
+    }
+}
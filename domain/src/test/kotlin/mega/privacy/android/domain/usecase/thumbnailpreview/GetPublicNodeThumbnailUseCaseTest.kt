@@ -42,7 +42,7 @@ class GetPublicNodeThumbnailUseCaseTest {
             whenever(thumbnailPreviewRepository.getPublicNodeThumbnailFromLocal(any())).thenReturn(
                 null
             )
-            whenever(thumbnailPreviewRepository.getPublicNodeThumbnailFromServer(any())).thenReturn(
+            whenever(thumbnailPreviewRepository.getPublicNodeThumbnailFromServer(any(), any())).thenReturn(
                 expected
             )
 
@@ -55,7 +55,7 @@ class GetPublicNodeThumbnailUseCaseTest {
             whenever(thumbnailPreviewRepository.getPublicNodeThumbnailFromLocal(any())).thenReturn(
                 null
             )
-            whenever(thumbnailPreviewRepository.getPublicNodeThumbnailFromServer(any()))
+            whenever(thumbnailPreviewRepository.getPublicNodeThumbnailFromServer(any(), any()))
                 .thenThrow(MegaException(0, null))
 
             Truth.assertThat(underTest.invoke(any())).isEqualTo(null)
@@ -0,0 +1,52 @@
+package mega.privacy.android.domain.usecase.thumbnailpreview
+
+import com.google.common.truth.Truth
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.repository.thumbnailpreview.ThumbnailPreviewRepository
+import org.junit.Before
+import org.junit.Test
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.verifyNoMoreInteractions
+import org.mockito.kotlin.whenever
+import java.io.File
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class GetThumbnailFromLocalUseCaseTest {
+    private lateinit var underTest: GetThumbnailFromLocalUseCase
+    private val thumbnailPreviewRepository = mock<ThumbnailPreviewRepository>()
+
+    @Before
+    fun setUp() {
+        underTest = GetThumbnailFromLocalUseCase(
+            thumbnailPreviewRepository = thumbnailPreviewRepository,
+        )
+    }
+
+    @Test
+    fun `test that the local thumbnail of a node is returned`() = runTest {
+        val expected = mock<File>()
+        whenever(thumbnailPreviewRepository.getThumbnailFromLocal(1L)).thenReturn(expected)
+
+        Truth.assertThat(underTest(1L)).isEqualTo(expected)
+    }
+
+    @Test
+    fun `test that the local thumbnail of a public node is returned`() = runTest {
+        val expected = mock<File>()
+        whenever(thumbnailPreviewRepository.getPublicNodeThumbnailFromLocal(1L))
+            .thenReturn(expected)
+
+        Truth.assertThat(underTest(1L, isPublicNode = true)).isEqualTo(expected)
+    }
+
+    @Test
+    fun `test that the server is not asked when the thumbnail is not in the cache`() = runTest {
+        whenever(thumbnailPreviewRepository.getThumbnailFromLocal(1L)).thenReturn(null)
+
+        Truth.assertThat(underTest(1L)).isNull()
+        verify(thumbnailPreviewRepository).getThumbnailFromLocal(1L)
+        verifyNoMoreInteractions(thumbnailPreviewRepository)
+    }
+}
@@ -0,0 +1,54 @@
+package mega.privacy.android.domain.usecase.thumbnailpreview
+
+import com.google.common.truth.Truth
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.repository.thumbnailpreview.ThumbnailPreviewRepository
+import org.junit.Before
+import org.junit.Test
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+import java.io.File
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class GetThumbnailFromServerUseCaseTest {
+    private lateinit var underTest: GetThumbnailFromServerUseCase
+    private val thumbnailPreviewRepository = mock<ThumbnailPreviewRepository>()
+
+    @Before
+    fun setUp() {
+        underTest = GetThumbnailFromServerUseCase(
+            thumbnailPreviewRepository = thumbnailPreviewRepository,
+        )
+    }
+
+    @Test
+    fun `test that the thumbnail of a node is downloaded without looking in the cache`() =
+        runTest {
+            val expected = mock<File>()
+            whenever(thumbnailPreviewRepository.getThumbnailFromServer(1L)).thenReturn(expected)
+
+            Truth.assertThat(underTest(1L)).isEqualTo(expected)
+            verify(thumbnailPreviewRepository, never()).getThumbnailFromLocal(1L)
+        }
+
+    @Test
+    fun `test that the thumbnail of a public node is downloaded`() = runTest {
+        val expected = mock<File>()
+        whenever(thumbnailPreviewRepository.getPublicNodeThumbnailFromServer(1L))
+            .thenReturn(expected)
+
+        Truth.assertThat(underTest(1L, isPublicNode = true)).isEqualTo(expected)
+    }
+
+    @Test
+    fun `test that the prefetched thumbnail is downloaded as prefetch`() = runTest {
+        val expected = mock<File>()
+        whenever(thumbnailPreviewRepository.getThumbnailFromServer(1L, isPrefetch = true))
+            .thenReturn(expected)
+
+        Truth.assertThat(underTest(1L, isPrefetch = true)).isEqualTo(expected)
+    }
+}
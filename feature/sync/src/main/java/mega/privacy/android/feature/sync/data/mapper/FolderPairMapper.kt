@@ -2,6 +2,7 @@ package mega.privacy.android.feature.sync.data.mapper
 
 import mega.privacy.android.feature.sync.domain.entity.FolderPair
 import mega.privacy.android.feature.sync.domain.entity.RemoteFolder
+import mega.privacy.android.feature.sync.domain.entity.SyncStatus
 import nz.mega.sdk.MegaSync
 import nz.mega.sdk.MegaSyncStats
 import javax.inject.Inject
@@ -25,4 +26,22 @@ internal class FolderPairMapper @Inject constructor(
             remoteFolder = RemoteFolder(model.megaHandle, megaFolderName),
             syncStatus = mapSyncStatus(syncStats, model.runState)
         )
+
+    /**
+     * Updates the status of a folder pair with new sync stats, a paused pair stays paused
+     */
+    operator fun invoke(
+        folderPair: FolderPair,
+        syncStats: MegaSyncStats,
+    ): FolderPair =
+        if (folderPair.syncStatus == SyncStatus.PAUSED) {
+            folderPair
+        } else {
+            folderPair.copy(
+                syncStatus = mapSyncStatus(
+                    syncStats,
+                    MegaSync.SyncRunningState.RUNSTATE_RUNNING.swigValue()
+                )
+            )
+        }
 }
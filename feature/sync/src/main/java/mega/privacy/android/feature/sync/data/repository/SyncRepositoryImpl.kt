@@ -2,15 +2,21 @@ package mega.privacy.android.feature.sync.data.repository
 
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.FlowPreview
 import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.SharingStarted
 import kotlinx.coroutines.flow.distinctUntilChanged
 import kotlinx.coroutines.flow.filter
+import kotlinx.coroutines.flow.filterIsInstance
+import kotlinx.coroutines.flow.filterNot
+import kotlinx.coroutines.flow.filterNotNull
 import kotlinx.coroutines.flow.flowOn
 import kotlinx.coroutines.flow.map
 import kotlinx.coroutines.flow.merge
 import kotlinx.coroutines.flow.onEach
 import kotlinx.coroutines.flow.onStart
+import kotlinx.coroutines.flow.sample
+import kotlinx.coroutines.flow.scan
 import kotlinx.coroutines.flow.shareIn
 import kotlinx.coroutines.withContext
 import mega.privacy.android.data.gateway.api.MegaApiGateway
@@ -26,6 +32,7 @@ import mega.privacy.android.feature.sync.domain.entity.FolderPair
 import mega.privacy.android.feature.sync.domain.entity.StalledIssue
 import mega.privacy.android.feature.sync.domain.repository.SyncRepository
 import nz.mega.sdk.MegaSyncList
+import nz.mega.sdk.MegaSyncStats
 import javax.inject.Inject
 
 internal class SyncRepositoryImpl @Inject constructor(
@@ -97,8 +104,19 @@ internal class SyncRepositoryImpl @Inject constructor(
         syncGateway.getSyncStalledIssues()?.let { stalledIssuesMapper(it) }.orEmpty()
     }
 
-    private val _syncStalledIssues by lazy {
+    /**
+     * Sync events that can change the folder pairs or the stalled issues, unlike the frequent
+     * stats updates. They are sampled so that a burst of them only reloads once.
+     */
+    @OptIn(FlowPreview::class)
+    private val stateChanges by lazy {
         _syncChanges
+            .filterNot { it is MegaSyncListenerEvent.OnSyncStatsUpdated }
+            .sample(RELOAD_SAMPLE_PERIOD_MILLIS)
+    }
+
+    private val _syncStalledIssues by lazy {
+        stateChanges
             .map { getSyncStalledIssues() }
             .onStart { emit(getSyncStalledIssues()) }
             .distinctUntilChanged()
@@ -109,13 +127,53 @@ internal class SyncRepositoryImpl @Inject constructor(
     override fun monitorStalledIssues() = _syncStalledIssues
 
     private val _folderPair by lazy {
-        _syncChanges
-            .map { getFolderPairs() }
-            .onStart { emit(getFolderPairs()) }
+        merge(
+            stateChanges
+                .map { FolderPairsUpdate.Reloaded(getFolderPairs()) }
+                .onStart { emit(FolderPairsUpdate.Reloaded(getFolderPairs())) },
+            _syncChanges
+                .filterIsInstance<MegaSyncListenerEvent.OnSyncStatsUpdated>()
+                .map { FolderPairsUpdate.StatsUpdated(it.syncStats) },
+        ).scan(null as List<FolderPair>?) { folderPairs, update ->
+            when (update) {
+                is FolderPairsUpdate.Reloaded -> folderPairs.reuseUnchanged(update.folderPairs)
+                is FolderPairsUpdate.StatsUpdated -> folderPairs?.patch(update.syncStats)
+            }
+        }.filterNotNull()
             .distinctUntilChanged()
             .flowOn(ioDispatcher)
             .shareIn(appScope, SharingStarted.Eagerly, replay = 1)
     }
 
     override fun monitorFolderPairChanges() = _folderPair
-}
\ No newline at end of file
+
+    /**
+     * Keeps the previous instance of every folder pair that did not change, so that only the
+     * changed pairs are new to the collectors
+     */
+    private fun List<FolderPair>?.reuseUnchanged(reloaded: List<FolderPair>): List<FolderPair> {
+        val previous = this?.associateBy { it.id } ?: return reloaded
+        return reloaded.map { folderPair ->
+            previous[folderPair.id]?.takeIf { it == folderPair } ?: folderPair
+        }
+    }
+
+    /**
+     * Updates the status of the folder pair the stats belong to, without reloading the others
+     */
+    private fun List<FolderPair>.patch(syncStats: MegaSyncStats): List<FolderPair> {
+        val index = indexOfFirst { it.id == syncStats.backupId }
+        if (index == -1) return this
+        val patched = folderPairMapper(this[index], syncStats)
+        return if (patched == this[index]) this else toMutableList().apply { set(index, patched) }
+    }
+
+    private sealed interface FolderPairsUpdate {
+        data class Reloaded(val folderPairs: List<FolderPair>) : FolderPairsUpdate
+        data class StatsUpdated(val syncStats: MegaSyncStats) : FolderPairsUpdate
+    }
+
+    companion object {
+        private const val RELOAD_SAMPLE_PERIOD_MILLIS = 500L
+    }
+}
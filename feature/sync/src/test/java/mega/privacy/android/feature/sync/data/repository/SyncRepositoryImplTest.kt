@@ -1,10 +1,14 @@
 package mega.privacy.android.feature.sync.data.repository
 
+import app.cash.turbine.test
+import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.flow.MutableSharedFlow
 import kotlinx.coroutines.test.TestCoroutineScheduler
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.advanceTimeBy
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.resetMain
 import kotlinx.coroutines.test.runTest
@@ -17,7 +21,10 @@ import mega.privacy.android.feature.sync.data.mapper.StalledIssueTypeMapper
 import mega.privacy.android.feature.sync.data.mapper.StalledIssuesMapper
 import mega.privacy.android.feature.sync.data.mapper.SyncStatusMapper
 import mega.privacy.android.feature.sync.data.model.MegaSyncListenerEvent
+import mega.privacy.android.feature.sync.domain.entity.SyncStatus
+import nz.mega.sdk.MegaSync
 import nz.mega.sdk.MegaSyncList
+import nz.mega.sdk.MegaSyncStats
 import org.junit.jupiter.api.AfterAll
 import org.junit.jupiter.api.BeforeAll
 import org.junit.jupiter.api.BeforeEach
@@ -25,6 +32,7 @@ import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.reset
+import org.mockito.kotlin.times
 import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 
@@ -110,9 +118,103 @@ class SyncRepositoryImplTest {
         verify(syncGateway).getSyncStalledIssues()
     }
 
+    @Test
+    fun `test that a stats update only patches the folder pair it belongs to`() = runTest {
+        val repository = createRepository(this)
+        stubFolderPairs(createMegaSync(1), createMegaSync(2))
+        val syncStats = mock<MegaSyncStats> {
+            on { backupId }.thenReturn(1)
+            on { isSyncing }.thenReturn(true)
+        }
+
+        repository.monitorFolderPairChanges().test {
+            val loaded = awaitItem()
+            assertThat(loaded.map { it.syncStatus }).containsExactly(SyncStatus.SYNCED, SyncStatus.SYNCED)
+
+            fakeSyncUpdatesFlow.emit(MegaSyncListenerEvent.OnSyncStatsUpdated(syncStats))
+
+            val patched = awaitItem()
+            assertThat(patched[0].syncStatus).isEqualTo(SyncStatus.SYNCING)
+            assertThat(patched[1]).isSameInstanceAs(loaded[1])
+        }
+        verify(syncGateway, times(1)).getFolderPairs()
+    }
+
+    @Test
+    fun `test that a burst of state changes reloads the folder pairs once`() = runTest {
+        val repository = createRepository(this)
+        val megaSync = createMegaSync(1)
+        stubFolderPairs(megaSync)
+
+        repository.monitorFolderPairChanges().test {
+            awaitItem()
+            whenever(megaSync.runState)
+                .thenReturn(MegaSync.SyncRunningState.RUNSTATE_SUSPENDED.swigValue())
+
+            repeat(3) { fakeSyncUpdatesFlow.emit(MegaSyncListenerEvent.OnSyncStateChanged(megaSync)) }
+            advanceTimeBy(RELOAD_SAMPLE_PERIOD_MILLIS + 1)
+
+            assertThat(awaitItem().single().syncStatus).isEqualTo(SyncStatus.PAUSED)
+        }
+        verify(syncGateway, times(2)).getFolderPairs()
+    }
+
+    @Test
+    fun `test that reloaded folder pairs that did not change keep their instance`() = runTest {
+        val repository = createRepository(this)
+        val pausedSync = createMegaSync(2)
+        stubFolderPairs(createMegaSync(1), pausedSync)
+
+        repository.monitorFolderPairChanges().test {
+            val loaded = awaitItem()
+            whenever(pausedSync.runState)
+                .thenReturn(MegaSync.SyncRunningState.RUNSTATE_SUSPENDED.swigValue())
+
+            fakeSyncUpdatesFlow.emit(MegaSyncListenerEvent.OnSyncStateChanged(pausedSync))
+            advanceTimeBy(RELOAD_SAMPLE_PERIOD_MILLIS + 1)
+
+            val reloaded = awaitItem()
+            assertThat(reloaded[0]).isSameInstanceAs(loaded[0])
+            assertThat(reloaded[1].syncStatus).isEqualTo(SyncStatus.PAUSED)
+        }
+    }
+
+    private fun createRepository(testScope: TestScope): SyncRepositoryImpl {
+        whenever(syncGateway.syncUpdate).thenReturn(fakeSyncUpdatesFlow)
+        whenever(megaApiGateway.globalUpdates).thenReturn(fakeGlobalUpdatesFlow)
+        return SyncRepositoryImpl(
+            syncGateway = syncGateway,
+            syncStatsCacheGateway = syncStatsCacheGateway,
+            megaApiGateway = megaApiGateway,
+            folderPairMapper = folderPairMapper,
+            stalledIssuesMapper = stalledIssuesMapper,
+            ioDispatcher = UnconfinedTestDispatcher(testScope.testScheduler),
+            appScope = testScope.backgroundScope,
+        )
+    }
+
+    private suspend fun stubFolderPairs(vararg megaSyncs: MegaSync) {
+        val megaSyncList = mock<MegaSyncList> {
+            on { size() }.thenReturn(megaSyncs.size)
+            megaSyncs.forEachIndexed { index, megaSync -> on { get(index) }.thenReturn(megaSync) }
+        }
+        whenever(syncGateway.getFolderPairs()).thenReturn(megaSyncList)
+    }
+
+    private fun createMegaSync(id: Long) = mock<MegaSync> {
+        on { backupId }.thenReturn(id)
+        on { name }.thenReturn("Pair $id")
+        on { localFolder }.thenReturn("/local/$id")
+        on { megaHandle }.thenReturn(id)
+        on { runState }.thenReturn(MegaSync.SyncRunningState.RUNSTATE_RUNNING.swigValue())
+    }
+
     @AfterAll
     fun tearDown() {
         Dispatchers.resetMain()
     }
 
+    private companion object {
+        const val RELOAD_SAMPLE_PERIOD_MILLIS = 500L
+    }
 }
\ No newline at end of file
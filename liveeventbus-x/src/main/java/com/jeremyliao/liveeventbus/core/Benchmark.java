@@ -0,0 +1,26 @@
+package com.jeremyliao.liveeventbus.core;
+
+import androidx.annotation.WorkerThread;
+
+/**
+ * 派发性能测试
+ */
+public final class Benchmark {
+
+    private Benchmark() {
+    }
+
+    /**
+     * 多个线程同时发送消息，统计每秒派发的消息数和每个消息占用的主线程时间
+     * 不能在主线程调用
+     *
+     * @param threadCount     发送消息的线程数
+     * @param eventsPerThread 每个线程发送的消息数
+     * @return 测试结果
+     * @throws InterruptedException 等待派发时被中断
+     */
+    @WorkerThread
+    public static String run(int threadCount, int eventsPerThread) throws InterruptedException {
+        return LiveEventBusCore.get().benchmark.run(threadCount, eventsPerThread);
+    }
+}
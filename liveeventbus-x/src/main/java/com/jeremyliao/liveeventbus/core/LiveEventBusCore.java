@@ -11,6 +11,7 @@ import android.os.Looper;
 import androidx.annotation.MainThread;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
 import androidx.core.content.ContextCompat;
 import androidx.lifecycle.ExternalLiveData;
 import androidx.lifecycle.Lifecycle;
@@ -30,7 +31,14 @@ import com.jeremyliao.liveeventbus.utils.ThreadUtils;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 
 /**
@@ -50,11 +58,22 @@ public final class LiveEventBusCore {
         return SingletonHolder.DEFAULT_BUS;
     }
 
+    /**
+     * 单次批量派发在主线程上的时间预算，超出后剩余的消息在下一个消息循环中派发
+     */
+    private static final long DISPATCH_BATCH_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(4);
+
     /**
      * 存放LiveEvent
      */
     private final Map<String, LiveEvent<Object>> bus;
 
+    /**
+     * 主线程派发
+     */
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final MainThreadDispatcher dispatcher = new MainThreadDispatcher();
+
     /**
      * 可配置的项
      */
@@ -74,10 +93,11 @@ public final class LiveEventBusCore {
      * 调试
      */
     final InnerConsole console = new InnerConsole();
+    final InnerBenchmark benchmark = new InnerBenchmark();
 
     private LiveEventBusCore() {
-        bus = new HashMap<>();
-        observableConfigs = new HashMap<>();
+        bus = new ConcurrentHashMap<>();
+        observableConfigs = new ConcurrentHashMap<>();
         lifecycleObserverAlwaysActive = true;
         autoClear = false;
         logger = new LoggerManager(new DefaultLogger());
@@ -85,11 +105,16 @@ public final class LiveEventBusCore {
         registerReceiver();
     }
 
-    public synchronized <T> Observable<T> with(String key, Class<T> type) {
-        if (!bus.containsKey(key)) {
-            bus.put(key, new LiveEvent<>(key));
+    public <T> Observable<T> with(String key, Class<T> type) {
+        LiveEvent<Object> liveEvent = bus.get(key);
+        if (liveEvent == null) {
+            LiveEvent<Object> newLiveEvent = new LiveEvent<>(key);
+            liveEvent = bus.putIfAbsent(key, newLiveEvent);
+            if (liveEvent == null) {
+                liveEvent = newLiveEvent;
+            }
         }
-        return (Observable<T>) bus.get(key);
+        return (Observable<T>) liveEvent;
     }
 
     /**
@@ -104,10 +129,15 @@ public final class LiveEventBusCore {
     }
 
     public ObservableConfig config(String key) {
-        if (!observableConfigs.containsKey(key)) {
-            observableConfigs.put(key, new ObservableConfig());
+        ObservableConfig observableConfig = observableConfigs.get(key);
+        if (observableConfig == null) {
+            ObservableConfig newObservableConfig = new ObservableConfig();
+            observableConfig = observableConfigs.putIfAbsent(key, newObservableConfig);
+            if (observableConfig == null) {
+                observableConfig = newObservableConfig;
+            }
         }
-        return observableConfigs.get(key);
+        return observableConfig;
     }
 
     void setLogger(@NonNull Logger logger) {
@@ -150,7 +180,6 @@ public final class LiveEventBusCore {
         private final String key;
         private final LifecycleLiveData<T> liveData;
         private final Map<Observer, ObserverWrapper<T>> observerMap = new HashMap<>();
-        private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
         LiveEvent(@NonNull String key) {
             this.key = key;
@@ -159,6 +188,7 @@ public final class LiveEventBusCore {
 
         /**
          * 进程内发送消息
+         * 非主线程发送的消息会合并到同一个主线程消息中批量派发
          *
          * @param value 发送的消息
          */
@@ -167,7 +197,7 @@ public final class LiveEventBusCore {
             if (ThreadUtils.isMainThread()) {
                 postInternal(value);
             } else {
-                mainHandler.post(new PostValueTask(value));
+                dispatcher.enqueue(this, value);
             }
         }
 
@@ -223,7 +253,7 @@ public final class LiveEventBusCore {
          */
         @Override
         public void postOrderly(T value) {
-            mainHandler.post(new PostValueTask(value));
+            dispatcher.enqueue(this, value);
         }
 
         /**
@@ -251,7 +281,7 @@ public final class LiveEventBusCore {
                 if (ThreadUtils.isMainThread()) {
                     broadcastInternal(value, foreground, onlyInApp);
                 } else {
-                    mainHandler.post(new Runnable() {
+                    dispatcher.enqueue(new Runnable() {
                         @Override
                         public void run() {
                             broadcastInternal(value, foreground, onlyInApp);
@@ -274,7 +304,7 @@ public final class LiveEventBusCore {
             if (ThreadUtils.isMainThread()) {
                 observeInternal(owner, observer);
             } else {
-                mainHandler.post(new Runnable() {
+                dispatcher.enqueue(new Runnable() {
                     @Override
                     public void run() {
                         observeInternal(owner, observer);
@@ -295,7 +325,7 @@ public final class LiveEventBusCore {
             if (ThreadUtils.isMainThread()) {
                 observeStickyInternal(owner, observer);
             } else {
-                mainHandler.post(new Runnable() {
+                dispatcher.enqueue(new Runnable() {
                     @Override
                     public void run() {
                         observeStickyInternal(owner, observer);
@@ -314,7 +344,7 @@ public final class LiveEventBusCore {
             if (ThreadUtils.isMainThread()) {
                 observeForeverInternal(observer);
             } else {
-                mainHandler.post(new Runnable() {
+                dispatcher.enqueue(new Runnable() {
                     @Override
                     public void run() {
                         observeForeverInternal(observer);
@@ -334,7 +364,7 @@ public final class LiveEventBusCore {
             if (ThreadUtils.isMainThread()) {
                 observeStickyForeverInternal(observer);
             } else {
-                mainHandler.post(new Runnable() {
+                dispatcher.enqueue(new Runnable() {
                     @Override
                     public void run() {
                         observeStickyForeverInternal(observer);
@@ -353,7 +383,7 @@ public final class LiveEventBusCore {
             if (ThreadUtils.isMainThread()) {
                 removeObserverInternal(observer);
             } else {
-                mainHandler.post(new Runnable() {
+                dispatcher.enqueue(new Runnable() {
                     @Override
                     public void run() {
                         removeObserverInternal(observer);
@@ -364,14 +394,18 @@ public final class LiveEventBusCore {
 
         @MainThread
         private void postInternal(T value) {
-            logger.log(Level.INFO, "post: " + value + " with key: " + key);
+            if (logger.isEnable()) {
+                logger.log(Level.INFO, "post: " + value + " with key: " + key);
+            }
             liveData.setValue(value);
         }
 
         @MainThread
         private void broadcastInternal(T value, boolean foreground, boolean onlyInApp) {
-            logger.log(Level.INFO, "broadcast: " + value + " foreground: " + foreground +
-                    " with key: " + key);
+            if (logger.isEnable()) {
+                logger.log(Level.INFO, "broadcast: " + value + " foreground: " + foreground +
+                        " with key: " + key);
+            }
             Application application = AppUtils.getApp();
             if (application == null) {
                 logger.log(Level.WARNING, "application is null, you can try setContext() when config");
@@ -400,16 +434,20 @@ public final class LiveEventBusCore {
             ObserverWrapper<T> observerWrapper = new ObserverWrapper<>(observer);
             observerWrapper.preventNextEvent = liveData.getVersion() > ExternalLiveData.START_VERSION;
             liveData.observe(owner, observerWrapper);
-            logger.log(Level.INFO, "observe observer: " + observerWrapper + "(" + observer + ")"
-                    + " on owner: " + owner + " with key: " + key);
+            if (logger.isEnable()) {
+                logger.log(Level.INFO, "observe observer: " + observerWrapper + "(" + observer + ")"
+                        + " on owner: " + owner + " with key: " + key);
+            }
         }
 
         @MainThread
         private void observeStickyInternal(@NonNull LifecycleOwner owner, @NonNull Observer<T> observer) {
             ObserverWrapper<T> observerWrapper = new ObserverWrapper<>(observer);
             liveData.observe(owner, observerWrapper);
-            logger.log(Level.INFO, "observe sticky observer: " + observerWrapper + "(" + observer + ")"
-                    + " on owner: " + owner + " with key: " + key);
+            if (logger.isEnable()) {
+                logger.log(Level.INFO, "observe sticky observer: " + observerWrapper + "(" + observer + ")"
+                        + " on owner: " + owner + " with key: " + key);
+            }
         }
 
         @MainThread
@@ -418,8 +456,10 @@ public final class LiveEventBusCore {
             observerWrapper.preventNextEvent = liveData.getVersion() > ExternalLiveData.START_VERSION;
             observerMap.put(observer, observerWrapper);
             liveData.observeForever(observerWrapper);
-            logger.log(Level.INFO, "observe forever observer: " + observerWrapper + "(" + observer + ")"
-                    + " with key: " + key);
+            if (logger.isEnable()) {
+                logger.log(Level.INFO, "observe forever observer: " + observerWrapper + "(" + observer + ")"
+                        + " with key: " + key);
+            }
         }
 
         @MainThread
@@ -427,8 +467,10 @@ public final class LiveEventBusCore {
             ObserverWrapper<T> observerWrapper = new ObserverWrapper<>(observer);
             observerMap.put(observer, observerWrapper);
             liveData.observeForever(observerWrapper);
-            logger.log(Level.INFO, "observe sticky forever observer: " + observerWrapper + "(" + observer + ")"
-                    + " with key: " + key);
+            if (logger.isEnable()) {
+                logger.log(Level.INFO, "observe sticky forever observer: " + observerWrapper + "(" + observer + ")"
+                        + " with key: " + key);
+            }
         }
 
         @MainThread
@@ -461,25 +503,23 @@ public final class LiveEventBusCore {
                 if (autoClear() && !liveData.hasObservers()) {
                     LiveEventBusCore.get().bus.remove(key);
                 }
-                logger.log(Level.INFO, "observer removed: " + observer);
+                if (logger.isEnable()) {
+                    logger.log(Level.INFO, "observer removed: " + observer);
+                }
             }
 
             private boolean lifecycleObserverAlwaysActive() {
-                if (observableConfigs.containsKey(key)) {
-                    ObservableConfig config = observableConfigs.get(key);
-                    if (config.lifecycleObserverAlwaysActive != null) {
-                        return config.lifecycleObserverAlwaysActive;
-                    }
+                ObservableConfig config = observableConfigs.get(key);
+                if (config != null && config.lifecycleObserverAlwaysActive != null) {
+                    return config.lifecycleObserverAlwaysActive;
                 }
                 return lifecycleObserverAlwaysActive;
             }
 
             private boolean autoClear() {
-                if (observableConfigs.containsKey(key)) {
-                    ObservableConfig config = observableConfigs.get(key);
-                    if (config.autoClear != null) {
-                        return config.autoClear;
-                    }
+                ObservableConfig config = observableConfigs.get(key);
+                if (config != null && config.autoClear != null) {
+                    return config.autoClear;
                 }
                 return autoClear;
             }
@@ -534,15 +574,94 @@ public final class LiveEventBusCore {
                 preventNextEvent = false;
                 return;
             }
-            logger.log(Level.INFO, "message received: " + t);
+            if (logger.isEnable()) {
+                logger.log(Level.INFO, "message received: " + t);
+            }
             try {
                 observer.onChanged(t);
             } catch (ClassCastException e) {
-                logger.log(Level.WARNING, "class cast error on message received: " + t, e);
+                if (logger.isEnable()) {
+                    logger.log(Level.WARNING, "class cast error on message received: " + t, e);
+                }
             } catch (Exception e) {
-                logger.log(Level.WARNING, "error on message received: " + t, e);
+                if (logger.isEnable()) {
+                    logger.log(Level.WARNING, "error on message received: " + t, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 非主线程发送的消息以及注册、取消观察者等操作的批量派发
+     * 这些操作先放入同一个无锁队列，每批只向主线程发送一个消息，在其中按入队顺序执行
+     * 一批超出时间预算时，剩余的操作留在队列头部，由下一批接着执行，所以它们之间的顺序不变；
+     * 其他代码向主线程发送的消息可能在两批之间执行
+     */
+    private final class MainThreadDispatcher implements Runnable {
+
+        private final Queue<Runnable> pendingTasks = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+        /**
+         * 派发统计，只在主线程写入
+         */
+        private volatile long dispatchedCount;
+        private volatile long dispatchNanos;
+
+        void enqueue(@NonNull LiveEvent<?> liveEvent, Object value) {
+            enqueue(new PendingPost(liveEvent, value));
+        }
+
+        void enqueue(@NonNull Runnable task) {
+            pendingTasks.offer(task);
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                mainHandler.post(this);
             }
         }
+
+        @Override
+        @MainThread
+        public void run() {
+            scheduled.set(false);
+            long start = System.nanoTime();
+            long deadline = start + DISPATCH_BATCH_BUDGET_NANOS;
+            long now = start;
+            int count = 0;
+            Runnable task;
+            while (now < deadline && (task = pendingTasks.poll()) != null) {
+                task.run();
+                count++;
+                now = System.nanoTime();
+            }
+            dispatchedCount += count;
+            dispatchNanos += now - start;
+            if (!pendingTasks.isEmpty()) {
+                // 超出时间预算，让出主线程，剩余的操作仍按原顺序在下一批执行
+                schedule();
+            }
+        }
+    }
+
+    private static final class PendingPost implements Runnable {
+
+        @NonNull
+        private final LiveEvent<Object> liveEvent;
+        private final Object value;
+
+        PendingPost(@NonNull LiveEvent<?> liveEvent, Object value) {
+            this.liveEvent = (LiveEvent<Object>) liveEvent;
+            this.value = value;
+        }
+
+        @Override
+        @MainThread
+        public void run() {
+            liveEvent.postInternal(value);
+        }
     }
 
     class InnerConsole {
@@ -569,9 +688,9 @@ public final class LiveEventBusCore {
 
         String getBusInfo() {
             StringBuilder sb = new StringBuilder();
-            for (String key : bus.keySet()) {
-                sb.append("Event name: " + key).append("\n");
-                ExternalLiveData liveData = bus.get(key).liveData;
+            for (Map.Entry<String, LiveEvent<Object>> entry : bus.entrySet()) {
+                sb.append("Event name: " + entry.getKey()).append("\n");
+                ExternalLiveData liveData = entry.getValue().liveData;
                 sb.append("\tversion: " + liveData.getVersion()).append("\n");
                 sb.append("\thasActiveObservers: " + liveData.hasActiveObservers()).append("\n");
                 sb.append("\thasObservers: " + liveData.hasObservers()).append("\n");
@@ -618,4 +737,63 @@ public final class LiveEventBusCore {
             }
         }
     }
+
+    class InnerBenchmark {
+
+        private static final String KEY_PREFIX = "LiveEventBus.Benchmark.";
+        private static final long TIMEOUT_SECONDS = 60;
+        private final Object value = new Object();
+
+        /**
+         * 多个线程同时发送消息，统计每秒派发的消息数和每个消息占用的主线程时间
+         * 主线程时间包含测试期间其他非主线程消息的派发
+         */
+        @WorkerThread
+        String run(int threadCount, final int eventsPerThread) throws InterruptedException {
+            if (ThreadUtils.isMainThread()) {
+                throw new IllegalStateException("benchmark can not run on the main thread");
+            }
+            final String key = KEY_PREFIX + System.nanoTime();
+            final int eventCount = threadCount * eventsPerThread;
+            final CountDownLatch received = new CountDownLatch(eventCount);
+            Observer<Object> observer = new Observer<Object>() {
+                @Override
+                public void onChanged(Object o) {
+                    received.countDown();
+                }
+            };
+            with(key, Object.class).observeForever(observer);
+            long dispatchedCount = dispatcher.dispatchedCount;
+            long dispatchNanos = dispatcher.dispatchNanos;
+            long start = System.nanoTime();
+            for (int i = 0; i < threadCount; i++) {
+                new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        Observable<Object> observable = with(key, Object.class);
+                        for (int j = 0; j < eventsPerThread; j++) {
+                            observable.post(value);
+                        }
+                    }
+                }, key + "." + i).start();
+            }
+            boolean completed = received.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            long elapsedNanos = System.nanoTime() - start;
+            long mainThreadNanos = dispatcher.dispatchNanos - dispatchNanos;
+            long dispatched = Math.max(1, dispatcher.dispatchedCount - dispatchedCount);
+            with(key, Object.class).removeObserver(observer);
+            bus.remove(key);
+            long receivedCount = eventCount - received.getCount();
+            StringBuilder sb = new StringBuilder();
+            sb.append("*********Benchmark*********").append("\n")
+                    .append("threads: ").append(threadCount).append("\n")
+                    .append("events: ").append(receivedCount).append("/").append(eventCount)
+                    .append(completed ? "" : " (timeout)").append("\n")
+                    .append("events per second: ").append(String.format(Locale.US, "%.0f",
+                            receivedCount * 1e9 / elapsedNanos)).append("\n")
+                    .append("main thread ns per event: ").append(mainThreadNanos / dispatched)
+                    .append("\n");
+            return sb.toString();
+        }
+    }
 }